@@ -0,0 +1,44 @@
+package com.riyada.apigateway.filter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drops a user's cached responses after any of their requests that may
+ * have changed something succeeds, so e.g. a profile update is visible on
+ * the next read through this instance.
+ */
+@Component
+public class CacheInvalidationFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (userId == null || method == HttpMethod.GET || method == HttpMethod.HEAD
+                || method == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (status != null && status.is2xxSuccessful()) {
+                responseCache.invalidateUser(userId);
+            }
+        }));
+    }
+
+    @Override
+    public int getOrder() {
+        return JwtAuthenticationFilter.ORDER + 1;
+    }
+}
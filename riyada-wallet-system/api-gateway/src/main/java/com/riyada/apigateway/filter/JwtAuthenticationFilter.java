@@ -0,0 +1,134 @@
+package com.riyada.apigateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.apigateway.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the bearer token once at the edge.
+ *
+ * Requests to gateway.auth.public-paths pass without a token. Every other
+ * request needs a valid, unexpired token, or it is answered with 401 here
+ * and never reaches a service. The verified identity is forwarded as
+ * X-User-Id and X-User-Email; the same headers sent by a client are always
+ * stripped first, so services can trust them. The Authorization header is
+ * forwarded unchanged.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+
+    /**
+     * Exchange attribute holding the verified user ID
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
+    public static final int ORDER = -100;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${gateway.auth.public-paths}")
+    private List<String> publicPaths;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(USER_ID_HEADER);
+                    headers.remove(USER_EMAIL_HEADER);
+                })
+                .build();
+
+        String path = request.getPath().value();
+        if (request.getMethod() == HttpMethod.OPTIONS || isPublic(path)) {
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return unauthorized(exchange, "Authorization header is required");
+        }
+
+        Claims claims;
+        String userId;
+        try {
+            claims = jwtConfig.getClaimFromToken(authHeader.substring(7), c -> c);
+            userId = claims.get("userId", String.class);
+            if (userId == null) {
+                return unauthorized(exchange, "Invalid or expired token");
+            }
+        } catch (Exception e) {
+            logger.debug("Rejected token for {}: {}", path, e.getMessage());
+            return unauthorized(exchange, "Invalid or expired token");
+        }
+
+        ServerHttpRequest authenticated = request.mutate()
+                .header(USER_ID_HEADER, userId)
+                .header(USER_EMAIL_HEADER, claims.getSubject())
+                .build();
+        exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
+        return chain.filter(exchange.mutate().request(authenticated).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("error", "UNAUTHORIZED");
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(errorResponse);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (Exception e) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.riyada.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded cache of GET responses, keyed by the verified user and the
+ * request URI so one user's response is never served to another.
+ *
+ * Each entry expires after the time-to-live of the route that cached it.
+ * Bodies larger than gateway.cache.max-body-bytes are not cached.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<Key, CachedResponse> cache;
+    private final int maxBodyBytes;
+
+    public ResponseCache(@Value("${gateway.cache.max-entries:10000}") long maxEntries,
+            @Value("${gateway.cache.max-body-bytes:65536}") int maxBodyBytes,
+            MeterRegistry meterRegistry) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<Key, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(Key key, CachedResponse value, long currentTime) {
+                        return value.timeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, CachedResponse value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, CachedResponse value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    public Optional<CachedResponse> get(String userId, String uri) {
+        return Optional.ofNullable(cache.getIfPresent(new Key(userId, uri)));
+    }
+
+    /**
+     * Cache a response body; returns false if it is too large
+     */
+    public boolean put(String userId, String uri, HttpHeaders headers, byte[] body, Duration timeToLive) {
+        if (body.length > maxBodyBytes) {
+            return false;
+        }
+        cache.put(new Key(userId, uri), new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body,
+                timeToLive));
+        return true;
+    }
+
+    /**
+     * Drop every response cached for a user
+     */
+    public void invalidateUser(String userId) {
+        cache.asMap().keySet().removeIf(key -> Objects.equals(key.userId(), userId));
+    }
+
+    public record CachedResponse(HttpHeaders headers, byte[] body, Duration timeToLive) {
+    }
+
+    // userId is null on public routes
+    private record Key(String userId, String uri) {
+    }
+}
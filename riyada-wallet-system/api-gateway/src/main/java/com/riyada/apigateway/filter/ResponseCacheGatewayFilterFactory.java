@@ -0,0 +1,140 @@
+package com.riyada.apigateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Route filter that serves GETs from {@link ResponseCache} for a short
+ * time-to-live, e.g. {@code ResponseCache=30s}.
+ *
+ * On a miss the request is forwarded without Accept-Encoding, so the
+ * service answers uncompressed and the gateway compresses once on the way
+ * out, and a 200 response is cached. Responses carry X-Cache: HIT or MISS.
+ * CORS headers are not cached; the gateway adds its own on every response.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    public ResponseCacheGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("timeToLive");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes it
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+            String uri = request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+
+            ResponseCache.CachedResponse cached = responseCache.get(userId, uri).orElse(null);
+            if (cached != null) {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.OK);
+                response.getHeaders().putAll(cached.headers());
+                response.getHeaders().setContentLength(cached.body().length);
+                response.getHeaders().set(CACHE_HEADER, "HIT");
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+            }
+
+            ServerHttpRequest uncompressed = request.mutate()
+                    .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                    .build();
+            ServerHttpResponse caching = new CachingResponse(exchange, userId, uri, config.getTimeToLive());
+            return chain.filter(exchange.mutate().request(uncompressed).response(caching).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    public static class Config {
+
+        private Duration timeToLive = Duration.ofSeconds(5);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Collects a 200 body as it is written and caches it
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String userId;
+        private final String uri;
+        private final Duration timeToLive;
+
+        CachingResponse(ServerWebExchange exchange, String userId, String uri, Duration timeToLive) {
+            super(exchange.getResponse());
+            this.userId = userId;
+            this.uri = uri;
+            this.timeToLive = timeToLive;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!HttpStatus.OK.equals(getStatusCode())) {
+                return super.writeWith(body);
+            }
+            getHeaders().set(CACHE_HEADER, "MISS");
+            return super.writeWith(DataBufferUtils.join(body).map(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                responseCache.put(userId, uri, cacheableHeaders(), bytes, timeToLive);
+                return bufferFactory().wrap(bytes);
+            }));
+        }
+
+        private HttpHeaders cacheableHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!name.regionMatches(true, 0, "Access-Control-", 0, 15)
+                        && !name.equalsIgnoreCase(HttpHeaders.VARY)
+                        && !name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+                        && !name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)
+                        && !name.equalsIgnoreCase(CACHE_HEADER)) {
+                    headers.put(name, values);
+                }
+            });
+            return headers;
+        }
+    }
+}
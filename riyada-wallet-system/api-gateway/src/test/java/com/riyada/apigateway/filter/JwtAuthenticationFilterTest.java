@@ -0,0 +1,147 @@
+package com.riyada.apigateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.apigateway.config.JwtConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-jwt-secret-key-that-is-long-enough-for-hs256-signing";
+
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+
+    // The request as it reached the chain, or null if the filter answered itself
+    private ServerWebExchange forwarded;
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded = exchange;
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtConfig, "expiration", 60_000L);
+        ReflectionTestUtils.setField(filter, "jwtConfig", jwtConfig);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "publicPaths", List.of("/api/users/login", "/api/*/health"));
+    }
+
+    @Test
+    void testFilter_ValidTokenForwardsVerifiedIdentity() {
+        // Given - the client also tries to claim another user's ID
+        String userId = UUID.randomUUID().toString();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/wallets/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(userId, 60_000))
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, UUID.randomUUID().toString()));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        HttpHeaders headers = forwarded.getRequest().getHeaders();
+        assertEquals(List.of(userId), headers.get(JwtAuthenticationFilter.USER_ID_HEADER));
+        assertEquals("alice@example.com", headers.getFirst(JwtAuthenticationFilter.USER_EMAIL_HEADER));
+        assertEquals(userId, forwarded.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE));
+        assertNotNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void testFilter_PublicPathPassesWithClientHeadersStripped() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .post("/api/users/login")
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, UUID.randomUUID().toString())
+                .header(JwtAuthenticationFilter.USER_EMAIL_HEADER, "admin@example.com"));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertNotNull(forwarded);
+        assertNull(forwarded.getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER));
+        assertNull(forwarded.getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USER_EMAIL_HEADER));
+        assertNull(forwarded.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE));
+    }
+
+    @Test
+    void testFilter_MissingTokenRejectedWith401() {
+        // Given - a client-supplied identity is not enough
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/payments/history")
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, UUID.randomUUID().toString()));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertNull(forwarded);
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("Authorization header is required"));
+    }
+
+    @Test
+    void testFilter_ExpiredTokenRejectedWith401() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/payments/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(UUID.randomUUID().toString(), -60_000)));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertNull(forwarded);
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("Invalid or expired token"));
+    }
+
+    @Test
+    void testFilter_TokenSignedWithAnotherKeyRejectedWith401() {
+        // Given
+        String forged = Jwts.builder()
+                .setSubject("alice@example.com")
+                .claim("userId", UUID.randomUUID().toString())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-secret-key-that-is-long-enough-for-hs256".getBytes()))
+                .compact();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/payments/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + forged));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertNull(forwarded);
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    private static String token(String userId, long validForMillis) {
+        return Jwts.builder()
+                .setSubject("alice@example.com")
+                .claim("userId", userId)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + validForMillis))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+}
@@ -0,0 +1,136 @@
+package com.riyada.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the cache filter in front of a stub route that answers with the
+ * requesting user's ID and counts how often it is reached
+ */
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory();
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private GatewayFilter filter;
+    private HttpStatus routeStatus = HttpStatus.OK;
+
+    private final GatewayFilterChain route = exchange -> {
+        forwarded.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(routeStatus);
+        response.getHeaders().set("Access-Control-Allow-Origin", "*");
+        byte[] body = ("{\"userId\":\"" + exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE)
+                + "\",\"encoding\":\"" + exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING)
+                + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(factory, "responseCache",
+                new ResponseCache(100, 65536, new SimpleMeterRegistry()));
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTimeToLive(Duration.ofMinutes(1));
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void testFilter_SecondGetServedFromCache() {
+        // When
+        MockServerWebExchange first = get("user-1", "/api/wallets/user/me");
+        MockServerWebExchange second = get("user-1", "/api/wallets/user/me");
+
+        // Then
+        assertEquals(1, forwarded.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertEquals(first.getResponse().getBodyAsString().block(), second.getResponse().getBodyAsString().block());
+        // CORS headers are the gateway's own, never replayed from the cache
+        assertNull(second.getResponse().getHeaders().getFirst("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    void testFilter_CachedPerUser() {
+        // Given
+        get("user-1", "/api/wallets/user/me");
+
+        // When
+        MockServerWebExchange other = get("user-2", "/api/wallets/user/me");
+
+        // Then - the same URI for another user goes to the service
+        assertEquals(2, forwarded.get());
+        assertEquals("MISS", other.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertTrue(other.getResponse().getBodyAsString().block().contains("user-2"));
+    }
+
+    @Test
+    void testFilter_QueryStringPartOfTheKey() {
+        // When
+        get("user-1", "/api/payments/history?page=0");
+        get("user-1", "/api/payments/history?page=1");
+
+        // Then
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    void testFilter_MissForwardedWithoutAcceptEncoding() {
+        // When
+        MockServerWebExchange exchange = get("user-1", "/api/wallets/user/me");
+
+        // Then
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("\"encoding\":\"null\""));
+    }
+
+    @Test
+    void testFilter_ErrorResponseNotCached() {
+        // Given
+        routeStatus = HttpStatus.NOT_FOUND;
+
+        // When
+        get("user-1", "/api/wallets/user/me");
+        MockServerWebExchange second = get("user-1", "/api/wallets/user/me");
+
+        // Then
+        assertEquals(2, forwarded.get());
+        assertNull(second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+    }
+
+    @Test
+    void testFilter_NonGetBypassesCache() {
+        // When
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                    .post("/api/payments/transfer"));
+            exchange.getAttributes().put(JwtAuthenticationFilter.USER_ID_ATTRIBUTE, "user-1");
+            filter.filter(exchange, route).block();
+        }
+
+        // Then
+        assertEquals(2, forwarded.get());
+    }
+
+    private MockServerWebExchange get(String userId, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        exchange.getAttributes().put(JwtAuthenticationFilter.USER_ID_ATTRIBUTE, userId);
+        filter.filter(exchange, route).block();
+        return exchange;
+    }
+}
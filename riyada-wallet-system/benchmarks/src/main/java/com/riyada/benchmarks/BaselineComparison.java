@@ -0,0 +1,95 @@
+package com.riyada.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files. A benchmark regresses when its score
+ * is worse than the baseline by more than the allowed fraction and by more
+ * than the two runs' combined error, so noise alone does not fail a build.
+ * Throughput is better when higher; every other mode when lower.
+ */
+final class BaselineComparison {
+
+    record Score(String mode, double score, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    private BaselineComparison() {
+    }
+
+    /**
+     * Scores keyed by benchmark name plus parameters, in file order
+     */
+    static Map<String, Score> read(Path resultFile) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(resultFile.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(key.indexOf(":") < 0 ? ":" : ",").append(param.getKey()).append('=')
+                        .append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(run.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    /**
+     * Print one line per current benchmark and return the names of those
+     * that regressed. Benchmarks missing from the baseline are reported as
+     * new and never fail.
+     */
+    static List<String> compare(Map<String, Score> baseline, Map<String, Score> current, double maxRegression,
+            PrintStream out) {
+        List<String> regressions = new ArrayList<>();
+        out.printf("%-75s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Status");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            String name = entry.getKey();
+            Score now = entry.getValue();
+            Score before = baseline.get(name);
+            if (before == null || !before.mode().equals(now.mode()) || !before.unit().equals(now.unit())) {
+                out.printf("%-75s %14s %14.3f %9s  new%n", shortName(name), "-", now.score(), "-");
+                continue;
+            }
+
+            // Positive change means slower, whatever the mode
+            double worse = before.higherIsBetter() ? before.score() - now.score() : now.score() - before.score();
+            double change = before.score() == 0 ? 0 : worse / before.score();
+            String status;
+            if (change > maxRegression && worse > before.error() + now.error()) {
+                status = "REGRESSION";
+                regressions.add(name);
+            } else if (change < -maxRegression && -worse > before.error() + now.error()) {
+                status = "improved";
+            } else {
+                status = "ok";
+            }
+            out.printf("%-75s %14.3f %14.3f %+8.1f%%  %s%n", shortName(name), before.score(), now.score(),
+                    change * 100, status);
+        }
+        return regressions;
+    }
+
+    private static String shortName(String name) {
+        return name.startsWith(BaselineComparison.class.getPackageName() + ".")
+                ? name.substring(BaselineComparison.class.getPackageName().length() + 1)
+                : name;
+    }
+}
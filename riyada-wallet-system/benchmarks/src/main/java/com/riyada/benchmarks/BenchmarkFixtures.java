@@ -0,0 +1,101 @@
+package com.riyada.benchmarks;
+
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.entity.PaymentBatch;
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared test data for the benchmarks: JWT settings matching the services'
+ * application.yml and realistically filled entities
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "riyada-jwt-secret-key-2024-very-secure-and-long-secret-key-for-production";
+    static final long JWT_EXPIRATION_MS = 86400000L;
+
+    static final String EMAIL = "benchmark.user@riyada.com";
+    static final UUID USER_ID = UUID.fromString("0190b5e2-7c1a-7d3e-9a4b-5c6d7e8f9a0b");
+    static final UUID RECIPIENT_ID = UUID.fromString("0190b5e2-7c1a-7d3e-9a4b-5c6d7e8f9a0c");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Set jwt.secret and jwt.expiration on a JwtConfig the way @Value would
+     */
+    static <T> T withJwtProperties(T jwtConfig) {
+        setField(jwtConfig, "secret", JWT_SECRET);
+        setField(jwtConfig, "expiration", JWT_EXPIRATION_MS);
+        return jwtConfig;
+    }
+
+    static Wallet wallet() {
+        Wallet wallet = new Wallet(USER_ID, "USD");
+        wallet.setId(UUID.randomUUID());
+        wallet.setBalance(new BigDecimal("15250.75"));
+        wallet.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 30));
+        wallet.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 17, 45, 12));
+        return wallet;
+    }
+
+    static List<WalletTransaction> walletTransactions(Wallet wallet, int count) {
+        List<WalletTransaction> transactions = new ArrayList<>(count);
+        BigDecimal balance = wallet.getBalance();
+        for (int i = 0; i < count; i++) {
+            BigDecimal amount = new BigDecimal("12.50").add(BigDecimal.valueOf(i));
+            WalletTransaction.TransactionType type = i % 2 == 0
+                    ? WalletTransaction.TransactionType.CREDIT
+                    : WalletTransaction.TransactionType.DEBIT;
+            BigDecimal after = type == WalletTransaction.TransactionType.CREDIT
+                    ? balance.add(amount)
+                    : balance.subtract(amount);
+            WalletTransaction transaction = new WalletTransaction(wallet.getId(), type, amount, balance, after,
+                    "Payment " + i, "PAY-20240601-" + i);
+            transaction.setId(UUID.randomUUID());
+            transaction.setCreatedAt(LocalDateTime.of(2024, 6, 1, 12, 0).plusMinutes(i));
+            transactions.add(transaction);
+            balance = after;
+        }
+        return transactions;
+    }
+
+    static Payment payment(int index) {
+        Payment payment = new Payment(USER_ID, RECIPIENT_ID, "recipient@riyada.com",
+                new BigDecimal("125.00").add(BigDecimal.valueOf(index)), "Dinner split " + index);
+        payment.setId(UUID.randomUUID());
+        payment.setReferenceId("PAY-20240601-" + index);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setCreatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+        payment.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 0, 1));
+        payment.setProcessedAt(LocalDateTime.of(2024, 6, 1, 12, 0, 1));
+        return payment;
+    }
+
+    static PaymentBatch paymentBatch(int legCount) {
+        PaymentBatch batch = new PaymentBatch(USER_ID, legCount, new BigDecimal("6250.00"), "Payroll June");
+        batch.setId(UUID.randomUUID());
+        batch.setReferenceId("BATCH-20240601-1");
+        batch.setStatus(PaymentBatch.BatchStatus.COMPLETED);
+        batch.setCreatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+        batch.setProcessedAt(LocalDateTime.of(2024, 6, 1, 12, 0, 3));
+        return batch;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalStateException(target.getClass().getName() + " has no field " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
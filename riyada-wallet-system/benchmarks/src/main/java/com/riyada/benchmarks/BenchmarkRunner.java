@@ -0,0 +1,62 @@
+package com.riyada.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Runs the benchmarks, writes the results as JMH JSON and compares them
+ * with the baseline file, exiting with status 1 on any regression.
+ *
+ * Settings come from system properties (benchmark.include, .result,
+ * .baseline, .max-regression, .update-baseline); any arguments are passed
+ * to JMH as command-line options, e.g. -f 1 -wi 1 -i 3.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("benchmark.include", ".*");
+        Path result = Path.of(System.getProperty("benchmark.result", "target/jmh-result.json")).toAbsolutePath();
+        Path baseline = Path.of(System.getProperty("benchmark.baseline", "baseline.json")).toAbsolutePath();
+        double maxRegression = Double.parseDouble(System.getProperty("benchmark.max-regression", "0.10"));
+        boolean updateBaseline = Boolean.parseBoolean(System.getProperty("benchmark.update-baseline", "false"));
+
+        Files.createDirectories(result.getParent());
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + result);
+
+        if (updateBaseline) {
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + "; record one with -Dbenchmark.update-baseline=true");
+            return;
+        }
+
+        System.out.printf("%nComparison with %s (allowed regression %.0f%%)%n", baseline, maxRegression * 100);
+        List<String> regressions = BaselineComparison.compare(BaselineComparison.read(baseline),
+                BaselineComparison.read(result), maxRegression, System.out);
+        if (!regressions.isEmpty()) {
+            System.err.println(regressions.size() + " benchmark(s) regressed: " + regressions);
+            System.exit(1);
+        }
+    }
+}
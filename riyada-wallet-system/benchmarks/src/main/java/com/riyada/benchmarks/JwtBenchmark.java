@@ -0,0 +1,61 @@
+package com.riyada.benchmarks;
+
+import com.riyada.walletservice.config.JwtConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue in user-service and the parse/validate calls every other
+ * service makes on each authenticated request
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private com.riyada.userservice.config.JwtConfig issuer;
+    private JwtConfig verifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        issuer = BenchmarkFixtures.withJwtProperties(new com.riyada.userservice.config.JwtConfig());
+        verifier = BenchmarkFixtures.withJwtProperties(new JwtConfig());
+        token = issuer.generateToken(BenchmarkFixtures.EMAIL, BenchmarkFixtures.USER_ID.toString());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return issuer.generateToken(BenchmarkFixtures.EMAIL, BenchmarkFixtures.USER_ID.toString());
+    }
+
+    @Benchmark
+    public String parseUsername() {
+        return verifier.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public UUID parseUserId() {
+        return verifier.getUserIdFromToken(token);
+    }
+
+    // Parses the token twice (subject, then expiry)
+    @Benchmark
+    public Boolean validateToken() {
+        return verifier.validateToken(token, BenchmarkFixtures.EMAIL);
+    }
+}
@@ -0,0 +1,93 @@
+package com.riyada.benchmarks;
+
+import com.riyada.paymentservice.dto.BatchPaymentResponseDTO;
+import com.riyada.paymentservice.dto.PaymentResponseDTO;
+import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.entity.PaymentBatch;
+import com.riyada.paymentservice.util.PaymentMapper;
+import com.riyada.walletservice.dto.WalletResponseDTO;
+import com.riyada.walletservice.dto.WalletTransactionResponseDTO;
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.util.WalletMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO conversion in WalletMapper and PaymentMapper, singly and
+ * for the list shapes the history and batch endpoints return
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private static final int LIST_SIZE = 50;
+
+    private Wallet wallet;
+    private List<WalletTransaction> transactions;
+    private Payment payment;
+    private PaymentBatch batch;
+    private List<Payment> legs;
+    private Map<Payment.PaymentStatus, Long> legCounts;
+
+    @Setup
+    public void setUp() {
+        wallet = BenchmarkFixtures.wallet();
+        transactions = BenchmarkFixtures.walletTransactions(wallet, LIST_SIZE);
+        payment = BenchmarkFixtures.payment(0);
+        batch = BenchmarkFixtures.paymentBatch(LIST_SIZE);
+        legs = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            Payment leg = BenchmarkFixtures.payment(i);
+            leg.setBatchId(batch.getId());
+            legs.add(leg);
+        }
+        legCounts = Map.of(Payment.PaymentStatus.COMPLETED, (long) LIST_SIZE);
+    }
+
+    @Benchmark
+    public WalletResponseDTO walletToResponse() {
+        return WalletMapper.toWalletResponseDTO(wallet);
+    }
+
+    @Benchmark
+    public List<WalletTransactionResponseDTO> transactionHistoryToResponse() {
+        return transactions.stream()
+                .map(WalletMapper::toWalletTransactionResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public PaymentResponseDTO paymentToResponse() {
+        return PaymentMapper.toPaymentResponseDTO(payment);
+    }
+
+    @Benchmark
+    public PaymentStatusDTO paymentToStatus() {
+        return PaymentMapper.toPaymentStatusDTO(payment);
+    }
+
+    @Benchmark
+    public BatchPaymentResponseDTO batchToResponse() {
+        return PaymentMapper.toBatchPaymentResponseDTO(batch, legCounts, legs);
+    }
+}
@@ -0,0 +1,129 @@
+package com.riyada.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.riyada.paymentservice.dto.BatchPaymentResponseDTO;
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.dto.PaymentResponseDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.entity.PaymentBatch;
+import com.riyada.paymentservice.util.PaymentMapper;
+import com.riyada.walletservice.dto.WalletResponseDTO;
+import com.riyada.walletservice.dto.WalletTransactionResponseDTO;
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.util.WalletMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of the controller response maps and DTOs, and
+ * parsing of a payment request body, with an ObjectMapper configured like
+ * the services' (Spring Boot defaults, UTC)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final int LIST_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> walletResponse;
+    private Map<String, Object> transactionsResponse;
+    private Map<String, Object> paymentResponse;
+    private BatchPaymentResponseDTO batchResponse;
+    private PaymentResponseDTO paymentDto;
+    private String paymentRequestJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .timeZone("UTC")
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Wallet wallet = BenchmarkFixtures.wallet();
+        WalletResponseDTO walletDto = WalletMapper.toWalletResponseDTO(wallet);
+        walletResponse = new HashMap<>();
+        walletResponse.put("success", true);
+        walletResponse.put("message", "Wallet retrieved successfully");
+        walletResponse.put("wallet", walletDto);
+
+        List<WalletTransactionResponseDTO> transactions = BenchmarkFixtures.walletTransactions(wallet, LIST_SIZE)
+                .stream()
+                .map(WalletMapper::toWalletTransactionResponseDTO)
+                .collect(Collectors.toList());
+        transactionsResponse = new HashMap<>();
+        transactionsResponse.put("success", true);
+        transactionsResponse.put("message", "Transactions retrieved successfully");
+        transactionsResponse.put("transactions", transactions);
+        transactionsResponse.put("count", transactions.size());
+
+        paymentDto = PaymentMapper.toPaymentResponseDTO(BenchmarkFixtures.payment(0));
+        paymentResponse = new HashMap<>();
+        paymentResponse.put("success", true);
+        paymentResponse.put("message", "Payment processed successfully");
+        paymentResponse.put("payment", paymentDto);
+
+        PaymentBatch batch = BenchmarkFixtures.paymentBatch(LIST_SIZE);
+        List<Payment> legs = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            legs.add(BenchmarkFixtures.payment(i));
+        }
+        batchResponse = PaymentMapper.toBatchPaymentResponseDTO(batch,
+                Map.of(Payment.PaymentStatus.COMPLETED, (long) LIST_SIZE), legs);
+
+        paymentRequestJson = objectMapper.writeValueAsString(
+                new PaymentRequestDTO("recipient@riyada.com", paymentDto.getAmount(), "Dinner split"));
+    }
+
+    @Benchmark
+    public byte[] walletResponseMap() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(walletResponse);
+    }
+
+    @Benchmark
+    public byte[] transactionsResponseMap() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionsResponse);
+    }
+
+    @Benchmark
+    public byte[] paymentResponseMap() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] paymentResponseDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paymentDto);
+    }
+
+    @Benchmark
+    public byte[] batchResponseDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(batchResponse);
+    }
+
+    @Benchmark
+    public PaymentRequestDTO paymentRequestBody() throws JsonProcessingException {
+        return objectMapper.readValue(paymentRequestJson, PaymentRequestDTO.class);
+    }
+}
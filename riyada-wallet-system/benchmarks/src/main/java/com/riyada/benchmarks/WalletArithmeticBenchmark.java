@@ -0,0 +1,60 @@
+package com.riyada.benchmarks;
+
+import com.riyada.walletservice.entity.Wallet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal balance arithmetic in Wallet.credit and Wallet.debit (amount
+ * and balance checks included). Each invocation credits and debits the same
+ * amount so the balance, and with it the BigDecimal sizes, stay constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WalletArithmeticBenchmark {
+
+    private Wallet wallet;
+    private BigDecimal amount;
+    private BigDecimal overdraft;
+
+    @Setup
+    public void setUp() {
+        wallet = BenchmarkFixtures.wallet();
+        amount = new BigDecimal("49.99");
+        overdraft = wallet.getBalance().add(BigDecimal.ONE);
+    }
+
+    @Benchmark
+    public BigDecimal creditThenDebit() {
+        wallet.credit(amount);
+        wallet.debit(amount);
+        return wallet.getBalance();
+    }
+
+    @Benchmark
+    public boolean sufficientBalanceCheck() {
+        return wallet.hasSufficientBalance(amount);
+    }
+
+    // Debit refused for insufficient balance; the balance is unchanged
+    @Benchmark
+    public BigDecimal rejectedDebit() {
+        wallet.debit(overdraft);
+        return wallet.getBalance();
+    }
+}
@@ -55,6 +55,7 @@ CREATE TABLE wallets (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+CREATE UNIQUE INDEX uq_wallets_active_user_id ON wallets (user_id) WHERE is_active;
 
 CREATE TABLE wallet_transactions (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -104,7 +105,7 @@ CREATE TABLE payment_methods (
 
 CREATE TABLE transactions (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    payment_id UUID NOT NULL,
+    payment_id UUID NOT NULL, -- wallet transaction ID for deposits and withdrawals
     sender_user_id UUID NOT NULL,
     receiver_user_id UUID NOT NULL,
     amount DECIMAL(15,2) NOT NULL,
@@ -112,9 +113,14 @@ CREATE TABLE transactions (
     transaction_type VARCHAR(20) NOT NULL, -- 'TRANSFER', 'DEPOSIT', 'WITHDRAWAL'
     status VARCHAR(20) NOT NULL,
     description TEXT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    reference_id VARCHAR(32),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_transactions_payment_id UNIQUE (payment_id)
 );
 
+CREATE INDEX idx_transactions_sender_created ON transactions (sender_user_id, created_at);
+CREATE INDEX idx_transactions_receiver_created ON transactions (receiver_user_id, created_at);
+
 CREATE TABLE audit_logs (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     transaction_id UUID REFERENCES transactions(id) ON DELETE CASCADE,
@@ -125,6 +131,18 @@ CREATE TABLE audit_logs (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE INDEX idx_audit_logs_transaction_id ON audit_logs (transaction_id);
+
+-- Next Kafka offset per partition, committed with the ledger rows it covers
+CREATE TABLE ledger_consumer_offsets (
+    consumer_group VARCHAR(100) NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    partition_id INTEGER NOT NULL,
+    next_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (consumer_group, topic, partition_id)
+);
+
 CREATE TABLE categories (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     name VARCHAR(100) NOT NULL,
@@ -144,10 +162,20 @@ CREATE TABLE notifications (
     title VARCHAR(255) NOT NULL,
     message TEXT NOT NULL,
     type VARCHAR(50) NOT NULL, -- 'PAYMENT', 'BALANCE', 'SYSTEM'
+    kind VARCHAR(30), -- 'PAYMENT_RECEIVED', 'PAYMENT_SENT', 'DEPOSIT', 'WITHDRAWAL'
+    currency VARCHAR(3) DEFAULT 'USD',
+    event_count INTEGER NOT NULL DEFAULT 0, -- events coalesced into this notification
+    total_amount DECIMAL(15,2) DEFAULT 0.00,
     is_read BOOLEAN DEFAULT false,
+    digest_until TIMESTAMP, -- later events of the same kind join until then
+    delivered_at TIMESTAMP,
+    delivery_attempts INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+CREATE INDEX idx_notifications_pending ON notifications (delivered_at, digest_until);
+
 CREATE TABLE user_preferences (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     user_id UUID NOT NULL,
@@ -155,5 +183,6 @@ CREATE TABLE user_preferences (
     push_notifications BOOLEAN DEFAULT true,
     sms_notifications BOOLEAN DEFAULT false,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_user_preferences_user_id UNIQUE (user_id)
 );
@@ -1,10 +1,13 @@
-import React, { useState } from 'react';
+import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useWallet } from '../contexts/WalletContext';
+import { useAuth } from '../contexts/AuthContext';
+import { authAPI } from '../services/api';
 
 const Transfer = () => {
   const navigate = useNavigate();
   const { balance, transfer, loading } = useWallet();
+  const { token } = useAuth();
   const [formData, setFormData] = useState({
     recipient: '',
     amount: '',
@@ -12,6 +15,23 @@ const Transfer = () => {
   });
   const [error, setError] = useState('');
   const [success, setSuccess] = useState('');
+  const [suggestions, setSuggestions] = useState([]);
+
+  // Debounced recipient type-ahead
+  useEffect(() => {
+    const query = formData.recipient.trim();
+    if (!query || !token) {
+      setSuggestions([]);
+      return;
+    }
+
+    const timer = setTimeout(async () => {
+      const result = await authAPI.searchUsers(query, token);
+      setSuggestions(result.success ? result.users : []);
+    }, 150);
+
+    return () => clearTimeout(timer);
+  }, [formData.recipient, token]);
 
   const handleChange = (e) => {
     const { name, value } = e.target;
@@ -103,11 +123,20 @@ const Transfer = () => {
               name="recipient"
               type="email"
               required
+              list="recipient-suggestions"
+              autoComplete="off"
               value={formData.recipient}
               onChange={handleChange}
               className="mt-1 block w-full px-3 py-2 border border-input rounded-md shadow-sm bg-background text-foreground placeholder-muted-foreground focus:outline-none focus:ring-2 focus:ring-ring focus:border-transparent"
-              placeholder="Enter recipient's email"
+              placeholder="Enter recipient's name or email"
             />
+            <datalist id="recipient-suggestions">
+              {suggestions.map((user) => (
+                <option key={user.id} value={user.email}>
+                  {user.firstName} {user.lastName}
+                </option>
+              ))}
+            </datalist>
           </div>
 
           <div>
@@ -1,12 +1,13 @@
 // Real API service - makes HTTP requests to backend services
-// User Service runs on port 8081
+// All requests go through the API Gateway (port 8080)
 
 import { mockWallets, mockTransactions, mockNotifications } from '../data/mockData.js';
 
 // API Base URLs
-const USER_SERVICE_URL = 'http://localhost:8081/api/users';
-const WALLET_SERVICE_URL = 'http://localhost:8082/api/wallets';
-const PAYMENT_SERVICE_URL = 'http://localhost:8083/api/payments';
+const API_GATEWAY_URL = import.meta.env.VITE_API_GATEWAY_URL || 'http://localhost:8080';
+const USER_SERVICE_URL = `${API_GATEWAY_URL}/api/users`;
+const WALLET_SERVICE_URL = `${API_GATEWAY_URL}/api/wallets`;
+const PAYMENT_SERVICE_URL = `${API_GATEWAY_URL}/api/payments`;
 
 // Helper function to make HTTP requests
 const apiRequest = async (url, options = {}) => {
@@ -153,6 +154,38 @@ export const authAPI = {
         error: error.message || 'Failed to fetch user profile'
       };
     }
+  },
+
+  // Recipient type-ahead by name or email
+  searchUsers: async (query, token, limit = 8) => {
+    try {
+      const response = await apiRequest(
+        `${USER_SERVICE_URL}/search?q=${encodeURIComponent(query)}&limit=${limit}`,
+        {
+          method: 'GET',
+          headers: {
+            'Authorization': `Bearer ${token}`
+          }
+        }
+      );
+
+      if (response.success) {
+        return {
+          success: true,
+          users: response.users
+        };
+      }
+
+      return {
+        success: false,
+        error: response.message || 'Failed to search users'
+      };
+    } catch (error) {
+      return {
+        success: false,
+        error: error.message || 'Failed to search users'
+      };
+    }
   }
 };
 
@@ -0,0 +1,14 @@
+package com.riyada.ledgerservice;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+@SpringBootApplication
+@EnableTransactionManagement
+public class LedgerServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(LedgerServiceApplication.class, args);
+    }
+}
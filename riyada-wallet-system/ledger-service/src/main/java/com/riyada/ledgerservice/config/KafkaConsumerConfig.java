@@ -0,0 +1,23 @@
+package com.riyada.ledgerservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Retry a failed batch until it applies rather than skipping it: a
+     * skipped batch would leave a gap in the ledger. Malformed events never
+     * fail a batch (they are logged and passed over), so only transient
+     * database errors end up here.
+     */
+    @Bean
+    public DefaultErrorHandler ledgerErrorHandler(
+            @Value("${ledger.consumer.retry-backoff-ms:1000}") long retryBackoffMillis) {
+        return new DefaultErrorHandler(new FixedBackOff(retryBackoffMillis, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+}
@@ -0,0 +1,24 @@
+package com.riyada.ledgerservice.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.TimeZone;
+
+@Configuration
+public class TimezoneConfig {
+
+    static {
+        // Set timezone in static block - runs at class loading time (before Spring
+        // context)
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        System.setProperty("user.timezone", "UTC");
+    }
+
+    @PostConstruct
+    public void init() {
+        // Double ensure timezone is set
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        System.setProperty("user.timezone", "UTC");
+    }
+}
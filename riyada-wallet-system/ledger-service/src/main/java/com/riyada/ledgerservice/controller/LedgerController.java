@@ -0,0 +1,214 @@
+package com.riyada.ledgerservice.controller;
+
+import com.riyada.ledgerservice.config.JwtConfig;
+import com.riyada.ledgerservice.dto.LedgerPageDTO;
+import com.riyada.ledgerservice.dto.LedgerSummaryDTO;
+import com.riyada.ledgerservice.dto.LedgerTransactionDTO;
+import com.riyada.ledgerservice.entity.LedgerTransaction;
+import com.riyada.ledgerservice.service.LedgerService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/ledger")
+@CrossOrigin(origins = "*")
+public class LedgerController {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Value("${ledger.query.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Health check endpoint
+     * GET /api/ledger/health
+     */
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> health() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("service", "ledger-service");
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get one page of a user's ledger entries, newest first
+     * GET /api/ledger/user/{userId}/transactions?cursor=&limit=20&type=TRANSFER,DEPOSIT&from=&to=
+     */
+    @GetMapping("/user/{userId}/transactions")
+    public ResponseEntity<?> getUserTransactions(@PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) List<LedgerTransaction.TransactionType> type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        try {
+            ResponseEntity<?> denied = checkOwner(request, userId);
+            if (denied != null) {
+                return denied;
+            }
+
+            int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+            LedgerPageDTO page = ledgerService.getUserTransactions(userId, cursor, pageSize, type, from, to);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Ledger transactions retrieved successfully");
+            response.put("transactions", page.getTransactions());
+            response.put("count", page.getTransactions().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.isHasMore());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INVALID_LEDGER_REQUEST");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving ledger transactions");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Get a user's totals sent, received, deposited and withdrawn over a period
+     * GET /api/ledger/user/{userId}/summary?from=&to=
+     */
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<?> getUserSummary(@PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        try {
+            ResponseEntity<?> denied = checkOwner(request, userId);
+            if (denied != null) {
+                return denied;
+            }
+
+            LedgerSummaryDTO summary = ledgerService.getUserSummary(userId, from, to);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Ledger summary retrieved successfully");
+            response.put("summary", summary);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INVALID_LEDGER_REQUEST");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving the ledger summary");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Get the ledger entry for a payment (sender or recipient only)
+     * GET /api/ledger/payment/{paymentId}
+     */
+    @GetMapping("/payment/{paymentId}")
+    public ResponseEntity<?> getPaymentTransaction(@PathVariable UUID paymentId, HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return unauthorized();
+            }
+            UUID tokenUserId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+
+            LedgerTransactionDTO transaction = ledgerService.getPaymentTransaction(paymentId);
+            if (!tokenUserId.equals(transaction.getFromUserId()) && !tokenUserId.equals(transaction.getToUserId())) {
+                return forbidden("You are not authorized to view this ledger entry");
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Ledger transaction retrieved successfully");
+            response.put("transaction", transaction);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "LEDGER_ENTRY_NOT_FOUND");
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving the ledger entry");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Null if the token belongs to the user, otherwise the 401/403 response
+     */
+    private ResponseEntity<?> checkOwner(HttpServletRequest request, UUID userId) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return unauthorized();
+        }
+        UUID tokenUserId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+        if (!tokenUserId.equals(userId)) {
+            return forbidden("You are not authorized to view this user's ledger");
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> unauthorized() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Authorization header is required");
+        errorResponse.put("error", "UNAUTHORIZED");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    }
+
+    private ResponseEntity<?> forbidden(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("error", "FORBIDDEN");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+}
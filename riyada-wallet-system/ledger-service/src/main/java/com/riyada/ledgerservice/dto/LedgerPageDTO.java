@@ -0,0 +1,58 @@
+package com.riyada.ledgerservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's ledger entries; pass nextCursor back to get the
+ * following page
+ */
+public class LedgerPageDTO {
+
+    private List<LedgerTransactionDTO> transactions;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public LedgerPageDTO() {
+    }
+
+    public LedgerPageDTO(List<LedgerTransactionDTO> transactions, String nextCursor, boolean hasMore) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<LedgerTransactionDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<LedgerTransactionDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerPageDTO{" +
+                "transactions=" + (transactions != null ? transactions.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
@@ -0,0 +1,127 @@
+package com.riyada.ledgerservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A user's ledger totals over a period
+ */
+public class LedgerSummaryDTO {
+
+    private UUID userId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BigDecimal totalSent;
+    private BigDecimal totalReceived;
+    private BigDecimal totalDeposited;
+    private BigDecimal totalWithdrawn;
+    private BigDecimal netChange;
+    private long transactionCount;
+
+    // Constructors
+    public LedgerSummaryDTO() {
+    }
+
+    public LedgerSummaryDTO(UUID userId, LocalDateTime from, LocalDateTime to, BigDecimal totalSent,
+            BigDecimal totalReceived, BigDecimal totalDeposited, BigDecimal totalWithdrawn,
+            BigDecimal netChange, long transactionCount) {
+        this.userId = userId;
+        this.from = from;
+        this.to = to;
+        this.totalSent = totalSent;
+        this.totalReceived = totalReceived;
+        this.totalDeposited = totalDeposited;
+        this.totalWithdrawn = totalWithdrawn;
+        this.netChange = netChange;
+        this.transactionCount = transactionCount;
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public BigDecimal getTotalSent() {
+        return totalSent;
+    }
+
+    public void setTotalSent(BigDecimal totalSent) {
+        this.totalSent = totalSent;
+    }
+
+    public BigDecimal getTotalReceived() {
+        return totalReceived;
+    }
+
+    public void setTotalReceived(BigDecimal totalReceived) {
+        this.totalReceived = totalReceived;
+    }
+
+    public BigDecimal getTotalDeposited() {
+        return totalDeposited;
+    }
+
+    public void setTotalDeposited(BigDecimal totalDeposited) {
+        this.totalDeposited = totalDeposited;
+    }
+
+    public BigDecimal getTotalWithdrawn() {
+        return totalWithdrawn;
+    }
+
+    public void setTotalWithdrawn(BigDecimal totalWithdrawn) {
+        this.totalWithdrawn = totalWithdrawn;
+    }
+
+    public BigDecimal getNetChange() {
+        return netChange;
+    }
+
+    public void setNetChange(BigDecimal netChange) {
+        this.netChange = netChange;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerSummaryDTO{" +
+                "userId=" + userId +
+                ", from=" + from +
+                ", to=" + to +
+                ", totalSent=" + totalSent +
+                ", totalReceived=" + totalReceived +
+                ", totalDeposited=" + totalDeposited +
+                ", totalWithdrawn=" + totalWithdrawn +
+                ", netChange=" + netChange +
+                ", transactionCount=" + transactionCount +
+                '}';
+    }
+}
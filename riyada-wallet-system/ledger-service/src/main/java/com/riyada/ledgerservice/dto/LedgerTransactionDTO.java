@@ -0,0 +1,146 @@
+package com.riyada.ledgerservice.dto;
+
+import com.riyada.ledgerservice.entity.LedgerTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class LedgerTransactionDTO {
+
+    private UUID id;
+    private UUID paymentId;
+    private String referenceId;
+    private UUID fromUserId;
+    private UUID toUserId;
+    private BigDecimal amount;
+    private String currency;
+    private LedgerTransaction.TransactionType transactionType;
+    private String status;
+    private String description;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public LedgerTransactionDTO() {
+    }
+
+    public LedgerTransactionDTO(UUID id, UUID paymentId, String referenceId, UUID fromUserId, UUID toUserId,
+            BigDecimal amount, String currency, LedgerTransaction.TransactionType transactionType,
+            String status, String description, LocalDateTime createdAt) {
+        this.id = id;
+        this.paymentId = paymentId;
+        this.referenceId = referenceId;
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.amount = amount;
+        this.currency = currency;
+        this.transactionType = transactionType;
+        this.status = status;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(UUID paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public UUID getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(UUID fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public UUID getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(UUID toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public LedgerTransaction.TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(LedgerTransaction.TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerTransactionDTO{" +
+                "id=" + id +
+                ", paymentId=" + paymentId +
+                ", referenceId='" + referenceId + '\'' +
+                ", fromUserId=" + fromUserId +
+                ", toUserId=" + toUserId +
+                ", amount=" + amount +
+                ", transactionType=" + transactionType +
+                ", status='" + status + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.riyada.ledgerservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit trail for ledger entries; new_values holds the event data the entry
+ * was recorded from
+ */
+@Entity
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_transaction_id", columnList = "transaction_id")
+})
+public class AuditLog {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "action", length = 50, nullable = false)
+    private String action;
+
+    @Column(name = "old_values", columnDefinition = "JSONB")
+    private String oldValues;
+
+    @Column(name = "new_values", columnDefinition = "JSONB")
+    private String newValues;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AuditLog() {
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(UUID transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getOldValues() {
+        return oldValues;
+    }
+
+    public void setOldValues(String oldValues) {
+        this.oldValues = oldValues;
+    }
+
+    public String getNewValues() {
+        return newValues;
+    }
+
+    public void setNewValues(String newValues) {
+        this.newValues = newValues;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditLog{" +
+                "id=" + id +
+                ", transactionId=" + transactionId +
+                ", action='" + action + '\'' +
+                ", userId=" + userId +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
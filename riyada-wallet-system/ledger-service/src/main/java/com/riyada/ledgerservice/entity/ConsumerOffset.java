@@ -0,0 +1,123 @@
+package com.riyada.ledgerservice.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Next Kafka offset to apply per consumer group and partition. Updated in
+ * the same transaction as the ledger rows it covers, so the ledger and its
+ * position in the topics never disagree.
+ */
+@Entity
+@Table(name = "ledger_consumer_offsets")
+@IdClass(ConsumerOffset.Key.class)
+public class ConsumerOffset {
+
+    @Id
+    @Column(name = "consumer_group", length = 100)
+    private String consumerGroup;
+
+    @Id
+    @Column(name = "topic", length = 100)
+    private String topic;
+
+    @Id
+    @Column(name = "partition_id")
+    private Integer partition;
+
+    @Column(name = "next_offset", nullable = false)
+    private Long nextOffset;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static class Key implements Serializable {
+        private String consumerGroup;
+        private String topic;
+        private Integer partition;
+
+        public Key() {
+        }
+
+        public Key(String consumerGroup, String topic, Integer partition) {
+            this.consumerGroup = consumerGroup;
+            this.topic = topic;
+            this.partition = partition;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(consumerGroup, key.consumerGroup) && Objects.equals(topic, key.topic)
+                    && Objects.equals(partition, key.partition);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(consumerGroup, topic, partition);
+        }
+    }
+
+    // Constructors
+    public ConsumerOffset() {
+    }
+
+    // Getters and Setters
+    public String getConsumerGroup() {
+        return consumerGroup;
+    }
+
+    public void setConsumerGroup(String consumerGroup) {
+        this.consumerGroup = consumerGroup;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public Integer getPartition() {
+        return partition;
+    }
+
+    public void setPartition(Integer partition) {
+        this.partition = partition;
+    }
+
+    public Long getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(Long nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsumerOffset{" +
+                "consumerGroup='" + consumerGroup + '\'' +
+                ", topic='" + topic + '\'' +
+                ", partition=" + partition +
+                ", nextOffset=" + nextOffset +
+                '}';
+    }
+}
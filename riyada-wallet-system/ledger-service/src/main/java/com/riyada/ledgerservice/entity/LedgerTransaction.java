@@ -0,0 +1,172 @@
+package com.riyada.ledgerservice.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One ledger entry. Rows are written by LedgerIngestService with
+ * multi-row inserts and never updated.
+ */
+@Entity
+@Table(name = "transactions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transactions_payment_id", columnNames = "payment_id")
+}, indexes = {
+        @Index(name = "idx_transactions_sender_created", columnList = "sender_user_id, created_at"),
+        @Index(name = "idx_transactions_receiver_created", columnList = "receiver_user_id, created_at")
+})
+public class LedgerTransaction {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    // Payment ID for transfers; wallet transaction ID for deposits and withdrawals
+    @Column(name = "payment_id", nullable = false)
+    private UUID paymentId;
+
+    // Deposits and withdrawals have the wallet owner on both sides
+    @Column(name = "sender_user_id", nullable = false)
+    private UUID fromUserId;
+
+    @Column(name = "receiver_user_id", nullable = false)
+    private UUID toUserId;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "currency", length = 3)
+    private String currency = "USD";
+
+    @Column(name = "transaction_type", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    // Payment reference, for transfers
+    @Column(name = "reference_id", length = 32)
+    private String referenceId;
+
+    // When the movement happened upstream, not when it was recorded
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum TransactionType {
+        TRANSFER, DEPOSIT, WITHDRAWAL
+    }
+
+    // Constructors
+    public LedgerTransaction() {
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(UUID paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public UUID getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(UUID fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public UUID getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(UUID toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerTransaction{" +
+                "id=" + id +
+                ", paymentId=" + paymentId +
+                ", fromUserId=" + fromUserId +
+                ", toUserId=" + toUserId +
+                ", amount=" + amount +
+                ", transactionType=" + transactionType +
+                ", status='" + status + '\'' +
+                ", referenceId='" + referenceId + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.riyada.ledgerservice.event;
+
+import com.riyada.ledgerservice.service.LedgerIngestService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds payment-completed and balance-updated events to the ledger in
+ * batches (up to max-poll-records per poll).
+ *
+ * The consumer position lives in ledger_db, not in Kafka: on assignment
+ * each partition is moved to its stored offset, and every batch commits its
+ * offsets with its rows (see LedgerIngestService). Kafka's committed offset
+ * only serves as the starting point for partitions the ledger has never
+ * seen, and for lag monitoring.
+ */
+@Component
+public class LedgerEventListener implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEventListener.class);
+
+    @Autowired
+    private LedgerIngestService ledgerIngestService;
+
+    @KafkaListener(topics = { LedgerIngestService.TOPIC_PAYMENT_COMPLETED, LedgerIngestService.TOPIC_BALANCE_UPDATED },
+            groupId = "${ledger.consumer.group:ledger-service}", batch = "true",
+            autoStartup = "${ledger.consumer.enabled:true}")
+    public void onEvents(List<ConsumerRecord<String, String>> records) {
+        int recorded = ledgerIngestService.ingest(records);
+        logger.debug("Recorded {} ledger entries from {} events", recorded, records.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<TopicPartition, Long> stored = ledgerIngestService.storedOffsets(assignments.keySet());
+        stored.forEach((partition, offset) -> callback.seek(partition.topic(), partition.partition(), offset));
+        if (!stored.isEmpty()) {
+            logger.info("Resumed {} ledger partitions from stored offsets", stored.size());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.riyada.ledgerservice.repository;
+
+import com.riyada.ledgerservice.entity.LedgerTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LedgerTransactionRepository extends JpaRepository<LedgerTransaction, UUID> {
+
+    Optional<LedgerTransaction> findByPaymentId(UUID paymentId);
+
+    /**
+     * One page of a user's entries, newest first, after the (created_at, id)
+     * cursor. Each side is read through its own (user, created_at) index;
+     * deposits and withdrawals have the user on both sides and come from the
+     * sender branch only.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transactions WHERE sender_user_id = :userId AND transaction_type IN (:types) " +
+            "AND created_at >= :fromDate AND created_at < :toDate " +
+            "AND (created_at < :cursorTime OR (created_at = :cursorTime AND id < :cursorId)) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transactions WHERE receiver_user_id = :userId AND sender_user_id <> :userId " +
+            "AND transaction_type IN (:types) " +
+            "AND created_at >= :fromDate AND created_at < :toDate " +
+            "AND (created_at < :cursorTime OR (created_at = :cursorTime AND id < :cursorId)) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit)" +
+            ") ledger ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<LedgerTransaction> findPage(@Param("userId") UUID userId,
+            @Param("types") Collection<String> types,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit);
+
+    /**
+     * Totals for a user over a period in one pass: sent, received, deposited,
+     * withdrawn and the entry count
+     */
+    @Query(value = "SELECT " +
+            "COALESCE(SUM(CASE WHEN transaction_type = 'TRANSFER' AND sender_user_id = :userId THEN amount END), 0), " +
+            "COALESCE(SUM(CASE WHEN transaction_type = 'TRANSFER' AND receiver_user_id = :userId THEN amount END), 0), " +
+            "COALESCE(SUM(CASE WHEN transaction_type = 'DEPOSIT' THEN amount END), 0), " +
+            "COALESCE(SUM(CASE WHEN transaction_type = 'WITHDRAWAL' THEN amount END), 0), " +
+            "COUNT(*) FROM (" +
+            "SELECT transaction_type, sender_user_id, receiver_user_id, amount FROM transactions " +
+            "WHERE sender_user_id = :userId AND created_at >= :fromDate AND created_at < :toDate " +
+            "UNION ALL " +
+            "SELECT transaction_type, sender_user_id, receiver_user_id, amount FROM transactions " +
+            "WHERE receiver_user_id = :userId AND sender_user_id <> :userId " +
+            "AND created_at >= :fromDate AND created_at < :toDate" +
+            ") ledger", nativeQuery = true)
+    List<Object[]> summarize(@Param("userId") UUID userId,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+}
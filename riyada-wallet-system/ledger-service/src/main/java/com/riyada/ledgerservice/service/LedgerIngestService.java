@@ -0,0 +1,345 @@
+package com.riyada.ledgerservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.ledgerservice.entity.LedgerTransaction.TransactionType;
+import com.riyada.ledgerservice.util.UuidV7;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes batches of payment-completed and balance-updated events to the
+ * ledger.
+ *
+ * Processing is exactly-once with respect to the consumer offsets: the next
+ * offset per partition is stored in ledger_consumer_offsets and updated in
+ * the same database transaction as the rows it covers. A batch re-delivered
+ * after a crash or rebalance (Kafka's own commit lagging the database) is
+ * recognised by its offsets and skipped, and on assignment the listener
+ * seeks to the stored offsets. Entries are also unique per payment, so an
+ * event the producers' outboxes sent twice is recorded once.
+ *
+ * Each batch becomes one multi-row INSERT for its entries and one for
+ * their audit rows, in chunks of rows-per-statement.
+ */
+@Service
+public class LedgerIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerIngestService.class);
+
+    public static final String TOPIC_PAYMENT_COMPLETED = "payment-completed";
+    public static final String TOPIC_BALANCE_UPDATED = "balance-updated";
+
+    private static final String ACTION_RECORDED = "RECORDED";
+
+    private static final String INSERT_TRANSACTIONS = "INSERT INTO transactions (id, payment_id, " +
+            "sender_user_id, receiver_user_id, amount, currency, transaction_type, status, description, " +
+            "reference_id, created_at) VALUES ";
+    private static final String TRANSACTION_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int TRANSACTION_COLUMNS = 11;
+
+    private static final String INSERT_AUDIT_LOGS = "INSERT INTO audit_logs (id, transaction_id, action, " +
+            "new_values, user_id, created_at) VALUES ";
+    private static final String AUDIT_ROW = "(?, ?, ?, CAST(? AS JSONB), ?, ?)";
+    private static final int AUDIT_COLUMNS = 6;
+
+    // Postgres binds at most 65535 parameters per statement
+    private static final int MAX_PARAMETERS = 65535;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ledger.consumer.group:ledger-service}")
+    private String consumerGroup;
+
+    @Value("${ledger.ingest.rows-per-statement:500}")
+    private int rowsPerStatement;
+
+    /**
+     * A ledger row built from one event
+     */
+    private static final class Entry {
+        private final UUID id = UuidV7.next();
+        private UUID paymentId;
+        private UUID fromUserId;
+        private UUID toUserId;
+        private BigDecimal amount;
+        private String currency;
+        private TransactionType type;
+        private String description;
+        private String referenceId;
+        private LocalDateTime createdAt;
+        private String eventData;
+    }
+
+    /**
+     * Stored positions for the given partitions; partitions this group has
+     * never written are left out
+     */
+    @Transactional(readOnly = true)
+    public Map<TopicPartition, Long> storedOffsets(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+        Set<TopicPartition> wanted = new HashSet<>(partitions);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        jdbcTemplate.query("SELECT topic, partition_id, next_offset FROM ledger_consumer_offsets " +
+                "WHERE consumer_group = ?", rs -> {
+                    TopicPartition partition = new TopicPartition(rs.getString(1), rs.getInt(2));
+                    if (wanted.contains(partition)) {
+                        offsets.put(partition, rs.getLong(3));
+                    }
+                }, consumerGroup);
+        return offsets;
+    }
+
+    /**
+     * Apply one polled batch; returns the number of entries recorded
+     */
+    @Transactional
+    public int ingest(List<ConsumerRecord<String, String>> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (ConsumerRecord<String, String> record : records) {
+            partitions.add(new TopicPartition(record.topic(), record.partition()));
+        }
+        Map<TopicPartition, Long> stored = lockOffsets(partitions);
+
+        Map<TopicPartition, Long> next = new HashMap<>();
+        Map<UUID, Entry> entries = new LinkedHashMap<>();
+        int replayed = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            Long position = stored.get(partition);
+            if (position != null && record.offset() < position) {
+                replayed++;
+                continue;
+            }
+            next.merge(partition, record.offset() + 1, Math::max);
+            Entry entry = toEntry(record);
+            if (entry != null) {
+                entries.putIfAbsent(entry.paymentId, entry);
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Skipped {} ledger events already applied", replayed);
+        }
+        if (next.isEmpty()) {
+            return 0;
+        }
+
+        removeRecorded(entries);
+        List<Entry> rows = new ArrayList<>(entries.values());
+        insertTransactions(rows);
+        insertAuditLogs(rows);
+        saveOffsets(next, stored);
+        return rows.size();
+    }
+
+    /**
+     * Read and lock the stored offsets of the batch's partitions; a second
+     * consumer still holding a revoked partition waits here, then sees the
+     * new position and skips what was already applied
+     */
+    private Map<TopicPartition, Long> lockOffsets(Collection<TopicPartition> partitions) {
+        StringBuilder sql = new StringBuilder("SELECT topic, partition_id, next_offset FROM ledger_consumer_offsets " +
+                "WHERE consumer_group = ? AND (");
+        List<Object> args = new ArrayList<>(partitions.size() * 2 + 1);
+        args.add(consumerGroup);
+        for (TopicPartition partition : partitions) {
+            if (args.size() > 1) {
+                sql.append(" OR ");
+            }
+            sql.append("(topic = ? AND partition_id = ?)");
+            args.add(partition.topic());
+            args.add(partition.partition());
+        }
+        sql.append(") FOR UPDATE");
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            offsets.put(new TopicPartition(rs.getString(1), rs.getInt(2)), rs.getLong(3));
+        }, args.toArray());
+        return offsets;
+    }
+
+    private void saveOffsets(Map<TopicPartition, Long> next, Map<TopicPartition, Long> stored) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Map.Entry<TopicPartition, Long> entry : next.entrySet()) {
+            TopicPartition partition = entry.getKey();
+            if (stored.containsKey(partition)) {
+                updates.add(new Object[] { entry.getValue(), now, consumerGroup, partition.topic(),
+                        partition.partition() });
+            } else {
+                // A concurrent first insert fails on the primary key and the batch is retried
+                inserts.add(new Object[] { consumerGroup, partition.topic(), partition.partition(),
+                        entry.getValue(), now });
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE ledger_consumer_offsets SET next_offset = ?, updated_at = ? " +
+                    "WHERE consumer_group = ? AND topic = ? AND partition_id = ?", updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO ledger_consumer_offsets (consumer_group, topic, partition_id, " +
+                    "next_offset, updated_at) VALUES (?, ?, ?, ?, ?)", inserts);
+        }
+    }
+
+    /**
+     * Drop entries whose payment is already in the ledger (an event the
+     * producer relayed twice)
+     */
+    private void removeRecorded(Map<UUID, Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>(entries.keySet());
+        int chunk = Math.min(rowsPerStatement, MAX_PARAMETERS);
+        for (int from = 0; from < ids.size(); from += chunk) {
+            List<UUID> slice = ids.subList(from, Math.min(ids.size(), from + chunk));
+            String sql = "SELECT payment_id FROM transactions WHERE payment_id IN (" + placeholders(slice.size()) + ")";
+            for (UUID recorded : jdbcTemplate.queryForList(sql, UUID.class, slice.toArray())) {
+                entries.remove(recorded);
+            }
+        }
+    }
+
+    private void insertTransactions(List<Entry> rows) {
+        int chunk = Math.min(rowsPerStatement, MAX_PARAMETERS / TRANSACTION_COLUMNS);
+        for (int from = 0; from < rows.size(); from += chunk) {
+            List<Entry> slice = rows.subList(from, Math.min(rows.size(), from + chunk));
+            List<Object> args = new ArrayList<>(slice.size() * TRANSACTION_COLUMNS);
+            for (Entry entry : slice) {
+                args.add(entry.id);
+                args.add(entry.paymentId);
+                args.add(entry.fromUserId);
+                args.add(entry.toUserId);
+                args.add(entry.amount);
+                args.add(entry.currency);
+                args.add(entry.type.name());
+                args.add("COMPLETED");
+                args.add(entry.description);
+                args.add(entry.referenceId);
+                args.add(Timestamp.valueOf(entry.createdAt));
+            }
+            // A row recorded concurrently is skipped here; its audit row then
+            // fails the foreign key and the batch is retried without it
+            jdbcTemplate.update(INSERT_TRANSACTIONS + rowsOf(TRANSACTION_ROW, slice.size())
+                    + " ON CONFLICT DO NOTHING", args.toArray());
+        }
+    }
+
+    private void insertAuditLogs(List<Entry> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int chunk = Math.min(rowsPerStatement, MAX_PARAMETERS / AUDIT_COLUMNS);
+        for (int from = 0; from < rows.size(); from += chunk) {
+            List<Entry> slice = rows.subList(from, Math.min(rows.size(), from + chunk));
+            List<Object> args = new ArrayList<>(slice.size() * AUDIT_COLUMNS);
+            for (Entry entry : slice) {
+                args.add(UuidV7.next());
+                args.add(entry.id);
+                args.add(ACTION_RECORDED);
+                args.add(entry.eventData);
+                args.add(entry.fromUserId);
+                args.add(now);
+            }
+            jdbcTemplate.update(INSERT_AUDIT_LOGS + rowsOf(AUDIT_ROW, slice.size()), args.toArray());
+        }
+    }
+
+    /**
+     * Build the ledger entry for an event, or null if it is not ledger
+     * material or cannot be read
+     */
+    private Entry toEntry(ConsumerRecord<String, String> record) {
+        try {
+            JsonNode event = objectMapper.readTree(record.value());
+            JsonNode data = event.path("data");
+            Entry entry = new Entry();
+            if (TOPIC_PAYMENT_COMPLETED.equals(record.topic())) {
+                if (!"COMPLETED".equals(data.path("status").asText())) {
+                    return null;
+                }
+                entry.paymentId = UUID.fromString(data.path("paymentId").asText());
+                entry.fromUserId = UUID.fromString(data.path("fromUserId").asText());
+                entry.toUserId = UUID.fromString(data.path("toUserId").asText());
+                entry.type = TransactionType.TRANSFER;
+                entry.referenceId = text(data, "referenceId");
+                entry.createdAt = time(data, "processedAt", "createdAt", event);
+            } else {
+                // Payment legs are recorded once, from payment-completed
+                if (text(data, "referenceId") != null) {
+                    return null;
+                }
+                entry.paymentId = UUID.fromString(data.path("transactionId").asText());
+                entry.fromUserId = UUID.fromString(data.path("userId").asText());
+                entry.toUserId = entry.fromUserId;
+                entry.type = "DEBIT".equals(data.path("transactionType").asText())
+                        ? TransactionType.WITHDRAWAL
+                        : TransactionType.DEPOSIT;
+                entry.createdAt = time(data, "createdAt", "createdAt", event);
+            }
+            entry.amount = new BigDecimal(data.path("amount").asText());
+            entry.currency = text(data, "currency") != null ? text(data, "currency") : "USD";
+            entry.description = text(data, "description");
+            entry.eventData = data.toString();
+            return entry;
+        } catch (Exception e) {
+            logger.error("Skipping malformed {} event at {}-{}@{}: {}", record.topic(), record.topic(),
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String text(JsonNode data, String field) {
+        JsonNode node = data.path(field);
+        return node.isMissingNode() || node.isNull() || node.asText().isEmpty() ? null : node.asText();
+    }
+
+    private static LocalDateTime time(JsonNode data, String field, String fallback, JsonNode event) {
+        String value = text(data, field) != null ? text(data, field) : text(data, fallback);
+        if (value != null) {
+            return LocalDateTime.parse(value);
+        }
+        return LocalDateTime.ofInstant(Instant.parse(event.path("timestamp").asText()), ZoneOffset.UTC);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String rowsOf(String row, int count) {
+        return String.join(", ", Collections.nCopies(count, row));
+    }
+}
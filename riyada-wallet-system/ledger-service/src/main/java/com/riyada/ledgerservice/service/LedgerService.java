@@ -0,0 +1,113 @@
+package com.riyada.ledgerservice.service;
+
+import com.riyada.ledgerservice.dto.LedgerPageDTO;
+import com.riyada.ledgerservice.dto.LedgerSummaryDTO;
+import com.riyada.ledgerservice.dto.LedgerTransactionDTO;
+import com.riyada.ledgerservice.entity.LedgerTransaction;
+import com.riyada.ledgerservice.repository.LedgerTransactionRepository;
+import com.riyada.ledgerservice.util.LedgerMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Ledger queries, answered from ledger_db alone
+ */
+@Service
+@Transactional(readOnly = true)
+public class LedgerService {
+
+    // Open bounds for unfiltered queries
+    private static final LocalDateTime RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_END = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    @Autowired
+    private LedgerTransactionRepository ledgerTransactionRepository;
+
+    /**
+     * Get one page of a user's ledger entries, newest first
+     */
+    public LedgerPageDTO getUserTransactions(UUID userId, String cursor, int limit,
+            Collection<LedgerTransaction.TransactionType> types, LocalDateTime fromDate, LocalDateTime toDate) {
+        LocalDateTime cursorTime = RANGE_END;
+        UUID cursorId = MAX_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|", 2);
+                cursorTime = LocalDateTime.parse(parts[0]);
+                cursorId = UUID.fromString(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid ledger cursor");
+            }
+        }
+
+        Collection<LedgerTransaction.TransactionType> typeFilter = types == null || types.isEmpty()
+                ? EnumSet.allOf(LedgerTransaction.TransactionType.class)
+                : types;
+        List<String> typeNames = typeFilter.stream().map(Enum::name).collect(Collectors.toList());
+
+        // One extra row tells whether another page exists
+        List<LedgerTransaction> rows = ledgerTransactionRepository.findPage(userId, typeNames,
+                fromDate != null ? fromDate : RANGE_START,
+                toDate != null ? toDate : RANGE_END,
+                cursorTime, cursorId, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<LedgerTransaction> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            LedgerTransaction last = page.get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<LedgerTransactionDTO> transactions = page.stream()
+                .map(LedgerMapper::toLedgerTransactionDTO)
+                .collect(Collectors.toList());
+        return new LedgerPageDTO(transactions, nextCursor, hasMore);
+    }
+
+    /**
+     * Get the ledger entry recorded for a payment
+     */
+    public LedgerTransactionDTO getPaymentTransaction(UUID paymentId) {
+        return ledgerTransactionRepository.findByPaymentId(paymentId)
+                .filter(t -> t.getTransactionType() == LedgerTransaction.TransactionType.TRANSFER)
+                .map(LedgerMapper::toLedgerTransactionDTO)
+                .orElseThrow(() -> new RuntimeException("No ledger entry for payment: " + paymentId));
+    }
+
+    /**
+     * Sum a user's ledger entries over a period
+     */
+    public LedgerSummaryDTO getUserSummary(UUID userId, LocalDateTime fromDate, LocalDateTime toDate) {
+        LocalDateTime from = fromDate != null ? fromDate : RANGE_START;
+        LocalDateTime to = toDate != null ? toDate : RANGE_END;
+        Object[] row = ledgerTransactionRepository.summarize(userId, from, to).get(0);
+
+        BigDecimal sent = toBigDecimal(row[0]);
+        BigDecimal received = toBigDecimal(row[1]);
+        BigDecimal deposited = toBigDecimal(row[2]);
+        BigDecimal withdrawn = toBigDecimal(row[3]);
+        BigDecimal net = received.add(deposited).subtract(sent).subtract(withdrawn);
+        return new LedgerSummaryDTO(userId, fromDate, toDate, sent, received, deposited, withdrawn, net,
+                ((Number) row[4]).longValue());
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.riyada.ledgerservice.util;
+
+import com.riyada.ledgerservice.dto.LedgerTransactionDTO;
+import com.riyada.ledgerservice.entity.LedgerTransaction;
+
+public class LedgerMapper {
+
+    /**
+     * Convert LedgerTransaction entity to LedgerTransactionDTO
+     */
+    public static LedgerTransactionDTO toLedgerTransactionDTO(LedgerTransaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+
+        return new LedgerTransactionDTO(
+                transaction.getId(),
+                transaction.getPaymentId(),
+                transaction.getReferenceId(),
+                transaction.getFromUserId(),
+                transaction.getToUserId(),
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                transaction.getTransactionType(),
+                transaction.getStatus(),
+                transaction.getDescription(),
+                transaction.getCreatedAt());
+    }
+}
@@ -0,0 +1,60 @@
+package com.riyada.ledgerservice.event;
+
+import com.riyada.ledgerservice.service.LedgerIngestService;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerEventListenerTest {
+
+    @Mock
+    private LedgerIngestService ledgerIngestService;
+
+    @Mock
+    private ConsumerSeekCallback callback;
+
+    @InjectMocks
+    private LedgerEventListener ledgerEventListener;
+
+    @Test
+    void testOnPartitionsAssigned_SeeksToStoredOffsets() {
+        // Given - the ledger has seen partition 0 but not partition 1
+        TopicPartition seen = new TopicPartition(LedgerIngestService.TOPIC_PAYMENT_COMPLETED, 0);
+        TopicPartition unseen = new TopicPartition(LedgerIngestService.TOPIC_PAYMENT_COMPLETED, 1);
+        Map<TopicPartition, Long> assignments = Map.of(seen, 3L, unseen, 9L);
+        when(ledgerIngestService.storedOffsets(assignments.keySet())).thenReturn(Map.of(seen, 42L));
+
+        // When
+        ledgerEventListener.onPartitionsAssigned(assignments, callback);
+
+        // Then - Kafka's committed offset stands for the partition never written
+        verify(callback).seek(LedgerIngestService.TOPIC_PAYMENT_COMPLETED, 0, 42L);
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    void testOnPartitionsAssigned_NothingStoredNoSeek() {
+        // Given
+        Map<TopicPartition, Long> assignments = Map.of(
+                new TopicPartition(LedgerIngestService.TOPIC_BALANCE_UPDATED, 0), 0L);
+        when(ledgerIngestService.storedOffsets(assignments.keySet())).thenReturn(Map.of());
+
+        // When
+        ledgerEventListener.onPartitionsAssigned(assignments, callback);
+
+        // Then
+        verify(callback, never()).seek(anyString(), anyInt(), anyLong());
+    }
+}
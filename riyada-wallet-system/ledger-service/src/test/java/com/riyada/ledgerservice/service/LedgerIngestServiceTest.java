@@ -0,0 +1,208 @@
+package com.riyada.ledgerservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives LedgerIngestService against a mocked JdbcTemplate: stored offsets
+ * and already-recorded payments are scripted, and the INSERTs are captured
+ */
+@ExtendWith(MockitoExtension.class)
+class LedgerIngestServiceTest {
+
+    private static final String TOPIC = LedgerIngestService.TOPIC_PAYMENT_COMPLETED;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private LedgerIngestService ledgerIngestService;
+
+    // Arguments of each INSERT INTO transactions
+    private final List<List<Object>> transactionInserts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ledgerIngestService, "consumerGroup", "ledger-service");
+        ReflectionTestUtils.setField(ledgerIngestService, "rowsPerStatement", 500);
+    }
+
+    @Test
+    void testIngest_RedeliveredBatchSkippedByStoredOffset() throws Exception {
+        // Given - offsets 3 and 4 were applied before a rebalance
+        givenStoredOffsets(Map.of(new TopicPartition(TOPIC, 0), 5L));
+
+        // When
+        int recorded = ledgerIngestService.ingest(List.of(
+                record(3, paymentCompleted(UUID.randomUUID())),
+                record(4, paymentCompleted(UUID.randomUUID()))));
+
+        // Then - nothing is written, not even the offsets
+        assertEquals(0, recorded);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testIngest_PartlyRedeliveredBatchAppliesNewRecordsOnly() throws Exception {
+        // Given
+        givenStoredOffsets(Map.of(new TopicPartition(TOPIC, 0), 5L));
+        UUID applied = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        givenRecorded();
+        givenInserts();
+
+        // When
+        int recorded = ledgerIngestService.ingest(List.of(
+                record(4, paymentCompleted(applied)),
+                record(5, paymentCompleted(fresh))));
+
+        // Then
+        assertEquals(1, recorded);
+        assertEquals(1, transactionInserts.size());
+        assertEquals(fresh, transactionInserts.get(0).get(1));
+        assertEquals(List.of(6L), savedOffsets("UPDATE ledger_consumer_offsets", 0));
+    }
+
+    @Test
+    void testIngest_DuplicatePaymentEventRecordedOnce() throws Exception {
+        // Given - the producer's outbox relayed the same event twice
+        givenStoredOffsets(Map.of());
+        UUID paymentId = UUID.randomUUID();
+        givenRecorded();
+        givenInserts();
+
+        // When
+        int recorded = ledgerIngestService.ingest(List.of(
+                record(0, paymentCompleted(paymentId)),
+                record(1, paymentCompleted(paymentId))));
+
+        // Then - one row, and the offset moves past both
+        assertEquals(1, recorded);
+        assertEquals(11, transactionInserts.get(0).size());
+        assertEquals(List.of(2L), savedOffsets("INSERT INTO ledger_consumer_offsets", 3));
+    }
+
+    @Test
+    void testIngest_PaymentAlreadyInLedgerSkipped() throws Exception {
+        // Given - recorded by an earlier batch under a different offset
+        givenStoredOffsets(Map.of(new TopicPartition(TOPIC, 0), 7L));
+        UUID paymentId = UUID.randomUUID();
+        givenRecorded(paymentId);
+
+        // When
+        int recorded = ledgerIngestService.ingest(List.of(record(7, paymentCompleted(paymentId))));
+
+        // Then
+        assertEquals(0, recorded);
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO transactions"), any(Object[].class));
+        assertEquals(List.of(8L), savedOffsets("UPDATE ledger_consumer_offsets", 0));
+    }
+
+    @Test
+    void testIngest_MalformedRecordSkippedAndOffsetAdvanced() throws Exception {
+        // Given
+        givenStoredOffsets(Map.of());
+        UUID paymentId = UUID.randomUUID();
+        givenRecorded();
+        givenInserts();
+
+        // When
+        int recorded = ledgerIngestService.ingest(List.of(
+                record(0, "{not json"),
+                record(1, "{\"data\":{\"status\":\"COMPLETED\",\"paymentId\":\"nope\"}}"),
+                record(2, paymentCompleted(paymentId))));
+
+        // Then - the bad records do not block the partition
+        assertEquals(1, recorded);
+        assertEquals(paymentId, transactionInserts.get(0).get(1));
+        assertEquals(List.of(3L), savedOffsets("INSERT INTO ledger_consumer_offsets", 3));
+    }
+
+    private void givenStoredOffsets(Map<TopicPartition, Long> offsets) throws Exception {
+        List<ResultSet> rows = new ArrayList<>();
+        for (Map.Entry<TopicPartition, Long> offset : offsets.entrySet()) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenReturn(offset.getKey().topic());
+            when(rs.getInt(2)).thenReturn(offset.getKey().partition());
+            when(rs.getLong(3)).thenReturn(offset.getValue());
+            rows.add(rs);
+        }
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet rs : rows) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private void givenRecorded(UUID... paymentIds) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT payment_id"), eq(UUID.class), any(Object[].class)))
+                .thenReturn(Arrays.asList(paymentIds));
+    }
+
+    private void givenInserts() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            if (((String) arguments[0]).startsWith("INSERT INTO transactions")) {
+                transactionInserts.add(Arrays.asList(arguments).subList(1, arguments.length));
+            }
+            return 1;
+        });
+    }
+
+    /**
+     * next_offset values written by the given offsets statement, read from
+     * the given column of each row
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> savedOffsets(String statement, int column) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(statement), rows.capture());
+        return rows.getValue().stream().map(row -> (Long) row[column]).toList();
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, null, value);
+    }
+
+    private static String paymentCompleted(UUID paymentId) {
+        return "{\"eventType\":\"PAYMENT_COMPLETED\",\"timestamp\":\"2026-01-01T00:00:00Z\",\"data\":{"
+                + "\"paymentId\":\"" + paymentId + "\","
+                + "\"fromUserId\":\"" + UUID.randomUUID() + "\","
+                + "\"toUserId\":\"" + UUID.randomUUID() + "\","
+                + "\"amount\":25.00,\"status\":\"COMPLETED\",\"referenceId\":\"PAY-1\","
+                + "\"processedAt\":\"2026-01-01T00:00:00\"}}";
+    }
+}
@@ -0,0 +1,24 @@
+package com.riyada.notificationservice.channel;
+
+import com.riyada.notificationservice.entity.Notification;
+
+import java.util.List;
+
+/**
+ * A way of reaching users outside the app. Every bean implementing this is
+ * picked up by NotificationDispatcher and given, in batches, the
+ * notifications of users whose preferences allow its type.
+ */
+public interface NotificationChannel {
+
+    enum Type {
+        EMAIL, PUSH, SMS
+    }
+
+    Type type();
+
+    /**
+     * Deliver a batch; throwing fails the whole batch, which is retried
+     */
+    void deliver(List<Notification> notifications);
+}
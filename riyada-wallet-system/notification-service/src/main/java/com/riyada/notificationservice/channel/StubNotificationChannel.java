@@ -0,0 +1,56 @@
+package com.riyada.notificationservice.channel;
+
+import com.riyada.notificationservice.entity.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Local channel that logs deliveries and keeps the most recent ones in
+ * memory, for development and tests
+ */
+public class StubNotificationChannel implements NotificationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubNotificationChannel.class);
+
+    private final Type type;
+    private final int capacity;
+    private final Deque<Notification> delivered = new ArrayDeque<>();
+
+    public StubNotificationChannel(Type type, int capacity) {
+        this.type = type;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public Type type() {
+        return type;
+    }
+
+    @Override
+    public synchronized void deliver(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            logger.debug("[{}] to {}: {} - {}", type, notification.getUserId(), notification.getTitle(),
+                    notification.getMessage());
+            if (delivered.size() == capacity) {
+                delivered.removeFirst();
+            }
+            delivered.addLast(notification);
+        }
+    }
+
+    /**
+     * The most recent deliveries, oldest first
+     */
+    public synchronized List<Notification> delivered() {
+        return new ArrayList<>(delivered);
+    }
+
+    public synchronized void clear() {
+        delivered.clear();
+    }
+}
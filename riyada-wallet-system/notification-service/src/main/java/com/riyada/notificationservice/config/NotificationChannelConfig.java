@@ -0,0 +1,35 @@
+package com.riyada.notificationservice.config;
+
+import com.riyada.notificationservice.channel.NotificationChannel;
+import com.riyada.notificationservice.channel.StubNotificationChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stub email, push and SMS channels. Turn them off once real providers are
+ * registered as NotificationChannel beans.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notifications.channels.stub.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationChannelConfig {
+
+    @Value("${notifications.channels.stub.capacity:1000}")
+    private int capacity;
+
+    @Bean
+    public StubNotificationChannel emailChannel() {
+        return new StubNotificationChannel(NotificationChannel.Type.EMAIL, capacity);
+    }
+
+    @Bean
+    public StubNotificationChannel pushChannel() {
+        return new StubNotificationChannel(NotificationChannel.Type.PUSH, capacity);
+    }
+
+    @Bean
+    public StubNotificationChannel smsChannel() {
+        return new StubNotificationChannel(NotificationChannel.Type.SMS, capacity);
+    }
+}
@@ -0,0 +1,234 @@
+package com.riyada.notificationservice.controller;
+
+import com.riyada.notificationservice.config.JwtConfig;
+import com.riyada.notificationservice.dto.NotificationDTO;
+import com.riyada.notificationservice.dto.UserPreferenceDTO;
+import com.riyada.notificationservice.service.NotificationService;
+import com.riyada.notificationservice.service.UserPreferenceService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "*")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserPreferenceService userPreferenceService;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Value("${notifications.query.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Health check endpoint
+     * GET /api/notifications/health
+     */
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> health() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("service", "notification-service");
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get a user's most recent notifications
+     * GET /api/notifications/user/{userId}?unreadOnly=false&limit=20
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserNotifications(@PathVariable UUID userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request) {
+        try {
+            ResponseEntity<?> denied = checkOwner(request, userId);
+            if (denied != null) {
+                return denied;
+            }
+
+            int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+            List<NotificationDTO> notifications = notificationService.getUserNotifications(userId, unreadOnly,
+                    pageSize);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Notifications retrieved successfully");
+            response.put("notifications", notifications);
+            response.put("count", notifications.size());
+            response.put("unreadCount", notificationService.countUnread(userId));
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INVALID_NOTIFICATION_REQUEST");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving notifications");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Mark a notification read
+     * POST /api/notifications/{notificationId}/read
+     */
+    @PostMapping("/{notificationId}/read")
+    public ResponseEntity<?> markAsRead(@PathVariable UUID notificationId, HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return unauthorized();
+            }
+            UUID tokenUserId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+
+            NotificationDTO notification = notificationService.markAsRead(notificationId, tokenUserId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Notification marked as read");
+            response.put("notification", notification);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "NOTIFICATION_NOT_FOUND");
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while updating the notification");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Get a user's channel preferences
+     * GET /api/notifications/preferences/{userId}
+     */
+    @GetMapping("/preferences/{userId}")
+    public ResponseEntity<?> getPreferences(@PathVariable UUID userId, HttpServletRequest request) {
+        try {
+            ResponseEntity<?> denied = checkOwner(request, userId);
+            if (denied != null) {
+                return denied;
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Preferences retrieved successfully");
+            response.put("preferences", userPreferenceService.getPreferences(userId));
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving preferences");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Update a user's channel preferences; omitted fields are left as they are
+     * PUT /api/notifications/preferences/{userId}
+     */
+    @PutMapping("/preferences/{userId}")
+    public ResponseEntity<?> updatePreferences(@PathVariable UUID userId,
+            @RequestBody UserPreferenceDTO update,
+            HttpServletRequest request) {
+        try {
+            ResponseEntity<?> denied = checkOwner(request, userId);
+            if (denied != null) {
+                return denied;
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Preferences updated successfully");
+            response.put("preferences", userPreferenceService.updatePreferences(userId, update));
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "PREFERENCES_UPDATE_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while updating preferences");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Null if the token belongs to the user, otherwise the 401/403 response
+     */
+    private ResponseEntity<?> checkOwner(HttpServletRequest request, UUID userId) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return unauthorized();
+        }
+        UUID tokenUserId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+        if (!tokenUserId.equals(userId)) {
+            return forbidden("You are not authorized to access this user's notifications");
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> unauthorized() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Authorization header is required");
+        errorResponse.put("error", "UNAUTHORIZED");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    }
+
+    private ResponseEntity<?> forbidden(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("error", "FORBIDDEN");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+}
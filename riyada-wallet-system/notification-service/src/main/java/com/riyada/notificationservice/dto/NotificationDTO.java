@@ -0,0 +1,143 @@
+package com.riyada.notificationservice.dto;
+
+import com.riyada.notificationservice.entity.Notification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class NotificationDTO {
+
+    private UUID id;
+    private UUID userId;
+    private String title;
+    private String message;
+    private Notification.NotificationType type;
+    private Notification.Kind kind;
+    private int eventCount;
+    private BigDecimal totalAmount;
+    private String currency;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public NotificationDTO() {
+    }
+
+    public NotificationDTO(UUID id, UUID userId, String title, String message, Notification.NotificationType type,
+            Notification.Kind kind, int eventCount, BigDecimal totalAmount, String currency, Boolean isRead,
+            LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.message = message;
+        this.type = type;
+        this.kind = kind;
+        this.eventCount = eventCount;
+        this.totalAmount = totalAmount;
+        this.currency = currency;
+        this.isRead = isRead;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Notification.NotificationType getType() {
+        return type;
+    }
+
+    public void setType(Notification.NotificationType type) {
+        this.type = type;
+    }
+
+    public Notification.Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Notification.Kind kind) {
+        this.kind = kind;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationDTO{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", title='" + title + '\'' +
+                ", kind=" + kind +
+                ", eventCount=" + eventCount +
+                ", isRead=" + isRead +
+                '}';
+    }
+}
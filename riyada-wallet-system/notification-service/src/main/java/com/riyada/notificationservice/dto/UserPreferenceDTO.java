@@ -0,0 +1,86 @@
+package com.riyada.notificationservice.dto;
+
+import com.riyada.notificationservice.channel.NotificationChannel;
+
+import java.util.UUID;
+
+public class UserPreferenceDTO {
+
+    private UUID userId;
+    private Boolean emailNotifications;
+    private Boolean pushNotifications;
+    private Boolean smsNotifications;
+
+    // Constructors
+    public UserPreferenceDTO() {
+    }
+
+    public UserPreferenceDTO(UUID userId, Boolean emailNotifications, Boolean pushNotifications,
+            Boolean smsNotifications) {
+        this.userId = userId;
+        this.emailNotifications = emailNotifications;
+        this.pushNotifications = pushNotifications;
+        this.smsNotifications = smsNotifications;
+    }
+
+    /**
+     * Preferences of a user who never set any
+     */
+    public static UserPreferenceDTO defaults(UUID userId) {
+        return new UserPreferenceDTO(userId, true, true, false);
+    }
+
+    /**
+     * Whether the user wants notifications through this channel
+     */
+    public boolean allows(NotificationChannel.Type channel) {
+        return switch (channel) {
+            case EMAIL -> Boolean.TRUE.equals(emailNotifications);
+            case PUSH -> Boolean.TRUE.equals(pushNotifications);
+            case SMS -> Boolean.TRUE.equals(smsNotifications);
+        };
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public Boolean getEmailNotifications() {
+        return emailNotifications;
+    }
+
+    public void setEmailNotifications(Boolean emailNotifications) {
+        this.emailNotifications = emailNotifications;
+    }
+
+    public Boolean getPushNotifications() {
+        return pushNotifications;
+    }
+
+    public void setPushNotifications(Boolean pushNotifications) {
+        this.pushNotifications = pushNotifications;
+    }
+
+    public Boolean getSmsNotifications() {
+        return smsNotifications;
+    }
+
+    public void setSmsNotifications(Boolean smsNotifications) {
+        this.smsNotifications = smsNotifications;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPreferenceDTO{" +
+                "userId=" + userId +
+                ", emailNotifications=" + emailNotifications +
+                ", pushNotifications=" + pushNotifications +
+                ", smsNotifications=" + smsNotifications +
+                '}';
+    }
+}
@@ -0,0 +1,238 @@
+package com.riyada.notificationservice.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An in-app notification. Events of the same kind for a user are coalesced
+ * into one row while its digest window is open; the row is handed to the
+ * delivery channels once the window closes.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_notifications_pending", columnList = "delivered_at, digest_until")
+})
+public class Notification {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "message", columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(name = "type", length = 50, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    @Column(name = "kind", length = 30)
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    @Column(name = "currency", length = 3)
+    private String currency = "USD";
+
+    // Events coalesced into this notification, and their total
+    @Column(name = "event_count", nullable = false)
+    private int eventCount;
+
+    @Column(name = "total_amount", precision = 15, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "is_read")
+    private Boolean isRead = false;
+
+    // Later events of the same kind join this row until then
+    @Column(name = "digest_until")
+    private LocalDateTime digestUntil;
+
+    // Set once the channels have been given the notification
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Column(name = "delivery_attempts", nullable = false)
+    private int deliveryAttempts;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum NotificationType {
+        PAYMENT, BALANCE, SYSTEM
+    }
+
+    public enum Kind {
+        PAYMENT_RECEIVED(NotificationType.PAYMENT),
+        PAYMENT_SENT(NotificationType.PAYMENT),
+        DEPOSIT(NotificationType.BALANCE),
+        WITHDRAWAL(NotificationType.BALANCE);
+
+        private final NotificationType type;
+
+        Kind(NotificationType type) {
+            this.type = type;
+        }
+
+        public NotificationType getType() {
+            return type;
+        }
+    }
+
+    // Constructors
+    public Notification() {
+    }
+
+    public Notification(UUID userId, Kind kind, String currency, LocalDateTime digestUntil) {
+        this.userId = userId;
+        this.kind = kind;
+        this.type = kind.getType();
+        this.currency = currency;
+        this.digestUntil = digestUntil;
+    }
+
+    /**
+     * Coalesce more events of this kind into the notification
+     */
+    public void addEvents(int count, BigDecimal amount) {
+        this.eventCount += count;
+        this.totalAmount = this.totalAmount.add(amount);
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public void setType(NotificationType type) {
+        this.type = type;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    public LocalDateTime getDigestUntil() {
+        return digestUntil;
+    }
+
+    public void setDigestUntil(LocalDateTime digestUntil) {
+        this.digestUntil = digestUntil;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    public void setDeliveredAt(LocalDateTime deliveredAt) {
+        this.deliveredAt = deliveredAt;
+    }
+
+    public int getDeliveryAttempts() {
+        return deliveryAttempts;
+    }
+
+    public void setDeliveryAttempts(int deliveryAttempts) {
+        this.deliveryAttempts = deliveryAttempts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Notification{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", kind=" + kind +
+                ", eventCount=" + eventCount +
+                ", totalAmount=" + totalAmount +
+                ", currency='" + currency + '\'' +
+                ", digestUntil=" + digestUntil +
+                ", deliveredAt=" + deliveredAt +
+                '}';
+    }
+}
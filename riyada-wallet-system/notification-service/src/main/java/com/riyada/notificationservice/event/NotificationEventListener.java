@@ -0,0 +1,33 @@
+package com.riyada.notificationservice.event;
+
+import com.riyada.notificationservice.service.NotificationIngestService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds payment-completed and balance-updated events to the notification
+ * digests in batches (up to max-poll-records per poll)
+ */
+@Component
+public class NotificationEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationEventListener.class);
+
+    @Autowired
+    private NotificationIngestService notificationIngestService;
+
+    @KafkaListener(topics = { NotificationIngestService.TOPIC_PAYMENT_COMPLETED,
+            NotificationIngestService.TOPIC_BALANCE_UPDATED },
+            groupId = "${notifications.consumer.group:notification-service}", batch = "true",
+            autoStartup = "${notifications.consumer.enabled:true}")
+    public void onEvents(List<ConsumerRecord<String, String>> records) {
+        int applied = notificationIngestService.ingest(records);
+        logger.debug("Applied {} notification events from {} records", applied, records.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.riyada.notificationservice.repository;
+
+import com.riyada.notificationservice.entity.Notification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    /**
+     * Lock the users' notifications whose digest window is still open, in
+     * ID order so concurrent batches do not deadlock. Waits for a
+     * dispatcher holding one; once it commits, the row is delivered and no
+     * longer matches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.userId IN :userIds AND n.deliveredAt IS NULL " +
+            "AND n.digestUntil > :now ORDER BY n.id")
+    List<Notification> lockOpenDigests(@Param("userIds") Collection<UUID> userIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Lock the oldest notifications whose digest window has closed; rows
+     * locked by another dispatcher or an ingesting consumer are skipped
+     * (SKIP LOCKED)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.deliveredAt IS NULL AND n.digestUntil <= :now " +
+            "ORDER BY n.digestUntil")
+    List<Notification> lockDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    List<Notification> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+
+    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+
+    long countByUserIdAndIsReadFalse(UUID userId);
+}
@@ -0,0 +1,18 @@
+package com.riyada.notificationservice.repository;
+
+import com.riyada.notificationservice.entity.UserPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserPreferenceRepository extends JpaRepository<UserPreference, UUID> {
+
+    Optional<UserPreference> findByUserId(UUID userId);
+
+    List<UserPreference> findByUserIdIn(Collection<UUID> userIds);
+}
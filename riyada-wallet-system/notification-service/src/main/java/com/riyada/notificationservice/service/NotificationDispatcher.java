@@ -0,0 +1,116 @@
+package com.riyada.notificationservice.service;
+
+import com.riyada.notificationservice.channel.NotificationChannel;
+import com.riyada.notificationservice.dto.UserPreferenceDTO;
+import com.riyada.notificationservice.entity.Notification;
+import com.riyada.notificationservice.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Polls for notifications whose digest window has closed and fans them out
+ * to the channels.
+ *
+ * Each poll locks a batch (SKIP LOCKED, so instances share the work),
+ * looks up the users' preferences in one cached call and hands every
+ * channel one list with the notifications its users opted into. A
+ * notification is marked delivered once every channel it was given to
+ * accepted it; if one failed it is retried on a later poll, which may
+ * repeat it on the channels that succeeded. After max-attempts it is
+ * marked delivered anyway, so a broken channel cannot hold the queue.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserPreferenceService userPreferenceService;
+
+    // No channels means notifications stay in-app only
+    @Autowired(required = false)
+    private List<NotificationChannel> channels = new ArrayList<>();
+
+    @Value("${notifications.delivery.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.delivery.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.delivery.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Deliver one batch of due notifications
+     */
+    @Scheduled(fixedDelayString = "${notifications.delivery.poll-interval-ms:1000}")
+    @Transactional
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> due = notificationRepository.lockDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, UserPreferenceDTO> preferences = userPreferenceService.getPreferences(
+                due.stream().map(Notification::getUserId).collect(Collectors.toSet()));
+
+        Set<UUID> failed = new HashSet<>();
+        for (NotificationChannel channel : channels) {
+            List<Notification> batch = new ArrayList<>();
+            for (Notification notification : due) {
+                if (preferences.get(notification.getUserId()).allows(channel.type())) {
+                    batch.add(notification);
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                channel.deliver(batch);
+            } catch (Exception e) {
+                logger.warn("{} channel failed to deliver {} notifications: {}", channel.type(), batch.size(),
+                        e.getMessage());
+                batch.forEach(notification -> failed.add(notification.getId()));
+            }
+        }
+
+        int delivered = 0;
+        for (Notification notification : due) {
+            if (failed.contains(notification.getId())) {
+                notification.setDeliveryAttempts(notification.getDeliveryAttempts() + 1);
+                if (notification.getDeliveryAttempts() < maxAttempts) {
+                    continue;
+                }
+                logger.warn("Giving up on notification {} after {} attempts", notification.getId(),
+                        notification.getDeliveryAttempts());
+            }
+            notification.setDeliveredAt(now);
+            delivered++;
+        }
+
+        logger.debug("Delivered {}/{} notifications", delivered, due.size());
+    }
+}
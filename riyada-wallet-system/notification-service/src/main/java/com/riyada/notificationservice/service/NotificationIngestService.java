@@ -0,0 +1,153 @@
+package com.riyada.notificationservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.notificationservice.entity.Notification;
+import com.riyada.notificationservice.entity.Notification.Kind;
+import com.riyada.notificationservice.repository.NotificationRepository;
+import com.riyada.notificationservice.util.NotificationMessages;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Turns batches of payment-completed and balance-updated events into
+ * notifications.
+ *
+ * Events are coalesced per user, kind and currency: the first opens a
+ * notification whose digest window stays open for digest.window-seconds,
+ * and later events in the window are added to its count and total rather
+ * than creating rows of their own. A burst of 14 incoming payments becomes
+ * one "You received 14 payments" notification. Each batch is applied with
+ * one locking read of the open digests and one batched write of the new
+ * and changed rows.
+ *
+ * Kafka offsets are committed after the batch, so delivery is
+ * at-least-once: an event re-delivered after a crash is counted again.
+ */
+@Service
+public class NotificationIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationIngestService.class);
+
+    public static final String TOPIC_PAYMENT_COMPLETED = "payment-completed";
+    public static final String TOPIC_BALANCE_UPDATED = "balance-updated";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notifications.digest.window-seconds:60}")
+    private long digestWindowSeconds;
+
+    /**
+     * Coalesce a batch of events into notifications; returns the number of
+     * events applied
+     */
+    @Transactional
+    public int ingest(List<ConsumerRecord<String, String>> records) {
+        Map<DigestKey, Digest> digests = new LinkedHashMap<>();
+        int applied = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            for (Event event : toEvents(record)) {
+                digests.computeIfAbsent(event.key, k -> new Digest()).add(event.amount);
+                applied++;
+            }
+        }
+        if (digests.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> userIds = digests.keySet().stream().map(DigestKey::userId).distinct().toList();
+        Map<DigestKey, Notification> open = new HashMap<>();
+        for (Notification notification : notificationRepository.lockOpenDigests(userIds, now)) {
+            open.putIfAbsent(new DigestKey(notification.getUserId(), notification.getKind(),
+                    notification.getCurrency()), notification);
+        }
+
+        List<Notification> changed = new ArrayList<>(digests.size());
+        for (Map.Entry<DigestKey, Digest> entry : digests.entrySet()) {
+            DigestKey key = entry.getKey();
+            Notification notification = open.get(key);
+            if (notification == null) {
+                notification = new Notification(key.userId(), key.kind(), key.currency(),
+                        now.plusSeconds(digestWindowSeconds));
+            }
+            notification.addEvents(entry.getValue().count, entry.getValue().total);
+            NotificationMessages.render(notification);
+            changed.add(notification);
+        }
+        notificationRepository.saveAll(changed);
+        return applied;
+    }
+
+    /**
+     * The notifications an event produces: a completed payment notifies
+     * both sides, a deposit or withdrawal its wallet owner. Wallet legs of a
+     * payment are left to the payment's own event.
+     */
+    private List<Event> toEvents(ConsumerRecord<String, String> record) {
+        try {
+            JsonNode data = objectMapper.readTree(record.value()).path("data");
+            BigDecimal amount = new BigDecimal(data.path("amount").asText());
+            String currency = data.hasNonNull("currency") ? data.path("currency").asText() : "USD";
+
+            if (TOPIC_PAYMENT_COMPLETED.equals(record.topic())) {
+                if (!"COMPLETED".equals(data.path("status").asText())) {
+                    return List.of();
+                }
+                UUID fromUserId = UUID.fromString(data.path("fromUserId").asText());
+                UUID toUserId = UUID.fromString(data.path("toUserId").asText());
+                return List.of(
+                        new Event(new DigestKey(fromUserId, Kind.PAYMENT_SENT, currency), amount),
+                        new Event(new DigestKey(toUserId, Kind.PAYMENT_RECEIVED, currency), amount));
+            }
+
+            if (data.hasNonNull("referenceId")) {
+                return List.of();
+            }
+            UUID userId = UUID.fromString(data.path("userId").asText());
+            Kind kind = "DEBIT".equals(data.path("transactionType").asText()) ? Kind.WITHDRAWAL : Kind.DEPOSIT;
+            return List.of(new Event(new DigestKey(userId, kind, currency), amount));
+        } catch (Exception e) {
+            logger.error("Skipping malformed {} event at {}-{}@{}: {}", record.topic(), record.topic(),
+                    record.partition(), record.offset(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private record DigestKey(UUID userId, Kind kind, String currency) {
+    }
+
+    private record Event(DigestKey key, BigDecimal amount) {
+    }
+
+    /**
+     * Count and total of one key's events in a batch
+     */
+    private static final class Digest {
+        private int count;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        private void add(BigDecimal amount) {
+            count++;
+            total = total.add(amount);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.riyada.notificationservice.service;
+
+import com.riyada.notificationservice.dto.NotificationDTO;
+import com.riyada.notificationservice.entity.Notification;
+import com.riyada.notificationservice.repository.NotificationRepository;
+import com.riyada.notificationservice.util.NotificationMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class NotificationService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    /**
+     * Get a user's most recent notifications, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getUserNotifications(UUID userId, boolean unreadOnly, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<Notification> notifications = unreadOnly
+                ? notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId, page)
+                : notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, page);
+        return notifications.stream()
+                .map(NotificationMapper::toNotificationDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Count a user's unread notifications
+     */
+    @Transactional(readOnly = true)
+    public long countUnread(UUID userId) {
+        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+    }
+
+    /**
+     * Mark a notification read; only its owner may do so
+     */
+    public NotificationDTO markAsRead(UUID notificationId, UUID userId) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .filter(n -> n.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
+        notification.setIsRead(true);
+        return NotificationMapper.toNotificationDTO(notification);
+    }
+}
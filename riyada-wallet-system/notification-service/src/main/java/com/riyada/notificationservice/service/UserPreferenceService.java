@@ -0,0 +1,104 @@
+package com.riyada.notificationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.riyada.notificationservice.dto.UserPreferenceDTO;
+import com.riyada.notificationservice.entity.UserPreference;
+import com.riyada.notificationservice.repository.UserPreferenceRepository;
+import com.riyada.notificationservice.util.NotificationMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Users' channel preferences behind a bounded read-through cache. A batch
+ * of lookups costs one query for all the misses; users without a row are
+ * cached with the defaults too. A change evicts the entry once it commits;
+ * other instances see it when their entry expires.
+ */
+@Service
+@Transactional
+public class UserPreferenceService {
+
+    private final UserPreferenceRepository userPreferenceRepository;
+    private final Cache<UUID, UserPreferenceDTO> cache;
+
+    public UserPreferenceService(UserPreferenceRepository userPreferenceRepository,
+            @Value("${notifications.preferences.cache.max-size:100000}") long maxSize,
+            @Value("${notifications.preferences.cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.userPreferenceRepository = userPreferenceRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-preferences");
+    }
+
+    /**
+     * Get a user's preferences
+     */
+    @Transactional(readOnly = true)
+    public UserPreferenceDTO getPreferences(UUID userId) {
+        return getPreferences(Set.of(userId)).get(userId);
+    }
+
+    /**
+     * Get the preferences of many users, loading all misses in one query
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, UserPreferenceDTO> getPreferences(Collection<UUID> userIds) {
+        return cache.getAll(userIds, this::load);
+    }
+
+    /**
+     * Create or replace a user's preferences
+     */
+    public UserPreferenceDTO updatePreferences(UUID userId, UserPreferenceDTO update) {
+        UserPreference preference = userPreferenceRepository.findByUserId(userId)
+                .orElseGet(() -> new UserPreference(userId));
+        if (update.getEmailNotifications() != null) {
+            preference.setEmailNotifications(update.getEmailNotifications());
+        }
+        if (update.getPushNotifications() != null) {
+            preference.setPushNotifications(update.getPushNotifications());
+        }
+        if (update.getSmsNotifications() != null) {
+            preference.setSmsNotifications(update.getSmsNotifications());
+        }
+        preference = userPreferenceRepository.save(preference);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+        return NotificationMapper.toUserPreferenceDTO(preference);
+    }
+
+    private Map<UUID, UserPreferenceDTO> load(Set<? extends UUID> userIds) {
+        Map<UUID, UserPreferenceDTO> loaded = new HashMap<>();
+        for (UserPreference preference : userPreferenceRepository.findByUserIdIn(List.copyOf(userIds))) {
+            loaded.put(preference.getUserId(), NotificationMapper.toUserPreferenceDTO(preference));
+        }
+        for (UUID userId : userIds) {
+            loaded.putIfAbsent(userId, UserPreferenceDTO.defaults(userId));
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,46 @@
+package com.riyada.notificationservice.util;
+
+import com.riyada.notificationservice.dto.NotificationDTO;
+import com.riyada.notificationservice.dto.UserPreferenceDTO;
+import com.riyada.notificationservice.entity.Notification;
+import com.riyada.notificationservice.entity.UserPreference;
+
+public class NotificationMapper {
+
+    /**
+     * Convert Notification entity to NotificationDTO
+     */
+    public static NotificationDTO toNotificationDTO(Notification notification) {
+        if (notification == null) {
+            return null;
+        }
+
+        return new NotificationDTO(
+                notification.getId(),
+                notification.getUserId(),
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getType(),
+                notification.getKind(),
+                notification.getEventCount(),
+                notification.getTotalAmount(),
+                notification.getCurrency(),
+                notification.getIsRead(),
+                notification.getCreatedAt());
+    }
+
+    /**
+     * Convert UserPreference entity to UserPreferenceDTO
+     */
+    public static UserPreferenceDTO toUserPreferenceDTO(UserPreference preference) {
+        if (preference == null) {
+            return null;
+        }
+
+        return new UserPreferenceDTO(
+                preference.getUserId(),
+                preference.getEmailNotifications(),
+                preference.getPushNotifications(),
+                preference.getSmsNotifications());
+    }
+}
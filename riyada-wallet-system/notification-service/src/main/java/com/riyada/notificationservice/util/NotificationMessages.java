@@ -0,0 +1,50 @@
+package com.riyada.notificationservice.util;
+
+import com.riyada.notificationservice.entity.Notification;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Titles and texts for notifications: a single event is described on its
+ * own, a digest by its count and total ("You received 14 payments
+ * totalling 350.00 USD")
+ */
+public class NotificationMessages {
+
+    /**
+     * Set the title and message from the notification's kind, count and total
+     */
+    public static void render(Notification notification) {
+        int count = notification.getEventCount();
+        String total = money(notification.getTotalAmount(), notification.getCurrency());
+        boolean single = count == 1;
+
+        switch (notification.getKind()) {
+            case PAYMENT_RECEIVED -> {
+                notification.setTitle(single ? "Payment received" : "Payments received");
+                notification.setMessage(single ? "You received " + total
+                        : "You received " + count + " payments totalling " + total);
+            }
+            case PAYMENT_SENT -> {
+                notification.setTitle(single ? "Payment sent" : "Payments sent");
+                notification.setMessage(single ? "You sent " + total
+                        : "You sent " + count + " payments totalling " + total);
+            }
+            case DEPOSIT -> {
+                notification.setTitle(single ? "Deposit" : "Deposits");
+                notification.setMessage(single ? total + " was added to your wallet"
+                        : count + " deposits totalling " + total + " were added to your wallet");
+            }
+            case WITHDRAWAL -> {
+                notification.setTitle(single ? "Withdrawal" : "Withdrawals");
+                notification.setMessage(single ? total + " was withdrawn from your wallet"
+                        : count + " withdrawals totalling " + total + " were withdrawn from your wallet");
+            }
+        }
+    }
+
+    private static String money(BigDecimal amount, String currency) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString() + " " + currency;
+    }
+}
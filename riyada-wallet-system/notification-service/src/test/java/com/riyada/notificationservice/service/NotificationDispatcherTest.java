@@ -0,0 +1,164 @@
+package com.riyada.notificationservice.service;
+
+import com.riyada.notificationservice.channel.NotificationChannel;
+import com.riyada.notificationservice.channel.StubNotificationChannel;
+import com.riyada.notificationservice.dto.UserPreferenceDTO;
+import com.riyada.notificationservice.entity.Notification;
+import com.riyada.notificationservice.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserPreferenceService userPreferenceService;
+
+    @InjectMocks
+    private NotificationDispatcher dispatcher;
+
+    private final StubNotificationChannel email = new StubNotificationChannel(NotificationChannel.Type.EMAIL, 100);
+    private final StubNotificationChannel push = new StubNotificationChannel(NotificationChannel.Type.PUSH, 100);
+    private final StubNotificationChannel sms = new StubNotificationChannel(NotificationChannel.Type.SMS, 100);
+
+    private final UUID defaultsUser = UUID.randomUUID();
+    private final UUID smsOnlyUser = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 500);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "channels", new ArrayList<>(List.of(email, push, sms)));
+    }
+
+    @Test
+    void testDispatch_SendsEachChannelOnlyItsOptedInUsers() {
+        // Given
+        Notification first = notification(defaultsUser);
+        Notification second = notification(smsOnlyUser);
+        dueAre(first, second);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then - defaults are email and push; the other user chose SMS only
+        assertEquals(List.of(first), email.delivered());
+        assertEquals(List.of(first), push.delivered());
+        assertEquals(List.of(second), sms.delivered());
+        assertNotNull(first.getDeliveredAt());
+        assertNotNull(second.getDeliveredAt());
+    }
+
+    @Test
+    void testDispatch_NotificationWithNoChannelIsStillDelivered() {
+        UUID optedOut = UUID.randomUUID();
+        Notification notification = notification(optedOut);
+        when(notificationRepository.lockDue(any(), any())).thenReturn(List.of(notification));
+        when(userPreferenceService.getPreferences(anyCollection()))
+                .thenReturn(Map.of(optedOut, new UserPreferenceDTO(optedOut, false, false, false)));
+
+        dispatcher.dispatch();
+
+        assertTrue(email.delivered().isEmpty());
+        assertTrue(sms.delivered().isEmpty());
+        assertNotNull(notification.getDeliveredAt());
+    }
+
+    @Test
+    void testDispatch_FailedChannelIsRetriedUntilMaxAttempts() {
+        // Given - email always fails
+        ReflectionTestUtils.setField(dispatcher, "channels", new ArrayList<>(List.of(failing(), push)));
+        Notification notification = notification(defaultsUser);
+        dueAre(notification);
+
+        // When - every poll but the last leaves it for a retry
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            dispatcher.dispatch();
+            assertEquals(attempt, notification.getDeliveryAttempts());
+            assertNull(notification.getDeliveredAt());
+        }
+        dispatcher.dispatch();
+
+        // Then - it is given up on, and the working channel got it on every poll
+        assertEquals(MAX_ATTEMPTS, notification.getDeliveryAttempts());
+        assertNotNull(notification.getDeliveredAt());
+        assertEquals(MAX_ATTEMPTS, push.delivered().size());
+    }
+
+    @Test
+    void testDispatch_FailureOnlyHoldsBackItsOwnBatch() {
+        // Given - email fails; the SMS-only user is not in its batch
+        ReflectionTestUtils.setField(dispatcher, "channels", new ArrayList<>(List.of(failing(), sms)));
+        Notification emailed = notification(defaultsUser);
+        Notification texted = notification(smsOnlyUser);
+        dueAre(emailed, texted);
+
+        dispatcher.dispatch();
+
+        assertNull(emailed.getDeliveredAt());
+        assertEquals(1, emailed.getDeliveryAttempts());
+        assertNotNull(texted.getDeliveredAt());
+        assertEquals(0, texted.getDeliveryAttempts());
+    }
+
+    @Test
+    void testDispatch_Disabled() {
+        ReflectionTestUtils.setField(dispatcher, "enabled", false);
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(notificationRepository, userPreferenceService);
+    }
+
+    private void dueAre(Notification... due) {
+        when(notificationRepository.lockDue(any(), any())).thenReturn(List.of(due));
+        when(userPreferenceService.getPreferences(anyCollection())).thenReturn(Map.of(
+                defaultsUser, UserPreferenceDTO.defaults(defaultsUser),
+                smsOnlyUser, new UserPreferenceDTO(smsOnlyUser, false, false, true)));
+    }
+
+    private static Notification notification(UUID userId) {
+        Notification notification = new Notification(userId, Notification.Kind.PAYMENT_RECEIVED, "USD",
+                LocalDateTime.now().minusSeconds(1));
+        notification.setId(UUID.randomUUID());
+        notification.addEvents(1, new BigDecimal("10.00"));
+        return notification;
+    }
+
+    private static NotificationChannel failing() {
+        return new NotificationChannel() {
+            @Override
+            public Type type() {
+                return Type.EMAIL;
+            }
+
+            @Override
+            public void deliver(List<Notification> notifications) {
+                throw new IllegalStateException("provider unavailable");
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.riyada.notificationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.notificationservice.entity.Notification;
+import com.riyada.notificationservice.repository.NotificationRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationIngestServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private NotificationIngestService ingestService;
+
+    private final UUID sender = UUID.randomUUID();
+    private final UUID recipient = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ingestService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(ingestService, "digestWindowSeconds", 60L);
+    }
+
+    @Test
+    void testIngest_CoalescesBurstIntoOneDigestPerUser() {
+        // Given - a burst of 14 payments of 25.00 from one sender to one recipient
+        when(notificationRepository.lockOpenDigests(anyCollection(), any())).thenReturn(List.of());
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 14; i++) {
+            records.add(paymentCompleted(i, "25.00"));
+        }
+
+        // When
+        int applied = ingestService.ingest(records);
+
+        // Then - one notification each side, carrying the count and total
+        assertEquals(28, applied);
+        Map<Notification.Kind, Notification> saved = saved();
+        assertEquals(2, saved.size());
+
+        Notification received = saved.get(Notification.Kind.PAYMENT_RECEIVED);
+        assertEquals(recipient, received.getUserId());
+        assertEquals(14, received.getEventCount());
+        assertEquals(0, new BigDecimal("350.00").compareTo(received.getTotalAmount()));
+        assertEquals("Payments received", received.getTitle());
+        assertEquals("You received 14 payments totalling 350.00 USD", received.getMessage());
+        assertTrue(received.getDigestUntil().isAfter(LocalDateTime.now().plusSeconds(50)));
+
+        Notification sent = saved.get(Notification.Kind.PAYMENT_SENT);
+        assertEquals(sender, sent.getUserId());
+        assertEquals("You sent 14 payments totalling 350.00 USD", sent.getMessage());
+    }
+
+    @Test
+    void testIngest_AddsToOpenDigest() {
+        // Given - the recipient already has a digest of 2 payments open
+        Notification open = new Notification(recipient, Notification.Kind.PAYMENT_RECEIVED, "USD",
+                LocalDateTime.now().plusSeconds(30));
+        open.addEvents(2, new BigDecimal("20.00"));
+        when(notificationRepository.lockOpenDigests(anyCollection(), any())).thenReturn(List.of(open));
+
+        // When
+        ingestService.ingest(List.of(paymentCompleted(0, "5.00")));
+
+        // Then - the open row grows instead of a new one being made
+        Notification received = saved().get(Notification.Kind.PAYMENT_RECEIVED);
+        assertSame(open, received);
+        assertEquals(3, received.getEventCount());
+        assertEquals("You received 3 payments totalling 25.00 USD", received.getMessage());
+    }
+
+    @Test
+    void testIngest_SingleEventIsDescribedOnItsOwn() {
+        when(notificationRepository.lockOpenDigests(anyCollection(), any())).thenReturn(List.of());
+
+        ingestService.ingest(List.of(paymentCompleted(0, "12.50")));
+
+        Notification received = saved().get(Notification.Kind.PAYMENT_RECEIVED);
+        assertEquals("Payment received", received.getTitle());
+        assertEquals("You received 12.50 USD", received.getMessage());
+    }
+
+    @Test
+    void testIngest_SkipsMalformedAndPaymentLegEvents() {
+        List<ConsumerRecord<String, String>> records = List.of(
+                new ConsumerRecord<>(NotificationIngestService.TOPIC_PAYMENT_COMPLETED, 0, 0, "k", "not json"),
+                // A wallet leg of a payment is left to the payment's own event
+                new ConsumerRecord<>(NotificationIngestService.TOPIC_BALANCE_UPDATED, 0, 1, "k",
+                        "{\"data\":{\"userId\":\"" + recipient + "\",\"amount\":\"5.00\","
+                                + "\"transactionType\":\"CREDIT\",\"referenceId\":\"PAY-1\"}}"));
+
+        assertEquals(0, ingestService.ingest(records));
+        verify(notificationRepository, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Notification.Kind, Notification> saved() {
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(captor.capture());
+        return captor.getValue().stream().collect(Collectors.toMap(Notification::getKind, Function.identity()));
+    }
+
+    private ConsumerRecord<String, String> paymentCompleted(long offset, String amount) {
+        String value = "{\"data\":{\"fromUserId\":\"" + sender + "\",\"toUserId\":\"" + recipient
+                + "\",\"amount\":\"" + amount + "\",\"currency\":\"USD\",\"status\":\"COMPLETED\"}}";
+        return new ConsumerRecord<>(NotificationIngestService.TOPIC_PAYMENT_COMPLETED, 0, offset, "k", value);
+    }
+}
@@ -0,0 +1,125 @@
+package com.riyada.paymentservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign client decorator that isolates each downstream service (keyed by
+ * Feign client name, e.g. "wallet-service"):
+ *
+ * - a semaphore bulkhead bounds concurrent calls, so a slow dependency can
+ *   only hold a fixed number of request threads;
+ * - a circuit breaker fails fast while the dependency is unhealthy
+ *   (connection errors and 5xx responses count as failures);
+ * - idempotent reads (GET) are retried on connection errors and 502/503/504,
+ *   but only while the downstream's retry budget allows.
+ *
+ * Bulkhead and circuit breaker rejections surface as Resilience4j's runtime
+ * exceptions, so callers fail immediately instead of waiting on a timeout.
+ */
+public class ResilientClient implements Client {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientClient.class);
+
+    private final Client delegate;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryBudgets retryBudgets;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+
+    public ResilientClient(Client delegate, BulkheadRegistry bulkheadRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry, RetryBudgets retryBudgets,
+            int maxRetries, long retryBackoffMs) {
+        this.delegate = delegate;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryBudgets = retryBudgets;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String downstream = downstreamName(request);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(downstream);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(downstream);
+        RetryBudget retryBudget = retryBudgets.budget(downstream);
+        boolean idempotent = request.httpMethod() == Request.HttpMethod.GET;
+
+        bulkhead.acquirePermission();
+        try {
+            retryBudget.onRequest();
+            for (int attempt = 0; ; attempt++) {
+                circuitBreaker.acquirePermission();
+                long start = System.nanoTime();
+                Response response;
+                try {
+                    response = delegate.execute(request, options);
+                } catch (IOException e) {
+                    circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                    if (idempotent && attempt < maxRetries && retryBudget.tryRetry()) {
+                        logger.debug("Retrying {} {} after {}", request.httpMethod(), request.url(), e.getMessage());
+                        backoff(attempt);
+                        continue;
+                    }
+                    throw e;
+                }
+
+                long elapsed = System.nanoTime() - start;
+                if (response.status() >= 500) {
+                    circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS,
+                            new IOException(downstream + " responded " + response.status()));
+                    if (idempotent && isRetryableStatus(response.status()) && attempt < maxRetries
+                            && retryBudget.tryRetry()) {
+                        response.close();
+                        logger.debug("Retrying {} {} after status {}", request.httpMethod(), request.url(),
+                                response.status());
+                        backoff(attempt);
+                        continue;
+                    }
+                } else {
+                    circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                }
+                return response;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private static String downstreamName(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return "default";
+    }
+
+    private static boolean isRetryableStatus(int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    private void backoff(int attempt) throws IOException {
+        long delay = retryBackoffMs * (1L << attempt);
+        try {
+            // Full jitter so concurrent retries don't arrive together
+            Thread.sleep(ThreadLocalRandom.current().nextLong(delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+
+}
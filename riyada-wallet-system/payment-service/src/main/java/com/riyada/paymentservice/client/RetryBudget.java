@@ -0,0 +1,78 @@
+package com.riyada.paymentservice.client;
+
+/**
+ * Caps retries to a fraction of recent traffic so retries cannot multiply
+ * load on a struggling downstream.
+ *
+ * Every request deposits {@code ratio} tokens and each retry withdraws one.
+ * A small reserve also refills over time ({@code minRetriesPerSecond}) so
+ * low-traffic clients can still retry. The balance is capped so an idle
+ * period cannot bank an unlimited burst.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+
+    private double balance;
+    private long lastRefillNanos;
+    private long requests;
+    private long retriesAllowed;
+    private long retriesDenied;
+
+    public RetryBudget(double ratio, double minRetriesPerSecond, double maxBalance) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Record a first attempt
+     */
+    public synchronized void onRequest() {
+        requests++;
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * Try to spend one retry; false when the budget is exhausted
+     */
+    public synchronized boolean tryRetry() {
+        refill();
+        if (balance >= 1.0) {
+            balance -= 1.0;
+            retriesAllowed++;
+            return true;
+        }
+        retriesDenied++;
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minRetriesPerSecond);
+    }
+
+    public synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+
+    public synchronized long getRequests() {
+        return requests;
+    }
+
+    public synchronized long getRetriesAllowed() {
+        return retriesAllowed;
+    }
+
+    public synchronized long getRetriesDenied() {
+        return retriesDenied;
+    }
+}
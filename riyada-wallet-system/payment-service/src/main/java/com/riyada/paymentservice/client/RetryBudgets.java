@@ -0,0 +1,30 @@
+package com.riyada.paymentservice.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One retry budget per downstream service
+ */
+public class RetryBudgets {
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryBudgets(double ratio, double minRetriesPerSecond, double maxBalance) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+    }
+
+    public RetryBudget budget(String downstream) {
+        return budgets.computeIfAbsent(downstream,
+                name -> new RetryBudget(ratio, minRetriesPerSecond, maxBalance));
+    }
+
+    public Map<String, RetryBudget> all() {
+        return budgets;
+    }
+}
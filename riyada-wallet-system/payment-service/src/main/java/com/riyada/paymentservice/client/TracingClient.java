@@ -0,0 +1,57 @@
+package com.riyada.paymentservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feign client decorator that opens a client span per HTTP attempt and
+ * sends the trace context downstream in the traceparent header, so the
+ * receiving service's request span joins the same trace
+ */
+public class TracingClient implements Client {
+
+    private final Client delegate;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public TracingClient(Client delegate, Tracer tracer, Propagator propagator) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Span span = tracer.spanBuilder()
+                .name(MeteredClient.methodName(request))
+                .kind(Span.Kind.CLIENT)
+                .tag("http.method", request.httpMethod().name())
+                .tag("http.url", request.url())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+            propagator.inject(span.context(), headers, (carrier, key, value) -> carrier.put(key, List.of(value)));
+            Request traced = Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                    request.charset(), request.requestTemplate());
+
+            Response response = delegate.execute(traced, options);
+            span.tag("http.status_code", String.valueOf(response.status()));
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
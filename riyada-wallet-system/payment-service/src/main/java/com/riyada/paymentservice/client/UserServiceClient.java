@@ -3,8 +3,12 @@ package com.riyada.paymentservice.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "user-service", url = "${services.user-service.url}")
@@ -17,4 +21,13 @@ public interface UserServiceClient {
         @GetMapping("/api/users/profile/email/{email}")
         Map<String, Object> getUserProfileByEmail(@PathVariable("email") String email,
                         @RequestHeader(value = "Authorization", required = false) String authorization);
+
+        @GetMapping("/api/users/directory")
+        Map<String, Object> getUserDirectory(@RequestParam(value = "after", required = false) String after,
+                        @RequestParam("limit") int limit,
+                        @RequestHeader("Authorization") String authorization);
+
+        @PostMapping("/api/users/profiles/batch")
+        Map<String, Object> getUserProfiles(@RequestBody Map<String, List<String>> request,
+                        @RequestHeader("Authorization") String authorization);
 }
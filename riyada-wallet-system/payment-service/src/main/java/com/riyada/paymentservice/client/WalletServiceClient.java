@@ -1,9 +1,11 @@
 package com.riyada.paymentservice.client;
 
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -21,11 +23,50 @@ public interface WalletServiceClient {
     Map<String, Object> debitWallet(@PathVariable("userId") String userId,
             @RequestParam("amount") BigDecimal amount,
             @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "referenceId", required = false) String referenceId,
             @RequestHeader("Authorization") String authorization);
 
     @PostMapping("/api/wallets/user/{userId}/credit")
     Map<String, Object> creditWallet(@PathVariable("userId") String userId,
             @RequestParam("amount") BigDecimal amount,
             @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "referenceId", required = false) String referenceId,
+            @RequestHeader("Authorization") String authorization);
+
+    /**
+     * A wallet's transactions for one payment reference
+     */
+    @GetMapping("/api/wallets/user/{userId}/transactions")
+    Map<String, Object> getWalletTransactions(@PathVariable("userId") String userId,
+            @RequestParam("referenceId") String referenceId,
+            @RequestHeader("Authorization") String authorization);
+
+    /**
+     * Debit several entries from one wallet atomically; the body is
+     * {"entries": [{"amount", "description", "referenceId"}, ...]}
+     */
+    @PostMapping("/api/wallets/user/{userId}/debit-batch")
+    Map<String, Object> debitWalletBatch(@PathVariable("userId") String userId,
+            @RequestBody Map<String, Object> batch,
+            @RequestHeader("Authorization") String authorization);
+
+    /**
+     * Credit several entries to one wallet atomically; same body as
+     * debitWalletBatch
+     */
+    @PostMapping("/api/wallets/user/{userId}/credit-batch")
+    Map<String, Object> creditWalletBatch(@PathVariable("userId") String userId,
+            @RequestBody Map<String, Object> batch,
+            @RequestHeader("Authorization") String authorization);
+
+    /**
+     * Stream referenced wallet transactions as tab-separated lines; the
+     * caller must close the response
+     */
+    @GetMapping("/api/wallets/transactions/by-reference")
+    Response streamReferencedTransactions(@RequestParam("from") String from,
+            @RequestParam("to") String to,
+            @RequestParam("shard") int shard,
+            @RequestParam("shards") int shards,
             @RequestHeader("Authorization") String authorization);
 }
@@ -0,0 +1,101 @@
+package com.riyada.paymentservice.config;
+
+import com.riyada.paymentservice.client.MeteredClient;
+import com.riyada.paymentservice.client.PerHostConcurrencyInterceptor;
+import com.riyada.paymentservice.client.PerMethodOptionsClient;
+import com.riyada.paymentservice.client.ResilientClient;
+import com.riyada.paymentservice.client.RetryBudgets;
+import com.riyada.paymentservice.client.TracingClient;
+import feign.Client;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled keep-alive OkHttp client used by every Feign client in place of
+ * the default HttpURLConnection client, wrapped with per-downstream
+ * bulkheads, circuit breakers and retry budgets, traced per attempt and
+ * timed per call
+ */
+@Configuration
+@EnableConfigurationProperties(FeignHttpClientProperties.class)
+public class FeignHttpClientConfig {
+
+    @Bean
+    public OkHttpClient feignOkHttpClient(FeignHttpClientProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        FeignHttpClientProperties.Pool pool = properties.getPool();
+
+        ConnectionPool connectionPool = new ConnectionPool(pool.getMaxIdleConnections(),
+                pool.getKeepAliveSeconds(), TimeUnit.SECONDS);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                // Never replay a request that may have reached the server; ResilientClient retries GETs
+                .retryOnConnectionFailure(false)
+                .followRedirects(false)
+                .addInterceptor(new PerHostConcurrencyInterceptor(pool.getMaxRequestsPerHost(),
+                        pool.getAcquireTimeoutMs(), meterRegistry))
+                .protocols(properties.isH2c() ? List.of(Protocol.H2_PRIOR_KNOWLEDGE) : List.of(Protocol.HTTP_1_1));
+
+        if (meterRegistry != null) {
+            builder.eventListener(OkHttpMetricsEventListener.builder(meterRegistry, "feign.client.requests")
+                    .build());
+            new OkHttpConnectionPoolMetrics(connectionPool, "feign.client.pool", Tags.empty())
+                    .bindTo(meterRegistry);
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    public RetryBudgets retryBudgets(@Value("${feign-http.retry.budget-ratio:0.1}") double ratio,
+            @Value("${feign-http.retry.min-retries-per-second:1}") double minRetriesPerSecond,
+            @Value("${feign-http.retry.max-balance:10}") double maxBalance) {
+        return new RetryBudgets(ratio, minRetriesPerSecond, maxBalance);
+    }
+
+    @Bean
+    public RetryBudgetEndpoint retryBudgetEndpoint(RetryBudgets retryBudgets) {
+        return new RetryBudgetEndpoint(retryBudgets);
+    }
+
+    @Bean
+    public Client feignClient(OkHttpClient feignOkHttpClient, FeignHttpClientProperties properties,
+            BulkheadRegistry bulkheadRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+            RetryBudgets retryBudgets, ObjectProvider<MeterRegistry> meterRegistryProvider,
+            ObjectProvider<Tracer> tracerProvider, ObjectProvider<Propagator> propagatorProvider,
+            @Value("${feign-http.retry.max-retries:2}") int maxRetries,
+            @Value("${feign-http.retry.backoff-ms:50}") long retryBackoffMs) {
+        Client pooled = new PerMethodOptionsClient(new feign.okhttp.OkHttpClient(feignOkHttpClient), properties);
+        // One client span per attempt, so retries show up as separate spans
+        Tracer tracer = tracerProvider.getIfAvailable();
+        Propagator propagator = propagatorProvider.getIfAvailable();
+        if (tracer != null && propagator != null) {
+            pooled = new TracingClient(pooled, tracer, propagator);
+        }
+        Client resilient = new ResilientClient(pooled, bulkheadRegistry, circuitBreakerRegistry, retryBudgets,
+                maxRetries, retryBackoffMs);
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        return meterRegistry != null ? new MeteredClient(resilient, meterRegistry) : resilient;
+    }
+}
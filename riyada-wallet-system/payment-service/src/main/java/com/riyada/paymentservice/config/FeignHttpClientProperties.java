@@ -0,0 +1,125 @@
+package com.riyada.paymentservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the pooled HTTP client shared by all Feign clients
+ */
+@ConfigurationProperties(prefix = "feign-http")
+public class FeignHttpClientProperties {
+
+    private int connectTimeoutMs = 1000;
+    private int readTimeoutMs = 5000;
+
+    // Speak HTTP/2 cleartext with prior knowledge (target servers must support h2c)
+    private boolean h2c = false;
+
+    private Pool pool = new Pool();
+
+    // Per-method overrides keyed by "ClientSimpleName#methodName"
+    private Map<String, Timeouts> methods = new HashMap<>();
+
+    public static class Pool {
+        private int maxIdleConnections = 50;
+        private long keepAliveSeconds = 300;
+        private int maxRequestsPerHost = 64;
+        private long acquireTimeoutMs = 1000;
+
+        public int getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        public void setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public long getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(long keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public int getMaxRequestsPerHost() {
+            return maxRequestsPerHost;
+        }
+
+        public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+
+        public long getAcquireTimeoutMs() {
+            return acquireTimeoutMs;
+        }
+
+        public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+    }
+
+    public static class Timeouts {
+        private Integer connectTimeoutMs;
+        private Integer readTimeoutMs;
+
+        public Integer getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+
+        public void setConnectTimeoutMs(Integer connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        public Integer getReadTimeoutMs() {
+            return readTimeoutMs;
+        }
+
+        public void setReadTimeoutMs(Integer readTimeoutMs) {
+            this.readTimeoutMs = readTimeoutMs;
+        }
+    }
+
+    // Getters and Setters
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public void setReadTimeoutMs(int readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public boolean isH2c() {
+        return h2c;
+    }
+
+    public void setH2c(boolean h2c) {
+        this.h2c = h2c;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public void setPool(Pool pool) {
+        this.pool = pool;
+    }
+
+    public Map<String, Timeouts> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(Map<String, Timeouts> methods) {
+        this.methods = methods;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -21,6 +22,9 @@ public class JwtConfig {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.service-subjects:payment-service}")
+    private List<String> serviceSubjects;
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -61,6 +65,28 @@ public class JwtConfig {
         return (tokenUsername.equals(username) && !isTokenExpired(token));
     }
 
+    /**
+     * Short-lived token for calls this service makes on its own behalf
+     * (e.g. reconciliation), signed with the shared secret
+     */
+    public String generateServiceToken(String serviceName, long validityMillis) {
+        return Jwts.builder()
+                .setSubject(serviceName)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + validityMillis))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Service tokens carry a known service name as subject and no userId,
+     * so an end-user token can never pass as one
+     */
+    public Boolean isServiceToken(String token) {
+        final Claims claims = getAllClaimsFromToken(token);
+        return claims.get("userId") == null && serviceSubjects.contains(claims.getSubject());
+    }
+
     public Boolean validateToken(String token) {
         try {
             return !isTokenExpired(token);
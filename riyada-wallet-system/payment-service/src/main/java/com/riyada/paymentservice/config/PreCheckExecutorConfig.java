@@ -0,0 +1,47 @@
+package com.riyada.paymentservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.opentelemetry.context.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool for the concurrent downstream calls made before a payment
+ * is created (recipient lookup, balance check)
+ */
+@Configuration
+public class PreCheckExecutorConfig {
+
+    @Value("${payments.precheck.max-threads:64}")
+    private int maxThreads;
+
+    /**
+     * When saturated a fork is rejected and the payment fails fast. Running
+     * the subtask on the caller instead would block it outside the scope's
+     * deadline and cancellation. Subtasks run in the caller's trace context,
+     * so their downstream calls join its trace.
+     */
+    @Bean(name = "preCheckExecutor", destroyMethod = "shutdown")
+    public ExecutorService preCheckExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(0, maxThreads, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-precheck-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "payment-precheck", Tags.empty()).bindTo(meterRegistry);
+        return Context.taskWrapping(executor);
+    }
+}
@@ -0,0 +1,107 @@
+package com.riyada.paymentservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.paymentservice.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one rate limit policy, keyed by the user ID in the caller's JWT.
+ * Runs after the security filters, so the token has been validated; tokens
+ * without a user ID (service tokens) are not limited.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private final String policyName;
+    private final Set<String> methods;
+    private final TokenBucketRateLimiter<UUID> limiter;
+    private final JwtConfig jwtConfig;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public RateLimitInterceptor(String policyName, RateLimitProperties.Policy policy,
+            RateLimitProperties properties, JwtConfig jwtConfig, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.policyName = policyName;
+        this.methods = policy.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        this.limiter = new TokenBucketRateLimiter<>(policy.getCapacity(), policy.getRefillPerSecond(),
+                TimeUnit.SECONDS.toMillis(properties.getIdleEvictionSeconds()), properties.getStripes());
+        this.jwtConfig = jwtConfig;
+        this.objectMapper = objectMapper;
+        this.rejected = meterRegistry != null
+                ? Counter.builder("rate_limit.rejected")
+                        .description("Requests rejected by a per-user rate limit")
+                        .tag("policy", policyName)
+                        .register(meterRegistry)
+                : null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!methods.contains(request.getMethod())) {
+            return true;
+        }
+        UUID userId = userIdOf(request);
+        if (userId == null) {
+            return true;
+        }
+
+        TokenBucketRateLimiter.Decision decision = limiter.tryAcquire(userId);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limiter.getCapacity()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        if (decision.isAllowed()) {
+            return true;
+        }
+
+        // Whole seconds, rounded up, so a client retrying on the hint is not rejected again
+        long retryAfterSeconds = Math.max(1, (decision.getRetryAfterNanos() + 999_999_999L) / 1_000_000_000L);
+        if (rejected != null) {
+            rejected.increment();
+        }
+        logger.debug("Rate limit {} exceeded by user {}", policyName, userId);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Too many requests, please retry after " + retryAfterSeconds + " seconds");
+        errorResponse.put("error", "RATE_LIMITED");
+        errorResponse.put("retryAfterSeconds", retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+        return false;
+    }
+
+    private UUID userIdOf(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtConfig.getUserIdFromToken(authHeader.substring(7));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
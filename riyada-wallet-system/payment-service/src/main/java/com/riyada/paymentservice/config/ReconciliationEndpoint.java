@@ -0,0 +1,35 @@
+package com.riyada.paymentservice.config;
+
+import com.riyada.paymentservice.dto.ReconciliationReportDTO;
+import com.riyada.paymentservice.service.ReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last reconciliation report at GET /actuator/reconciliation; POST with
+ * "from" and "to" (ISO local date-times) runs one on demand. On-demand runs
+ * repair only when payments.reconciliation.auto-repair is enabled.
+ */
+@Component
+@Endpoint(id = "reconciliation")
+public class ReconciliationEndpoint {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @ReadOperation
+    public ReconciliationReportDTO lastReport() {
+        return reconciliationService.getLastReport();
+    }
+
+    @WriteOperation
+    public ReconciliationReportDTO reconcile(String from, String to) {
+        return reconciliationService.reconcile(LocalDateTime.parse(from), LocalDateTime.parse(to),
+                reconciliationService.isAutoRepair());
+    }
+}
@@ -0,0 +1,37 @@
+package com.riyada.paymentservice.config;
+
+import com.riyada.paymentservice.client.RetryBudget;
+import com.riyada.paymentservice.client.RetryBudgets;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes per-downstream retry budget state at /actuator/retrybudgets
+ */
+@Endpoint(id = "retrybudgets")
+public class RetryBudgetEndpoint {
+
+    private final RetryBudgets retryBudgets;
+
+    public RetryBudgetEndpoint(RetryBudgets retryBudgets) {
+        this.retryBudgets = retryBudgets;
+    }
+
+    @ReadOperation
+    public Map<String, Object> retryBudgets() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, RetryBudget> entry : retryBudgets.all().entrySet()) {
+            RetryBudget budget = entry.getValue();
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("balance", budget.getBalance());
+            state.put("requests", budget.getRequests());
+            state.put("retriesAllowed", budget.getRetriesAllowed());
+            state.put("retriesDenied", budget.getRetriesDenied());
+            result.put(entry.getKey(), state);
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.riyada.paymentservice.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,6 +29,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Long-poll responses complete on an async dispatch; the
+                        // original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Reconciliation can repair balances; never open it to end users
+                        .requestMatchers("/actuator/reconciliation", "/actuator/reconciliation/**")
+                        .hasRole(JwtAuthenticationFilter.SERVICE_ROLE)
                         .requestMatchers("/api/payments/health", "/actuator/**").permitAll()
                         .anyRequest().authenticated());
 
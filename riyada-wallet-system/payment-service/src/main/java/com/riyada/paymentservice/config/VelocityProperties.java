@@ -0,0 +1,107 @@
+package com.riyada.paymentservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-sender transfer limits over sliding windows (see VelocityService)
+ */
+@ConfigurationProperties(prefix = "payments.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = true;
+
+    // Counters are rebuilt from payments created within the longest window
+    private boolean rebuildOnStartup = true;
+
+    private int rebuildFetchSize = 5000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public static class Rule {
+        private String name;
+        private Duration window;
+        // Ring buffer slots; the window slides one slot (window / slots) at a time
+        private int slots = 10;
+        // Null means unlimited
+        private Integer maxCount;
+        private BigDecimal maxAmount;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+
+        public Integer getMaxCount() {
+            return maxCount;
+        }
+
+        public void setMaxCount(Integer maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        public BigDecimal getMaxAmount() {
+            return maxAmount;
+        }
+
+        public void setMaxAmount(BigDecimal maxAmount) {
+            this.maxAmount = maxAmount;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRebuildOnStartup() {
+        return rebuildOnStartup;
+    }
+
+    public void setRebuildOnStartup(boolean rebuildOnStartup) {
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public int getRebuildFetchSize() {
+        return rebuildFetchSize;
+    }
+
+    public void setRebuildFetchSize(int rebuildFetchSize) {
+        this.rebuildFetchSize = rebuildFetchSize;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+}
@@ -1,22 +1,38 @@
 package com.riyada.paymentservice.controller;
 
 import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.BatchPaymentRequestDTO;
+import com.riyada.paymentservice.dto.BatchPaymentResponseDTO;
+import com.riyada.paymentservice.dto.PaymentHistoryPageDTO;
 import com.riyada.paymentservice.dto.PaymentRequestDTO;
 import com.riyada.paymentservice.dto.PaymentResponseDTO;
 import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import com.riyada.paymentservice.dto.ScheduledPaymentRequestDTO;
+import com.riyada.paymentservice.dto.ScheduledPaymentResponseDTO;
 import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.service.BatchPaymentService;
+import com.riyada.paymentservice.service.IdempotencyService;
 import com.riyada.paymentservice.service.PaymentService;
+import com.riyada.paymentservice.service.ScheduledPaymentService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -26,9 +42,27 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private BatchPaymentService batchPaymentService;
+
+    @Autowired
+    private ScheduledPaymentService scheduledPaymentService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private JwtConfig jwtConfig;
 
+    @Value("${payments.async.long-poll-max-seconds:30}")
+    private long maxLongPollSeconds;
+
+    @Value("${payments.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
+    @Value("${payments.status-cache.client-max-age-seconds:300}")
+    private long statusClientMaxAgeSeconds;
+
     /**
      * Health check endpoint
      * GET /api/payments/health
@@ -45,9 +79,18 @@ public class PaymentController {
     /**
      * Process a payment transfer
      * POST /api/payments/transfer
+     *
+     * With ?async=true or "Prefer: respond-async" the payment is accepted and
+     * queued, and 202 is returned with its reference ID; follow it through
+     * /status/{referenceId} or /status/{referenceId}/wait.
+     *
+     * With an "Idempotency-Key" header, retries of the same request return
+     * the original response, marked "Idempotent-Replayed: true", instead of
+     * creating another payment (see IdempotencyService).
      */
     @PostMapping("/transfer")
     public ResponseEntity<?> processPayment(@Valid @RequestBody PaymentRequestDTO requestDTO,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
             HttpServletRequest request) {
         try {
             // Extract user ID from JWT token
@@ -63,8 +106,59 @@ public class PaymentController {
             String token = authHeader.substring(7);
             UUID fromUserId = jwtConfig.getUserIdFromToken(token);
 
+            String prefer = request.getHeader("Prefer");
+            boolean respondAsync = async || (prefer != null && prefer.toLowerCase().contains("respond-async"));
+
+            String idempotencyKey = request.getHeader(IdempotencyService.IDEMPOTENCY_KEY_HEADER);
+            if (idempotencyKey == null) {
+                return transfer(requestDTO, fromUserId, token, respondAsync, null);
+            }
+            if (!IdempotencyService.isValidKey(idempotencyKey)) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Idempotency-Key must be 1 to " + IdempotencyService.MAX_KEY_LENGTH
+                        + " characters");
+                errorResponse.put("error", "INVALID_IDEMPOTENCY_KEY");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            }
+
+            return idempotencyService.execute(fromUserId, idempotencyKey, requestDTO,
+                    () -> transfer(requestDTO, fromUserId, token, respondAsync, idempotencyKey),
+                    this::replayTransfer);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "PAYMENT_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred during payment processing");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Run a transfer, synchronously or accepted for async processing
+     */
+    private ResponseEntity<?> transfer(PaymentRequestDTO requestDTO, UUID fromUserId, String token,
+            boolean respondAsync, String idempotencyKey) {
+        try {
+            if (respondAsync) {
+                PaymentResponseDTO payment = paymentService.acceptPayment(requestDTO, fromUserId, token,
+                        idempotencyKey);
+                return acceptedTransfer(payment);
+            }
+
             // Process the payment
-            PaymentResponseDTO payment = paymentService.processPayment(requestDTO, fromUserId, token);
+            PaymentResponseDTO payment = paymentService.processPayment(requestDTO, fromUserId, token,
+                    idempotencyKey);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -73,6 +167,14 @@ public class PaymentController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Too many payments in progress, please retry shortly");
+            errorResponse.put("error", "PAYMENT_QUEUE_FULL");
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -91,6 +193,298 @@ public class PaymentController {
         }
     }
 
+    /**
+     * 202 for a payment accepted for async processing
+     */
+    private ResponseEntity<?> acceptedTransfer(PaymentResponseDTO payment) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Payment accepted for processing");
+        response.put("payment", payment);
+        response.put("referenceId", payment.getReferenceId());
+        response.put("statusUrl", "/api/payments/status/" + payment.getReferenceId());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/payments/status/" + payment.getReferenceId())
+                .body(response);
+    }
+
+    /**
+     * Response for a payment already created with the same Idempotency-Key,
+     * as the original request would have returned it now
+     */
+    private ResponseEntity<?> replayTransfer(PaymentResponseDTO payment) {
+        switch (payment.getStatus()) {
+            case COMPLETED: {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Payment processed successfully");
+                response.put("payment", payment);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            }
+            case FAILED:
+            case CANCELLED: {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Payment processing failed: " + (payment.getFailureReason() != null
+                        ? payment.getFailureReason()
+                        : "Payment was cancelled"));
+                errorResponse.put("error", "PAYMENT_FAILED");
+                errorResponse.put("payment", payment);
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            }
+            default:
+                return acceptedTransfer(payment);
+        }
+    }
+
+    /**
+     * Pay many recipients in one request (payroll, split bills). The batch is
+     * always processed asynchronously: 202 is returned with the batch and its
+     * legs, each with its own reference ID.
+     * POST /api/payments/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> processBatchPayment(@Valid @RequestBody BatchPaymentRequestDTO requestDTO,
+            HttpServletRequest request) {
+        try {
+            // Extract user ID from JWT token
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Authorization header is required");
+                errorResponse.put("error", "UNAUTHORIZED");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+
+            String token = authHeader.substring(7);
+            UUID fromUserId = jwtConfig.getUserIdFromToken(token);
+
+            BatchPaymentResponseDTO batch = batchPaymentService.acceptBatch(requestDTO, fromUserId, token);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Batch payment accepted for processing");
+            response.put("batch", batch);
+            response.put("statusUrl", "/api/payments/batch/" + batch.getId());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", "/api/payments/batch/" + batch.getId())
+                    .body(response);
+
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Too many payments in progress, please retry shortly");
+            errorResponse.put("error", "PAYMENT_QUEUE_FULL");
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BATCH_PAYMENT_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred during batch payment processing");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Get a batch payment with per-leg statuses (sender only)
+     * GET /api/payments/batch/{batchId}
+     */
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<?> getBatchPayment(@PathVariable UUID batchId,
+            HttpServletRequest request) {
+        try {
+            // Extract user ID from JWT token
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Authorization header is required");
+                errorResponse.put("error", "UNAUTHORIZED");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+
+            UUID userId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+            BatchPaymentResponseDTO batch = batchPaymentService.getBatch(batchId, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Batch payment retrieved successfully");
+            response.put("batch", batch);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BATCH_NOT_FOUND");
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving batch payment");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Schedule a future-dated or recurring payment (standing order)
+     * POST /api/payments/scheduled
+     */
+    @PostMapping("/scheduled")
+    public ResponseEntity<?> createScheduledPayment(@Valid @RequestBody ScheduledPaymentRequestDTO requestDTO,
+            HttpServletRequest request) {
+        try {
+            // Extract user ID from JWT token
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Authorization header is required");
+                errorResponse.put("error", "UNAUTHORIZED");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+
+            UUID userId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+            ScheduledPaymentResponseDTO schedule = scheduledPaymentService.createSchedule(requestDTO, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Payment scheduled successfully");
+            response.put("schedule", schedule);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "SCHEDULED_PAYMENT_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while scheduling payment");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * List the caller's scheduled payments
+     * GET /api/payments/scheduled
+     */
+    @GetMapping("/scheduled")
+    public ResponseEntity<?> getScheduledPayments(HttpServletRequest request) {
+        try {
+            // Extract user ID from JWT token
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Authorization header is required");
+                errorResponse.put("error", "UNAUTHORIZED");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+
+            UUID userId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+            List<ScheduledPaymentResponseDTO> schedules = scheduledPaymentService.getUserSchedules(userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Scheduled payments retrieved successfully");
+            response.put("schedules", schedules);
+            response.put("count", schedules.size());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "SCHEDULED_PAYMENTS_RETRIEVAL_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving scheduled payments");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Cancel a scheduled payment
+     * POST /api/payments/scheduled/{scheduleId}/cancel
+     */
+    @PostMapping("/scheduled/{scheduleId}/cancel")
+    public ResponseEntity<?> cancelScheduledPayment(@PathVariable UUID scheduleId,
+            HttpServletRequest request) {
+        try {
+            // Extract user ID from JWT token
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Authorization header is required");
+                errorResponse.put("error", "UNAUTHORIZED");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+
+            UUID userId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+            ScheduledPaymentResponseDTO schedule = scheduledPaymentService.cancelSchedule(scheduleId, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Scheduled payment cancelled successfully");
+            response.put("schedule", schedule);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "CANCELLATION_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred during scheduled payment cancellation");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Get payment by ID
      * GET /api/payments/{paymentId}
@@ -162,7 +556,15 @@ public class PaymentController {
             response.put("message", "Payment status retrieved successfully");
             response.put("status", status);
 
-            return ResponseEntity.ok(response);
+            // Pollers send If-None-Match and get 304 until the status changes
+            CacheControl cacheControl = status.getStatus().isFinal()
+                    ? CacheControl.maxAge(statusClientMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate()
+                    : CacheControl.noCache().cachePrivate();
+
+            return ResponseEntity.ok()
+                    .eTag(statusETag(status))
+                    .cacheControl(cacheControl)
+                    .body(response);
 
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -182,6 +584,110 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Weak validator for a status response; changes with every transition
+     */
+    private String statusETag(PaymentStatusDTO status) {
+        return "W/\"" + status.getStatus() + "-"
+                + Integer.toHexString(Objects.hash(status.getProcessedAt(), status.getFailureReason())) + "\"";
+    }
+
+    /**
+     * Long-poll payment status: responds as soon as the payment reaches a
+     * final status, or with the current status after the timeout
+     * GET /api/payments/status/{referenceId}/wait?timeoutSeconds={seconds}
+     */
+    @GetMapping("/status/{referenceId}/wait")
+    public CompletableFuture<ResponseEntity<?>> waitForPaymentStatus(@PathVariable String referenceId,
+            @RequestParam(value = "timeoutSeconds", defaultValue = "25") long timeoutSeconds) {
+        try {
+            long timeoutMillis = TimeUnit.SECONDS.toMillis(
+                    Math.max(1, Math.min(timeoutSeconds, maxLongPollSeconds)));
+
+            return paymentService.awaitPaymentStatus(referenceId, timeoutMillis)
+                    .thenApply(status -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("success", true);
+                        response.put("message", "Payment status retrieved successfully");
+                        response.put("status", status);
+                        response.put("final", status.getStatus().isFinal());
+                        return ResponseEntity.ok(response);
+                    });
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "PAYMENT_NOT_FOUND");
+
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+        }
+    }
+
+    /**
+     * Get one page of a user's payment history, newest first
+     * GET /api/payments/user/{userId}/history?cursor=&limit=20&status=COMPLETED,FAILED&from=&to=
+     */
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<?> getUserPaymentHistory(@PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) List<Payment.PaymentStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Authorization header is required");
+                errorResponse.put("error", "UNAUTHORIZED");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+
+            UUID tokenUserId = jwtConfig.getUserIdFromToken(authHeader.substring(7));
+            if (!tokenUserId.equals(userId)) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "You are not authorized to view this user's payments");
+                errorResponse.put("error", "FORBIDDEN");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+            }
+
+            int pageSize = Math.max(1, Math.min(limit, maxHistoryPageSize));
+            PaymentHistoryPageDTO page = paymentService.getUserPaymentHistory(userId, cursor, pageSize,
+                    status, from, to);
+            paymentService.enrichWithUserProfiles(page.getPayments());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Payment history retrieved successfully");
+            response.put("payments", page.getPayments());
+            response.put("count", page.getPayments().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.isHasMore());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INVALID_HISTORY_REQUEST");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving payment history");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Get user's payment history
      * GET /api/payments/user/{userId}
@@ -212,7 +718,8 @@ public class PaymentController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
             }
 
-            List<PaymentResponseDTO> payments = paymentService.getUserPayments(userId);
+            List<PaymentResponseDTO> payments = paymentService.enrichWithUserProfiles(
+                    paymentService.getUserPayments(userId));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
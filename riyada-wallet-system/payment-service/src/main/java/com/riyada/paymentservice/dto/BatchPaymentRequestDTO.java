@@ -0,0 +1,51 @@
+package com.riyada.paymentservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchPaymentRequestDTO {
+
+    @NotEmpty(message = "At least one payment is required")
+    @Valid
+    private List<PaymentRequestDTO> payments;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    // Constructors
+    public BatchPaymentRequestDTO() {
+    }
+
+    public BatchPaymentRequestDTO(List<PaymentRequestDTO> payments, String description) {
+        this.payments = payments;
+        this.description = description;
+    }
+
+    // Getters and Setters
+    public List<PaymentRequestDTO> getPayments() {
+        return payments;
+    }
+
+    public void setPayments(List<PaymentRequestDTO> payments) {
+        this.payments = payments;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchPaymentRequestDTO{" +
+                "payments=" + (payments != null ? payments.size() : 0) +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
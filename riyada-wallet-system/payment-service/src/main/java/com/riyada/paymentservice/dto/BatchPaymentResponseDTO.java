@@ -0,0 +1,162 @@
+package com.riyada.paymentservice.dto;
+
+import com.riyada.paymentservice.entity.PaymentBatch;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class BatchPaymentResponseDTO {
+
+    private UUID id;
+    private String referenceId;
+    private UUID fromUserId;
+    private PaymentBatch.BatchStatus status;
+    private int legCount;
+    private BigDecimal totalAmount;
+    private String currency;
+    private String description;
+    private long completedCount;
+    private long failedCount;
+    private long inProgressCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+    private List<PaymentResponseDTO> payments;
+
+    // Constructors
+    public BatchPaymentResponseDTO() {
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public UUID getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(UUID fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public PaymentBatch.BatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentBatch.BatchStatus status) {
+        this.status = status;
+    }
+
+    public int getLegCount() {
+        return legCount;
+    }
+
+    public void setLegCount(int legCount) {
+        this.legCount = legCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public long getInProgressCount() {
+        return inProgressCount;
+    }
+
+    public void setInProgressCount(long inProgressCount) {
+        this.inProgressCount = inProgressCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public List<PaymentResponseDTO> getPayments() {
+        return payments;
+    }
+
+    public void setPayments(List<PaymentResponseDTO> payments) {
+        this.payments = payments;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchPaymentResponseDTO{" +
+                "id=" + id +
+                ", referenceId='" + referenceId + '\'' +
+                ", fromUserId=" + fromUserId +
+                ", status=" + status +
+                ", legCount=" + legCount +
+                ", totalAmount=" + totalAmount +
+                ", currency='" + currency + '\'' +
+                ", description='" + description + '\'' +
+                ", completedCount=" + completedCount +
+                ", failedCount=" + failedCount +
+                ", inProgressCount=" + inProgressCount +
+                ", createdAt=" + createdAt +
+                ", processedAt=" + processedAt +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.riyada.paymentservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's payment history; pass nextCursor back to get the
+ * following page
+ */
+public class PaymentHistoryPageDTO {
+
+    private List<PaymentResponseDTO> payments;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public PaymentHistoryPageDTO() {
+    }
+
+    public PaymentHistoryPageDTO(List<PaymentResponseDTO> payments, String nextCursor, boolean hasMore) {
+        this.payments = payments;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<PaymentResponseDTO> getPayments() {
+        return payments;
+    }
+
+    public void setPayments(List<PaymentResponseDTO> payments) {
+        this.payments = payments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentHistoryPageDTO{" +
+                "payments=" + (payments != null ? payments.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
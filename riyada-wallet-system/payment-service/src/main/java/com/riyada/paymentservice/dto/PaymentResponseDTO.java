@@ -22,6 +22,11 @@ public class PaymentResponseDTO {
     private LocalDateTime updatedAt;
     private LocalDateTime processedAt;
 
+    // Counterparty details, filled in by history enrichment when available
+    private String fromName;
+    private String fromEmail;
+    private String toName;
+
     // Constructors
     public PaymentResponseDTO() {
     }
@@ -150,6 +155,30 @@ public class PaymentResponseDTO {
         this.processedAt = processedAt;
     }
 
+    public String getFromName() {
+        return fromName;
+    }
+
+    public void setFromName(String fromName) {
+        this.fromName = fromName;
+    }
+
+    public String getFromEmail() {
+        return fromEmail;
+    }
+
+    public void setFromEmail(String fromEmail) {
+        this.fromEmail = fromEmail;
+    }
+
+    public String getToName() {
+        return toName;
+    }
+
+    public void setToName(String toName) {
+        this.toName = toName;
+    }
+
     @Override
     public String toString() {
         return "PaymentResponseDTO{" +
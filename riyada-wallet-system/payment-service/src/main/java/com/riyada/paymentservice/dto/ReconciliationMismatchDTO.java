@@ -0,0 +1,145 @@
+package com.riyada.paymentservice.dto;
+
+import com.riyada.paymentservice.entity.Payment;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A payment whose status disagrees with its wallet transactions, or wallet
+ * transactions whose payment does not exist
+ */
+public class ReconciliationMismatchDTO {
+
+    private String referenceId;
+    private UUID paymentId;
+    private MismatchType type;
+    private Payment.PaymentStatus paymentStatus;
+    private BigDecimal amount;
+    private int debits;
+    private int credits;
+    private int reversals;
+    private String repair;
+
+    // Constructors
+    public ReconciliationMismatchDTO() {
+    }
+
+    public ReconciliationMismatchDTO(String referenceId, UUID paymentId, MismatchType type,
+            Payment.PaymentStatus paymentStatus, BigDecimal amount, int debits, int credits, int reversals) {
+        this.referenceId = referenceId;
+        this.paymentId = paymentId;
+        this.type = type;
+        this.paymentStatus = paymentStatus;
+        this.amount = amount;
+        this.debits = debits;
+        this.credits = credits;
+        this.reversals = reversals;
+    }
+
+    // Getters and Setters
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(UUID paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public MismatchType getType() {
+        return type;
+    }
+
+    public void setType(MismatchType type) {
+        this.type = type;
+    }
+
+    public Payment.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public void setPaymentStatus(Payment.PaymentStatus paymentStatus) {
+        this.paymentStatus = paymentStatus;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public int getDebits() {
+        return debits;
+    }
+
+    public void setDebits(int debits) {
+        this.debits = debits;
+    }
+
+    public int getCredits() {
+        return credits;
+    }
+
+    public void setCredits(int credits) {
+        this.credits = credits;
+    }
+
+    public int getReversals() {
+        return reversals;
+    }
+
+    public void setReversals(int reversals) {
+        this.reversals = reversals;
+    }
+
+    public String getRepair() {
+        return repair;
+    }
+
+    public void setRepair(String repair) {
+        this.repair = repair;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationMismatchDTO{" +
+                "referenceId='" + referenceId + '\'' +
+                ", type=" + type +
+                ", paymentStatus=" + paymentStatus +
+                ", amount=" + amount +
+                ", debits=" + debits +
+                ", credits=" + credits +
+                ", reversals=" + reversals +
+                ", repair='" + repair + '\'' +
+                '}';
+    }
+
+    // Mismatch Type Enum
+    public enum MismatchType {
+        STUCK_SETTLED, // Not final, but debit and credit both posted; repaired by marking COMPLETED
+        STUCK_UNSETTLED, // Not final, and no money moved (or the debit was reversed); repaired by marking FAILED
+        DEBIT_NOT_CREDITED, // Sender debited, recipient never credited, no reversal; repaired by reversing the debit
+        STATUS_MISMATCH, // Final status contradicts the wallet transactions; reported only
+        AMOUNT_MISMATCH, // A wallet transaction amount differs from the payment; reported only
+        DUPLICATE_ENTRIES, // More than one debit, credit or reversal; reported only
+        UNEXPECTED_ENTRY, // A wallet transaction on neither party's expected leg; reported only
+        ORPHAN_ENTRY; // Wallet transactions reference a payment that does not exist; reported only
+
+        /**
+         * Whether reconciliation knows how to repair this mismatch
+         */
+        public boolean isRepairable() {
+            return this == STUCK_SETTLED || this == STUCK_UNSETTLED || this == DEBIT_NOT_CREDITED;
+        }
+    }
+}
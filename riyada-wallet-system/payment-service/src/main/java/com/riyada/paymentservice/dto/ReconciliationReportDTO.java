@@ -0,0 +1,187 @@
+package com.riyada.paymentservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of one reconciliation run over [from, to)
+ */
+public class ReconciliationReportDTO {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private int shards;
+    private boolean autoRepair;
+    private long paymentsChecked;
+    private long walletEntriesScanned;
+    private long matched;
+    private long inFlight;
+    private long mismatchCount;
+    private Map<String, Long> mismatchesByType = new TreeMap<>();
+    private long repaired;
+    private long repairsFailed;
+    private boolean truncated;
+    private List<ReconciliationMismatchDTO> mismatches = new ArrayList<>();
+
+    // Constructors
+    public ReconciliationReportDTO() {
+    }
+
+    public ReconciliationReportDTO(LocalDateTime from, LocalDateTime to, int shards, boolean autoRepair) {
+        this.from = from;
+        this.to = to;
+        this.shards = shards;
+        this.autoRepair = autoRepair;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public boolean isAutoRepair() {
+        return autoRepair;
+    }
+
+    public void setAutoRepair(boolean autoRepair) {
+        this.autoRepair = autoRepair;
+    }
+
+    public long getPaymentsChecked() {
+        return paymentsChecked;
+    }
+
+    public void setPaymentsChecked(long paymentsChecked) {
+        this.paymentsChecked = paymentsChecked;
+    }
+
+    public long getWalletEntriesScanned() {
+        return walletEntriesScanned;
+    }
+
+    public void setWalletEntriesScanned(long walletEntriesScanned) {
+        this.walletEntriesScanned = walletEntriesScanned;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public void setMatched(long matched) {
+        this.matched = matched;
+    }
+
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(long inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+
+    public void setMismatchCount(long mismatchCount) {
+        this.mismatchCount = mismatchCount;
+    }
+
+    public Map<String, Long> getMismatchesByType() {
+        return mismatchesByType;
+    }
+
+    public void setMismatchesByType(Map<String, Long> mismatchesByType) {
+        this.mismatchesByType = mismatchesByType;
+    }
+
+    public long getRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(long repaired) {
+        this.repaired = repaired;
+    }
+
+    public long getRepairsFailed() {
+        return repairsFailed;
+    }
+
+    public void setRepairsFailed(long repairsFailed) {
+        this.repairsFailed = repairsFailed;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public List<ReconciliationMismatchDTO> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<ReconciliationMismatchDTO> mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationReportDTO{" +
+                "from=" + from +
+                ", to=" + to +
+                ", durationMs=" + durationMs +
+                ", paymentsChecked=" + paymentsChecked +
+                ", walletEntriesScanned=" + walletEntriesScanned +
+                ", matched=" + matched +
+                ", inFlight=" + inFlight +
+                ", mismatchCount=" + mismatchCount +
+                ", mismatchesByType=" + mismatchesByType +
+                ", repaired=" + repaired +
+                ", repairsFailed=" + repairsFailed +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.riyada.paymentservice.dto;
+
+import com.riyada.paymentservice.entity.ScheduledPayment;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ScheduledPaymentRequestDTO {
+
+    @Email(message = "Recipient email should be valid")
+    @NotNull(message = "Recipient email is required")
+    private String toEmail;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    // Defaults to a single future-dated payment
+    private ScheduledPayment.Frequency frequency = ScheduledPayment.Frequency.ONCE;
+
+    @NotNull(message = "Start time is required")
+    @Future(message = "Start time must be in the future")
+    private LocalDateTime startAt;
+
+    // Optional: no runs after this time
+    private LocalDateTime endAt;
+
+    @Min(value = 1, message = "Max runs must be at least 1")
+    private Integer maxRuns;
+
+    // Constructors
+    public ScheduledPaymentRequestDTO() {
+    }
+
+    // Getters and Setters
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ScheduledPayment.Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(ScheduledPayment.Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public Integer getMaxRuns() {
+        return maxRuns;
+    }
+
+    public void setMaxRuns(Integer maxRuns) {
+        this.maxRuns = maxRuns;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledPaymentRequestDTO{" +
+                "toEmail='" + toEmail + '\'' +
+                ", amount=" + amount +
+                ", description='" + description + '\'' +
+                ", frequency=" + frequency +
+                ", startAt=" + startAt +
+                ", endAt=" + endAt +
+                ", maxRuns=" + maxRuns +
+                '}';
+    }
+}
@@ -0,0 +1,202 @@
+package com.riyada.paymentservice.dto;
+
+import com.riyada.paymentservice.entity.ScheduledPayment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ScheduledPaymentResponseDTO {
+
+    private UUID id;
+    private UUID fromUserId;
+    private UUID toUserId;
+    private String toEmail;
+    private BigDecimal amount;
+    private String currency;
+    private String description;
+    private ScheduledPayment.Frequency frequency;
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    private Integer maxRuns;
+    private ScheduledPayment.ScheduleStatus status;
+    private LocalDateTime nextRunAt;
+    private int runCount;
+    private LocalDateTime lastRunAt;
+    private String lastPaymentReference;
+    private String lastFailureReason;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ScheduledPaymentResponseDTO() {
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(UUID fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public UUID getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(UUID toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ScheduledPayment.Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(ScheduledPayment.Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public Integer getMaxRuns() {
+        return maxRuns;
+    }
+
+    public void setMaxRuns(Integer maxRuns) {
+        this.maxRuns = maxRuns;
+    }
+
+    public ScheduledPayment.ScheduleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduledPayment.ScheduleStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public void setRunCount(int runCount) {
+        this.runCount = runCount;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastPaymentReference() {
+        return lastPaymentReference;
+    }
+
+    public void setLastPaymentReference(String lastPaymentReference) {
+        this.lastPaymentReference = lastPaymentReference;
+    }
+
+    public String getLastFailureReason() {
+        return lastFailureReason;
+    }
+
+    public void setLastFailureReason(String lastFailureReason) {
+        this.lastFailureReason = lastFailureReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledPaymentResponseDTO{" +
+                "id=" + id +
+                ", fromUserId=" + fromUserId +
+                ", toUserId=" + toUserId +
+                ", toEmail='" + toEmail + '\'' +
+                ", amount=" + amount +
+                ", currency='" + currency + '\'' +
+                ", description='" + description + '\'' +
+                ", frequency=" + frequency +
+                ", startAt=" + startAt +
+                ", endAt=" + endAt +
+                ", maxRuns=" + maxRuns +
+                ", status=" + status +
+                ", nextRunAt=" + nextRunAt +
+                ", runCount=" + runCount +
+                ", lastRunAt=" + lastRunAt +
+                ", lastPaymentReference='" + lastPaymentReference + '\'' +
+                ", lastFailureReason='" + lastFailureReason + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.riyada.paymentservice.entity;
 
+import com.riyada.paymentservice.util.PaymentReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
@@ -13,11 +14,20 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        // Keyset history scans (see PaymentRepository.findHistoryPage)
+        @Index(name = "idx_payments_sender_created", columnList = "sender_user_id, created_at, id"),
+        @Index(name = "idx_payments_receiver_created", columnList = "receiver_user_id, created_at, id"),
+        @Index(name = "idx_payments_batch_id", columnList = "batch_id")
+}, uniqueConstraints = {
+        // Client Idempotency-Key, scoped to the sender (see IdempotencyService)
+        @UniqueConstraint(name = "uk_payments_sender_idempotency_key",
+                columnNames = {"sender_user_id", "idempotency_key"})
+})
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "sender_user_id", nullable = false)
@@ -52,12 +62,19 @@ public class Payment {
     @Size(max = 1000, message = "Description must not exceed 1000 characters")
     private String description;
 
-    @Column(name = "reference_id", unique = true)
+    @Column(name = "reference_id", unique = true, length = 32)
     private String referenceId;
 
     @Column(name = "failure_reason", columnDefinition = "TEXT")
     private String failureReason;
 
+    // Batch this payment is a leg of, if any (see PaymentBatch)
+    @Column(name = "batch_id")
+    private UUID batchId;
+
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -82,9 +99,17 @@ public class Payment {
         this.referenceId = generateReferenceId();
     }
 
+    @PrePersist
+    protected void onCreate() {
+        // Payments built through the no-arg constructor get their reference here
+        if (referenceId == null) {
+            referenceId = generateReferenceId();
+        }
+    }
+
     // Helper method to generate reference ID
     private String generateReferenceId() {
-        return "PAY-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return PaymentReference.next();
     }
 
     // Getters and Setters
@@ -168,6 +193,14 @@ public class Payment {
         this.failureReason = failureReason;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -192,6 +225,14 @@ public class Payment {
         this.processedAt = processedAt;
     }
 
+    public UUID getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(UUID batchId) {
+        this.batchId = batchId;
+    }
+
     @Override
     public String toString() {
         return "Payment{" +
@@ -205,6 +246,7 @@ public class Payment {
                 ", description='" + description + '\'' +
                 ", referenceId='" + referenceId + '\'' +
                 ", failureReason='" + failureReason + '\'' +
+                ", batchId=" + batchId +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 ", processedAt=" + processedAt +
@@ -217,6 +259,13 @@ public class Payment {
         PROCESSING, // Payment is being processed
         COMPLETED, // Payment completed successfully
         FAILED, // Payment failed
-        CANCELLED // Payment was cancelled
+        CANCELLED; // Payment was cancelled
+
+        /**
+         * Whether the payment can no longer change status
+         */
+        public boolean isFinal() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
     }
 }
@@ -0,0 +1,202 @@
+package com.riyada.paymentservice.entity;
+
+import com.riyada.paymentservice.util.PaymentReference;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Header of a batch payment (payroll, split bills). Each recipient is a
+ * regular Payment leg pointing back here through batch_id.
+ */
+@Entity
+@Table(name = "payment_batches", indexes = {
+        @Index(name = "idx_payment_batches_sender_created", columnList = "sender_user_id, created_at")
+})
+public class PaymentBatch {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "reference_id", unique = true, length = 32)
+    private String referenceId;
+
+    @Column(name = "sender_user_id", nullable = false)
+    @NotNull(message = "Sender user ID is required")
+    private UUID fromUserId;
+
+    @Column(name = "leg_count", nullable = false)
+    private int legCount;
+
+    @Column(name = "total_amount", precision = 15, scale = 2, nullable = false)
+    @DecimalMin(value = "0.01", message = "Total amount must be greater than 0")
+    @NotNull(message = "Total amount is required")
+    private BigDecimal totalAmount;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    @Size(min = 3, max = 3, message = "Currency must be 3 characters")
+    private String currency = "USD";
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Batch status is required")
+    private BatchStatus status = BatchStatus.PROCESSING;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public PaymentBatch() {
+    }
+
+    public PaymentBatch(UUID fromUserId, int legCount, BigDecimal totalAmount, String description) {
+        this.fromUserId = fromUserId;
+        this.legCount = legCount;
+        this.totalAmount = totalAmount;
+        this.description = description;
+        this.referenceId = PaymentReference.nextBatch();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (referenceId == null) {
+            referenceId = PaymentReference.nextBatch();
+        }
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public UUID getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(UUID fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public int getLegCount() {
+        return legCount;
+    }
+
+    public void setLegCount(int legCount) {
+        this.legCount = legCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BatchStatus status) {
+        this.status = status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentBatch{" +
+                "id=" + id +
+                ", referenceId='" + referenceId + '\'' +
+                ", fromUserId=" + fromUserId +
+                ", legCount=" + legCount +
+                ", totalAmount=" + totalAmount +
+                ", currency='" + currency + '\'' +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", processedAt=" + processedAt +
+                '}';
+    }
+
+    // Batch Status Enum
+    public enum BatchStatus {
+        PROCESSING, // Legs are being executed
+        COMPLETED, // Every leg completed
+        PARTIALLY_COMPLETED, // Some legs completed, the rest failed or were cancelled
+        FAILED; // No leg completed
+
+        public boolean isFinal() {
+            return this != PROCESSING;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.riyada.paymentservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A future-dated or recurring payment (standing order). Each run creates
+ * an ordinary async Payment; the schedule only tracks when the next one is
+ * due.
+ */
+@Entity
+@Table(name = "scheduled_payments", indexes = {
+        // Due-time window scans (see ScheduledPaymentRepository.findDue)
+        @Index(name = "idx_scheduled_payments_due", columnList = "status, next_run_at, id"),
+        @Index(name = "idx_scheduled_payments_sender", columnList = "sender_user_id, created_at")
+})
+public class ScheduledPayment {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "sender_user_id", nullable = false)
+    @NotNull(message = "Sender user ID is required")
+    private UUID fromUserId;
+
+    @Column(name = "receiver_user_id", nullable = false)
+    @NotNull(message = "Receiver user ID is required")
+    private UUID toUserId;
+
+    @Column(name = "to_email", nullable = false)
+    @Email(message = "Recipient email should be valid")
+    @NotNull(message = "Recipient email is required")
+    private String toEmail;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false)
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @NotNull(message = "Amount is required")
+    private BigDecimal amount;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    @Size(min = 3, max = 3, message = "Currency must be 3 characters")
+    private String currency = "USD";
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    @Column(name = "frequency", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Frequency is required")
+    private Frequency frequency;
+
+    @Column(name = "start_at", nullable = false)
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startAt;
+
+    @Column(name = "end_at")
+    private LocalDateTime endAt;
+
+    @Column(name = "max_runs")
+    private Integer maxRuns;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Schedule status is required")
+    private ScheduleStatus status = ScheduleStatus.ACTIVE;
+
+    // Null once the schedule has finished
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "run_count", nullable = false)
+    private int runCount;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_payment_reference", length = 32)
+    private String lastPaymentReference;
+
+    @Column(name = "last_failure_reason", columnDefinition = "TEXT")
+    private String lastFailureReason;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ScheduledPayment() {
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(UUID fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public UUID getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(UUID toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public Integer getMaxRuns() {
+        return maxRuns;
+    }
+
+    public void setMaxRuns(Integer maxRuns) {
+        this.maxRuns = maxRuns;
+    }
+
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public void setRunCount(int runCount) {
+        this.runCount = runCount;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastPaymentReference() {
+        return lastPaymentReference;
+    }
+
+    public void setLastPaymentReference(String lastPaymentReference) {
+        this.lastPaymentReference = lastPaymentReference;
+    }
+
+    public String getLastFailureReason() {
+        return lastFailureReason;
+    }
+
+    public void setLastFailureReason(String lastFailureReason) {
+        this.lastFailureReason = lastFailureReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledPayment{" +
+                "id=" + id +
+                ", fromUserId=" + fromUserId +
+                ", toUserId=" + toUserId +
+                ", amount=" + amount +
+                ", frequency=" + frequency +
+                ", status=" + status +
+                ", nextRunAt=" + nextRunAt +
+                ", runCount=" + runCount +
+                '}';
+    }
+
+    // Frequency Enum
+    public enum Frequency {
+        ONCE(null),
+        DAILY(ChronoUnit.DAYS),
+        WEEKLY(ChronoUnit.WEEKS),
+        MONTHLY(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * First occurrence strictly after the given time, counted from the
+         * start so months keep their anchor day (31st -> 28th -> 31st); null
+         * for a one-off payment
+         */
+        public LocalDateTime nextAfter(LocalDateTime startAt, LocalDateTime after) {
+            if (unit == null) {
+                return null;
+            }
+            long periods = Math.max(0, unit.between(startAt, after));
+            LocalDateTime next = startAt.plus(periods, unit);
+            while (!next.isAfter(after)) {
+                next = startAt.plus(++periods, unit);
+            }
+            return next;
+        }
+    }
+
+    // Schedule Status Enum
+    public enum ScheduleStatus {
+        ACTIVE, // Runs when due
+        COMPLETED, // Ran for the last time
+        CANCELLED // Cancelled by the sender
+    }
+}
@@ -0,0 +1,239 @@
+package com.riyada.paymentservice.event;
+
+import com.riyada.paymentservice.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Envelope for payment-completed events (see docs/kafka-events.md)
+ */
+public class PaymentEvent {
+
+    public static final String TOPIC_PAYMENT_COMPLETED = "payment-completed";
+
+    public static final String TYPE_PAYMENT_COMPLETED = "PaymentCompleted";
+
+    private static final String SOURCE = "payment-service";
+
+    private String eventId;
+    private String eventType;
+    private String timestamp;
+    private String source;
+    private PaymentEventData data;
+
+    // Constructors
+    public PaymentEvent() {
+    }
+
+    public PaymentEvent(String eventType, PaymentEventData data) {
+        this.eventId = UUID.randomUUID().toString();
+        this.eventType = eventType;
+        this.timestamp = Instant.now().toString();
+        this.source = SOURCE;
+        this.data = data;
+    }
+
+    /**
+     * Build a PaymentCompleted event from a settled payment
+     */
+    public static PaymentEvent completed(Payment payment) {
+        return new PaymentEvent(TYPE_PAYMENT_COMPLETED, PaymentEventData.from(payment));
+    }
+
+    /**
+     * Topic this event is published to
+     */
+    public String topic() {
+        return TOPIC_PAYMENT_COMPLETED;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public PaymentEventData getData() {
+        return data;
+    }
+
+    public void setData(PaymentEventData data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", timestamp='" + timestamp + '\'' +
+                ", source='" + source + '\'' +
+                ", data=" + data +
+                '}';
+    }
+
+    /**
+     * Event payload
+     */
+    public static class PaymentEventData {
+
+        private UUID paymentId;
+        private String referenceId;
+        private UUID fromUserId;
+        private UUID toUserId;
+        private BigDecimal amount;
+        private String currency;
+        private String status;
+        private String description;
+        private UUID batchId;
+        private LocalDateTime createdAt;
+        private LocalDateTime processedAt;
+
+        public PaymentEventData() {
+        }
+
+        public static PaymentEventData from(Payment payment) {
+            PaymentEventData data = new PaymentEventData();
+            data.setPaymentId(payment.getId());
+            data.setReferenceId(payment.getReferenceId());
+            data.setFromUserId(payment.getFromUserId());
+            data.setToUserId(payment.getToUserId());
+            data.setAmount(payment.getAmount());
+            data.setCurrency(payment.getCurrency());
+            data.setStatus(payment.getStatus().name());
+            data.setDescription(payment.getDescription());
+            data.setBatchId(payment.getBatchId());
+            data.setCreatedAt(payment.getCreatedAt());
+            data.setProcessedAt(payment.getProcessedAt());
+            return data;
+        }
+
+        public UUID getPaymentId() {
+            return paymentId;
+        }
+
+        public void setPaymentId(UUID paymentId) {
+            this.paymentId = paymentId;
+        }
+
+        public String getReferenceId() {
+            return referenceId;
+        }
+
+        public void setReferenceId(String referenceId) {
+            this.referenceId = referenceId;
+        }
+
+        public UUID getFromUserId() {
+            return fromUserId;
+        }
+
+        public void setFromUserId(UUID fromUserId) {
+            this.fromUserId = fromUserId;
+        }
+
+        public UUID getToUserId() {
+            return toUserId;
+        }
+
+        public void setToUserId(UUID toUserId) {
+            this.toUserId = toUserId;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public UUID getBatchId() {
+            return batchId;
+        }
+
+        public void setBatchId(UUID batchId) {
+            this.batchId = batchId;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public LocalDateTime getProcessedAt() {
+            return processedAt;
+        }
+
+        public void setProcessedAt(LocalDateTime processedAt) {
+            this.processedAt = processedAt;
+        }
+
+        @Override
+        public String toString() {
+            return "PaymentEventData{" +
+                    "paymentId=" + paymentId +
+                    ", referenceId='" + referenceId + '\'' +
+                    ", amount=" + amount +
+                    ", status='" + status + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.riyada.paymentservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.paymentservice.entity.OutboxEvent;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records payment events in the outbox as part of the caller's transaction;
+ * {@link OutboxRelay} delivers them to Kafka after commit. Events are keyed
+ * by sender so that a sender's payments land on the same partition in order.
+ */
+@Component
+public class PaymentEventPublisher {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Append a PaymentCompleted event to the outbox
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void completed(Payment payment) {
+        outboxEventRepository.save(toOutboxEvent(PaymentEvent.completed(payment)));
+    }
+
+    /**
+     * Append PaymentCompleted events for settled batch legs in one batched insert
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void completed(Collection<Payment> payments) {
+        List<OutboxEvent> events = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            events.add(toOutboxEvent(PaymentEvent.completed(payment)));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent toOutboxEvent(PaymentEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            return new OutboxEvent(event.topic(), event.getData().getFromUserId().toString(),
+                    event.getEventType(), payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + event.getEventType(), e);
+        }
+    }
+}
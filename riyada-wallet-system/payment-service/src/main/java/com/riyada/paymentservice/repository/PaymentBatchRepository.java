@@ -0,0 +1,17 @@
+package com.riyada.paymentservice.repository;
+
+import com.riyada.paymentservice.entity.PaymentBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PaymentBatchRepository extends JpaRepository<PaymentBatch, UUID> {
+
+    /**
+     * Find batch by reference ID
+     */
+    Optional<PaymentBatch> findByReferenceId(String referenceId);
+}
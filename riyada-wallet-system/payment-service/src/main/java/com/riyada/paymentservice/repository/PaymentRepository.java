@@ -2,10 +2,14 @@ package com.riyada.paymentservice.repository;
 
 import com.riyada.paymentservice.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,11 +33,56 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     @Query("SELECT p FROM Payment p WHERE p.fromUserId = :userId OR p.toUserId = :userId ORDER BY p.createdAt DESC")
     List<Payment> findByUserIdOrderByCreatedAtDesc(@Param("userId") UUID userId);
 
+    /**
+     * One keyset page of a user's history, newest first. Sent and received
+     * payments are read by two separately limited branches, each walking its
+     * own (user, created_at, id) index in order, and merged with UNION ALL.
+     * An OR across both columns could use neither index this way. The cursor
+     * is a row-value comparison, so each branch seeks straight to the cursor
+     * position in its index. Every filter is always bound (callers pass open
+     * bounds and all statuses when unfiltered), so the plan does not depend
+     * on which filters are set.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM payments WHERE sender_user_id = :userId AND status IN (:statuses) " +
+            "AND created_at >= :fromDate AND created_at < :toDate " +
+            "AND (created_at, id) < (:cursorTime, :cursorId) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM payments WHERE receiver_user_id = :userId AND status IN (:statuses) " +
+            "AND created_at >= :fromDate AND created_at < :toDate " +
+            "AND (created_at, id) < (:cursorTime, :cursorId) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit)" +
+            ") history ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Payment> findHistoryPage(@Param("userId") UUID userId,
+            @Param("statuses") Collection<String> statuses,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit);
+
     /**
      * Find payment by reference ID
      */
     Optional<Payment> findByReferenceId(String referenceId);
 
+    /**
+     * Legs of a batch in creation order
+     */
+    List<Payment> findByBatchIdOrderByReferenceIdAsc(UUID batchId);
+
+    /**
+     * Legs of a batch in one status, in creation order
+     */
+    List<Payment> findByBatchIdAndStatusOrderByReferenceIdAsc(UUID batchId, Payment.PaymentStatus status);
+
+    /**
+     * Leg count per status for a batch, as [status, count] rows
+     */
+    @Query("SELECT p.status, COUNT(p) FROM Payment p WHERE p.batchId = :batchId GROUP BY p.status")
+    List<Object[]> countByStatusForBatch(@Param("batchId") UUID batchId);
+
     /**
      * Find payments by status
      */
@@ -68,4 +117,68 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
      * Check if payment exists by reference ID
      */
     boolean existsByReferenceId(String referenceId);
+
+    /**
+     * Find the payment a sender created with an Idempotency-Key
+     */
+    Optional<Payment> findByFromUserIdAndIdempotencyKey(UUID fromUserId, String idempotencyKey);
+
+    /**
+     * Move a payment between statuses only if it is still in the expected one
+     * (compare-and-set); returns the number of rows changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = :to, p.updatedAt = :now WHERE p.id = :id AND p.status = :from")
+    int transitionStatus(@Param("id") UUID id, @Param("from") Payment.PaymentStatus from,
+            @Param("to") Payment.PaymentStatus to, @Param("now") LocalDateTime now);
+
+    /**
+     * Fail payments that have sat in PENDING since before the cutoff
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = com.riyada.paymentservice.entity.Payment$PaymentStatus.FAILED, " +
+            "p.failureReason = :reason, p.updatedAt = :now, p.processedAt = :now " +
+            "WHERE p.status = com.riyada.paymentservice.entity.Payment$PaymentStatus.PENDING " +
+            "AND p.createdAt < :cutoff")
+    int failPendingCreatedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("reason") String reason,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Settle a payment that reconciliation found in the wrong state. Applies
+     * only while the payment is still in the expected status and has not
+     * already been settled with the same reason, so concurrent runs cannot
+     * both claim it; returns the number of rows changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = :to, p.failureReason = :reason, p.updatedAt = :now, " +
+            "p.processedAt = :now WHERE p.id = :id AND p.status = :from " +
+            "AND (p.status <> :to OR p.failureReason IS NULL OR p.failureReason <> :reason)")
+    int reconcileStatus(@Param("id") UUID id, @Param("from") Payment.PaymentStatus from,
+            @Param("to") Payment.PaymentStatus to, @Param("reason") String reason,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Claim every still-pending leg of a batch for processing; legs
+     * cancelled or swept while queued are left alone
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = com.riyada.paymentservice.entity.Payment$PaymentStatus.PROCESSING, " +
+            "p.updatedAt = :now WHERE p.batchId = :batchId " +
+            "AND p.status = com.riyada.paymentservice.entity.Payment$PaymentStatus.PENDING")
+    int claimBatchLegs(@Param("batchId") UUID batchId, @Param("now") LocalDateTime now);
+
+    /**
+     * Settle processing legs with one final status and reason
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = :to, p.failureReason = :reason, p.updatedAt = :now, " +
+            "p.processedAt = :now WHERE p.id IN :ids " +
+            "AND p.status = com.riyada.paymentservice.entity.Payment$PaymentStatus.PROCESSING")
+    int settleBatchLegs(@Param("ids") Collection<UUID> ids, @Param("to") Payment.PaymentStatus to,
+            @Param("reason") String reason, @Param("now") LocalDateTime now);
 }
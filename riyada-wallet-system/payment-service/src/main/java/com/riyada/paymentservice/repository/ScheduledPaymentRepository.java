@@ -0,0 +1,74 @@
+package com.riyada.paymentservice.repository;
+
+import com.riyada.paymentservice.entity.ScheduledPayment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ScheduledPaymentRepository extends JpaRepository<ScheduledPayment, UUID> {
+
+    /**
+     * Find a user's schedules, newest first
+     */
+    List<ScheduledPayment> findByFromUserIdOrderByCreatedAtDesc(UUID fromUserId);
+
+    /**
+     * Active schedules due before the horizon, after the (time, id) keyset
+     * cursor, in due order; returns [id, nextRunAt] rows. A range scan on
+     * idx_scheduled_payments_due, however many schedules exist.
+     */
+    @Query("SELECT s.id, s.nextRunAt FROM ScheduledPayment s " +
+            "WHERE s.status = com.riyada.paymentservice.entity.ScheduledPayment$ScheduleStatus.ACTIVE " +
+            "AND s.nextRunAt < :horizon " +
+            "AND (s.nextRunAt > :afterTime OR (s.nextRunAt = :afterTime AND s.id > :afterId)) " +
+            "ORDER BY s.nextRunAt, s.id")
+    List<Object[]> findDue(@Param("horizon") LocalDateTime horizon,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * Claim the run due at dueAt and move the schedule on (compare-and-set);
+     * returns 0 if it was already run, rescheduled or cancelled
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledPayment s SET s.nextRunAt = :next, s.status = :status, " +
+            "s.runCount = s.runCount + 1, s.lastRunAt = :now, s.updatedAt = :now " +
+            "WHERE s.id = :id AND s.nextRunAt = :dueAt " +
+            "AND s.status = com.riyada.paymentservice.entity.ScheduledPayment$ScheduleStatus.ACTIVE")
+    int claimRun(@Param("id") UUID id, @Param("dueAt") LocalDateTime dueAt,
+            @Param("next") LocalDateTime next,
+            @Param("status") ScheduledPayment.ScheduleStatus status,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Record the outcome of a run
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledPayment s SET s.lastPaymentReference = :reference, " +
+            "s.lastFailureReason = :reason WHERE s.id = :id")
+    int recordRun(@Param("id") UUID id, @Param("reference") String reference, @Param("reason") String reason);
+
+    /**
+     * Cancel a schedule only while it is still active; returns the number
+     * of rows changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledPayment s SET " +
+            "s.status = com.riyada.paymentservice.entity.ScheduledPayment$ScheduleStatus.CANCELLED, " +
+            "s.nextRunAt = NULL, s.updatedAt = :now WHERE s.id = :id " +
+            "AND s.status = com.riyada.paymentservice.entity.ScheduledPayment$ScheduleStatus.ACTIVE")
+    int cancelActive(@Param("id") UUID id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,561 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.client.WalletServiceClient;
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.BatchPaymentRequestDTO;
+import com.riyada.paymentservice.dto.BatchPaymentResponseDTO;
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.entity.PaymentBatch;
+import com.riyada.paymentservice.event.PaymentEventPublisher;
+import com.riyada.paymentservice.repository.PaymentBatchRepository;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import com.riyada.paymentservice.util.PaymentMapper;
+import com.riyada.paymentservice.util.TaskScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Batch payments (payroll, split bills): one request pays many recipients.
+ *
+ * Accepting a batch reserves its leg count and total against the sender's
+ * velocity limits, resolves the distinct recipients concurrently, checks
+ * the sender's balance once against the total, and commits a PaymentBatch
+ * header with one PENDING Payment leg per recipient. Execution keeps the
+ * operations on any one wallet ordered while different wallets proceed in
+ * parallel:
+ * - the sender is debited for the legs on the sender's worker lane, in
+ *   chunks, each chunk one atomic wallet-service call;
+ * - debited legs are grouped by the recipient's lane and credited there,
+ *   one task per lane, so the groups run in parallel;
+ * - after the last group, failed credits are reversed to the sender in one
+ *   call on the sender's lane, and the header is settled.
+ *
+ * Wallet calls go out under a service token: the batch endpoints take
+ * nothing else, and the sender's per-user rate limit on wallet-service does
+ * not throttle a batch larger than its bucket. A credit call that fails
+ * without an answer (e.g. a read timeout) may still have been applied, so
+ * the recipient's wallet is asked before the leg is reversed; if it cannot
+ * be asked, the leg stays PROCESSING for reconciliation.
+ *
+ * Legs that fail give their velocity reservation back.
+ *
+ * Each leg keeps its own reference, so the status endpoints and
+ * reconciliation treat legs like any other payment.
+ */
+@Service
+public class BatchPaymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchPaymentService.class);
+
+    private static final String REASON_CREDIT_FAILED = "Failed to credit recipient's wallet";
+
+    private static final String SERVICE_NAME = "payment-service";
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentBatchRepository paymentBatchRepository;
+
+    @Autowired
+    private WalletServiceClient walletServiceClient;
+
+    @Autowired
+    private PaymentWorkerPool paymentWorkerPool;
+
+    @Autowired
+    private PaymentStatusCache paymentStatusCache;
+
+    @Autowired
+    private PaymentStatusNotifier paymentStatusNotifier;
+
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Autowired
+    private PaymentKpis paymentKpis;
+
+    @Autowired
+    private VelocityService velocityService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Autowired
+    @Qualifier("preCheckExecutor")
+    private ExecutorService preCheckExecutor;
+
+    @Value("${payments.batch.max-payments:5000}")
+    private int maxPayments;
+
+    @Value("${payments.batch.wallet-chunk-size:500}")
+    private int walletChunkSize;
+
+    @Value("${payments.batch.flush-size:100}")
+    private int flushSize;
+
+    @Value("${payments.batch.precheck-timeout-ms:15000}")
+    private long preCheckTimeoutMillis;
+
+    @Value("${payments.batch.wallet-token-validity-minutes:10}")
+    private long walletTokenValidityMinutes;
+
+    /**
+     * Validate and persist a batch, then queue it on the sender's lane
+     *
+     * @throws RejectedExecutionException if the sender's lane is full; the
+     *                                    batch is then marked FAILED
+     */
+    public BatchPaymentResponseDTO acceptBatch(BatchPaymentRequestDTO requestDTO, UUID fromUserId,
+            String authToken) {
+        List<PaymentRequestDTO> requests = requestDTO.getPayments();
+        if (requests.size() > maxPayments) {
+            throw new RuntimeException("Batch payment failed: a batch must not exceed " + maxPayments + " payments");
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (PaymentRequestDTO request : requests) {
+            total = total.add(request.getAmount());
+        }
+        logger.info("Accepting batch of {} payments totalling {} from user {}", requests.size(), total, fromUserId);
+
+        // Every leg counts against the sender's velocity limits, all or nothing
+        long reservedAt;
+        try {
+            reservedAt = velocityService.reserve(fromUserId, total, requests.size());
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Batch payment failed: " + e.getMessage());
+        }
+
+        BigDecimal batchTotal = total;
+        List<Payment> legs = new ArrayList<>(requests.size());
+        PaymentBatch batch;
+        try {
+            Map<String, UUID> recipients;
+            try {
+                recipients = resolveRecipients(requests, fromUserId, total, authToken);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Batch payment failed: interrupted");
+            } catch (Exception e) {
+                throw new RuntimeException("Batch payment failed: " + e.getMessage());
+            }
+            if (recipients.containsValue(fromUserId)) {
+                throw new RuntimeException("Batch payment failed: Cannot transfer money to yourself");
+            }
+
+            // Header and legs commit together before queuing so the worker finds them
+            batch = new TransactionTemplate(transactionManager).execute(status -> {
+                PaymentBatch header = paymentBatchRepository.save(
+                        new PaymentBatch(fromUserId, requests.size(), batchTotal, requestDTO.getDescription()));
+                for (PaymentRequestDTO request : requests) {
+                    Payment leg = PaymentMapper.toPayment(request, fromUserId, recipients.get(request.getToEmail()));
+                    leg.setBatchId(header.getId());
+                    legs.add(leg);
+                }
+                paymentRepository.saveAll(legs);
+                return header;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was persisted: give the whole reservation back
+            velocityService.release(fromUserId, batchTotal, requests.size(), reservedAt);
+            throw e;
+        }
+        UUID batchId = batch.getId();
+
+        try {
+            paymentWorkerPool.submit(fromUserId, () -> executeBatch(batchId, reservedAt));
+        } catch (RejectedExecutionException e) {
+            paymentRepository.claimBatchLegs(batchId, LocalDateTime.now());
+            List<Payment> rejected = paymentRepository.findByBatchIdAndStatusOrderByReferenceIdAsc(batchId,
+                    Payment.PaymentStatus.PROCESSING);
+            settle(rejected, Payment.PaymentStatus.FAILED, "Payment queue is full");
+            releaseReservations(rejected, reservedAt);
+            finishBatch(batchId);
+            throw e;
+        }
+
+        logger.info("Batch {} accepted with {} payments", batch.getReferenceId(), legs.size());
+        return PaymentMapper.toBatchPaymentResponseDTO(batch, countLegs(batchId), legs);
+    }
+
+    /**
+     * Get a batch with its legs; only the sender may see it
+     */
+    @Transactional(readOnly = true)
+    public BatchPaymentResponseDTO getBatch(UUID batchId, UUID userId) {
+        PaymentBatch batch = paymentBatchRepository.findById(batchId)
+                .filter(found -> found.getFromUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Payment batch not found with ID: " + batchId));
+        return PaymentMapper.toBatchPaymentResponseDTO(batch, countLegs(batchId),
+                paymentRepository.findByBatchIdOrderByReferenceIdAsc(batchId));
+    }
+
+    /**
+     * Resolve each distinct recipient email to a user ID, concurrently with
+     * one balance check for the whole batch. The first failure rejects the
+     * batch.
+     */
+    private Map<String, UUID> resolveRecipients(List<PaymentRequestDTO> requests, UUID fromUserId,
+            BigDecimal total, String authToken) throws InterruptedException {
+        Set<String> emails = new LinkedHashSet<>();
+        for (PaymentRequestDTO request : requests) {
+            emails.add(request.getToEmail());
+        }
+
+        Map<String, TaskScope.Subtask<UUID>> lookups = new HashMap<>();
+        try (TaskScope scope = new TaskScope(preCheckExecutor, preCheckTimeoutMillis)) {
+            scope.fork(() -> {
+                paymentService.checkSufficientBalance(fromUserId, total, authToken);
+                return null;
+            });
+            for (String email : emails) {
+                lookups.put(email, scope.fork(() -> paymentService.resolveRecipientId(email)));
+            }
+            scope.join();
+        }
+
+        Map<String, UUID> recipients = new HashMap<>();
+        lookups.forEach((email, lookup) -> recipients.put(email, lookup.get()));
+        return recipients;
+    }
+
+    /**
+     * Sender-lane half of a batch: claim the legs, debit the sender, then
+     * fan the credits out to the recipients' lanes
+     */
+    void executeBatch(UUID batchId, long reservedAt) {
+        PaymentBatch batch = paymentBatchRepository.findById(batchId).orElse(null);
+        if (batch == null) {
+            logger.warn("Skipping batch {}: not found", batchId);
+            return;
+        }
+
+        // Legs cancelled or swept while queued stay as they are
+        paymentRepository.claimBatchLegs(batchId, LocalDateTime.now());
+        List<Payment> legs = paymentRepository.findByBatchIdAndStatusOrderByReferenceIdAsc(batchId,
+                Payment.PaymentStatus.PROCESSING);
+        legs.forEach(leg -> paymentStatusCache.invalidate(leg.getReferenceId()));
+
+        List<Payment> debited = new ArrayList<>(legs.size());
+        String serviceToken = serviceToken();
+        for (List<Payment> chunk : chunks(legs, walletChunkSize)) {
+            try {
+                Map<String, Object> response = walletServiceClient.debitWalletBatch(
+                        batch.getFromUserId().toString(),
+                        walletBatch(chunk, leg -> "Transfer to " + leg.getToEmail() + " - " + leg.getReferenceId()),
+                        serviceToken);
+                if (!Boolean.TRUE.equals(response.get("success"))) {
+                    throw new RuntimeException(String.valueOf(response.get("message")));
+                }
+                debited.addAll(chunk);
+            } catch (Exception e) {
+                logger.error("Batch {}: debit of {} payments failed: {}", batch.getReferenceId(), chunk.size(),
+                        e.getMessage());
+                settle(chunk, Payment.PaymentStatus.FAILED, "Failed to debit from sender's wallet: " + e.getMessage());
+                releaseReservations(chunk, reservedAt);
+            }
+        }
+
+        if (debited.isEmpty()) {
+            finishBatch(batchId);
+            return;
+        }
+
+        // One group per recipient lane; a lane runs its group in order
+        Map<Integer, List<Payment>> groups = new TreeMap<>();
+        for (Payment leg : debited) {
+            groups.computeIfAbsent(paymentWorkerPool.laneOf(leg.getToUserId()), lane -> new ArrayList<>()).add(leg);
+        }
+
+        BatchRun run = new BatchRun(batch, reservedAt, groups.size());
+        for (List<Payment> group : groups.values()) {
+            Runnable task = () -> creditGroup(run, group);
+            try {
+                paymentWorkerPool.submit(group.get(0).getToUserId(), task);
+            } catch (RejectedExecutionException e) {
+                // Never strand debited legs: credit them here instead
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Recipient-lane half: credit one group of legs, settling completed
+     * ones every flush-size legs
+     */
+    private void creditGroup(BatchRun run, List<Payment> group) {
+        List<Payment> completed = new ArrayList<>();
+        try {
+            String serviceToken = serviceToken();
+            for (Payment leg : group) {
+                switch (credit(run, leg, serviceToken)) {
+                    case CREDITED -> completed.add(leg);
+                    case NOT_CREDITED -> run.failedCredits.add(leg);
+                    case UNKNOWN -> {
+                        // Left PROCESSING; reconciliation settles or reverses it
+                    }
+                }
+
+                if (completed.size() >= flushSize) {
+                    settle(completed, Payment.PaymentStatus.COMPLETED, null);
+                    completed.clear();
+                }
+            }
+            settle(completed, Payment.PaymentStatus.COMPLETED, null);
+
+        } catch (Exception e) {
+            // Legs left PROCESSING are settled by reconciliation
+            logger.error("Batch {}: could not settle credited payments: {}", run.referenceId, e.getMessage());
+        } finally {
+            if (run.remainingGroups.decrementAndGet() == 0) {
+                Runnable finish = () -> reverseAndFinish(run);
+                try {
+                    paymentWorkerPool.submit(run.fromUserId, finish);
+                } catch (RejectedExecutionException e) {
+                    finish.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Credit one leg to its recipient
+     */
+    private CreditOutcome credit(BatchRun run, Payment leg, String serviceToken) {
+        Map<String, Object> response;
+        try {
+            response = walletServiceClient.creditWallet(
+                    leg.getToUserId().toString(),
+                    leg.getAmount(),
+                    "Transfer from " + leg.getFromUserId() + " - " + leg.getReferenceId(),
+                    leg.getReferenceId(),
+                    serviceToken);
+        } catch (Exception e) {
+            logger.error("Batch {}: credit failed for payment {}: {}", run.referenceId, leg.getReferenceId(),
+                    e.getMessage());
+            return checkCredit(run, leg, serviceToken);
+        }
+        if (!Boolean.TRUE.equals(response.get("success"))) {
+            // Rejected by wallet-service, so nothing was applied
+            logger.error("Batch {}: credit rejected for payment {}: {}", run.referenceId, leg.getReferenceId(),
+                    response.get("message"));
+            return CreditOutcome.NOT_CREDITED;
+        }
+        return CreditOutcome.CREDITED;
+    }
+
+    /**
+     * Ask the recipient's wallet whether a credit call that failed was
+     * applied anyway, from its transactions for the leg's reference
+     */
+    @SuppressWarnings("unchecked")
+    private CreditOutcome checkCredit(BatchRun run, Payment leg, String serviceToken) {
+        try {
+            Map<String, Object> response = walletServiceClient.getWalletTransactions(
+                    leg.getToUserId().toString(), leg.getReferenceId(), serviceToken);
+            if (!Boolean.TRUE.equals(response.get("success"))) {
+                throw new RuntimeException(String.valueOf(response.get("message")));
+            }
+            List<Map<String, Object>> transactions = (List<Map<String, Object>>) response.get("transactions");
+            boolean credited = transactions.stream()
+                    .anyMatch(transaction -> "CREDIT".equals(transaction.get("transactionType")));
+            logger.info("Batch {}: payment {} was {}credited", run.referenceId, leg.getReferenceId(),
+                    credited ? "" : "not ");
+            return credited ? CreditOutcome.CREDITED : CreditOutcome.NOT_CREDITED;
+        } catch (Exception e) {
+            logger.error("Batch {}: could not check the credit for payment {}, leaving it to reconciliation: {}",
+                    run.referenceId, leg.getReferenceId(), e.getMessage());
+            return CreditOutcome.UNKNOWN;
+        }
+    }
+
+    /**
+     * Back on the sender's lane: refund legs whose credit failed, then
+     * settle the header
+     */
+    private void reverseAndFinish(BatchRun run) {
+        List<Payment> failed = new ArrayList<>(run.failedCredits);
+        String serviceToken = failed.isEmpty() ? null : serviceToken();
+        for (List<Payment> chunk : chunks(failed, walletChunkSize)) {
+            try {
+                Map<String, Object> response = walletServiceClient.creditWalletBatch(
+                        run.fromUserId.toString(),
+                        walletBatch(chunk, leg -> "Reversal for failed transfer - " + leg.getReferenceId()),
+                        serviceToken);
+                if (!Boolean.TRUE.equals(response.get("success"))) {
+                    throw new RuntimeException(String.valueOf(response.get("message")));
+                }
+            } catch (Exception e) {
+                // Reconciliation reverses debits that were never credited
+                logger.error("Batch {}: could not reverse {} failed payments: {}", run.referenceId, chunk.size(),
+                        e.getMessage());
+            }
+            settle(chunk, Payment.PaymentStatus.FAILED, REASON_CREDIT_FAILED);
+            releaseReservations(chunk, run.reservedAt);
+        }
+        finishBatch(run.batchId);
+    }
+
+    /**
+     * Give the header its final status from its legs' statuses
+     */
+    private void finishBatch(UUID batchId) {
+        PaymentBatch batch = paymentBatchRepository.findById(batchId).orElse(null);
+        if (batch == null) {
+            return;
+        }
+
+        Map<Payment.PaymentStatus, Long> counts = countLegs(batchId);
+        long completed = counts.getOrDefault(Payment.PaymentStatus.COMPLETED, 0L);
+        if (completed == batch.getLegCount()) {
+            batch.setStatus(PaymentBatch.BatchStatus.COMPLETED);
+        } else if (completed == 0) {
+            batch.setStatus(PaymentBatch.BatchStatus.FAILED);
+        } else {
+            batch.setStatus(PaymentBatch.BatchStatus.PARTIALLY_COMPLETED);
+        }
+        batch.setProcessedAt(LocalDateTime.now());
+        paymentBatchRepository.save(batch);
+
+        logger.info("Batch {} finished {}: {}", batch.getReferenceId(), batch.getStatus(), counts);
+    }
+
+    /**
+     * Move processing legs to a final status and publish it to the status
+     * cache and any long-poll waiters. Completed legs' events are written to
+     * the outbox in the same transaction as the update.
+     */
+    private void settle(List<Payment> legs, Payment.PaymentStatus status, String reason) {
+        if (legs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Payment leg : legs) {
+            leg.setStatus(status);
+            leg.setFailureReason(reason);
+            leg.setProcessedAt(now);
+        }
+        List<UUID> ids = legs.stream().map(Payment::getId).toList();
+        if (status == Payment.PaymentStatus.COMPLETED) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+                paymentRepository.settleBatchLegs(ids, status, reason, now);
+                paymentEventPublisher.completed(legs);
+            });
+        } else {
+            paymentRepository.settleBatchLegs(ids, status, reason, now);
+        }
+        paymentKpis.recordFinished(legs);
+
+        for (Payment leg : legs) {
+            PaymentStatusDTO statusDTO = PaymentMapper.toPaymentStatusDTO(leg);
+            paymentStatusCache.update(statusDTO);
+            paymentStatusNotifier.finished(statusDTO);
+        }
+    }
+
+    /**
+     * Give back the velocity reservation of legs that did not go through
+     */
+    private void releaseReservations(List<Payment> legs, long reservedAt) {
+        for (Payment leg : legs) {
+            velocityService.release(leg.getFromUserId(), leg.getAmount(), reservedAt);
+        }
+    }
+
+    private Map<Payment.PaymentStatus, Long> countLegs(UUID batchId) {
+        Map<Payment.PaymentStatus, Long> counts = new EnumMap<>(Payment.PaymentStatus.class);
+        for (Object[] row : paymentRepository.countByStatusForBatch(batchId)) {
+            counts.put((Payment.PaymentStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private String serviceToken() {
+        return "Bearer " + jwtConfig.generateServiceToken(SERVICE_NAME,
+                TimeUnit.MINUTES.toMillis(walletTokenValidityMinutes));
+    }
+
+    /**
+     * Body for the wallet-service batch endpoints
+     */
+    private Map<String, Object> walletBatch(List<Payment> legs, Function<Payment, String> description) {
+        List<Map<String, Object>> entries = new ArrayList<>(legs.size());
+        for (Payment leg : legs) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("amount", leg.getAmount());
+            entry.put("description", description.apply(leg));
+            entry.put("referenceId", leg.getReferenceId());
+            entries.add(entry);
+        }
+        return Map.of("entries", entries);
+    }
+
+    private static List<List<Payment>> chunks(List<Payment> legs, int size) {
+        List<List<Payment>> chunks = new ArrayList<>();
+        for (int from = 0; from < legs.size(); from += size) {
+            chunks.add(legs.subList(from, Math.min(from + size, legs.size())));
+        }
+        return chunks;
+    }
+
+    private enum CreditOutcome {
+        CREDITED,
+        NOT_CREDITED,
+        UNKNOWN
+    }
+
+    /**
+     * State shared by the credit groups of one batch execution
+     */
+    private static final class BatchRun {
+        private final UUID batchId;
+        private final String referenceId;
+        private final UUID fromUserId;
+        private final long reservedAt;
+        private final AtomicInteger remainingGroups;
+        private final Queue<Payment> failedCredits = new ConcurrentLinkedQueue<>();
+
+        private BatchRun(PaymentBatch batch, long reservedAt, int groups) {
+            this.batchId = batch.getId();
+            this.referenceId = batch.getReferenceId();
+            this.fromUserId = batch.getFromUserId();
+            this.reservedAt = reservedAt;
+            this.remainingGroups = new AtomicInteger(groups);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.dto.PaymentResponseDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import com.riyada.paymentservice.util.PaymentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Client Idempotency-Key handling for transfers. A key is scoped to the
+ * sender and stored on the payment it created (unique per sender), so a
+ * retry after the payment exists is answered from that payment. Requests
+ * still in flight on this instance are tracked in memory: a concurrent
+ * duplicate waits for the first and gets its response instead of running
+ * the downstream calls again. Across instances the unique constraint
+ * decides; the loser answers from the winner's payment.
+ *
+ * A request that failed before its payment was created (e.g. a failed
+ * pre-check) stored nothing, so retrying it with the same key runs again.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Value("${payments.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMillis;
+
+    // Keyed by sender and Idempotency-Key
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private static final class InFlight {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Run the transfer once per sender and key. Duplicates get the original
+     * response, or one rebuilt from the stored payment, marked as replayed;
+     * reusing a key for a different request is rejected.
+     */
+    public ResponseEntity<?> execute(UUID fromUserId, String key, PaymentRequestDTO requestDTO,
+            Supplier<ResponseEntity<?>> transfer, Function<PaymentResponseDTO, ResponseEntity<?>> replay) {
+        String slot = fromUserId + ":" + key;
+        String fingerprint = fingerprint(requestDTO.getToEmail(), requestDTO.getAmount(), requestDTO.getDescription());
+
+        InFlight mine = new InFlight(fingerprint);
+        InFlight first = inFlight.putIfAbsent(slot, mine);
+        if (first != null) {
+            if (!first.fingerprint.equals(fingerprint)) {
+                return keyReused();
+            }
+            logger.info("Waiting for in-flight request with Idempotency-Key {} from user {}", key, fromUserId);
+            return awaitFirst(first);
+        }
+
+        ResponseEntity<?> response = null;
+        try {
+            Optional<Payment> stored = paymentRepository.findByFromUserIdAndIdempotencyKey(fromUserId, key);
+            if (stored.isPresent()) {
+                response = replayStored(stored.get(), fingerprint, replay);
+                return response;
+            }
+
+            response = transfer.get();
+
+            // Another instance may have created the payment for this key first
+            if (response.getStatusCode().isError()) {
+                stored = paymentRepository.findByFromUserIdAndIdempotencyKey(fromUserId, key);
+                if (stored.isPresent()) {
+                    response = replayStored(stored.get(), fingerprint, replay);
+                }
+            }
+            return response;
+        } finally {
+            if (response != null) {
+                mine.response.complete(response);
+            } else {
+                mine.response.completeExceptionally(new IllegalStateException("Transfer did not complete"));
+            }
+            inFlight.remove(slot, mine);
+        }
+    }
+
+    private ResponseEntity<?> awaitFirst(InFlight first) {
+        try {
+            return replayed(first.response.get(waitTimeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inProgress();
+        } catch (ExecutionException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred during payment processing");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    private ResponseEntity<?> replayStored(Payment payment, String fingerprint,
+            Function<PaymentResponseDTO, ResponseEntity<?>> replay) {
+        if (!fingerprint(payment.getToEmail(), payment.getAmount(), payment.getDescription()).equals(fingerprint)) {
+            return keyReused();
+        }
+        logger.info("Replaying payment {} for Idempotency-Key {}", payment.getReferenceId(),
+                payment.getIdempotencyKey());
+        return replayed(replay.apply(PaymentMapper.toPaymentResponseDTO(payment)));
+    }
+
+    private ResponseEntity<?> replayed(ResponseEntity<?> response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    private ResponseEntity<?> keyReused() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Idempotency-Key was already used for a different request");
+        errorResponse.put("error", "IDEMPOTENCY_KEY_REUSED");
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
+    private ResponseEntity<?> inProgress() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "A request with this Idempotency-Key is still in progress, please retry shortly");
+        errorResponse.put("error", "IDEMPOTENCY_KEY_IN_PROGRESS");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    private static String fingerprint(String toEmail, BigDecimal amount, String description) {
+        return (toEmail != null ? toEmail.trim().toLowerCase(Locale.ROOT) : "")
+                + "|" + (amount != null ? amount.stripTrailingZeros().toPlainString() : "")
+                + "|" + Objects.toString(description, "");
+    }
+}
@@ -0,0 +1,141 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.util.InfluxLineWriter;
+import com.riyada.paymentservice.util.KpiAccumulator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Business KPIs for payment-service, recorded in memory and written to
+ * InfluxDB every flush interval as the payment_transfers measurement
+ * (tags: outcome completed or failed, kind single or batch, service,
+ * instance; fields: count, amount). A payment is counted when it reaches a
+ * final status, once that status commits.
+ */
+@Component
+public class PaymentKpis {
+
+    private static final String SERVICE = "payment-service";
+
+    @Value("${kpi.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kpi.influx.url:http://localhost:8086}")
+    private String url;
+
+    @Value("${kpi.influx.org:riyada}")
+    private String org;
+
+    @Value("${kpi.influx.bucket:riyada_metrics}")
+    private String bucket;
+
+    @Value("${kpi.influx.token:}")
+    private String token;
+
+    @Value("${kpi.influx.batch-lines:5000}")
+    private int batchLines;
+
+    @Value("${kpi.influx.max-buffered-lines:100000}")
+    private int maxBufferedLines;
+
+    @Value("${kpi.influx.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private final KpiAccumulator accumulator = new KpiAccumulator();
+
+    private KpiAccumulator.Series completedSingle;
+    private KpiAccumulator.Series completedBatch;
+    private KpiAccumulator.Series failedSingle;
+    private KpiAccumulator.Series failedBatch;
+    private InfluxLineWriter writer;
+
+    @PostConstruct
+    public void init() {
+        String instance = instanceName();
+        completedSingle = accumulator.series("payment_transfers", "outcome", "completed", "kind", "single",
+                "service", SERVICE, "instance", instance);
+        completedBatch = accumulator.series("payment_transfers", "outcome", "completed", "kind", "batch",
+                "service", SERVICE, "instance", instance);
+        failedSingle = accumulator.series("payment_transfers", "outcome", "failed", "kind", "single",
+                "service", SERVICE, "instance", instance);
+        failedBatch = accumulator.series("payment_transfers", "outcome", "failed", "kind", "batch",
+                "service", SERVICE, "instance", instance);
+        if (enabled) {
+            writer = new InfluxLineWriter(url, org, bucket, token, batchLines, maxBufferedLines,
+                    Duration.ofMillis(timeoutMillis));
+        }
+    }
+
+    /**
+     * Count a payment that reached a final status
+     */
+    public void recordFinished(Payment payment) {
+        recordFinished(List.of(payment));
+    }
+
+    /**
+     * Count payments that reached a final status, once the surrounding
+     * transaction (if any) commits; other statuses are ignored
+     */
+    public void recordFinished(Collection<Payment> payments) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            payments.forEach(this::record);
+            return;
+        }
+        List<Payment> finished = List.copyOf(payments);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                finished.forEach(PaymentKpis.this::record);
+            }
+        });
+    }
+
+    /**
+     * Drain the accumulators and write what is buffered
+     */
+    @Scheduled(fixedDelayString = "${kpi.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        writer.enqueue(accumulator.drain(System.currentTimeMillis()));
+        writer.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(Payment payment) {
+        boolean batch = payment.getBatchId() != null;
+        if (payment.getStatus() == Payment.PaymentStatus.COMPLETED) {
+            (batch ? completedBatch : completedSingle).record(payment.getAmount());
+        } else if (payment.getStatus() == Payment.PaymentStatus.FAILED) {
+            (batch ? failedBatch : failedSingle).record(payment.getAmount());
+        }
+    }
+
+    private static String instanceName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return SERVICE;
+        }
+    }
+}
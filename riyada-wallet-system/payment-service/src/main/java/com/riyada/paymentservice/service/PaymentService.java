@@ -2,142 +2,473 @@ package com.riyada.paymentservice.service;
 
 import com.riyada.paymentservice.client.UserServiceClient;
 import com.riyada.paymentservice.client.WalletServiceClient;
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.PaymentHistoryPageDTO;
 import com.riyada.paymentservice.dto.PaymentRequestDTO;
 import com.riyada.paymentservice.dto.PaymentResponseDTO;
 import com.riyada.paymentservice.dto.PaymentStatusDTO;
 import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.event.PaymentEventPublisher;
 import com.riyada.paymentservice.repository.PaymentRepository;
+import com.riyada.paymentservice.util.OffHeapEmailMap;
 import com.riyada.paymentservice.util.PaymentMapper;
+import com.riyada.paymentservice.util.TaskScope;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "payment.service", histogram = true)
 public class PaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
 
+    private static final String SERVICE_NAME = "payment-service";
+
+    // Open bounds for unfiltered history queries
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
     @Autowired
     private UserServiceClient userServiceClient;
 
+    @Autowired
+    private JwtConfig jwtConfig;
+
     @Autowired
     private WalletServiceClient walletServiceClient;
 
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Autowired
+    private PaymentWorkerPool paymentWorkerPool;
+
+    @Autowired
+    private PaymentStatusNotifier paymentStatusNotifier;
+
+    @Autowired
+    private PaymentStatusCache paymentStatusCache;
+
+    @Autowired
+    private VelocityService velocityService;
+
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Autowired
+    private PaymentKpis paymentKpis;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("preCheckExecutor")
+    private ExecutorService preCheckExecutor;
+
+    @Value("${payments.precheck.timeout-ms:3000}")
+    private long preCheckTimeoutMillis;
+
+    @Value("${payments.async.stale-pending-minutes:15}")
+    private long stalePendingMinutes;
+
     /**
      * Process a payment transfer between users
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponseDTO processPayment(PaymentRequestDTO requestDTO, UUID fromUserId, String authToken) {
+        return processPayment(requestDTO, fromUserId, authToken, null);
+    }
+
+    /**
+     * Process a payment transfer, recording the client's Idempotency-Key on
+     * the payment (see IdempotencyService).
+     *
+     * Runs outside any transaction, so every status change commits on its
+     * own: the PROCESSING row (and its key) is stored before money moves,
+     * and a FAILED status stays stored when the failure is rethrown. A
+     * surrounding transaction would roll both back while the wallet debit
+     * and reversal stay applied.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponseDTO processPayment(PaymentRequestDTO requestDTO, UUID fromUserId, String authToken,
+            String idempotencyKey) {
         logger.info("Processing payment from user {} to email {}", fromUserId, requestDTO.getToEmail());
 
+        long reservedAt = 0;
         try {
-            // Step 1: Validate recipient exists
-            Map<String, Object> recipientResponse = userServiceClient.getUserProfileByEmail(
-                    requestDTO.getToEmail(), null);
-
-            if (!(Boolean) recipientResponse.get("success")) {
-                throw new RuntimeException("Recipient not found: " + requestDTO.getToEmail());
+            // Velocity limits are checked in memory, before any downstream call
+            reservedAt = velocityService.reserve(fromUserId, requestDTO.getAmount());
+
+            // Steps 1-2: validate the recipient and check the sender's balance.
+            // They are independent, so run them concurrently under one deadline;
+            // the first failure cancels the other
+            UUID toUserId;
+            try (TaskScope scope = new TaskScope(preCheckExecutor, preCheckTimeoutMillis)) {
+                TaskScope.Subtask<UUID> recipient = scope.fork(() -> resolveRecipientId(requestDTO.getToEmail()));
+                scope.fork(() -> {
+                    checkSufficientBalance(fromUserId, requestDTO.getAmount(), authToken);
+                    return null;
+                });
+                scope.join();
+                toUserId = recipient.get();
             }
 
-            Map<String, Object> recipientData = (Map<String, Object>) recipientResponse.get("user");
-            UUID toUserId = UUID.fromString((String) recipientData.get("id"));
-
-            // Step 2: Check if trying to transfer to self
+            // Step 3: Check if trying to transfer to self
             if (fromUserId.equals(toUserId)) {
                 throw new RuntimeException("Cannot transfer money to yourself");
             }
 
-            // Step 3: Check sender's balance
-            Map<String, Object> balanceResponse = walletServiceClient.getWalletBalance(
-                    fromUserId.toString(), "Bearer " + authToken);
-
-            if (!(Boolean) balanceResponse.get("success")) {
-                throw new RuntimeException("Failed to retrieve sender's balance");
-            }
-
-            BigDecimal currentBalance = new BigDecimal(balanceResponse.get("balance").toString());
-            if (currentBalance.compareTo(requestDTO.getAmount()) < 0) {
-                throw new RuntimeException("Insufficient balance. Available: " + currentBalance);
-            }
-
             // Step 4: Create payment record
             Payment payment = PaymentMapper.toPayment(requestDTO, fromUserId, toUserId);
             payment.setStatus(Payment.PaymentStatus.PROCESSING);
-            payment = paymentRepository.save(payment);
+            payment.setIdempotencyKey(idempotencyKey);
+            // Committed here, so a duplicate key fails before any money moves
+            payment = saveStatus(payment);
 
             logger.info("Payment created with ID: {} and reference: {}", payment.getId(), payment.getReferenceId());
 
             // Step 5: Process the transfer via wallet service
-            try {
-                // Debit from sender
-                Map<String, Object> debitResponse = walletServiceClient.debitWallet(
-                        fromUserId.toString(),
-                        requestDTO.getAmount(),
-                        "Transfer to " + requestDTO.getToEmail() + " - " + payment.getReferenceId(),
-                        "Bearer " + authToken);
+            payment = executeTransfer(payment, authToken);
 
-                if (!(Boolean) debitResponse.get("success")) {
-                    throw new RuntimeException("Failed to debit from sender's wallet");
-                }
+            return PaymentMapper.toPaymentResponseDTO(payment);
 
-                // Credit to recipient
-                Map<String, Object> creditResponse = walletServiceClient.creditWallet(
-                        toUserId.toString(),
-                        requestDTO.getAmount(),
-                        "Transfer from " + fromUserId + " - " + payment.getReferenceId(),
-                        "Bearer " + authToken);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseReservation(fromUserId, requestDTO.getAmount(), reservedAt);
+            throw new RuntimeException("Payment processing failed: interrupted");
+        } catch (Exception e) {
+            releaseReservation(fromUserId, requestDTO.getAmount(), reservedAt);
+            logger.error("Payment processing failed: {}", e.getMessage());
+            throw new RuntimeException("Payment processing failed: " + e.getMessage());
+        }
+    }
 
-                if (!(Boolean) creditResponse.get("success")) {
-                    // If credit fails, we need to reverse the debit
-                    logger.error("Credit failed, attempting to reverse debit for payment: {}",
-                            payment.getReferenceId());
-                    walletServiceClient.creditWallet(
-                            fromUserId.toString(),
-                            requestDTO.getAmount(),
-                            "Reversal for failed transfer - " + payment.getReferenceId(),
-                            "Bearer " + authToken);
-
-                    throw new RuntimeException("Failed to credit recipient's wallet");
-                }
+    /**
+     * Accept a payment for asynchronous processing: validate the recipient,
+     * persist it as PENDING and queue it on the sender's worker lane. The
+     * caller follows it through the status endpoints by reference ID.
+     *
+     * @throws RejectedExecutionException if the sender's lane is full; the
+     *                                    payment is then marked FAILED
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponseDTO acceptPayment(PaymentRequestDTO requestDTO, UUID fromUserId, String authToken) {
+        return acceptPayment(requestDTO, fromUserId, authToken, null);
+    }
 
-                // Step 6: Update payment status to completed
-                payment.setStatus(Payment.PaymentStatus.COMPLETED);
-                payment.setProcessedAt(LocalDateTime.now());
-                payment = paymentRepository.save(payment);
+    /**
+     * Accept a payment for asynchronous processing, recording the client's
+     * Idempotency-Key on the payment (see IdempotencyService)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponseDTO acceptPayment(PaymentRequestDTO requestDTO, UUID fromUserId, String authToken,
+            String idempotencyKey) {
+        logger.info("Accepting async payment from user {} to email {}", fromUserId, requestDTO.getToEmail());
+
+        long reservedAt;
+        try {
+            reservedAt = velocityService.reserve(fromUserId, requestDTO.getAmount());
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Payment processing failed: " + e.getMessage());
+        }
+
+        UUID toUserId;
+        try {
+            toUserId = resolveRecipientId(requestDTO.getToEmail());
+        } catch (Exception e) {
+            releaseReservation(fromUserId, requestDTO.getAmount(), reservedAt);
+            throw new RuntimeException("Payment processing failed: " + e.getMessage());
+        }
+        if (fromUserId.equals(toUserId)) {
+            releaseReservation(fromUserId, requestDTO.getAmount(), reservedAt);
+            throw new RuntimeException("Payment processing failed: Cannot transfer money to yourself");
+        }
+
+        // Committed before queuing so the worker always finds the row
+        Payment payment = PaymentMapper.toPayment(requestDTO, fromUserId, toUserId);
+        payment.setIdempotencyKey(idempotencyKey);
+        try {
+            payment = saveStatus(payment);
+        } catch (RuntimeException e) {
+            // e.g. a duplicate Idempotency-Key
+            releaseReservation(fromUserId, requestDTO.getAmount(), reservedAt);
+            throw e;
+        }
+        UUID paymentId = payment.getId();
+
+        try {
+            paymentWorkerPool.submit(fromUserId, () -> processAcceptedPayment(paymentId, authToken, reservedAt));
+        } catch (RejectedExecutionException e) {
+            releaseReservation(fromUserId, requestDTO.getAmount(), reservedAt);
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            payment.setFailureReason("Payment queue is full");
+            // Nothing ran, so the client may retry with the same key
+            payment.setIdempotencyKey(null);
+            payment.setProcessedAt(LocalDateTime.now());
+            saveStatus(payment);
+            throw e;
+        }
 
-                logger.info("Payment completed successfully: {}", payment.getReferenceId());
+        logger.info("Payment {} accepted for async processing", payment.getReferenceId());
+        return PaymentMapper.toPaymentResponseDTO(payment);
+    }
+
+    /**
+     * Worker-side execution of an accepted payment. Runs on a lane thread
+     * outside any transaction, so every status change commits immediately
+     * and is visible to pollers.
+     */
+    void processAcceptedPayment(UUID paymentId, String authToken, long reservedAt) {
+        // Claim it; a payment cancelled or swept while queued is skipped
+        if (paymentRepository.transitionStatus(paymentId, Payment.PaymentStatus.PENDING,
+                Payment.PaymentStatus.PROCESSING, LocalDateTime.now()) == 0) {
+            logger.info("Skipping payment {}: no longer pending", paymentId);
+            return;
+        }
 
-            } catch (Exception e) {
-                // Update payment status to failed
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + paymentId));
+        paymentStatusCache.update(PaymentMapper.toPaymentStatusDTO(payment));
+        try {
+            checkSufficientBalance(payment.getFromUserId(), payment.getAmount(), authToken);
+            payment = executeTransfer(payment, authToken);
+        } catch (Exception e) {
+            releaseReservation(payment.getFromUserId(), payment.getAmount(), reservedAt);
+            if (payment.getStatus() == Payment.PaymentStatus.PROCESSING) {
+                // Failed before the transfer started (e.g. insufficient balance)
                 payment.setStatus(Payment.PaymentStatus.FAILED);
                 payment.setFailureReason(e.getMessage());
-                payment = paymentRepository.save(payment);
+                payment.setProcessedAt(LocalDateTime.now());
+                payment = saveStatus(payment);
+            }
+            logger.error("Async payment {} failed: {}", payment.getReferenceId(), e.getMessage());
+        } finally {
+            paymentStatusNotifier.finished(PaymentMapper.toPaymentStatusDTO(payment));
+        }
+    }
+
+    /**
+     * Wait up to the timeout for a payment to reach a final status, then
+     * return whatever its status is. Completes immediately if it is already
+     * final.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<PaymentStatusDTO> awaitPaymentStatus(String referenceId, long timeoutMillis) {
+        PaymentStatusDTO current = getPaymentStatusByReference(referenceId);
+        if (current.getStatus().isFinal()) {
+            return CompletableFuture.completedFuture(current);
+        }
 
-                logger.error("Payment failed: {} - {}", payment.getReferenceId(), e.getMessage());
-                throw e;
+        CompletableFuture<PaymentStatusDTO> waiter = paymentStatusNotifier.waitFor(referenceId);
+
+        // Re-check after registering so a completion in between isn't missed
+        current = getPaymentStatusByReference(referenceId);
+        if (current.getStatus().isFinal()) {
+            paymentStatusNotifier.finished(current);
+        }
+
+        return waiter.copy()
+                .completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(status -> {
+                    if (status != null) {
+                        return status;
+                    }
+                    paymentStatusNotifier.abandon(referenceId, waiter);
+                    return getPaymentStatusByReference(referenceId);
+                });
+    }
+
+    /**
+     * Fail async payments that were accepted but never picked up (e.g. the
+     * instance holding them restarted). Nothing has been debited while a
+     * payment is PENDING, so failing it is safe; the sender can retry.
+     */
+    @Scheduled(fixedDelayString = "${payments.async.stale-sweep-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void failStalePendingPayments() {
+        int failed = paymentRepository.failPendingCreatedBefore(
+                LocalDateTime.now().minusMinutes(stalePendingMinutes),
+                "Payment was not processed in time, please retry", LocalDateTime.now());
+        if (failed > 0) {
+            paymentStatusCache.invalidateInFlight();
+            logger.warn("Failed {} payments stuck in PENDING", failed);
+        }
+    }
+
+    /**
+     * Verify the sender can cover the amount
+     */
+    void checkSufficientBalance(UUID fromUserId, BigDecimal amount, String authToken) {
+        Map<String, Object> balanceResponse = walletServiceClient.getWalletBalance(
+                fromUserId.toString(), "Bearer " + authToken);
+
+        if (!(Boolean) balanceResponse.get("success")) {
+            throw new RuntimeException("Failed to retrieve sender's balance");
+        }
+
+        BigDecimal currentBalance = new BigDecimal(balanceResponse.get("balance").toString());
+        if (currentBalance.compareTo(amount) < 0) {
+            throw new RuntimeException("Insufficient balance. Available: " + currentBalance);
+        }
+    }
+
+    /**
+     * Debit the sender and credit the recipient for a PROCESSING payment,
+     * reversing the debit if the credit fails. Leaves the payment COMPLETED,
+     * or FAILED and rethrows.
+     */
+    private Payment executeTransfer(Payment payment, String authToken) throws Exception {
+        try {
+            // Debit from sender
+            Map<String, Object> debitResponse = walletServiceClient.debitWallet(
+                    payment.getFromUserId().toString(),
+                    payment.getAmount(),
+                    "Transfer to " + payment.getToEmail() + " - " + payment.getReferenceId(),
+                    payment.getReferenceId(),
+                    "Bearer " + authToken);
+
+            if (!(Boolean) debitResponse.get("success")) {
+                throw new RuntimeException("Failed to debit from sender's wallet");
             }
 
-            return PaymentMapper.toPaymentResponseDTO(payment);
+            // Credit to recipient
+            Map<String, Object> creditResponse = walletServiceClient.creditWallet(
+                    payment.getToUserId().toString(),
+                    payment.getAmount(),
+                    "Transfer from " + payment.getFromUserId() + " - " + payment.getReferenceId(),
+                    payment.getReferenceId(),
+                    "Bearer " + authToken);
+
+            if (!(Boolean) creditResponse.get("success")) {
+                // If credit fails, we need to reverse the debit
+                logger.error("Credit failed, attempting to reverse debit for payment: {}",
+                        payment.getReferenceId());
+                walletServiceClient.creditWallet(
+                        payment.getFromUserId().toString(),
+                        payment.getAmount(),
+                        "Reversal for failed transfer - " + payment.getReferenceId(),
+                        payment.getReferenceId(),
+                        "Bearer " + authToken);
+
+                throw new RuntimeException("Failed to credit recipient's wallet");
+            }
+
+            // Update payment status to completed
+            payment.setStatus(Payment.PaymentStatus.COMPLETED);
+            payment.setProcessedAt(LocalDateTime.now());
+            payment = saveStatus(payment);
+
+            logger.info("Payment completed successfully: {}", payment.getReferenceId());
+            return payment;
 
         } catch (Exception e) {
-            logger.error("Payment processing failed: {}", e.getMessage());
-            throw new RuntimeException("Payment processing failed: " + e.getMessage());
+            // Update payment status to failed
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            payment.setFailureReason(e.getMessage());
+            payment.setProcessedAt(LocalDateTime.now());
+            payment = saveStatus(payment);
+
+            logger.error("Payment failed: {} - {}", payment.getReferenceId(), e.getMessage());
+            throw e;
         }
     }
 
+    /**
+     * Give back a velocity reservation for a payment that did not go through
+     */
+    private void releaseReservation(UUID fromUserId, BigDecimal amount, long reservedAt) {
+        if (reservedAt != 0) {
+            velocityService.release(fromUserId, amount, reservedAt);
+        }
+    }
+
+    /**
+     * Save a payment whose status changed and write the status through to
+     * the status cache. A completed payment's event is written to the
+     * outbox in the same transaction (joining the caller's, if any). Final
+     * statuses are counted in the KPIs once they commit.
+     */
+    private Payment saveStatus(Payment payment) {
+        Payment saved;
+        if (payment.getStatus() == Payment.PaymentStatus.COMPLETED) {
+            saved = new TransactionTemplate(transactionManager).execute(status -> {
+                Payment completed = paymentRepository.save(payment);
+                paymentEventPublisher.completed(completed);
+                return completed;
+            });
+        } else {
+            saved = paymentRepository.save(payment);
+        }
+        paymentKpis.recordFinished(saved);
+        paymentStatusCache.update(PaymentMapper.toPaymentStatusDTO(saved));
+        return saved;
+    }
+
+    /**
+     * Resolve a recipient email to a user ID, preferring the local directory
+     * replica and falling back to user-service on a miss
+     */
+    UUID resolveRecipientId(String toEmail) {
+        Optional<OffHeapEmailMap.Entry> entry = userDirectoryService.lookup(toEmail);
+        if (entry.isPresent()) {
+            if (!entry.get().isActive()) {
+                throw new RuntimeException("Recipient not found: " + toEmail);
+            }
+            return entry.get().getUserId();
+        }
+
+        Map<String, Object> recipientResponse = userServiceClient.getUserProfileByEmail(toEmail, null);
+
+        if (!(Boolean) recipientResponse.get("success")) {
+            throw new RuntimeException("Recipient not found: " + toEmail);
+        }
+
+        Map<String, Object> recipientData = (Map<String, Object>) recipientResponse.get("user");
+        UUID toUserId = UUID.fromString((String) recipientData.get("id"));
+        boolean active = !Boolean.FALSE.equals(recipientData.get("isActive"));
+        userDirectoryService.record(toEmail, toUserId, active);
+
+        if (!active) {
+            throw new RuntimeException("Recipient not found: " + toEmail);
+        }
+        return toUserId;
+    }
+
     /**
      * Get payment by ID
      */
@@ -151,15 +482,17 @@ public class PaymentService {
     }
 
     /**
-     * Get payment status by reference ID
+     * Get payment status by reference ID. Served from the status cache; no
+     * transaction is opened so a cache hit never takes a connection.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentStatusDTO getPaymentStatusByReference(String referenceId) {
-        Optional<Payment> payment = paymentRepository.findByReferenceId(referenceId);
-        if (payment.isEmpty()) {
+        PaymentStatusDTO status = paymentStatusCache.get(referenceId,
+                () -> paymentRepository.findByReferenceId(referenceId).map(PaymentMapper::toPaymentStatusDTO));
+        if (status == null) {
             throw new RuntimeException("Payment not found with reference: " + referenceId);
         }
-        return PaymentMapper.toPaymentStatusDTO(payment.get());
+        return status;
     }
 
     /**
@@ -173,6 +506,103 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of a user's sent and received payments, newest first. The
+     * cursor is opaque and comes from the previous page; null starts from
+     * the newest payment. Null statuses or dates mean unfiltered.
+     */
+    @Transactional(readOnly = true)
+    public PaymentHistoryPageDTO getUserPaymentHistory(UUID userId, String cursor, int limit,
+            Collection<Payment.PaymentStatus> statuses, LocalDateTime fromDate, LocalDateTime toDate) {
+        LocalDateTime cursorTime = HISTORY_END;
+        UUID cursorId = MAX_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|", 2);
+                cursorTime = LocalDateTime.parse(parts[0]);
+                cursorId = UUID.fromString(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid history cursor");
+            }
+        }
+
+        Collection<Payment.PaymentStatus> statusFilter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(Payment.PaymentStatus.class)
+                : statuses;
+        List<String> statusNames = statusFilter.stream().map(Enum::name).collect(Collectors.toList());
+
+        // One extra row tells whether another page exists
+        List<Payment> rows = paymentRepository.findHistoryPage(userId, statusNames,
+                fromDate != null ? fromDate : HISTORY_START,
+                toDate != null ? toDate : HISTORY_END,
+                cursorTime, cursorId, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<Payment> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Payment last = page.get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<PaymentResponseDTO> payments = page.stream()
+                .map(PaymentMapper::toPaymentResponseDTO)
+                .collect(Collectors.toList());
+        return new PaymentHistoryPageDTO(payments, nextCursor, hasMore);
+    }
+
+    /**
+     * Fill in counterparty names and emails with a single batch call to
+     * user-service. History is still returned unenriched if the call fails.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PaymentResponseDTO> enrichWithUserProfiles(List<PaymentResponseDTO> payments) {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (PaymentResponseDTO payment : payments) {
+            userIds.add(payment.getFromUserId().toString());
+            userIds.add(payment.getToUserId().toString());
+        }
+        if (userIds.isEmpty()) {
+            return payments;
+        }
+
+        try {
+            // The batch endpoint only accepts service tokens
+            Map<String, Object> response = userServiceClient.getUserProfiles(
+                    Map.of("userIds", List.copyOf(userIds)),
+                    "Bearer " + jwtConfig.generateServiceToken(SERVICE_NAME, TimeUnit.MINUTES.toMillis(1)));
+            List<Map<String, Object>> users = (List<Map<String, Object>>) response.get("users");
+
+            Map<String, Map<String, Object>> usersById = new HashMap<>();
+            for (Map<String, Object> user : users) {
+                usersById.put((String) user.get("id"), user);
+            }
+
+            for (PaymentResponseDTO payment : payments) {
+                Map<String, Object> from = usersById.get(payment.getFromUserId().toString());
+                if (from != null) {
+                    payment.setFromName(fullName(from));
+                    payment.setFromEmail((String) from.get("email"));
+                }
+                Map<String, Object> to = usersById.get(payment.getToUserId().toString());
+                if (to != null) {
+                    payment.setToName(fullName(to));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not enrich payment history with user profiles: {}", e.getMessage());
+        }
+        return payments;
+    }
+
+    private static String fullName(Map<String, Object> user) {
+        String firstName = (String) user.get("firstName");
+        String lastName = (String) user.get("lastName");
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+
     /**
      * Get user's sent payments
      */
@@ -228,7 +658,8 @@ public class PaymentService {
 
         payment.setStatus(Payment.PaymentStatus.CANCELLED);
         payment.setProcessedAt(LocalDateTime.now());
-        payment = paymentRepository.save(payment);
+        payment = saveStatus(payment);
+        velocityService.release(payment.getFromUserId(), payment.getAmount(), payment.getCreatedAt());
 
         logger.info("Payment cancelled: {}", payment.getReferenceId());
         return PaymentMapper.toPaymentResponseDTO(payment);
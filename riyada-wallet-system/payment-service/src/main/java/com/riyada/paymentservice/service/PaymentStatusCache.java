@@ -0,0 +1,116 @@
+package com.riyada.paymentservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of payment statuses keyed by reference.
+ *
+ * Final statuses rarely change again and are kept for a long time;
+ * in-flight ones expire quickly so polls on other instances still see
+ * progress. Every status change made here is written through, after the
+ * surrounding transaction commits so a rolled-back status is never cached.
+ */
+@Component
+public class PaymentStatusCache {
+
+    private final Cache<String, PaymentStatusDTO> cache;
+
+    public PaymentStatusCache(@Value("${payments.status-cache.max-size:100000}") long maxSize,
+            @Value("${payments.status-cache.final-ttl-minutes:60}") long finalTtlMinutes,
+            @Value("${payments.status-cache.in-flight-ttl-ms:2000}") long inFlightTtlMillis,
+            MeterRegistry meterRegistry) {
+        long finalTtlNanos = TimeUnit.MINUTES.toNanos(finalTtlMinutes);
+        long inFlightTtlNanos = TimeUnit.MILLISECONDS.toNanos(inFlightTtlMillis);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, PaymentStatusDTO>() {
+                    @Override
+                    public long expireAfterCreate(String key, PaymentStatusDTO value, long currentTime) {
+                        return value.getStatus().isFinal() ? finalTtlNanos : inFlightTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, PaymentStatusDTO value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, PaymentStatusDTO value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment-status");
+    }
+
+    /**
+     * Cached status for the reference, loading it on a miss
+     */
+    public PaymentStatusDTO get(String referenceId, Supplier<Optional<PaymentStatusDTO>> loader) {
+        PaymentStatusDTO cached = cache.getIfPresent(referenceId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<PaymentStatusDTO> loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded.orElse(null);
+    }
+
+    /**
+     * Record a status change; deferred until commit inside a transaction
+     */
+    public void update(PaymentStatusDTO status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(status);
+            return;
+        }
+        // Drop the old value now so it isn't served while the change commits
+        cache.invalidate(status.getReferenceId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(status);
+            }
+        });
+    }
+
+    /**
+     * Forget a reference whose status was changed without loading it
+     */
+    public void invalidate(String referenceId) {
+        cache.invalidate(referenceId);
+    }
+
+    /**
+     * Forget every in-flight status, after a bulk update
+     */
+    public void invalidateInFlight() {
+        cache.asMap().values().removeIf(status -> !status.getStatus().isFinal());
+    }
+
+    private void put(PaymentStatusDTO status) {
+        // A late in-flight write must not replace a final status already cached
+        cache.asMap().merge(status.getReferenceId(), status,
+                (cached, updated) -> cached.getStatus().isFinal() && !updated.getStatus().isFinal()
+                        ? cached
+                        : updated);
+    }
+}
@@ -0,0 +1,44 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wakes long-poll status requests when a payment reaches a final status.
+ *
+ * Only payments processed by this instance are signalled; waiters for
+ * anything else simply time out and re-read the status.
+ */
+@Component
+public class PaymentStatusNotifier {
+
+    private final Map<String, CompletableFuture<PaymentStatusDTO>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Future completed when the payment with this reference finishes
+     */
+    public CompletableFuture<PaymentStatusDTO> waitFor(String referenceId) {
+        return waiters.computeIfAbsent(referenceId, k -> new CompletableFuture<>());
+    }
+
+    /**
+     * Signal a final status to everyone waiting on it
+     */
+    public void finished(PaymentStatusDTO status) {
+        CompletableFuture<PaymentStatusDTO> waiter = waiters.remove(status.getReferenceId());
+        if (waiter != null) {
+            waiter.complete(status);
+        }
+    }
+
+    /**
+     * Drop a waiter entry after its requests have given up
+     */
+    public void abandon(String referenceId, CompletableFuture<PaymentStatusDTO> waiter) {
+        waiters.remove(referenceId, waiter);
+    }
+}
@@ -0,0 +1,113 @@
+package com.riyada.paymentservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.opentelemetry.context.Context;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes accepted (async) payments.
+ *
+ * Work is split into single-threaded lanes chosen by sender ID, so one
+ * sender's payments run strictly in submission order (no two debits of the
+ * same wallet race each other) while different senders proceed in parallel.
+ * Each lane has a bounded queue; a full lane rejects rather than buffering
+ * without limit.
+ */
+@Component
+public class PaymentWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWorkerPool.class);
+
+    @Value("${payments.async.lanes:8}")
+    private int laneCount;
+
+    @Value("${payments.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${payments.async.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor[] lanes;
+
+    @PostConstruct
+    public void init() {
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = "payment-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, threadName),
+                    new ThreadPoolExecutor.AbortPolicy());
+            new ExecutorServiceMetrics(lanes[i], "payment-lane", Tags.of("lane", String.valueOf(i)))
+                    .bindTo(meterRegistry);
+        }
+        logger.info("Payment worker pool started with {} lanes (queue capacity {} each)", laneCount, queueCapacity);
+    }
+
+    /**
+     * Queue a task on the lane of the given user's wallet (the sender's, for
+     * a payment). The task runs in the submitter's trace context.
+     *
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    public void submit(UUID userId, Runnable task) {
+        lanes[laneOf(userId)].execute(Context.current().wrap(task));
+    }
+
+    /**
+     * Lane that work on this user's wallet runs on
+     */
+    public int laneOf(UUID userId) {
+        return Math.floorMod(userId.hashCode(), lanes.length);
+    }
+
+    /**
+     * Total tasks waiting across all lanes
+     */
+    public int queuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Let queued payments drain before shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    logger.warn("Payment lane did not drain in time; {} tasks left", lane.getQueue().size());
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,646 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.client.WalletServiceClient;
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.ReconciliationMismatchDTO;
+import com.riyada.paymentservice.dto.ReconciliationMismatchDTO.MismatchType;
+import com.riyada.paymentservice.dto.ReconciliationReportDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.event.PaymentEventPublisher;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import feign.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles payments against wallet-service transactions for a time window.
+ *
+ * Both sides are split into shards by the last character of the reference
+ * ID. Each shard streams its payments through a JDBC cursor and its wallet
+ * transactions from wallet-service, both sorted by reference ID, and matches
+ * them with a single sort-merge pass; only the transactions of one reference
+ * are held at a time. Shards run in parallel.
+ *
+ * Payments are checked when created in [from, to). Their wallet
+ * transactions may land up to the grace period later, and a transaction near
+ * the start of the window may belong to a payment created up to the grace
+ * period earlier, so both streams are widened by the grace period. Payments
+ * that are not final and younger than the grace period are still in flight
+ * and are skipped.
+ *
+ * Repairs, when enabled, run after all shards finish: stuck payments are
+ * settled to match their transactions, and a debit with no credit is
+ * reversed. Everything else is only reported.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private static final String SERVICE_NAME = "payment-service";
+
+    private static final String PAYMENTS_SQL =
+            "SELECT reference_id, id, sender_user_id, receiver_user_id, amount, status, created_at " +
+            "FROM payments WHERE reference_id IS NOT NULL AND created_at >= ? AND created_at < ? " +
+            "AND MOD(ASCII(RIGHT(reference_id, 1)), ?) = ? " +
+            "ORDER BY reference_id COLLATE \"C\"";
+
+    private static final String REASON_NOT_SETTLED = "Reconciliation: transfer was never settled";
+    private static final String REASON_DEBIT_REVERSED = "Reconciliation: debit reversed, recipient was never credited";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Autowired
+    private PaymentKpis paymentKpis;
+
+    @Autowired
+    private WalletServiceClient walletServiceClient;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Autowired
+    private PaymentStatusCache paymentStatusCache;
+
+    @Value("${payments.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payments.reconciliation.auto-repair:false}")
+    private boolean autoRepair;
+
+    @Value("${payments.reconciliation.shards:8}")
+    private int shards;
+
+    @Value("${payments.reconciliation.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${payments.reconciliation.grace-minutes:30}")
+    private long graceMinutes;
+
+    @Value("${payments.reconciliation.max-reported:1000}")
+    private int maxReported;
+
+    @Value("${payments.reconciliation.max-repairs:1000}")
+    private int maxRepairs;
+
+    @Value("${payments.reconciliation.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile ReconciliationReportDTO lastReport;
+
+    /**
+     * Reconcile the previous day (UTC), repairing if auto-repair is enabled
+     */
+    @Scheduled(cron = "${payments.reconciliation.cron:0 30 1 * * *}")
+    public void reconcilePreviousDay() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            reconcile(today.minusDays(1).atStartOfDay(), today.atStartOfDay(), autoRepair);
+        } catch (Exception e) {
+            logger.error("Scheduled reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconcile payments created in [from, to)
+     */
+    public ReconciliationReportDTO reconcile(LocalDateTime from, LocalDateTime to, boolean repair) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Reconciliation window is empty: " + from + " to " + to);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Reconciliation is already running");
+        }
+
+        long start = System.nanoTime();
+        ReconciliationReportDTO report = new ReconciliationReportDTO(from, to, shards, repair);
+        report.setStartedAt(LocalDateTime.now());
+        logger.info("Reconciling payments from {} to {} across {} shards", from, to, shards);
+
+        ExecutorService executor = Executors.newFixedThreadPool(shards);
+        try {
+            Window window = new Window(from, to, graceMinutes, LocalDateTime.now().minusMinutes(graceMinutes));
+            String token = jwtConfig.generateServiceToken(SERVICE_NAME, TimeUnit.MINUTES.toMillis(timeoutMinutes));
+            AtomicInteger repairBudget = new AtomicInteger(repair ? maxRepairs : 0);
+
+            List<Future<ShardResult>> futures = new ArrayList<>();
+            for (int shard = 0; shard < shards; shard++) {
+                int current = shard;
+                futures.add(executor.submit(() -> reconcileShard(window, current, token, repairBudget)));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+            List<ShardResult> results = new ArrayList<>();
+            for (Future<ShardResult> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+
+            List<ReconciliationMismatchDTO> repairs = new ArrayList<>();
+            for (ShardResult result : results) {
+                result.addTo(report);
+                repairs.addAll(result.repairs);
+            }
+            report.getMismatches().sort(Comparator.comparing(ReconciliationMismatchDTO::getReferenceId));
+            if (report.getMismatches().size() > maxReported) {
+                report.setMismatches(new ArrayList<>(report.getMismatches().subList(0, maxReported)));
+            }
+            report.setTruncated(report.getMismatchCount() > report.getMismatches().size());
+
+            for (ReconciliationMismatchDTO mismatch : repairs) {
+                boolean repaired = repair(mismatch, token);
+                paymentStatusCache.invalidate(mismatch.getReferenceId());
+                if (repaired) {
+                    report.setRepaired(report.getRepaired() + 1);
+                } else {
+                    report.setRepairsFailed(report.getRepairsFailed() + 1);
+                }
+            }
+
+            report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            lastReport = report;
+            logger.info("Reconciliation finished: {}", report);
+            return report;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconciliation interrupted");
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Reconciliation timed out after " + timeoutMinutes + " minutes");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Report of the most recent completed run, or null
+     */
+    public ReconciliationReportDTO getLastReport() {
+        return lastReport;
+    }
+
+    public boolean isAutoRepair() {
+        return autoRepair;
+    }
+
+    /**
+     * Merge one shard of payments against the same shard of wallet transactions
+     */
+    private ShardResult reconcileShard(Window window, int shard, String token, AtomicInteger repairBudget) {
+        ShardResult result = new ShardResult(maxReported, repairBudget);
+
+        // Postgres only streams through a cursor inside a transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            PreparedStatementCreator query = connection -> {
+                PreparedStatement statement = connection.prepareStatement(PAYMENTS_SQL);
+                statement.setFetchSize(fetchSize);
+                statement.setTimestamp(1, Timestamp.valueOf(window.from.minusMinutes(window.graceMinutes)));
+                statement.setTimestamp(2, Timestamp.valueOf(window.to));
+                statement.setInt(3, shards);
+                statement.setInt(4, shard);
+                return statement;
+            };
+
+            try (Stream<PaymentRow> payments = jdbcTemplate.queryForStream(query, (rs, rowNum) -> new PaymentRow(
+                    rs.getString(1),
+                    rs.getObject(2, UUID.class),
+                    rs.getObject(3, UUID.class),
+                    rs.getObject(4, UUID.class),
+                    rs.getBigDecimal(5),
+                    Payment.PaymentStatus.valueOf(rs.getString(6)),
+                    rs.getTimestamp(7).toLocalDateTime()));
+                    Response response = walletServiceClient.streamReferencedTransactions(
+                            window.from.toString(), window.to.plusMinutes(window.graceMinutes).toString(),
+                            shard, shards, "Bearer " + token)) {
+
+                if (response.status() != 200 || response.body() == null) {
+                    throw new RuntimeException("wallet-service export for shard " + shard
+                            + " failed with HTTP " + response.status());
+                }
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(response.body().asInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+                merge(payments.iterator(), new EntryReader(reader), window, result);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Reading wallet transactions for shard " + shard + " failed", e);
+            }
+        });
+
+        logger.debug("Shard {} reconciled: {} payments, {} wallet entries, {} mismatches",
+                shard, result.paymentsChecked, result.walletEntriesScanned, result.mismatchCount);
+        return result;
+    }
+
+    /**
+     * Sort-merge two reference-ordered streams
+     */
+    private void merge(Iterator<PaymentRow> payments, EntryReader entries, Window window, ShardResult result)
+            throws IOException {
+        PaymentRow payment = nextPayment(payments, null);
+        List<EntryRow> group = entries.nextGroup();
+
+        while (payment != null || group != null) {
+            int order = payment == null ? 1
+                    : group == null ? -1
+                    : payment.referenceId.compareTo(group.get(0).referenceId);
+
+            if (order < 0) {
+                check(payment, List.of(), window, result);
+                payment = nextPayment(payments, payment);
+            } else if (order > 0) {
+                orphan(group, window, result);
+                group = entries.nextGroup();
+            } else {
+                check(payment, group, window, result);
+                payment = nextPayment(payments, payment);
+                group = entries.nextGroup();
+            }
+        }
+        result.walletEntriesScanned = entries.count;
+    }
+
+    private static PaymentRow nextPayment(Iterator<PaymentRow> payments, PaymentRow previous) {
+        if (!payments.hasNext()) {
+            return null;
+        }
+        PaymentRow next = payments.next();
+        if (previous != null && next.referenceId.compareTo(previous.referenceId) <= 0) {
+            throw new IllegalStateException("Payments are not in reference order at " + next.referenceId);
+        }
+        return next;
+    }
+
+    /**
+     * Compare one payment with its wallet transactions
+     */
+    private void check(PaymentRow payment, List<EntryRow> entries, Window window, ShardResult result) {
+        if (payment.createdAt.isBefore(window.from)) {
+            // Only read so its transactions are not reported as orphans
+            return;
+        }
+        result.paymentsChecked++;
+
+        int debits = 0;
+        int credits = 0;
+        int reversals = 0;
+        int unexpected = 0;
+        boolean amountMismatch = false;
+        for (EntryRow entry : entries) {
+            if (entry.amount.compareTo(payment.amount) != 0) {
+                amountMismatch = true;
+            }
+            if (entry.debit && entry.userId.equals(payment.fromUserId)) {
+                debits++;
+            } else if (!entry.debit && entry.userId.equals(payment.toUserId)) {
+                credits++;
+            } else if (!entry.debit && entry.userId.equals(payment.fromUserId)) {
+                reversals++;
+            } else {
+                unexpected++;
+            }
+        }
+
+        MismatchType type;
+        if (amountMismatch) {
+            type = MismatchType.AMOUNT_MISMATCH;
+        } else if (unexpected > 0) {
+            type = MismatchType.UNEXPECTED_ENTRY;
+        } else if (debits > 1 || credits > 1 || reversals > 1) {
+            type = MismatchType.DUPLICATE_ENTRIES;
+        } else {
+            boolean settled = debits == 1 && credits == 1 && reversals == 0;
+            boolean unsettled = credits == 0 && debits == reversals;
+            boolean debitOnly = debits == 1 && credits == 0 && reversals == 0;
+
+            if (!payment.status.isFinal() && payment.createdAt.isAfter(window.inFlightCutoff)) {
+                result.inFlight++;
+                return;
+            }
+            if (payment.status == Payment.PaymentStatus.COMPLETED) {
+                type = settled ? null : MismatchType.STATUS_MISMATCH;
+            } else if (debitOnly) {
+                type = MismatchType.DEBIT_NOT_CREDITED;
+            } else if (payment.status.isFinal()) {
+                // FAILED or CANCELLED
+                type = unsettled ? null : MismatchType.STATUS_MISMATCH;
+            } else if (settled) {
+                type = MismatchType.STUCK_SETTLED;
+            } else if (unsettled) {
+                type = MismatchType.STUCK_UNSETTLED;
+            } else {
+                type = MismatchType.STATUS_MISMATCH;
+            }
+        }
+
+        if (type == null) {
+            result.matched++;
+            return;
+        }
+        result.add(new ReconciliationMismatchDTO(payment.referenceId, payment.id, type, payment.status,
+                payment.amount, debits, credits, reversals));
+    }
+
+    /**
+     * Wallet transactions whose reference matches no payment in the window
+     */
+    private void orphan(List<EntryRow> group, Window window, ShardResult result) {
+        // Transactions after the window belong to payments created after it
+        EntryRow first = group.get(0);
+        if (!first.createdAt.isBefore(window.to)) {
+            return;
+        }
+        int debits = 0;
+        int credits = 0;
+        for (EntryRow entry : group) {
+            if (entry.debit) {
+                debits++;
+            } else {
+                credits++;
+            }
+        }
+        result.add(new ReconciliationMismatchDTO(first.referenceId, null, MismatchType.ORPHAN_ENTRY, null,
+                first.amount, debits, credits, 0));
+    }
+
+    /**
+     * Apply the repair for a mismatch; returns false if it failed
+     */
+    private boolean repair(ReconciliationMismatchDTO mismatch, String token) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID paymentId = mismatch.getPaymentId();
+        Payment.PaymentStatus status = mismatch.getPaymentStatus();
+
+        switch (mismatch.getType()) {
+            case STUCK_SETTLED -> {
+                // The completion event commits with the status change
+                Integer changed = new TransactionTemplate(transactionManager).execute(tx -> {
+                    int updated = paymentRepository.reconcileStatus(paymentId, status,
+                            Payment.PaymentStatus.COMPLETED, null, now);
+                    if (updated == 1) {
+                        paymentRepository.findById(paymentId).ifPresent(payment -> {
+                            paymentEventPublisher.completed(payment);
+                            paymentKpis.recordFinished(payment);
+                        });
+                    }
+                    return updated;
+                });
+                mismatch.setRepair(changed == 1 ? "MARKED_COMPLETED" : "SKIPPED_STATUS_CHANGED");
+                return true;
+            }
+            case STUCK_UNSETTLED -> {
+                int changed = paymentRepository.reconcileStatus(paymentId, status,
+                        Payment.PaymentStatus.FAILED, REASON_NOT_SETTLED, now);
+                mismatch.setRepair(changed == 1 ? "MARKED_FAILED" : "SKIPPED_STATUS_CHANGED");
+                return true;
+            }
+            case DEBIT_NOT_CREDITED -> {
+                // Claim the payment first so no other run reverses it too
+                if (paymentRepository.reconcileStatus(paymentId, status, Payment.PaymentStatus.FAILED,
+                        REASON_DEBIT_REVERSED, now) == 0) {
+                    mismatch.setRepair("SKIPPED_ALREADY_CLAIMED");
+                    return true;
+                }
+                return reverseDebit(mismatch, token);
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    private boolean reverseDebit(ReconciliationMismatchDTO mismatch, String token) {
+        String referenceId = mismatch.getReferenceId();
+        try {
+            UUID fromUserId = paymentRepository.findById(mismatch.getPaymentId())
+                    .orElseThrow(() -> new RuntimeException("Payment not found: " + referenceId))
+                    .getFromUserId();
+            Map<String, Object> response = walletServiceClient.creditWallet(fromUserId.toString(),
+                    mismatch.getAmount(), "Reconciliation reversal - " + referenceId, referenceId,
+                    "Bearer " + token);
+            if (!Boolean.TRUE.equals(response.get("success"))) {
+                throw new RuntimeException(String.valueOf(response.get("message")));
+            }
+            mismatch.setRepair("DEBIT_REVERSED");
+            logger.warn("Reconciliation reversed debit of {} for payment {}", mismatch.getAmount(), referenceId);
+            return true;
+
+        } catch (Exception e) {
+            // Release the claim so the next run tries again
+            paymentRepository.reconcileStatus(mismatch.getPaymentId(), Payment.PaymentStatus.FAILED,
+                    Payment.PaymentStatus.FAILED, "Reconciliation: debit reversal failed - " + e.getMessage(),
+                    LocalDateTime.now());
+            mismatch.setRepair("FAILED: " + e.getMessage());
+            logger.error("Reconciliation could not reverse debit for payment {}: {}", referenceId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Time bounds of a run
+     */
+    private static final class Window {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final long graceMinutes;
+        private final LocalDateTime inFlightCutoff;
+
+        private Window(LocalDateTime from, LocalDateTime to, long graceMinutes, LocalDateTime inFlightCutoff) {
+            this.from = from;
+            this.to = to;
+            this.graceMinutes = graceMinutes;
+            this.inFlightCutoff = inFlightCutoff;
+        }
+    }
+
+    private static final class PaymentRow {
+        private final String referenceId;
+        private final UUID id;
+        private final UUID fromUserId;
+        private final UUID toUserId;
+        private final BigDecimal amount;
+        private final Payment.PaymentStatus status;
+        private final LocalDateTime createdAt;
+
+        private PaymentRow(String referenceId, UUID id, UUID fromUserId, UUID toUserId, BigDecimal amount,
+                Payment.PaymentStatus status, LocalDateTime createdAt) {
+            this.referenceId = referenceId;
+            this.id = id;
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.amount = amount;
+            this.status = status;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class EntryRow {
+        private final String referenceId;
+        private final UUID userId;
+        private final boolean debit;
+        private final BigDecimal amount;
+        private final LocalDateTime createdAt;
+
+        private EntryRow(String referenceId, UUID userId, boolean debit, BigDecimal amount,
+                LocalDateTime createdAt) {
+            this.referenceId = referenceId;
+            this.userId = userId;
+            this.debit = debit;
+            this.amount = amount;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Reads the wallet-service export one reference at a time
+     */
+    private static final class EntryReader {
+        private final BufferedReader reader;
+        private EntryRow pending;
+        private long count;
+
+        private EntryReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * All consecutive transactions for the next reference, or null at the end
+         */
+        private List<EntryRow> nextGroup() throws IOException {
+            EntryRow first = pending != null ? pending : read();
+            pending = null;
+            if (first == null) {
+                return null;
+            }
+            List<EntryRow> group = new ArrayList<>(2);
+            group.add(first);
+            while (true) {
+                EntryRow next = read();
+                if (next == null) {
+                    return group;
+                }
+                int order = next.referenceId.compareTo(first.referenceId);
+                if (order < 0) {
+                    throw new IllegalStateException("Wallet transactions are not in reference order at "
+                            + next.referenceId);
+                }
+                if (order > 0) {
+                    pending = next;
+                    return group;
+                }
+                group.add(next);
+            }
+        }
+
+        private EntryRow read() throws IOException {
+            String line = reader.readLine();
+            if (line == null || line.isEmpty()) {
+                return null;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 5) {
+                throw new IllegalStateException("Malformed wallet transaction line: " + line);
+            }
+            count++;
+            return new EntryRow(fields[0], UUID.fromString(fields[1]), "DEBIT".equals(fields[2]),
+                    new BigDecimal(fields[3]), LocalDateTime.parse(fields[4]));
+        }
+    }
+
+    /**
+     * Per-shard counters, a bounded sample of mismatches and the repairs
+     * this shard claimed from the shared budget
+     */
+    private static final class ShardResult {
+        private final int maxReported;
+        private final AtomicInteger repairBudget;
+        private final List<ReconciliationMismatchDTO> mismatches = new ArrayList<>();
+        private final List<ReconciliationMismatchDTO> repairs = new ArrayList<>();
+        private final Map<String, Long> mismatchesByType = new TreeMap<>();
+        private long paymentsChecked;
+        private long walletEntriesScanned;
+        private long matched;
+        private long inFlight;
+        private long mismatchCount;
+
+        private ShardResult(int maxReported, AtomicInteger repairBudget) {
+            this.maxReported = maxReported;
+            this.repairBudget = repairBudget;
+        }
+
+        private void add(ReconciliationMismatchDTO mismatch) {
+            mismatchCount++;
+            mismatchesByType.merge(mismatch.getType().name(), 1L, Long::sum);
+            if (mismatches.size() < maxReported) {
+                mismatches.add(mismatch);
+            }
+            if (mismatch.getType().isRepairable() && repairBudget.getAndDecrement() > 0) {
+                repairs.add(mismatch);
+            }
+            logger.warn("Reconciliation mismatch {}", mismatch);
+        }
+
+        private void addTo(ReconciliationReportDTO report) {
+            report.setPaymentsChecked(report.getPaymentsChecked() + paymentsChecked);
+            report.setWalletEntriesScanned(report.getWalletEntriesScanned() + walletEntriesScanned);
+            report.setMatched(report.getMatched() + matched);
+            report.setInFlight(report.getInFlight() + inFlight);
+            report.setMismatchCount(report.getMismatchCount() + mismatchCount);
+            mismatchesByType.forEach((type, count) -> report.getMismatchesByType().merge(type, count, Long::sum));
+            report.getMismatches().addAll(mismatches);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.dto.PaymentResponseDTO;
+import com.riyada.paymentservice.entity.ScheduledPayment;
+import com.riyada.paymentservice.entity.SchedulerLease;
+import com.riyada.paymentservice.repository.ScheduledPaymentRepository;
+import com.riyada.paymentservice.repository.SchedulerLeaseRepository;
+import com.riyada.paymentservice.util.HashedTimingWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scheduled payments when they fall due.
+ *
+ * One instance at a time is the leader, elected through a lease row in
+ * scheduler_leases. Every load interval the leader renews its lease and
+ * reads the schedules due within the load window, keyset-paged off the
+ * due-time index, into an in-process hashed timing wheel. The table is read
+ * once per interval rather than polled every second, and only the window
+ * is held in memory however many schedules exist.
+ *
+ * When a timeout fires the run is claimed with a compare-and-set on
+ * next_run_at, so it executes once even across a leader change, and the
+ * payment is accepted like any async transfer. A run that cannot be started
+ * stays due and is picked up again by the next load.
+ */
+@Component
+public class ScheduledPaymentScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledPaymentScheduler.class);
+
+    private static final String LEASE_NAME = "scheduled-payments";
+    private static final String SERVICE_NAME = "payment-service";
+    private static final String DEFAULT_DESCRIPTION = "Scheduled payment";
+
+    // Keyset start for a load
+    private static final LocalDateTime LOAD_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    @Autowired
+    private ScheduledPaymentRepository scheduledPaymentRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${payments.scheduling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payments.scheduling.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${payments.scheduling.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${payments.scheduling.load-window-seconds:120}")
+    private long loadWindowSeconds;
+
+    @Value("${payments.scheduling.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${payments.scheduling.load-page-size:5000}")
+    private int loadPageSize;
+
+    @Value("${payments.scheduling.max-loaded:200000}")
+    private int maxLoaded;
+
+    @Value("${payments.scheduling.runner-threads:4}")
+    private int runnerThreads;
+
+    @Value("${payments.scheduling.runner-queue-capacity:10000}")
+    private int runnerQueueCapacity;
+
+    @Value("${payments.scheduling.token-validity-minutes:30}")
+    private long tokenValidityMinutes;
+
+    private final String instanceId = instanceName() + ":" + UUID.randomUUID();
+
+    // Schedules in the wheel, by ID; an entry stays until its run has finished
+    private final Map<UUID, HashedTimingWheel.Timeout<DueRun>> loaded = new ConcurrentHashMap<>();
+
+    private HashedTimingWheel<DueRun> wheel;
+    private ThreadPoolExecutor runner;
+    private boolean leaseRowReady;
+
+    private volatile boolean leader;
+    // Schedules due before this are all in the wheel
+    private volatile LocalDateTime horizon;
+
+    /**
+     * One due run of a schedule
+     */
+    private record DueRun(UUID scheduleId, LocalDateTime dueAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        runner = new ThreadPoolExecutor(runnerThreads, runnerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(runnerQueueCapacity),
+                runnable -> new Thread(runnable, "scheduled-payment-runner-" + counter.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(runner, "scheduled-payment-runner", Tags.empty()).bindTo(meterRegistry);
+        wheel = new HashedTimingWheel<>("scheduled-payment-wheel", tickMillis, wheelSize, this::dispatch);
+    }
+
+    /**
+     * Renew (or take) the lease and, as leader, load the next window
+     */
+    @Scheduled(fixedDelayString = "${payments.scheduling.load-interval-ms:15000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            ensureLeaseRow();
+            if (schedulerLeaseRepository.tryAcquire(LEASE_NAME, instanceId,
+                    now.plusSeconds(leaseSeconds), now) == 0) {
+                if (leader) {
+                    stepDown("lease taken by another instance");
+                }
+                return;
+            }
+            if (!leader) {
+                logger.info("Scheduled payments lease acquired by {}", instanceId);
+                leader = true;
+            }
+            load(now);
+
+        } catch (Exception e) {
+            // Without a renewed lease another instance may take over
+            logger.error("Scheduled payment refresh failed: {}", e.getMessage());
+            if (leader) {
+                stepDown(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Put a schedule created or changed on this instance straight into the
+     * wheel if it falls inside the loaded window; otherwise the next load
+     * picks it up
+     */
+    public void track(ScheduledPayment schedule) {
+        LocalDateTime loadedUntil = horizon;
+        if (leader && loadedUntil != null && schedule.getNextRunAt() != null
+                && schedule.getNextRunAt().isBefore(loadedUntil)) {
+            add(schedule.getId(), schedule.getNextRunAt());
+        }
+    }
+
+    /**
+     * Drop a schedule from the wheel (e.g. cancelled)
+     */
+    public void forget(UUID scheduleId) {
+        HashedTimingWheel.Timeout<DueRun> timeout = loaded.remove(scheduleId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Schedules currently held in the wheel
+     */
+    public int loadedCount() {
+        return loaded.size();
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    private void load(LocalDateTime now) {
+        LocalDateTime until = now.plusSeconds(loadWindowSeconds);
+        LocalDateTime afterTime = LOAD_START;
+        UUID afterId = MIN_UUID;
+        int added = 0;
+
+        while (loaded.size() < maxLoaded) {
+            List<Object[]> page = scheduledPaymentRepository.findDue(until, afterTime, afterId,
+                    PageRequest.of(0, loadPageSize));
+            for (Object[] row : page) {
+                UUID scheduleId = (UUID) row[0];
+                LocalDateTime dueAt = (LocalDateTime) row[1];
+                if (add(scheduleId, dueAt)) {
+                    added++;
+                }
+                afterTime = dueAt;
+                afterId = scheduleId;
+            }
+            if (page.size() < loadPageSize) {
+                // Everything before the window's end is loaded
+                horizon = until;
+                break;
+            }
+        }
+
+        if (added > 0) {
+            logger.info("Loaded {} scheduled payments due before {} ({} in wheel)", added, until, loaded.size());
+        }
+    }
+
+    private boolean add(UUID scheduleId, LocalDateTime dueAt) {
+        HashedTimingWheel.Timeout<DueRun> existing = loaded.get(scheduleId);
+        if (existing != null && existing.task().dueAt().equals(dueAt)) {
+            return false;
+        }
+        long delayMillis = Duration.between(LocalDateTime.now(), dueAt).toMillis();
+        HashedTimingWheel.Timeout<DueRun> timeout = wheel.schedule(new DueRun(scheduleId, dueAt), delayMillis);
+        HashedTimingWheel.Timeout<DueRun> replaced = loaded.put(scheduleId, timeout);
+        if (replaced != null) {
+            replaced.cancel();
+        }
+        return true;
+    }
+
+    /**
+     * Wheel thread: hand a due run to the runner pool
+     */
+    private void dispatch(DueRun run) {
+        if (!leader) {
+            untrack(run);
+            return;
+        }
+        try {
+            runner.execute(() -> execute(run));
+        } catch (RejectedExecutionException e) {
+            // Still due in the table; the next load retries it
+            untrack(run);
+            logger.warn("Scheduled payment runner is full, deferring schedule {}", run.scheduleId());
+        }
+    }
+
+    private void execute(DueRun run) {
+        try {
+            runDue(run.scheduleId(), run.dueAt());
+        } catch (Exception e) {
+            logger.error("Scheduled payment {} run failed: {}", run.scheduleId(), e.getMessage());
+        } finally {
+            untrack(run);
+        }
+    }
+
+    /**
+     * Claim the run due at dueAt, move the schedule on and accept the
+     * payment. Occurrences missed while no instance was leading are not
+     * paid twice: one payment is made, then the schedule moves to its next
+     * future occurrence.
+     */
+    void runDue(UUID scheduleId, LocalDateTime dueAt) {
+        ScheduledPayment schedule = scheduledPaymentRepository.findById(scheduleId).orElse(null);
+        if (schedule == null || schedule.getStatus() != ScheduledPayment.ScheduleStatus.ACTIVE
+                || !dueAt.equals(schedule.getNextRunAt())) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = schedule.getFrequency().nextAfter(schedule.getStartAt(), now.isAfter(dueAt) ? now : dueAt);
+        int runs = schedule.getRunCount() + 1;
+        boolean last = next == null
+                || (schedule.getEndAt() != null && next.isAfter(schedule.getEndAt()))
+                || (schedule.getMaxRuns() != null && runs >= schedule.getMaxRuns());
+
+        if (scheduledPaymentRepository.claimRun(scheduleId, dueAt, last ? null : next,
+                last ? ScheduledPayment.ScheduleStatus.COMPLETED : ScheduledPayment.ScheduleStatus.ACTIVE,
+                now) == 0) {
+            return;
+        }
+
+        PaymentRequestDTO request = new PaymentRequestDTO(schedule.getToEmail(), schedule.getAmount(),
+                schedule.getDescription() != null ? schedule.getDescription() : DEFAULT_DESCRIPTION);
+        String token = jwtConfig.generateServiceToken(SERVICE_NAME, TimeUnit.MINUTES.toMillis(tokenValidityMinutes));
+        try {
+            PaymentResponseDTO payment = paymentService.acceptPayment(request, schedule.getFromUserId(), token);
+            scheduledPaymentRepository.recordRun(scheduleId, payment.getReferenceId(), null);
+            logger.info("Scheduled payment {} run {} accepted as {}", scheduleId, runs, payment.getReferenceId());
+        } catch (Exception e) {
+            scheduledPaymentRepository.recordRun(scheduleId, null, e.getMessage());
+            logger.warn("Scheduled payment {} run {} failed: {}", scheduleId, runs, e.getMessage());
+        }
+    }
+
+    private void untrack(DueRun run) {
+        loaded.computeIfPresent(run.scheduleId(), (id, timeout) -> timeout.task() == run ? null : timeout);
+    }
+
+    private void ensureLeaseRow() {
+        if (leaseRowReady) {
+            return;
+        }
+        if (!schedulerLeaseRepository.existsById(LEASE_NAME)) {
+            try {
+                schedulerLeaseRepository.save(new SchedulerLease(LEASE_NAME, null, LOAD_START));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+        leaseRowReady = true;
+    }
+
+    private void stepDown(String reason) {
+        leader = false;
+        horizon = null;
+        loaded.values().forEach(HashedTimingWheel.Timeout::cancel);
+        loaded.clear();
+        logger.warn("Scheduled payments lease lost by {}: {}", instanceId, reason);
+    }
+
+    private static String instanceName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "payment-service";
+        }
+    }
+
+    /**
+     * Hand the lease over and stop the wheel
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        if (leader) {
+            try {
+                schedulerLeaseRepository.release(LEASE_NAME, instanceId, LocalDateTime.now());
+            } catch (Exception e) {
+                logger.warn("Could not release scheduled payments lease: {}", e.getMessage());
+            }
+            leader = false;
+        }
+        wheel.close();
+        runner.shutdown();
+        try {
+            if (!runner.awaitTermination(10, TimeUnit.SECONDS)) {
+                runner.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            runner.shutdownNow();
+        }
+    }
+}
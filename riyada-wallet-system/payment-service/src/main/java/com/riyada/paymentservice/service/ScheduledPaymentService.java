@@ -0,0 +1,120 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.dto.ScheduledPaymentRequestDTO;
+import com.riyada.paymentservice.dto.ScheduledPaymentResponseDTO;
+import com.riyada.paymentservice.entity.ScheduledPayment;
+import com.riyada.paymentservice.repository.ScheduledPaymentRepository;
+import com.riyada.paymentservice.util.PaymentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled and recurring payments (standing orders). Schedules are run by
+ * ScheduledPaymentScheduler.
+ */
+@Service
+@Transactional
+public class ScheduledPaymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledPaymentService.class);
+
+    @Autowired
+    private ScheduledPaymentRepository scheduledPaymentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ScheduledPaymentScheduler scheduledPaymentScheduler;
+
+    /**
+     * Create a schedule; the recipient is validated now and again on every
+     * run
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ScheduledPaymentResponseDTO createSchedule(ScheduledPaymentRequestDTO requestDTO, UUID fromUserId) {
+        ScheduledPayment.Frequency frequency = requestDTO.getFrequency() != null
+                ? requestDTO.getFrequency()
+                : ScheduledPayment.Frequency.ONCE;
+        // Whole seconds, so the due time compares equal after a database round trip
+        LocalDateTime startAt = requestDTO.getStartAt().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endAt = requestDTO.getEndAt() != null
+                ? requestDTO.getEndAt().truncatedTo(ChronoUnit.SECONDS)
+                : null;
+        if (endAt != null && endAt.isBefore(startAt)) {
+            throw new RuntimeException("End time must not be before the start time");
+        }
+
+        UUID toUserId;
+        try {
+            toUserId = paymentService.resolveRecipientId(requestDTO.getToEmail());
+        } catch (Exception e) {
+            throw new RuntimeException("Scheduled payment failed: " + e.getMessage());
+        }
+        if (fromUserId.equals(toUserId)) {
+            throw new RuntimeException("Scheduled payment failed: Cannot transfer money to yourself");
+        }
+
+        ScheduledPayment schedule = new ScheduledPayment();
+        schedule.setFromUserId(fromUserId);
+        schedule.setToUserId(toUserId);
+        schedule.setToEmail(requestDTO.getToEmail());
+        schedule.setAmount(requestDTO.getAmount());
+        schedule.setDescription(requestDTO.getDescription());
+        schedule.setFrequency(frequency);
+        schedule.setStartAt(startAt);
+        schedule.setEndAt(endAt);
+        schedule.setMaxRuns(requestDTO.getMaxRuns());
+        schedule.setNextRunAt(startAt);
+        schedule = scheduledPaymentRepository.save(schedule);
+
+        scheduledPaymentScheduler.track(schedule);
+
+        logger.info("Scheduled payment {} created: {} from {} starting {}", schedule.getId(), frequency,
+                fromUserId, startAt);
+        return PaymentMapper.toScheduledPaymentResponseDTO(schedule);
+    }
+
+    /**
+     * Get a user's schedules, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<ScheduledPaymentResponseDTO> getUserSchedules(UUID userId) {
+        return scheduledPaymentRepository.findByFromUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(PaymentMapper::toScheduledPaymentResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cancel an active schedule; runs already accepted are not affected
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ScheduledPaymentResponseDTO cancelSchedule(UUID scheduleId, UUID userId) {
+        ScheduledPayment schedule = scheduledPaymentRepository.findById(scheduleId)
+                .orElseThrow(() -> new RuntimeException("Scheduled payment not found with ID: " + scheduleId));
+
+        if (!schedule.getFromUserId().equals(userId)) {
+            throw new RuntimeException("You can only cancel your own scheduled payments");
+        }
+        // Compare-and-set, so a run being claimed right now is not overwritten
+        if (scheduledPaymentRepository.cancelActive(scheduleId, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Only active scheduled payments can be cancelled");
+        }
+        scheduledPaymentScheduler.forget(scheduleId);
+        schedule.setStatus(ScheduledPayment.ScheduleStatus.CANCELLED);
+        schedule.setNextRunAt(null);
+
+        logger.info("Scheduled payment cancelled: {}", scheduleId);
+        return PaymentMapper.toScheduledPaymentResponseDTO(schedule);
+    }
+}
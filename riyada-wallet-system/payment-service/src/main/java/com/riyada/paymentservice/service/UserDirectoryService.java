@@ -0,0 +1,154 @@
+package com.riyada.paymentservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.paymentservice.client.UserServiceClient;
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.util.OffHeapEmailMap;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local replica of user-service's email-to-userId directory.
+ *
+ * Bootstrapped from the paged /api/users/directory snapshot and kept current
+ * by user-created / user-updated events, so recipient resolution is a local
+ * lookup that keeps working while user-service is down.
+ */
+@Service
+public class UserDirectoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectoryService.class);
+
+    private static final String SERVICE_NAME = "payment-service";
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user-directory.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-directory.expected-users:100000}")
+    private int expectedUsers;
+
+    @Value("${user-directory.snapshot-page-size:5000}")
+    private int snapshotPageSize;
+
+    private OffHeapEmailMap directory;
+
+    private volatile boolean ready = false;
+
+    @PostConstruct
+    public void init() {
+        directory = new OffHeapEmailMap(expectedUsers);
+    }
+
+    /**
+     * Load the snapshot; retried on a fixed delay until it succeeds once
+     */
+    @Scheduled(fixedDelayString = "${user-directory.bootstrap-retry-ms:30000}")
+    public void bootstrapIfNeeded() {
+        if (!enabled || ready) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            // The snapshot endpoint only accepts service tokens
+            String token = "Bearer " + jwtConfig.generateServiceToken(SERVICE_NAME, TimeUnit.MINUTES.toMillis(10));
+            String cursor = null;
+            int loaded = 0;
+            while (true) {
+                Map<String, Object> page = userServiceClient.getUserDirectory(cursor, snapshotPageSize, token);
+                List<Map<String, Object>> users = (List<Map<String, Object>>) page.get("users");
+                if (users == null || users.isEmpty()) {
+                    break;
+                }
+                for (Map<String, Object> user : users) {
+                    directory.put((String) user.get("email"), UUID.fromString((String) user.get("id")),
+                            !Boolean.FALSE.equals(user.get("isActive")));
+                }
+                loaded += users.size();
+                cursor = String.valueOf(page.get("nextCursor"));
+            }
+
+            ready = true;
+            logger.info("User directory loaded {} users ({} bytes off-heap) in {} ms", loaded,
+                    directory.offHeapBytes(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.warn("User directory bootstrap failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply user-created / user-updated events
+     */
+    @KafkaListener(topics = { "user-created", "user-updated" },
+            groupId = "${user-directory.consumer-group}",
+            autoStartup = "${user-directory.enabled:true}",
+            properties = { "auto.offset.reset=latest" })
+    public void onUserEvent(String payload) {
+        try {
+            JsonNode data = objectMapper.readTree(payload).path("data");
+            String email = data.path("email").asText(null);
+            String userId = data.path("userId").asText(null);
+            if (email == null || userId == null) {
+                logger.warn("Ignoring user event without email/userId");
+                return;
+            }
+
+            String previousEmail = data.path("previousEmail").asText(null);
+            if (previousEmail != null && !previousEmail.isBlank()) {
+                directory.remove(previousEmail);
+            }
+            directory.put(email, UUID.fromString(userId), data.path("isActive").asBoolean(true));
+        } catch (Exception e) {
+            logger.error("Failed to apply user event: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolve an email locally; empty on a miss
+     */
+    public Optional<OffHeapEmailMap.Entry> lookup(String email) {
+        if (!enabled || email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(directory.get(email));
+    }
+
+    /**
+     * Record a mapping learned from a remote lookup
+     */
+    public void record(String email, UUID userId, boolean active) {
+        if (enabled) {
+            directory.put(email, userId, active);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return directory.size();
+    }
+}
@@ -0,0 +1,355 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.config.VelocityProperties;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-sender velocity limits ("no more than N transfers or X in 10
+ * minutes") checked in memory, so a transfer never counts or sums payments
+ * in the database.
+ *
+ * Each sender has one ring buffer per rule. A slot covers window / slots of
+ * time and packs the transfer count (high 16 bits) and amount in cents (low
+ * 48 bits) into one long; a running total per rule is kept alongside, so a
+ * check is O(1) and expired slots are cleared as the ring advances. The
+ * window slides a slot at a time, so it covers between (slots - 1) and
+ * slots slot widths of history.
+ *
+ * Counters are per instance. They are rebuilt from payments created within
+ * the longest window on startup, before the service takes traffic.
+ */
+@Service
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VelocityService.class);
+
+    private static final int COUNT_SHIFT = 48;
+    private static final long CENTS_MASK = (1L << COUNT_SHIFT) - 1;
+    private static final long ONE_TRANSFER = 1L << COUNT_SHIFT;
+
+    // Batch legs count like any transfer; failed and cancelled payments never count
+    private static final String RECENT_PAYMENTS_SQL =
+            "SELECT sender_user_id, amount, created_at FROM payments " +
+            "WHERE created_at >= ? AND status NOT IN ('FAILED', 'CANCELLED')";
+
+    @Autowired
+    private VelocityProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<UUID, Counters> counters = new ConcurrentHashMap<>();
+
+    private Rule[] rules = new Rule[0];
+    private int totalSlots;
+    private long maxWindowMillis;
+
+    private static final class Rule {
+        private final String name;
+        private final long slotMillis;
+        private final int slots;
+        private final int offset;
+        private final int maxCount;
+        private final long maxCents;
+        private final String window;
+
+        private Rule(VelocityProperties.Rule rule, int offset) {
+            if (rule.getWindow() == null || rule.getSlots() <= 0) {
+                throw new IllegalArgumentException("Velocity rule " + rule.getName()
+                        + " needs a window and a positive slot count");
+            }
+            this.name = rule.getName();
+            this.slots = rule.getSlots();
+            this.slotMillis = Math.max(1, rule.getWindow().toMillis() / slots);
+            this.offset = offset;
+            this.maxCount = rule.getMaxCount() != null ? rule.getMaxCount() : -1;
+            this.maxCents = rule.getMaxAmount() != null ? toCents(rule.getMaxAmount()) : -1;
+            this.window = describe(rule.getWindow());
+        }
+    }
+
+    /**
+     * One sender's ring buffers, all rules in one array; guarded by its own
+     * monitor
+     */
+    private static final class Counters {
+        private final long[] slots;
+        // Newest slot number per rule (time / slot width)
+        private final long[] heads;
+        // Packed count and cents per rule, over the slots in the window
+        private final long[] totals;
+        private long lastActivityMillis;
+        // Set once evicted; a caller holding a retired instance starts over
+        private boolean retired;
+
+        private Counters(int totalSlots, int ruleCount) {
+            this.slots = new long[totalSlots];
+            this.heads = new long[ruleCount];
+            this.totals = new long[ruleCount];
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<VelocityProperties.Rule> configured = properties.getRules();
+        Rule[] compiled = new Rule[configured.size()];
+        int offset = 0;
+        long maxWindow = 0;
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = new Rule(configured.get(i), offset);
+            offset += compiled[i].slots;
+            maxWindow = Math.max(maxWindow, compiled[i].slotMillis * compiled[i].slots);
+        }
+        this.rules = compiled;
+        this.totalSlots = offset;
+        this.maxWindowMillis = maxWindow;
+
+        // Runs before the web server starts, so no transfer is counted twice
+        if (properties.isRebuildOnStartup() && rules.length > 0) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("Velocity counters could not be rebuilt, starting empty: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Count a transfer against every rule, or throw if it would exceed one;
+     * nothing is counted then. Returns the time it was counted at, for
+     * release.
+     */
+    public long reserve(UUID userId, BigDecimal amount) {
+        return reserve(userId, amount, 1);
+    }
+
+    /**
+     * Count a batch of transfers totalling amount against every rule, all
+     * or nothing. Legs that fail are released one at a time.
+     */
+    public long reserve(UUID userId, BigDecimal amount, int transfers) {
+        long now = System.currentTimeMillis();
+        if (rules.length == 0) {
+            return now;
+        }
+        long cents = toCents(amount);
+        long packed = transfers * ONE_TRANSFER + cents;
+        while (true) {
+            Counters user = counters.computeIfAbsent(userId, k -> new Counters(totalSlots, rules.length));
+            synchronized (user) {
+                if (user.retired) {
+                    continue;
+                }
+                for (int r = 0; r < rules.length; r++) {
+                    Rule rule = rules[r];
+                    advance(user, r, now / rule.slotMillis);
+                    long total = user.totals[r];
+                    if (rule.maxCount >= 0 && (total >>> COUNT_SHIFT) + transfers > rule.maxCount) {
+                        logger.info("Velocity rule {} rejected a transfer from {}", rule.name, userId);
+                        throw new RuntimeException("Transfer limit exceeded: no more than " + rule.maxCount
+                                + " transfers in " + rule.window);
+                    }
+                    if (rule.maxCents >= 0 && (total & CENTS_MASK) + cents > rule.maxCents) {
+                        logger.info("Velocity rule {} rejected a transfer from {}", rule.name, userId);
+                        throw new RuntimeException("Transfer limit exceeded: no more than "
+                                + BigDecimal.valueOf(rule.maxCents, 2).toPlainString()
+                                + " in " + rule.window);
+                    }
+                }
+                for (int r = 0; r < rules.length; r++) {
+                    add(user, r, now / rules[r].slotMillis, packed);
+                }
+                user.lastActivityMillis = now;
+                return now;
+            }
+        }
+    }
+
+    /**
+     * Give back a reservation for a transfer that did not go through;
+     * slots that have since left the window are left alone
+     */
+    public void release(UUID userId, BigDecimal amount, long reservedAtMillis) {
+        release(userId, amount, 1, reservedAtMillis);
+    }
+
+    /**
+     * Give back a whole batch reservation, for a batch that was never
+     * persisted
+     */
+    public void release(UUID userId, BigDecimal amount, int transfers, long reservedAtMillis) {
+        Counters user = counters.get(userId);
+        if (user == null) {
+            return;
+        }
+        long cents = toCents(amount);
+        long packed = transfers * ONE_TRANSFER + cents;
+        synchronized (user) {
+            for (int r = 0; r < rules.length; r++) {
+                Rule rule = rules[r];
+                long slot = reservedAtMillis / rule.slotMillis;
+                if (slot > user.heads[r] || slot <= user.heads[r] - rule.slots) {
+                    continue;
+                }
+                int index = rule.offset + (int) (slot % rule.slots);
+                long value = user.slots[index];
+                if ((value >>> COUNT_SHIFT) < transfers || (value & CENTS_MASK) < cents) {
+                    continue;
+                }
+                user.slots[index] = value - packed;
+                user.totals[r] -= packed;
+            }
+        }
+    }
+
+    /**
+     * Release a reservation made when the payment was created
+     */
+    public void release(UUID userId, BigDecimal amount, LocalDateTime createdAt) {
+        if (createdAt != null) {
+            release(userId, amount, createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    /**
+     * Senders currently tracked
+     */
+    public int trackedUsers() {
+        return counters.size();
+    }
+
+    /**
+     * Drop senders with nothing left in any window
+     */
+    @Scheduled(fixedDelayString = "${payments.velocity.sweep-interval-ms:300000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - maxWindowMillis;
+        Iterator<Map.Entry<UUID, Counters>> iterator = counters.entrySet().iterator();
+        int evicted = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Counters> entry = iterator.next();
+            Counters user = entry.getValue();
+            synchronized (user) {
+                if (user.lastActivityMillis < cutoff) {
+                    user.retired = true;
+                    counters.remove(entry.getKey(), user);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted velocity counters for {} idle senders", evicted);
+        }
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        long since = started - maxWindowMillis;
+        int[] rows = {0};
+
+        // Postgres only streams through a cursor inside a transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            PreparedStatementCreator query = connection -> {
+                PreparedStatement statement = connection.prepareStatement(RECENT_PAYMENTS_SQL);
+                statement.setFetchSize(properties.getRebuildFetchSize());
+                statement.setTimestamp(1, new Timestamp(since));
+                return statement;
+            };
+            jdbcTemplate.query(query, rs -> {
+                record(rs.getObject(1, UUID.class), toCents(rs.getBigDecimal(2)), rs.getTimestamp(3).getTime());
+                rows[0]++;
+            });
+        });
+
+        logger.info("Velocity counters rebuilt from {} payments for {} senders in {} ms", rows[0],
+                counters.size(), System.currentTimeMillis() - started);
+    }
+
+    private void record(UUID userId, long cents, long atMillis) {
+        Counters user = counters.computeIfAbsent(userId, k -> new Counters(totalSlots, rules.length));
+        synchronized (user) {
+            for (int r = 0; r < rules.length; r++) {
+                long slot = atMillis / rules[r].slotMillis;
+                advance(user, r, slot);
+                if (slot > user.heads[r] - rules[r].slots) {
+                    add(user, r, slot, ONE_TRANSFER + cents);
+                }
+            }
+            user.lastActivityMillis = Math.max(user.lastActivityMillis, atMillis);
+        }
+    }
+
+    /**
+     * Move a rule's ring forward to the given slot, clearing the slots that
+     * fall out of the window
+     */
+    private void advance(Counters user, int r, long slot) {
+        Rule rule = rules[r];
+        long head = user.heads[r];
+        if (slot <= head) {
+            return;
+        }
+        long cleared = Math.min(slot - head, rule.slots);
+        for (long s = slot - cleared + 1; s <= slot; s++) {
+            int index = rule.offset + (int) (s % rule.slots);
+            user.totals[r] -= user.slots[index];
+            user.slots[index] = 0;
+        }
+        user.heads[r] = slot;
+    }
+
+    private void add(Counters user, int r, long slot, long packed) {
+        Rule rule = rules[r];
+        user.slots[rule.offset + (int) (slot % rule.slots)] += packed;
+        user.totals[r] += packed;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static String describe(Duration window) {
+        if (window.toDays() > 0 && window.equals(Duration.ofDays(window.toDays()))) {
+            return window.toDays() == 1 ? "a day" : window.toDays() + " days";
+        }
+        if (window.toHours() > 0 && window.equals(Duration.ofHours(window.toHours()))) {
+            return window.toHours() == 1 ? "an hour" : window.toHours() + " hours";
+        }
+        if (window.toMinutes() > 0 && window.equals(Duration.ofMinutes(window.toMinutes()))) {
+            return window.toMinutes() + " minutes";
+        }
+        return window.toSeconds() + " seconds";
+    }
+}
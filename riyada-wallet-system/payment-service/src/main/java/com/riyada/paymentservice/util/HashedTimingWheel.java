@@ -0,0 +1,186 @@
+package com.riyada.paymentservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel (Varghese and Lauck): a ring of buckets, one per
+ * tick. A timeout due in d ticks goes into bucket (now + d) mod size with
+ * d / size rounds still to wait. Each tick the wheel thread expires only
+ * the bucket under the cursor. Adding and cancelling are O(1), and nothing
+ * is spent on timeouts that are not due, however many are pending.
+ *
+ * Buckets are touched only by the wheel thread. Other threads hand new
+ * timeouts over through a lock-free queue, drained once per tick. Expired
+ * timeouts are passed to the handler on the wheel thread, at most one tick
+ * late, so the handler should hand real work off.
+ */
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    // Bound on hand-overs moved into buckets per tick, so one burst cannot stall the wheel
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> additions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Consumer<T> handler;
+    private final Thread worker;
+    private final long startNanos;
+
+    // Wheel thread only
+    private long tick;
+
+    private volatile boolean running = true;
+
+    /**
+     * Handle to a scheduled timeout
+     */
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        /**
+         * Stop the timeout from firing; it is dropped on its next visit
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize, Consumer<T> handler) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        // Power of two, so the bucket index is a mask
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.handler = handler;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Fire the task after the delay; a delay of zero or less fires on the
+     * next tick
+     */
+    public Timeout<T> schedule(T task, long delayMillis) {
+        Timeout<T> timeout = new Timeout<>(task,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Timeouts scheduled and not yet fired or dropped
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+                continue;
+            }
+            transferAdditions();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferAdditions() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout<T> timeout = additions.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.cancelled) {
+                pending.decrementAndGet();
+                continue;
+            }
+            // Overdue timeouts land in the current bucket and fire now
+            long due = Math.max(tick, (timeout.deadlineNanos - startNanos) / tickNanos);
+            timeout.remainingRounds = (due - tick) / buckets.length;
+            buckets[(int) (due & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout<T>> bucket) {
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+                pending.decrementAndGet();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                pending.decrementAndGet();
+                try {
+                    handler.accept(timeout.task);
+                } catch (RuntimeException e) {
+                    logger.error("Timing wheel handler failed: {}", e.getMessage(), e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Stop the wheel; pending timeouts never fire
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.riyada.paymentservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes line-protocol points to the InfluxDB 2.x write API in batches of
+ * up to batchLines, gzip-compressed (precision ms).
+ *
+ * Lines wait in a bounded buffer until written. A batch that fails with a
+ * connection error, 429 or 5xx stays at the head of the buffer and is
+ * retried on the next flush; when the buffer is full the oldest lines are
+ * dropped. A batch rejected with any other 4xx is malformed and dropped.
+ *
+ * Not thread-safe: meant to be driven by a single flushing thread.
+ */
+public final class InfluxLineWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InfluxLineWriter.class);
+
+    private final HttpClient httpClient;
+    private final URI writeUri;
+    private final String token;
+    private final int batchLines;
+    private final int maxBufferedLines;
+    private final Duration timeout;
+    private final Deque<String> buffer = new ArrayDeque<>();
+
+    private long dropped;
+    private boolean failing;
+
+    public InfluxLineWriter(String url, String org, String bucket, String token, int batchLines,
+            int maxBufferedLines, Duration timeout) {
+        this.writeUri = URI.create(url.replaceAll("/+$", "") + "/api/v2/write?org="
+                + URLEncoder.encode(org, StandardCharsets.UTF_8) + "&bucket="
+                + URLEncoder.encode(bucket, StandardCharsets.UTF_8) + "&precision=ms");
+        this.token = token;
+        this.batchLines = batchLines;
+        this.maxBufferedLines = maxBufferedLines;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Buffer lines for the next flush, dropping the oldest past capacity
+     */
+    public void enqueue(Collection<String> lines) {
+        buffer.addAll(lines);
+        int overflow = buffer.size() - maxBufferedLines;
+        for (int i = 0; i < overflow; i++) {
+            buffer.pollFirst();
+        }
+        if (overflow > 0) {
+            dropped += overflow;
+            logger.warn("KPI buffer full, dropped {} oldest lines ({} in total)", overflow, dropped);
+        }
+    }
+
+    /**
+     * Write buffered lines until the buffer is empty or a write fails;
+     * returns the number of lines written
+     */
+    public int flush() {
+        int written = 0;
+        while (!buffer.isEmpty()) {
+            List<String> batch = new ArrayList<>(Math.min(batchLines, buffer.size()));
+            for (String line : buffer) {
+                if (batch.size() == batchLines) {
+                    break;
+                }
+                batch.add(line);
+            }
+
+            int status;
+            try {
+                status = send(batch);
+            } catch (IOException e) {
+                markFailing("KPI write to " + writeUri.getHost() + " failed: " + e.getMessage());
+                return written;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return written;
+            }
+
+            if (status == 429 || status >= 500) {
+                markFailing("KPI write rejected with " + status + ", will retry");
+                return written;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                buffer.pollFirst();
+            }
+            if (status >= 400) {
+                dropped += batch.size();
+                logger.error("KPI write rejected with {}; dropped {} lines", status, batch.size());
+                continue;
+            }
+            written += batch.size();
+            if (failing) {
+                failing = false;
+                logger.info("KPI writes to {} recovered", writeUri.getHost());
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Lines waiting to be written
+     */
+    public int buffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Lines given up on since startup
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    private int send(List<String> lines) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(writeUri)
+                .timeout(timeout)
+                .header("Authorization", "Token " + token)
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .header("Content-Encoding", "gzip")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(gzip(lines)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static byte[] gzip(List<String> lines) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            for (String line : lines) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Log the first failure of a streak only
+    private void markFailing(String message) {
+        if (!failing) {
+            failing = true;
+            logger.warn(message);
+        }
+    }
+}
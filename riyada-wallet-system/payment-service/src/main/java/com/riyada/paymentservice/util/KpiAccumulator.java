@@ -0,0 +1,88 @@
+package com.riyada.paymentservice.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters for business KPIs, drained into InfluxDB line
+ * protocol.
+ *
+ * Each series (a measurement plus fixed tags) is registered once and holds
+ * two LongAdders, an event count and an amount in cents, so recording is a
+ * pair of uncontended adds on the caller's thread. Draining resets every
+ * adder cell by cell with an atomic swap. An add racing the drain lands in
+ * this interval or the next, and is never lost.
+ */
+public final class KpiAccumulator {
+
+    private final List<Series> series = new CopyOnWriteArrayList<>();
+
+    /**
+     * One measurement with fixed tags
+     */
+    public static final class Series {
+        private final String key;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+
+        private Series(String key) {
+            this.key = key;
+        }
+
+        public void record(BigDecimal amount) {
+            count.increment();
+            cents.add(amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue());
+        }
+    }
+
+    /**
+     * Register a series; tags are given as key, value pairs
+     */
+    public Series series(String measurement, String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be key, value pairs");
+        }
+        StringBuilder key = new StringBuilder(escape(measurement, false));
+        for (int i = 0; i < tags.length; i += 2) {
+            key.append(',').append(escape(tags[i], true)).append('=').append(escape(tags[i + 1], true));
+        }
+        Series created = new Series(key.toString());
+        series.add(created);
+        return created;
+    }
+
+    /**
+     * Reset every series and return a line for each that saw events since
+     * the last drain
+     */
+    public List<String> drain(long timestampMillis) {
+        List<String> lines = new ArrayList<>();
+        for (Series s : series) {
+            long count = s.count.sumThenReset();
+            long cents = s.cents.sumThenReset();
+            if (count == 0 && cents == 0) {
+                continue;
+            }
+            lines.add(s.key + " count=" + count + "i,amount=" + BigDecimal.valueOf(cents, 2).toPlainString()
+                    + " " + timestampMillis);
+        }
+        return lines;
+    }
+
+    // Line protocol escaping: commas and spaces everywhere, equals signs in tags
+    private static String escape(String value, boolean tag) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == ' ' || (tag && c == '=')) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
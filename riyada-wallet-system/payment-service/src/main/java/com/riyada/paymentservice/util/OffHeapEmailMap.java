@@ -0,0 +1,316 @@
+package com.riyada.paymentservice.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open-addressing email-to-userId map stored in direct (off-heap) buffers.
+ *
+ * Each slot is a fixed 32-byte record: a 64-bit hash fingerprint, the user ID
+ * as two longs, and the offset/length of the email bytes in a separate
+ * append-only key arena. Probing is linear. Deletes leave tombstones, which
+ * are purged (and the key arena compacted) on the next rehash. Per entry the
+ * heap cost is zero; the off-heap cost is roughly 32 / load-factor bytes plus
+ * the UTF-8 email.
+ */
+public class OffHeapEmailMap {
+
+    private static final int SLOT_BYTES = 32;
+    private static final int OFFSET_HASH = 0;
+    private static final int OFFSET_MSB = 8;
+    private static final int OFFSET_LSB = 16;
+    private static final int OFFSET_KEY_POS = 24;
+    private static final int OFFSET_KEY_LEN = 28;
+    private static final int OFFSET_ACTIVE = 30;
+
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = Long.MIN_VALUE;
+    private static final double MAX_LOAD = 0.6;
+    private static final int MAX_KEY_BYTES = Short.MAX_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int mask;
+
+    private ByteBuffer keys;
+    private int keysUsed;
+    private int deadKeyBytes;
+
+    private int size;
+    private int tombstones;
+
+    public OffHeapEmailMap(int expectedEntries) {
+        this.capacity = tableSizeFor((int) Math.ceil(Math.max(16, expectedEntries) / MAX_LOAD));
+        this.mask = capacity - 1;
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        this.keys = ByteBuffer.allocateDirect(Math.max(1024, expectedEntries * 24));
+    }
+
+    /**
+     * Lookup result
+     */
+    public static final class Entry {
+        private final UUID userId;
+        private final boolean active;
+
+        private Entry(UUID userId, boolean active) {
+            this.userId = userId;
+            this.active = active;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    /**
+     * Insert or overwrite the mapping for an email
+     */
+    public void put(String email, UUID userId, boolean active) {
+        byte[] key = encode(email);
+        long hash = hash(key);
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(key, hash);
+            if (slot >= 0) {
+                writeValue(slot, userId, active);
+                return;
+            }
+
+            if (size + tombstones + 1 > capacity * MAX_LOAD) {
+                rehash(size + 1 > capacity * MAX_LOAD / 2 ? capacity << 1 : capacity);
+            }
+            ensureKeySpace(key.length);
+
+            int index = indexFor(hash);
+            while (true) {
+                int base = index * SLOT_BYTES;
+                long existing = slots.getLong(base + OFFSET_HASH);
+                if (existing == EMPTY || existing == TOMBSTONE) {
+                    if (existing == TOMBSTONE) {
+                        tombstones--;
+                    }
+                    slots.putLong(base + OFFSET_HASH, hash);
+                    slots.putInt(base + OFFSET_KEY_POS, keysUsed);
+                    slots.putShort(base + OFFSET_KEY_LEN, (short) key.length);
+                    keys.put(keysUsed, key);
+                    keysUsed += key.length;
+                    writeValue(index, userId, active);
+                    size++;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Look up an email; returns null when unknown
+     */
+    public Entry get(String email) {
+        byte[] key = encode(email);
+        long hash = hash(key);
+
+        lock.readLock().lock();
+        try {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return null;
+            }
+            int base = slot * SLOT_BYTES;
+            return new Entry(new UUID(slots.getLong(base + OFFSET_MSB), slots.getLong(base + OFFSET_LSB)),
+                    slots.get(base + OFFSET_ACTIVE) != 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the mapping for an email, if present
+     */
+    public boolean remove(String email) {
+        byte[] key = encode(email);
+        long hash = hash(key);
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return false;
+            }
+            int base = slot * SLOT_BYTES;
+            deadKeyBytes += slots.getShort(base + OFFSET_KEY_LEN);
+            slots.putLong(base + OFFSET_HASH, TOMBSTONE);
+            size--;
+            tombstones++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total direct memory held by the slot table and key arena
+     */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slots.capacity() + keys.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int find(byte[] key, long hash) {
+        int index = indexFor(hash);
+        while (true) {
+            int base = index * SLOT_BYTES;
+            long existing = slots.getLong(base + OFFSET_HASH);
+            if (existing == EMPTY) {
+                return -1;
+            }
+            if (existing == hash && keyEquals(base, key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int base, byte[] key) {
+        int length = slots.getShort(base + OFFSET_KEY_LEN);
+        if (length != key.length) {
+            return false;
+        }
+        int position = slots.getInt(base + OFFSET_KEY_POS);
+        for (int i = 0; i < length; i++) {
+            if (keys.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeValue(int slot, UUID userId, boolean active) {
+        int base = slot * SLOT_BYTES;
+        slots.putLong(base + OFFSET_MSB, userId.getMostSignificantBits());
+        slots.putLong(base + OFFSET_LSB, userId.getLeastSignificantBits());
+        slots.put(base + OFFSET_ACTIVE, (byte) (active ? 1 : 0));
+    }
+
+    private void ensureKeySpace(int needed) {
+        if (keysUsed + needed <= keys.capacity()) {
+            return;
+        }
+        if (deadKeyBytes > keys.capacity() / 2) {
+            // Mostly garbage: compacting is enough
+            rehash(capacity);
+            if (keysUsed + needed <= keys.capacity()) {
+                return;
+            }
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(keys.capacity() << 1, keysUsed + needed));
+        ByteBuffer source = keys.duplicate();
+        source.position(0).limit(keysUsed);
+        grown.put(source);
+        keys = grown;
+    }
+
+    /**
+     * Rebuild the table at the given capacity, dropping tombstones and
+     * compacting the key arena
+     */
+    private void rehash(int newCapacity) {
+        ByteBuffer oldSlots = slots;
+        ByteBuffer oldKeys = keys;
+        int oldCapacity = capacity;
+
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+        keys = ByteBuffer.allocateDirect(Math.max(oldKeys.capacity(), keysUsed - deadKeyBytes));
+        keysUsed = 0;
+        deadKeyBytes = 0;
+        tombstones = 0;
+
+        for (int i = 0; i < oldCapacity; i++) {
+            int oldBase = i * SLOT_BYTES;
+            long hash = oldSlots.getLong(oldBase + OFFSET_HASH);
+            if (hash == EMPTY || hash == TOMBSTONE) {
+                continue;
+            }
+            int length = oldSlots.getShort(oldBase + OFFSET_KEY_LEN);
+            int position = oldSlots.getInt(oldBase + OFFSET_KEY_POS);
+
+            int index = indexFor(hash);
+            while (slots.getLong(index * SLOT_BYTES + OFFSET_HASH) != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            int base = index * SLOT_BYTES;
+            slots.putLong(base + OFFSET_HASH, hash);
+            slots.putLong(base + OFFSET_MSB, oldSlots.getLong(oldBase + OFFSET_MSB));
+            slots.putLong(base + OFFSET_LSB, oldSlots.getLong(oldBase + OFFSET_LSB));
+            slots.put(base + OFFSET_ACTIVE, oldSlots.get(oldBase + OFFSET_ACTIVE));
+            slots.putInt(base + OFFSET_KEY_POS, keysUsed);
+            slots.putShort(base + OFFSET_KEY_LEN, (short) length);
+            for (int b = 0; b < length; b++) {
+                keys.put(keysUsed + b, oldKeys.get(position + b));
+            }
+            keysUsed += length;
+        }
+    }
+
+    private int indexFor(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static byte[] encode(String email) {
+        byte[] key = email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Email too long for directory key");
+        }
+        return key;
+    }
+
+    /**
+     * 64-bit FNV-1a with a murmur finalizer; never returns EMPTY or TOMBSTONE
+     */
+    private static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h == EMPTY || h == TOMBSTONE) ? 1L : h;
+    }
+
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(Math.max(2, n - 1));
+        return highest << 1;
+    }
+}
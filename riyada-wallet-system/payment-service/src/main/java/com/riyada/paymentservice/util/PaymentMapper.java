@@ -1,11 +1,18 @@
 package com.riyada.paymentservice.util;
 
+import com.riyada.paymentservice.dto.BatchPaymentResponseDTO;
 import com.riyada.paymentservice.dto.PaymentRequestDTO;
 import com.riyada.paymentservice.dto.PaymentResponseDTO;
 import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import com.riyada.paymentservice.dto.ScheduledPaymentResponseDTO;
 import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.entity.PaymentBatch;
+import com.riyada.paymentservice.entity.ScheduledPayment;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class PaymentMapper {
 
@@ -68,4 +75,64 @@ public class PaymentMapper {
 
         return payment;
     }
+
+    /**
+     * Convert a PaymentBatch header, its leg counts per status and its legs
+     * to BatchPaymentResponseDTO
+     */
+    public static BatchPaymentResponseDTO toBatchPaymentResponseDTO(PaymentBatch batch,
+            Map<Payment.PaymentStatus, Long> counts, List<Payment> legs) {
+        if (batch == null) {
+            return null;
+        }
+
+        BatchPaymentResponseDTO dto = new BatchPaymentResponseDTO();
+        dto.setId(batch.getId());
+        dto.setReferenceId(batch.getReferenceId());
+        dto.setFromUserId(batch.getFromUserId());
+        dto.setStatus(batch.getStatus());
+        dto.setLegCount(batch.getLegCount());
+        dto.setTotalAmount(batch.getTotalAmount());
+        dto.setCurrency(batch.getCurrency());
+        dto.setDescription(batch.getDescription());
+        dto.setCompletedCount(counts.getOrDefault(Payment.PaymentStatus.COMPLETED, 0L));
+        dto.setFailedCount(counts.getOrDefault(Payment.PaymentStatus.FAILED, 0L)
+                + counts.getOrDefault(Payment.PaymentStatus.CANCELLED, 0L));
+        dto.setInProgressCount(counts.getOrDefault(Payment.PaymentStatus.PENDING, 0L)
+                + counts.getOrDefault(Payment.PaymentStatus.PROCESSING, 0L));
+        dto.setCreatedAt(batch.getCreatedAt());
+        dto.setProcessedAt(batch.getProcessedAt());
+        dto.setPayments(legs.stream().map(PaymentMapper::toPaymentResponseDTO).collect(Collectors.toList()));
+        return dto;
+    }
+
+    /**
+     * Convert ScheduledPayment entity to ScheduledPaymentResponseDTO
+     */
+    public static ScheduledPaymentResponseDTO toScheduledPaymentResponseDTO(ScheduledPayment schedule) {
+        if (schedule == null) {
+            return null;
+        }
+
+        ScheduledPaymentResponseDTO dto = new ScheduledPaymentResponseDTO();
+        dto.setId(schedule.getId());
+        dto.setFromUserId(schedule.getFromUserId());
+        dto.setToUserId(schedule.getToUserId());
+        dto.setToEmail(schedule.getToEmail());
+        dto.setAmount(schedule.getAmount());
+        dto.setCurrency(schedule.getCurrency());
+        dto.setDescription(schedule.getDescription());
+        dto.setFrequency(schedule.getFrequency());
+        dto.setStartAt(schedule.getStartAt());
+        dto.setEndAt(schedule.getEndAt());
+        dto.setMaxRuns(schedule.getMaxRuns());
+        dto.setStatus(schedule.getStatus());
+        dto.setNextRunAt(schedule.getNextRunAt());
+        dto.setRunCount(schedule.getRunCount());
+        dto.setLastRunAt(schedule.getLastRunAt());
+        dto.setLastPaymentReference(schedule.getLastPaymentReference());
+        dto.setLastFailureReason(schedule.getLastFailureReason());
+        dto.setCreatedAt(schedule.getCreatedAt());
+        return dto;
+    }
 }
@@ -0,0 +1,71 @@
+package com.riyada.paymentservice.util;
+
+import java.security.SecureRandom;
+
+/**
+ * Compact, sortable payment references: "PAY" followed by 16 Crockford
+ * base32 characters, 10 for the Unix time in milliseconds and 6 for a
+ * 30-bit tail, e.g. PAY01HV5K3M7Q8XZ4N2.
+ *
+ * The tail starts random each millisecond and is incremented for further
+ * references in the same millisecond, so references from one JVM are
+ * strictly increasing. The alphabet is in ASCII order, so references sort
+ * by creation time in plain byte order. Batch headers use the same scheme
+ * with a "BAT" prefix.
+ */
+public final class PaymentReference {
+
+    private static final String PREFIX = "PAY";
+    private static final String BATCH_PREFIX = "BAT";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int TIME_CHARS = 10;
+    private static final int TAIL_CHARS = 6;
+    private static final long TAIL_MASK = (1L << (TAIL_CHARS * 5)) - 1;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastMillis;
+    private static long tail;
+
+    private PaymentReference() {
+    }
+
+    public static String next() {
+        return next(PREFIX);
+    }
+
+    public static String nextBatch() {
+        return next(BATCH_PREFIX);
+    }
+
+    private static String next(String prefix) {
+        long millis;
+        long value;
+        synchronized (PaymentReference.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // Top bit clear leaves room to increment within the millisecond
+                tail = RANDOM.nextLong() & (TAIL_MASK >>> 1);
+            } else if (++tail > TAIL_MASK) {
+                lastMillis++;
+                tail = RANDOM.nextLong() & (TAIL_MASK >>> 1);
+            }
+            millis = lastMillis;
+            value = tail;
+        }
+
+        char[] chars = new char[prefix.length() + TIME_CHARS + TAIL_CHARS];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        encode(millis, chars, prefix.length(), TIME_CHARS);
+        encode(value, chars, prefix.length() + TIME_CHARS, TAIL_CHARS);
+        return new String(chars);
+    }
+
+    private static void encode(long value, char[] target, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            target[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.riyada.paymentservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs independent subtasks concurrently under one shared deadline with
+ * shutdown-on-failure semantics, in the spirit of StructuredTaskScope
+ * (not available on Java 17).
+ *
+ * join() returns once every subtask has succeeded. The first failure, or
+ * the deadline passing, cancels the remaining subtasks and is rethrown.
+ * close() always cancels anything still running, so no subtask outlives
+ * the try-with-resources block that forked it.
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private final CompletionService<Object> completion;
+    private final long deadlineNanos;
+    private final long timeoutMillis;
+    private final List<Future<Object>> forks = new ArrayList<>();
+    private boolean joined;
+
+    public TaskScope(ExecutorService executor, long timeoutMillis) {
+        this.completion = new ExecutorCompletionService<>(executor);
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Handle to a forked subtask's result; valid after join()
+     */
+    public static final class Subtask<T> {
+        private final Future<Object> future;
+
+        private Subtask(Future<Object> future) {
+            this.future = future;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get() {
+            if (!future.isDone() || future.isCancelled()) {
+                throw new IllegalStateException("Subtask has not completed successfully");
+            }
+            try {
+                return (T) future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Subtask has not completed successfully", e);
+            }
+        }
+    }
+
+    /**
+     * Start a subtask
+     *
+     * @throws RejectedExecutionException if the executor is saturated; the
+     *         subtasks already forked are cancelled
+     */
+    public <T> Subtask<T> fork(Callable<T> task) {
+        if (joined) {
+            throw new IllegalStateException("Cannot fork after join");
+        }
+        Future<Object> future;
+        try {
+            future = completion.submit(task::call);
+        } catch (RejectedExecutionException e) {
+            cancelOutstanding();
+            throw new RejectedExecutionException("Too many requests in progress, please retry", e);
+        }
+        forks.add(future);
+        return new Subtask<>(future);
+    }
+
+    /**
+     * Wait for all subtasks; on the first failure or at the deadline cancel
+     * the rest and throw. Runtime exceptions from a subtask are rethrown
+     * as-is, checked ones wrapped.
+     */
+    public void join() throws InterruptedException {
+        joined = true;
+        try {
+            for (int remaining = forks.size(); remaining > 0; remaining--) {
+                long waitNanos = deadlineNanos - System.nanoTime();
+                Future<Object> done = waitNanos > 0 ? completion.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    throw new RuntimeException("Timed out after " + timeoutMillis + " ms");
+                }
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (cause instanceof Error error) {
+                        throw error;
+                    }
+                    throw new RuntimeException(cause.getMessage(), cause);
+                }
+            }
+        } finally {
+            cancelOutstanding();
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelOutstanding();
+    }
+
+    private void cancelOutstanding() {
+        for (Future<Object> future : forks) {
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+}
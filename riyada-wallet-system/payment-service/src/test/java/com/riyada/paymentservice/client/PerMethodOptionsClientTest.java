@@ -0,0 +1,105 @@
+package com.riyada.paymentservice.client;
+
+import com.riyada.paymentservice.config.FeignHttpClientProperties;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parses UserServiceClient with the Spring MVC contract, so requests carry
+ * the same method metadata Feign attaches at runtime
+ */
+class PerMethodOptionsClientTest {
+
+    private final FeignHttpClientProperties properties = new FeignHttpClientProperties();
+
+    private Request sent;
+    private Request.Options sentOptions;
+
+    private final PerMethodOptionsClient client = new PerMethodOptionsClient((request, options) -> {
+        sent = request;
+        sentOptions = options;
+        return Response.builder().status(200).request(request).headers(Map.of()).build();
+    }, properties);
+
+    @BeforeEach
+    void setUp() {
+        properties.setConnectTimeoutMs(1000);
+        properties.setReadTimeoutMs(5000);
+        FeignHttpClientProperties.Timeouts directory = new FeignHttpClientProperties.Timeouts();
+        directory.setReadTimeoutMs(30000);
+        properties.getMethods().put("UserServiceClient#getUserDirectory", directory);
+    }
+
+    @Test
+    void testExecute_AppliesMethodOverride() throws Exception {
+        // When
+        client.execute(request("getUserDirectory", "/api/users/directory?limit=500"), feignDefaults());
+
+        // Then - the override replaces the read timeout; the connect timeout falls back
+        assertEquals(1000, sentOptions.connectTimeoutMillis());
+        assertEquals(30000, sentOptions.readTimeoutMillis());
+    }
+
+    @Test
+    void testExecute_UsesSharedTimeoutsWithoutOverride() throws Exception {
+        // When
+        client.execute(request("getUserProfile", "/api/users/profile/42"), feignDefaults());
+
+        // Then - feign-http settings, not Feign's own defaults
+        assertEquals(1000, sentOptions.connectTimeoutMillis());
+        assertEquals(5000, sentOptions.readTimeoutMillis());
+    }
+
+    @Test
+    void testExecute_TagsRequestWithUriTemplate() throws Exception {
+        // When
+        client.execute(request("getUserProfile", "/api/users/profile/42"), feignDefaults());
+
+        // Then
+        assertEquals(List.of("/api/users/profile/{userId}"),
+                List.copyOf(sent.headers().get(OkHttpMetricsEventListener.URI_PATTERN)));
+        assertEquals("http://user-service/api/users/profile/42", sent.url());
+    }
+
+    @Test
+    void testExecute_RequestWithoutMetadataPassesThrough() throws Exception {
+        // Given
+        Request request = Request.create(Request.HttpMethod.GET, "http://user-service/health", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        Request.Options options = feignDefaults();
+
+        // When
+        client.execute(request, options);
+
+        // Then
+        assertSame(request, sent);
+        assertSame(options, sentOptions);
+    }
+
+    private static Request request(String methodName, String path) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(UserServiceClient.class).stream()
+                .filter(candidate -> candidate.method().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        RequestTemplate template = metadata.template();
+        return Request.create(Request.HttpMethod.GET, "http://user-service" + path, Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private static Request.Options feignDefaults() {
+        return new Request.Options(10, TimeUnit.SECONDS, 60, TimeUnit.SECONDS, true);
+    }
+}
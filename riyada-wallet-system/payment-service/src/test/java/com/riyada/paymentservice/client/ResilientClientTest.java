@@ -0,0 +1,261 @@
+package com.riyada.paymentservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives ResilientClient with a scripted delegate: each call takes the
+ * next queued outcome (a status code, or an IOException), 200 once empty
+ */
+class ResilientClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, false);
+
+    private final Deque<Object> outcomes = new ArrayDeque<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ExecutorService caller = Executors.newSingleThreadExecutor();
+
+    private final Client scripted = (request, options) -> {
+        calls.incrementAndGet();
+        Object outcome;
+        synchronized (outcomes) {
+            outcome = outcomes.poll();
+        }
+        if (outcome instanceof IOException e) {
+            throw e;
+        }
+        return response(request, outcome == null ? 200 : (Integer) outcome);
+    };
+
+    @AfterEach
+    void tearDown() {
+        caller.shutdownNow();
+    }
+
+    @Test
+    void testExecute_GetRetriedAfterConnectionError() throws IOException {
+        // Given
+        outcomes.add(new IOException("Connection reset"));
+        ResilientClient client = client(scripted, new RetryBudgets(0.1, 0, 10), 2);
+
+        // When
+        Response response = client.execute(get("wallet-service"), OPTIONS);
+
+        // Then
+        assertEquals(200, response.status());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExecute_GetRetriedOn503UpToMaxRetries() throws IOException {
+        // Given
+        outcomes.add(503);
+        outcomes.add(503);
+        outcomes.add(503);
+        ResilientClient client = client(scripted, new RetryBudgets(0.1, 0, 10), 2);
+
+        // When
+        Response response = client.execute(get("wallet-service"), OPTIONS);
+
+        // Then - the last response is returned as-is once retries run out
+        assertEquals(503, response.status());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testExecute_RetriesCountTowardsTheCircuitBreaker() {
+        // Given - every attempt fails, and two failures open the breaker
+        outcomes.add(new IOException("Connection refused"));
+        outcomes.add(new IOException("Connection refused"));
+        outcomes.add(new IOException("Connection refused"));
+        ResilientClient client = new ResilientClient(scripted, bulkheads(10), circuitBreakers(2),
+                new RetryBudgets(0.1, 0, 10), 2, 0);
+
+        // When / Then - the breaker stops the retries early
+        assertThrows(CallNotPermittedException.class, () -> client.execute(get("wallet-service"), OPTIONS));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExecute_RetryStopsWhenBudgetExhausted() {
+        // Given - one retry in the budget, none earned back
+        outcomes.add(new IOException("Connection refused"));
+        outcomes.add(new IOException("Connection refused"));
+        outcomes.add(new IOException("Connection refused"));
+        RetryBudgets budgets = new RetryBudgets(0, 0, 1);
+        ResilientClient client = client(scripted, budgets, 5);
+
+        // When
+        assertThrows(IOException.class, () -> client.execute(get("wallet-service"), OPTIONS));
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(1, budgets.budget("wallet-service").getRetriesAllowed());
+        assertEquals(1, budgets.budget("wallet-service").getRetriesDenied());
+    }
+
+    @Test
+    void testExecute_PostNeverRetried() {
+        // Given
+        outcomes.add(new IOException("Connection reset"));
+        ResilientClient client = client(scripted, new RetryBudgets(0.1, 0, 10), 2);
+
+        // When
+        assertThrows(IOException.class, () -> client.execute(post("wallet-service"), OPTIONS));
+
+        // Then
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_PostNotRetriedOn503() throws IOException {
+        // Given
+        outcomes.add(503);
+        ResilientClient client = client(scripted, new RetryBudgets(0.1, 0, 10), 2);
+
+        // When
+        Response response = client.execute(post("wallet-service"), OPTIONS);
+
+        // Then
+        assertEquals(503, response.status());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_BulkheadFullRejectsImmediately() throws Exception {
+        // Given - one concurrent call per downstream, and it is held open
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Client blocking = (request, options) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response(request, 200);
+        };
+        ResilientClient client = new ResilientClient(blocking, bulkheads(1), circuitBreakers(10),
+                new RetryBudgets(0.1, 0, 10), 2, 0);
+        Future<Response> first = caller.submit(() -> client.execute(get("wallet-service"), OPTIONS));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When / Then
+        assertThrows(BulkheadFullException.class, () -> client.execute(get("wallet-service"), OPTIONS));
+        release.countDown();
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).status());
+        // The permit is returned, so the next call goes through
+        assertEquals(200, client.execute(get("wallet-service"), OPTIONS).status());
+    }
+
+    @Test
+    void testExecute_BulkheadsIsolatedPerDownstream() throws Exception {
+        // Given - wallet-service's only slot is taken
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Client blocking = (request, options) -> {
+            if (request.requestTemplate().feignTarget().name().equals("wallet-service")) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return response(request, 200);
+        };
+        ResilientClient client = new ResilientClient(blocking, bulkheads(1), circuitBreakers(10),
+                new RetryBudgets(0.1, 0, 10), 2, 0);
+        caller.submit(() -> client.execute(get("wallet-service"), OPTIONS));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        Response response = client.execute(get("user-service"), OPTIONS);
+
+        // Then
+        assertEquals(200, response.status());
+        release.countDown();
+    }
+
+    @Test
+    void testExecute_OpenCircuitFailsFast() throws IOException {
+        // Given - two server errors open the breaker
+        outcomes.add(500);
+        outcomes.add(500);
+        ResilientClient client = new ResilientClient(scripted, bulkheads(10), circuitBreakers(2),
+                new RetryBudgets(0.1, 0, 10), 0, 0);
+        client.execute(post("wallet-service"), OPTIONS);
+        client.execute(post("wallet-service"), OPTIONS);
+
+        // When / Then - the delegate is not called again
+        assertThrows(CallNotPermittedException.class, () -> client.execute(post("wallet-service"), OPTIONS));
+        assertEquals(2, calls.get());
+    }
+
+    private static ResilientClient client(Client delegate, RetryBudgets budgets, int maxRetries) {
+        return new ResilientClient(delegate, bulkheads(10), circuitBreakers(10), budgets, maxRetries, 0);
+    }
+
+    private static BulkheadRegistry bulkheads(int maxConcurrentCalls) {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    // Opens once the last `window` calls are at least half failures
+    private static CircuitBreakerRegistry circuitBreakers(int window) {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(window)
+                .minimumNumberOfCalls(window)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+    }
+
+    private static Request get(String downstream) {
+        return request(Request.HttpMethod.GET, downstream, null);
+    }
+
+    private static Request post(String downstream) {
+        return request(Request.HttpMethod.POST, downstream, "{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Request request(Request.HttpMethod method, String downstream, byte[] body) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Object.class, downstream, "http://" + downstream));
+        return Request.create(method, "http://" + downstream + "/api/wallets", Map.of(), body,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private static Response response(Request request, int status) {
+        return Response.builder().status(status).request(request).headers(Map.of()).build();
+    }
+}
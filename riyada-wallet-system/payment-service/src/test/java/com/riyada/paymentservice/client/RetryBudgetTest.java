@@ -0,0 +1,83 @@
+package com.riyada.paymentservice.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void testTryRetry_ExhaustedAfterStartingBalance() {
+        // Given - no time-based refill
+        RetryBudget budget = new RetryBudget(0.1, 0, 3);
+
+        // When / Then
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+        assertEquals(3, budget.getRetriesAllowed());
+        assertEquals(1, budget.getRetriesDenied());
+    }
+
+    @Test
+    void testOnRequest_EarnsRatioOfARetry() {
+        // Given - an exhausted budget
+        RetryBudget budget = new RetryBudget(0.5, 0, 1);
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+
+        // When - two requests at ratio 0.5 earn one retry
+        budget.onRequest();
+        assertFalse(budget.tryRetry());
+        budget.onRequest();
+
+        // Then
+        assertTrue(budget.tryRetry());
+        assertEquals(2, budget.getRequests());
+    }
+
+    @Test
+    void testOnRequest_BalanceCapped() {
+        // Given
+        RetryBudget budget = new RetryBudget(1.0, 0, 2);
+
+        // When - a burst of traffic cannot bank more than the cap
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        // Then
+        assertEquals(2.0, budget.getBalance(), 1e-9);
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    void testTryRetry_RefillsOverTime() throws InterruptedException {
+        // Given - an exhausted budget refilling 100 retries a second
+        RetryBudget budget = new RetryBudget(0, 100, 1);
+        assertTrue(budget.tryRetry());
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertTrue(budget.tryRetry());
+    }
+
+    @Test
+    void testBudgets_OnePerDownstream() {
+        // Given
+        RetryBudgets budgets = new RetryBudgets(0, 0, 1);
+
+        // When
+        assertTrue(budgets.budget("wallet-service").tryRetry());
+        assertFalse(budgets.budget("wallet-service").tryRetry());
+
+        // Then - exhausting one downstream leaves the other untouched
+        assertTrue(budgets.budget("user-service").tryRetry());
+        assertEquals(2, budgets.all().size());
+    }
+}
@@ -0,0 +1,194 @@
+package com.riyada.paymentservice.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the pooled OkHttp client from feign-http settings and runs it
+ * against an in-process HTTP server
+ */
+class FeignHttpClientConfigTest {
+
+    private HttpServer server;
+    private String url;
+    private SimpleMeterRegistry registry;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blocking;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void testProperties_BindApplicationYaml() throws IOException {
+        // Given
+        StandardEnvironment environment = new StandardEnvironment();
+        for (PropertySource<?> source : new YamlPropertySourceLoader()
+                .load("application", new ClassPathResource("application.yml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+
+        // When
+        FeignHttpClientProperties properties = Binder.get(environment)
+                .bind("feign-http", FeignHttpClientProperties.class).get();
+
+        // Then - method keys keep their "#", so PerMethodOptionsClient finds them
+        assertEquals(1000, properties.getConnectTimeoutMs());
+        assertEquals(5000, properties.getReadTimeoutMs());
+        assertEquals(64, properties.getPool().getMaxRequestsPerHost());
+        assertEquals(30000, properties.getMethods().get("UserServiceClient#getUserDirectory").getReadTimeoutMs());
+        assertEquals(10000, properties.getMethods().get("WalletServiceClient#debitWallet").getReadTimeoutMs());
+        assertNull(properties.getMethods().get("WalletServiceClient#debitWallet").getConnectTimeoutMs());
+    }
+
+    @Test
+    void testFeignOkHttpClient_AppliesTimeoutsAndNeverReplays() {
+        // Given
+        FeignHttpClientProperties properties = new FeignHttpClientProperties();
+        properties.setConnectTimeoutMs(250);
+        properties.setReadTimeoutMs(750);
+
+        // When
+        OkHttpClient client = client(properties);
+
+        // Then
+        assertEquals(250, client.connectTimeoutMillis());
+        assertEquals(750, client.readTimeoutMillis());
+        assertFalse(client.retryOnConnectionFailure());
+        assertFalse(client.followRedirects());
+        assertEquals(List.of(Protocol.HTTP_1_1), client.protocols());
+    }
+
+    @Test
+    void testFeignOkHttpClient_H2cUsesPriorKnowledge() {
+        // Given
+        FeignHttpClientProperties properties = new FeignHttpClientProperties();
+        properties.setH2c(true);
+
+        // When
+        OkHttpClient client = client(properties);
+
+        // Then
+        assertEquals(List.of(Protocol.H2_PRIOR_KNOWLEDGE), client.protocols());
+    }
+
+    @Test
+    void testFeignOkHttpClient_ReusesKeepAliveConnection() throws IOException {
+        // Given
+        OkHttpClient client = client(new FeignHttpClientProperties());
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                assertEquals(200, response.code());
+                response.body().string();
+            }
+        }
+
+        // Then
+        assertEquals(1, client.connectionPool().connectionCount());
+    }
+
+    @Test
+    void testFeignOkHttpClient_CapsInFlightRequestsPerHost() throws Exception {
+        // Given - one slot per host, and a server that holds the first request
+        FeignHttpClientProperties properties = new FeignHttpClientProperties();
+        properties.getPool().setMaxRequestsPerHost(1);
+        properties.getPool().setAcquireTimeoutMs(100);
+        OkHttpClient client = client(properties);
+        blocking = true;
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<Integer> first = caller.submit(() -> {
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                return response.code();
+            }
+        });
+        waitForInFlight();
+
+        // When
+        IOException e = assertThrows(IOException.class,
+                () -> client.newCall(new Request.Builder().url(url).build()).execute());
+
+        // Then
+        assertEquals("Too many concurrent requests to 127.0.0.1:" + server.getAddress().getPort(), e.getMessage());
+        release.countDown();
+        assertEquals(200, first.get(5, TimeUnit.SECONDS));
+        caller.shutdown();
+    }
+
+    private OkHttpClient client(FeignHttpClientProperties properties) {
+        return new FeignHttpClientConfig().feignOkHttpClient(properties, meterRegistry());
+    }
+
+    private ObjectProvider<MeterRegistry> meterRegistry() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        return beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+
+    private void waitForInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Gauge gauge = registry.find("feign.client.requests.in.flight").gauge();
+            if (gauge != null && gauge.value() == 1) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("First request never went in flight");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (blocking) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = "{}".getBytes();
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
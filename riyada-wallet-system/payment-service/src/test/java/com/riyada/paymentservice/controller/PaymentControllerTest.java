@@ -0,0 +1,129 @@
+package com.riyada.paymentservice.controller;
+
+import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentControllerTest {
+
+    private static final String REFERENCE = "PAY01HV5K3M7Q8XZ4N2";
+
+    @Mock
+    private PaymentService paymentService;
+
+    @InjectMocks
+    private PaymentController paymentController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentController, "statusClientMaxAgeSeconds", 300L);
+        mockMvc = MockMvcBuilders.standaloneSetup(paymentController).build();
+    }
+
+    @Test
+    void testGetPaymentStatus_MatchingETagReturns304() throws Exception {
+        // Given
+        when(paymentService.getPaymentStatusByReference(REFERENCE))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.PROCESSING, null, null));
+        String etag = getStatus(null);
+
+        // When & Then - an unchanged status sends no body
+        mockMvc.perform(get("/api/payments/status/" + REFERENCE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetPaymentStatus_TransitionChangesETag() throws Exception {
+        // Given - a poller holding the ETag of the in-flight status
+        LocalDateTime processedAt = LocalDateTime.now();
+        when(paymentService.getPaymentStatusByReference(REFERENCE))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.PROCESSING, null, null))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.FAILED, "Insufficient balance", processedAt));
+        String inFlight = getStatus(null);
+
+        // When
+        String failed = getStatus(inFlight);
+
+        // Then
+        assertNotEquals(inFlight, failed);
+        assertTrue(failed.startsWith("W/\"FAILED-"));
+    }
+
+    @Test
+    void testGetPaymentStatus_ETagCoversProcessedAtAndFailureReason() throws Exception {
+        // Given - same status, different outcome details
+        LocalDateTime processedAt = LocalDateTime.now();
+        when(paymentService.getPaymentStatusByReference(REFERENCE))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.FAILED, "Insufficient balance", processedAt))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.FAILED, "Recipient not found", processedAt))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.FAILED, "Recipient not found",
+                        processedAt.plusSeconds(1)));
+
+        // When
+        String first = getStatus(null);
+        String reason = getStatus(first);
+        String time = getStatus(reason);
+
+        // Then
+        assertNotEquals(first, reason);
+        assertNotEquals(reason, time);
+    }
+
+    @Test
+    void testGetPaymentStatus_CacheControlByStatus() throws Exception {
+        // Given
+        when(paymentService.getPaymentStatusByReference(REFERENCE))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.PROCESSING, null, null))
+                .thenReturn(paymentStatus(Payment.PaymentStatus.COMPLETED, null, LocalDateTime.now()));
+
+        // When & Then - in-flight is revalidated, final may be reused
+        mockMvc.perform(get("/api/payments/status/" + REFERENCE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        mockMvc.perform(get("/api/payments/status/" + REFERENCE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, private"));
+    }
+
+    /**
+     * GET the status, sending the ETag if given, and expect a full response
+     */
+    private String getStatus(String ifNoneMatch) throws Exception {
+        var request = get("/api/payments/status/" + REFERENCE);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static PaymentStatusDTO paymentStatus(Payment.PaymentStatus status, String failureReason,
+            LocalDateTime processedAt) {
+        return new PaymentStatusDTO(UUID.randomUUID(), REFERENCE, status, failureReason, processedAt);
+    }
+}
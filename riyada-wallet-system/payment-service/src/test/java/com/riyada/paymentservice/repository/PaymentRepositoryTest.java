@@ -0,0 +1,81 @@
+package com.riyada.paymentservice.repository;
+
+import com.riyada.paymentservice.entity.Payment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class PaymentRepositoryTest {
+
+    private static final String REASON = "Payment was not processed in time, please retry";
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private Payment persistPayment(Payment.PaymentStatus status, LocalDateTime createdAt) {
+        Payment payment = new Payment(UUID.randomUUID(), UUID.randomUUID(), "recipient@example.com",
+                new BigDecimal("25.00"), "Transfer");
+        payment.setStatus(status);
+        payment = entityManager.persistFlushFind(payment);
+        // createdAt is set by Hibernate on insert, so backdate it afterwards
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Payment p SET p.createdAt = :createdAt WHERE p.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", payment.getId())
+                .executeUpdate();
+        entityManager.clear();
+        return payment;
+    }
+
+    @Test
+    void testFailPendingCreatedBefore_FailsOnlyStalePending() {
+        // Given
+        Payment stale = persistPayment(Payment.PaymentStatus.PENDING, now.minusMinutes(30));
+        Payment fresh = persistPayment(Payment.PaymentStatus.PENDING, now.minusMinutes(1));
+
+        // When
+        int failed = paymentRepository.failPendingCreatedBefore(now.minusMinutes(15), REASON, now);
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, failed);
+        Payment staleAfter = paymentRepository.findById(stale.getId()).orElseThrow();
+        assertEquals(Payment.PaymentStatus.FAILED, staleAfter.getStatus());
+        assertEquals(REASON, staleAfter.getFailureReason());
+        assertEquals(now, staleAfter.getProcessedAt());
+        assertEquals(Payment.PaymentStatus.PENDING,
+                paymentRepository.findById(fresh.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFailPendingCreatedBefore_LeavesPickedUpPaymentsAlone() {
+        // Given - old payments a worker already picked up or finished
+        Payment processing = persistPayment(Payment.PaymentStatus.PROCESSING, now.minusMinutes(30));
+        Payment completed = persistPayment(Payment.PaymentStatus.COMPLETED, now.minusMinutes(30));
+
+        // When
+        int failed = paymentRepository.failPendingCreatedBefore(now.minusMinutes(15), REASON, now);
+        entityManager.clear();
+
+        // Then
+        assertEquals(0, failed);
+        assertEquals(Payment.PaymentStatus.PROCESSING,
+                paymentRepository.findById(processing.getId()).orElseThrow().getStatus());
+        assertEquals(Payment.PaymentStatus.COMPLETED,
+                paymentRepository.findById(completed.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,117 @@
+package com.riyada.paymentservice.repository;
+
+import com.riyada.paymentservice.entity.ScheduledPayment;
+import com.riyada.paymentservice.entity.SchedulerLease;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ScheduledPaymentRepositoryTest {
+
+    private static final String LEASE = "scheduled-payments";
+
+    @Autowired
+    private ScheduledPaymentRepository scheduledPaymentRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private ScheduledPayment persistSchedule(LocalDateTime nextRunAt) {
+        ScheduledPayment schedule = new ScheduledPayment();
+        schedule.setFromUserId(UUID.randomUUID());
+        schedule.setToUserId(UUID.randomUUID());
+        schedule.setToEmail("recipient@example.com");
+        schedule.setAmount(new BigDecimal("25.00"));
+        schedule.setCurrency("USD");
+        schedule.setFrequency(ScheduledPayment.Frequency.DAILY);
+        schedule.setStartAt(nextRunAt);
+        schedule.setNextRunAt(nextRunAt);
+        schedule.setStatus(ScheduledPayment.ScheduleStatus.ACTIVE);
+        return entityManager.persistFlushFind(schedule);
+    }
+
+    @Test
+    void testClaimRun_OnlyFirstClaimOfADueRunWins() {
+        // Given
+        ScheduledPayment schedule = persistSchedule(now);
+
+        // When - two runners claim the same due run
+        int first = scheduledPaymentRepository.claimRun(schedule.getId(), now, now.plusDays(1),
+                ScheduledPayment.ScheduleStatus.ACTIVE, now);
+        int second = scheduledPaymentRepository.claimRun(schedule.getId(), now, now.plusDays(1),
+                ScheduledPayment.ScheduleStatus.ACTIVE, now);
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(0, second);
+        ScheduledPayment claimed = scheduledPaymentRepository.findById(schedule.getId()).orElseThrow();
+        assertEquals(now.plusDays(1), claimed.getNextRunAt());
+        assertEquals(1, claimed.getRunCount());
+    }
+
+    @Test
+    void testClaimRun_LastRunCompletesAndBlocksFurtherClaims() {
+        ScheduledPayment schedule = persistSchedule(now);
+
+        assertEquals(1, scheduledPaymentRepository.claimRun(schedule.getId(), now, null,
+                ScheduledPayment.ScheduleStatus.COMPLETED, now));
+        entityManager.clear();
+
+        ScheduledPayment completed = scheduledPaymentRepository.findById(schedule.getId()).orElseThrow();
+        assertEquals(ScheduledPayment.ScheduleStatus.COMPLETED, completed.getStatus());
+        assertNull(completed.getNextRunAt());
+        assertEquals(0, scheduledPaymentRepository.claimRun(schedule.getId(), now, null,
+                ScheduledPayment.ScheduleStatus.COMPLETED, now));
+    }
+
+    @Test
+    void testClaimRun_CancelledScheduleCannotBeClaimed() {
+        ScheduledPayment schedule = persistSchedule(now);
+
+        assertEquals(1, scheduledPaymentRepository.cancelActive(schedule.getId(), now));
+
+        assertEquals(0, scheduledPaymentRepository.claimRun(schedule.getId(), now, now.plusDays(1),
+                ScheduledPayment.ScheduleStatus.ACTIVE, now));
+    }
+
+    @Test
+    void testTryAcquire_HeldLeaseIsExclusiveUntilItExpires() {
+        // Given - instance A holds the lease for a minute
+        entityManager.persistAndFlush(new SchedulerLease(LEASE, null, now.minusSeconds(1)));
+        assertEquals(1, schedulerLeaseRepository.tryAcquire(LEASE, "a", now.plusSeconds(60), now));
+
+        // Then - B cannot take it, A can renew it
+        assertEquals(0, schedulerLeaseRepository.tryAcquire(LEASE, "b", now.plusSeconds(60), now));
+        assertEquals(1, schedulerLeaseRepository.tryAcquire(LEASE, "a", now.plusSeconds(120), now));
+
+        // Then - once it has expired, B takes it over
+        assertEquals(1, schedulerLeaseRepository.tryAcquire(LEASE, "b", now.plusSeconds(200),
+                now.plusSeconds(121)));
+    }
+
+    @Test
+    void testRelease_LetsAnotherInstanceTakeOverAtOnce() {
+        entityManager.persistAndFlush(new SchedulerLease(LEASE, null, now.minusSeconds(1)));
+        schedulerLeaseRepository.tryAcquire(LEASE, "a", now.plusSeconds(60), now);
+
+        assertEquals(0, schedulerLeaseRepository.release(LEASE, "b", now));
+        assertEquals(1, schedulerLeaseRepository.release(LEASE, "a", now.minusSeconds(1)));
+
+        assertEquals(1, schedulerLeaseRepository.tryAcquire(LEASE, "b", now.plusSeconds(60), now));
+    }
+}
@@ -0,0 +1,189 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.client.WalletServiceClient;
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.entity.PaymentBatch;
+import com.riyada.paymentservice.event.PaymentEventPublisher;
+import com.riyada.paymentservice.repository.PaymentBatchRepository;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs one-leg batches through executeBatch with the worker lanes run
+ * inline, to cover what happens when the recipient's credit call fails
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchPaymentServiceTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentBatchRepository paymentBatchRepository;
+
+    @Mock
+    private WalletServiceClient walletServiceClient;
+
+    @Mock
+    private PaymentWorkerPool paymentWorkerPool;
+
+    @Mock
+    private PaymentStatusCache paymentStatusCache;
+
+    @Mock
+    private PaymentStatusNotifier paymentStatusNotifier;
+
+    @Mock
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Mock
+    private PaymentKpis paymentKpis;
+
+    @Mock
+    private VelocityService velocityService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JwtConfig jwtConfig;
+
+    @InjectMocks
+    private BatchPaymentService batchPaymentService;
+
+    private final UUID sender = UUID.randomUUID();
+    private final UUID recipient = UUID.randomUUID();
+    private final PaymentBatch batch = new PaymentBatch(sender, 1, AMOUNT, "Payroll");
+    private final Payment leg = new Payment();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchPaymentService, "walletChunkSize", 500);
+        ReflectionTestUtils.setField(batchPaymentService, "flushSize", 100);
+        ReflectionTestUtils.setField(batchPaymentService, "walletTokenValidityMinutes", 10L);
+
+        batch.setId(UUID.randomUUID());
+        batch.setReferenceId("BAT-1");
+        leg.setId(UUID.randomUUID());
+        leg.setReferenceId("PAY-1");
+        leg.setFromUserId(sender);
+        leg.setToUserId(recipient);
+        leg.setAmount(AMOUNT);
+        leg.setStatus(Payment.PaymentStatus.PROCESSING);
+
+        when(paymentBatchRepository.findById(batch.getId())).thenReturn(Optional.of(batch));
+        when(paymentRepository.findByBatchIdAndStatusOrderByReferenceIdAsc(batch.getId(),
+                Payment.PaymentStatus.PROCESSING)).thenReturn(List.of(leg));
+        when(jwtConfig.generateServiceToken(anyString(), anyLong())).thenReturn("service-token");
+        when(walletServiceClient.debitWalletBatch(eq(sender.toString()), any(), eq("Bearer service-token")))
+                .thenReturn(Map.of("success", true));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(paymentWorkerPool).submit(any(), any());
+    }
+
+    @Test
+    void testExecuteBatch_RejectedCreditReversed() {
+        // Given
+        when(walletServiceClient.creditWallet(eq(recipient.toString()), eq(AMOUNT), anyString(), eq("PAY-1"),
+                eq("Bearer service-token"))).thenReturn(Map.of("success", false, "message", "Wallet is not active"));
+        givenReversalSucceeds();
+
+        // When
+        batchPaymentService.executeBatch(batch.getId(), 0L);
+
+        // Then - a rejected credit is not looked up
+        verify(walletServiceClient, never()).getWalletTransactions(anyString(), anyString(), anyString());
+        verify(walletServiceClient).creditWalletBatch(eq(sender.toString()), any(), eq("Bearer service-token"));
+        verify(paymentRepository).settleBatchLegs(eq(List.of(leg.getId())), eq(Payment.PaymentStatus.FAILED),
+                anyString(), any());
+    }
+
+    @Test
+    void testExecuteBatch_CreditTimeoutButAppliedCompletes() {
+        // Given - the credit went through but its response was lost
+        givenCreditTimesOut();
+        when(walletServiceClient.getWalletTransactions(recipient.toString(), "PAY-1", "Bearer service-token"))
+                .thenReturn(Map.of("success", true, "transactions", List.of(Map.of("transactionType", "CREDIT"))));
+
+        // When
+        batchPaymentService.executeBatch(batch.getId(), 0L);
+
+        // Then
+        verify(walletServiceClient, never()).creditWalletBatch(anyString(), any(), anyString());
+        verify(paymentRepository).settleBatchLegs(eq(List.of(leg.getId())), eq(Payment.PaymentStatus.COMPLETED),
+                isNull(), any());
+        verify(velocityService, never()).release(any(), any(), anyLong());
+    }
+
+    @Test
+    void testExecuteBatch_CreditTimeoutNotAppliedReversed() {
+        // Given
+        givenCreditTimesOut();
+        when(walletServiceClient.getWalletTransactions(recipient.toString(), "PAY-1", "Bearer service-token"))
+                .thenReturn(Map.of("success", true, "transactions", List.of()));
+        givenReversalSucceeds();
+
+        // When
+        batchPaymentService.executeBatch(batch.getId(), 0L);
+
+        // Then
+        verify(walletServiceClient).creditWalletBatch(eq(sender.toString()), any(), eq("Bearer service-token"));
+        verify(paymentRepository).settleBatchLegs(eq(List.of(leg.getId())), eq(Payment.PaymentStatus.FAILED),
+                anyString(), any());
+        verify(velocityService).release(sender, AMOUNT, 0L);
+    }
+
+    @Test
+    void testExecuteBatch_CreditUncheckableLeftProcessing() {
+        // Given - wallet-service cannot be asked either
+        givenCreditTimesOut();
+        when(walletServiceClient.getWalletTransactions(recipient.toString(), "PAY-1", "Bearer service-token"))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        // When
+        batchPaymentService.executeBatch(batch.getId(), 0L);
+
+        // Then - neither reversed nor settled; reconciliation decides
+        verify(walletServiceClient, never()).creditWalletBatch(anyString(), any(), anyString());
+        verify(paymentRepository, never()).settleBatchLegs(any(), any(), any(), any());
+        assertEquals(Payment.PaymentStatus.PROCESSING, leg.getStatus());
+    }
+
+    private void givenCreditTimesOut() {
+        when(walletServiceClient.creditWallet(eq(recipient.toString()), eq(AMOUNT), anyString(), eq("PAY-1"),
+                eq("Bearer service-token"))).thenAnswer(invocation -> {
+                    throw new SocketTimeoutException("Read timed out");
+                });
+    }
+
+    private void givenReversalSucceeds() {
+        when(walletServiceClient.creditWalletBatch(eq(sender.toString()), any(), eq("Bearer service-token")))
+                .thenReturn(Map.of("success", true));
+    }
+}
@@ -0,0 +1,230 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.dto.PaymentResponseDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "key-1";
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private final UUID sender = UUID.randomUUID();
+    private final PaymentRequestDTO request = new PaymentRequestDTO("bob@example.com", new BigDecimal("25.00"),
+            "Lunch");
+    private final AtomicInteger transfers = new AtomicInteger();
+    private final ExecutorService caller = Executors.newSingleThreadExecutor();
+    private final ExecutorService duplicateCaller = Executors.newSingleThreadExecutor();
+
+    private final Function<PaymentResponseDTO, ResponseEntity<?>> replay = payment -> ResponseEntity
+            .status(HttpStatus.CREATED).body(Map.of("success", true, "referenceId", payment.getReferenceId()));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMillis", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        caller.shutdownNow();
+        duplicateCaller.shutdownNow();
+    }
+
+    @Test
+    void testExecute_NewKeyRunsTransfer() {
+        // Given
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY)).thenReturn(Optional.empty());
+
+        // When
+        ResponseEntity<?> response = idempotencyService.execute(sender, KEY, request, transfer("PAY-1"), replay);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, transfers.get());
+        assertNull(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testExecute_StoredPaymentReplayed() {
+        // Given - the same request, amount written differently
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY))
+                .thenReturn(Optional.of(stored("Bob@Example.com", new BigDecimal("25"), "Lunch")));
+
+        // When
+        ResponseEntity<?> response = idempotencyService.execute(sender, KEY, request, transfer("PAY-2"), replay);
+
+        // Then
+        assertEquals(0, transfers.get());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("PAY-1", ((Map<?, ?>) response.getBody()).get("referenceId"));
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testExecute_StoredPaymentForDifferentRequestRejected() {
+        // Given
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY))
+                .thenReturn(Optional.of(stored("bob@example.com", new BigDecimal("30.00"), "Lunch")));
+
+        // When
+        ResponseEntity<?> response = idempotencyService.execute(sender, KEY, request, transfer("PAY-2"), replay);
+
+        // Then
+        assertEquals(0, transfers.get());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals("IDEMPOTENCY_KEY_REUSED", ((Map<?, ?>) response.getBody()).get("error"));
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicateGetsFirstResponse() throws Exception {
+        // Given - the first request is held inside its transfer
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY)).thenReturn(Optional.empty());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ResponseEntity<?>> first = caller.submit(() -> idempotencyService.execute(sender, KEY, request,
+                held(entered, release), replay));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When - the duplicate waits on the in-flight request
+        Future<ResponseEntity<?>> duplicate = duplicateCaller.submit(() ->
+                idempotencyService.execute(sender, KEY, request, transfer("PAY-2"), replay));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        ResponseEntity<?> original = first.get(5, TimeUnit.SECONDS);
+        ResponseEntity<?> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(1, transfers.get());
+        assertEquals(original.getBody(), replayed.getBody());
+        assertEquals(original.getStatusCode(), replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(paymentRepository, times(1)).findByFromUserIdAndIdempotencyKey(sender, KEY);
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicateTimesOutWithConflict() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMillis", 50L);
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY)).thenReturn(Optional.empty());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ResponseEntity<?>> first = caller.submit(() -> idempotencyService.execute(sender, KEY, request,
+                held(entered, release), replay));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        ResponseEntity<?> response = idempotencyService.execute(sender, KEY, request, transfer("PAY-2"), replay);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("IDEMPOTENCY_KEY_IN_PROGRESS", ((Map<?, ?>) response.getBody()).get("error"));
+        release.countDown();
+        assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(1, transfers.get());
+    }
+
+    @Test
+    void testExecute_ConcurrentDifferentRequestRejected() throws Exception {
+        // Given
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY)).thenReturn(Optional.empty());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ResponseEntity<?>> first = caller.submit(() -> idempotencyService.execute(sender, KEY, request,
+                held(entered, release), replay));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        PaymentRequestDTO other = new PaymentRequestDTO("bob@example.com", new BigDecimal("99.00"), "Lunch");
+
+        // When
+        ResponseEntity<?> response = idempotencyService.execute(sender, KEY, other, transfer("PAY-2"), replay);
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testExecute_LostRaceAnsweredFromWinnersPayment() {
+        // Given - another instance stored the payment while this one ran
+        when(paymentRepository.findByFromUserIdAndIdempotencyKey(sender, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored("bob@example.com", new BigDecimal("25.00"), "Lunch")));
+        Supplier<ResponseEntity<?>> duplicateKey = () -> {
+            transfers.incrementAndGet();
+            return ResponseEntity.badRequest().body(Map.of("success", false));
+        };
+
+        // When
+        ResponseEntity<?> response = idempotencyService.execute(sender, KEY, request, duplicateKey, replay);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("PAY-1", ((Map<?, ?>) response.getBody()).get("referenceId"));
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    private Supplier<ResponseEntity<?>> transfer(String referenceId) {
+        return () -> {
+            transfers.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success", true, "referenceId", referenceId));
+        };
+    }
+
+    private Supplier<ResponseEntity<?>> held(CountDownLatch entered, CountDownLatch release) {
+        return () -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return transfer("PAY-1").get();
+        };
+    }
+
+    private Payment stored(String toEmail, BigDecimal amount, String description) {
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setReferenceId("PAY-1");
+        payment.setFromUserId(sender);
+        payment.setToEmail(toEmail);
+        payment.setAmount(amount);
+        payment.setDescription(description);
+        payment.setIdempotencyKey(KEY);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        return payment;
+    }
+}
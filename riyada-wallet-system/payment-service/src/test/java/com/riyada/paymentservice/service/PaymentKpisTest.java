@@ -0,0 +1,147 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.util.KpiAccumulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks what reaches the payment_transfers series by draining the
+ * accumulator directly; transaction outcomes are driven by hand
+ */
+class PaymentKpisTest {
+
+    private PaymentKpis paymentKpis;
+
+    @BeforeEach
+    void setUp() {
+        paymentKpis = new PaymentKpis();
+        ReflectionTestUtils.setField(paymentKpis, "enabled", true);
+        ReflectionTestUtils.setField(paymentKpis, "url", "http://localhost:8086");
+        ReflectionTestUtils.setField(paymentKpis, "org", "riyada");
+        ReflectionTestUtils.setField(paymentKpis, "bucket", "riyada_metrics");
+        ReflectionTestUtils.setField(paymentKpis, "token", "");
+        ReflectionTestUtils.setField(paymentKpis, "batchLines", 5000);
+        ReflectionTestUtils.setField(paymentKpis, "maxBufferedLines", 100000);
+        ReflectionTestUtils.setField(paymentKpis, "timeoutMillis", 5000L);
+        paymentKpis.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecordFinished_CountsByOutcomeAndKind() {
+        // Given
+        UUID batchId = UUID.randomUUID();
+
+        // When
+        paymentKpis.recordFinished(List.of(
+                payment(Payment.PaymentStatus.COMPLETED, "10.00", null),
+                payment(Payment.PaymentStatus.COMPLETED, "5.00", null),
+                payment(Payment.PaymentStatus.COMPLETED, "1.00", batchId),
+                payment(Payment.PaymentStatus.FAILED, "2.50", batchId)));
+
+        // Then
+        List<String> lines = drain();
+        assertEquals(3, lines.size());
+        assertSeries(lines.get(0), "completed", "single", "count=2i,amount=15.00");
+        assertSeries(lines.get(1), "completed", "batch", "count=1i,amount=1.00");
+        assertSeries(lines.get(2), "failed", "batch", "count=1i,amount=2.50");
+    }
+
+    @Test
+    void testRecordFinished_IgnoresUnfinishedStatuses() {
+        // When
+        paymentKpis.recordFinished(payment(Payment.PaymentStatus.PENDING, "10.00", null));
+        paymentKpis.recordFinished(payment(Payment.PaymentStatus.PROCESSING, "10.00", null));
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    void testRecordFinished_DeferredUntilCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        paymentKpis.recordFinished(payment(Payment.PaymentStatus.FAILED, "10.00", null));
+
+        // Then
+        assertTrue(drain().isEmpty());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        List<String> lines = drain();
+        assertEquals(1, lines.size());
+        assertSeries(lines.get(0), "failed", "single", "count=1i,amount=10.00");
+    }
+
+    @Test
+    void testRecordFinished_RolledBackNotCounted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        paymentKpis.recordFinished(payment(Payment.PaymentStatus.COMPLETED, "10.00", null));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    void testRecordFinished_Disabled() {
+        // Given
+        ReflectionTestUtils.setField(paymentKpis, "enabled", false);
+
+        // When
+        paymentKpis.recordFinished(payment(Payment.PaymentStatus.COMPLETED, "10.00", null));
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    private List<String> drain() {
+        KpiAccumulator accumulator = (KpiAccumulator) ReflectionTestUtils.getField(paymentKpis, "accumulator");
+        return accumulator.drain(1L);
+    }
+
+    private static void assertSeries(String line, String outcome, String kind, String fields) {
+        assertTrue(line.startsWith("payment_transfers,outcome=" + outcome + ",kind=" + kind
+                + ",service=payment-service,instance="), line);
+        assertTrue(line.endsWith(" " + fields + " 1"), line);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static Payment payment(Payment.PaymentStatus status, String amount, UUID batchId) {
+        Payment payment = new Payment(UUID.randomUUID(), UUID.randomUUID(), "recipient@example.com",
+                new BigDecimal(amount), "Transfer");
+        payment.setStatus(status);
+        payment.setBatchId(batchId);
+        return payment;
+    }
+}
@@ -0,0 +1,196 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.client.UserServiceClient;
+import com.riyada.paymentservice.client.WalletServiceClient;
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentStatusCache paymentStatusCache;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private WalletServiceClient walletServiceClient;
+
+    @Mock
+    private UserDirectoryService userDirectoryService;
+
+    @Mock
+    private VelocityService velocityService;
+
+    @Mock
+    private PaymentKpis paymentKpis;
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private final ExecutorService preCheckExecutor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentService, "stalePendingMinutes", 15L);
+        ReflectionTestUtils.setField(paymentService, "preCheckExecutor", preCheckExecutor);
+        ReflectionTestUtils.setField(paymentService, "preCheckTimeoutMillis", 3000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        preCheckExecutor.shutdownNow();
+    }
+
+    @Test
+    void testProcessPayment_RunsOutsideTheCallersTransaction() throws NoSuchMethodException {
+        // When
+        Transactional transactional = PaymentService.class.getMethod("processPayment",
+                PaymentRequestDTO.class, UUID.class, String.class, String.class).getAnnotation(Transactional.class);
+
+        // Then - a caller's rollback cannot undo the stored statuses
+        assertNotNull(transactional);
+        assertEquals(Propagation.NOT_SUPPORTED, transactional.propagation());
+    }
+
+    @Test
+    void testProcessPayment_CreditRejectedStoresFailedAfterReversal() {
+        // Given
+        UUID sender = UUID.randomUUID();
+        UUID recipient = UUID.randomUUID();
+        List<Payment.PaymentStatus> saved = givenTransferTo(sender, recipient);
+        when(walletServiceClient.creditWallet(eq(recipient.toString()), any(), anyString(), anyString(), anyString()))
+                .thenReturn(Map.of("success", false));
+        when(walletServiceClient.creditWallet(eq(sender.toString()), any(), anyString(), anyString(), anyString()))
+                .thenReturn(Map.of("success", true));
+
+        // When
+        RuntimeException e = assertThrows(RuntimeException.class, () -> paymentService.processPayment(
+                new PaymentRequestDTO("bob@example.com", new BigDecimal("25.00"), "Lunch"), sender, "token", "key-1"));
+
+        // Then - the debit is reversed and FAILED is stored before the rethrow
+        assertTrue(e.getMessage().contains("Failed to credit recipient's wallet"));
+        verify(walletServiceClient).creditWallet(eq(sender.toString()), eq(new BigDecimal("25.00")),
+                anyString(), anyString(), eq("Bearer token"));
+        assertEquals(List.of(Payment.PaymentStatus.PROCESSING, Payment.PaymentStatus.FAILED), saved);
+        verify(velocityService).release(eq(sender), eq(new BigDecimal("25.00")), eq(1L));
+    }
+
+    @Test
+    void testProcessPayment_CreditErrorStoresFailed() {
+        // Given - the credit call fails outright, e.g. a read timeout
+        UUID sender = UUID.randomUUID();
+        UUID recipient = UUID.randomUUID();
+        List<Payment.PaymentStatus> saved = givenTransferTo(sender, recipient);
+        when(walletServiceClient.creditWallet(eq(recipient.toString()), any(), anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("Read timed out"));
+
+        // When
+        assertThrows(RuntimeException.class, () -> paymentService.processPayment(
+                new PaymentRequestDTO("bob@example.com", new BigDecimal("25.00"), "Lunch"), sender, "token"));
+
+        // Then - left for reconciliation as a debit that was never credited
+        assertEquals(List.of(Payment.PaymentStatus.PROCESSING, Payment.PaymentStatus.FAILED), saved);
+        ArgumentCaptor<Payment> failed = ArgumentCaptor.forClass(Payment.class);
+        verify(paymentKpis, times(2)).recordFinished(failed.capture());
+        assertEquals("Read timed out", failed.getValue().getFailureReason());
+        assertNotNull(failed.getValue().getProcessedAt());
+    }
+
+    @Test
+    void testFailStalePendingPayments_UsesConfiguredCutoff() {
+        // Given
+        when(paymentRepository.failPendingCreatedBefore(any(), anyString(), any())).thenReturn(0);
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        paymentService.failStalePendingPayments();
+
+        // Then
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentRepository).failPendingCreatedBefore(cutoff.capture(), anyString(), any());
+        assertFalse(cutoff.getValue().isBefore(before.minusMinutes(15)));
+        assertFalse(cutoff.getValue().isAfter(LocalDateTime.now().minusMinutes(15)));
+    }
+
+    @Test
+    void testFailStalePendingPayments_InvalidatesInFlightStatuses() {
+        // Given
+        when(paymentRepository.failPendingCreatedBefore(any(), anyString(), any())).thenReturn(2);
+
+        // When
+        paymentService.failStalePendingPayments();
+
+        // Then
+        verify(paymentStatusCache).invalidateInFlight();
+    }
+
+    @Test
+    void testFailStalePendingPayments_NothingStale() {
+        // Given
+        when(paymentRepository.failPendingCreatedBefore(any(), anyString(), any())).thenReturn(0);
+
+        // When
+        paymentService.failStalePendingPayments();
+
+        // Then
+        verifyNoInteractions(paymentStatusCache);
+    }
+
+    /**
+     * Stub a sender with enough balance, a known recipient and a successful
+     * debit. Returns the status of every payment save, in order.
+     */
+    private List<Payment.PaymentStatus> givenTransferTo(UUID sender, UUID recipient) {
+        when(velocityService.reserve(eq(sender), any())).thenReturn(1L);
+        when(userServiceClient.getUserProfileByEmail(eq("bob@example.com"), any()))
+                .thenReturn(Map.of("success", true, "user", Map.of("id", recipient.toString())));
+        when(walletServiceClient.getWalletBalance(eq(sender.toString()), anyString()))
+                .thenReturn(Map.of("success", true, "balance", "100.00"));
+        when(walletServiceClient.debitWallet(eq(sender.toString()), any(), anyString(), anyString(), anyString()))
+                .thenReturn(Map.of("success", true));
+        List<Payment.PaymentStatus> saved = new ArrayList<>();
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            saved.add(payment.getStatus());
+            if (payment.getId() == null) {
+                // What @PrePersist and the database fill in
+                payment.setId(UUID.randomUUID());
+                payment.setReferenceId("PAY-1");
+            }
+            return payment;
+        });
+        return saved;
+    }
+}
@@ -0,0 +1,145 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.dto.PaymentStatusDTO;
+import com.riyada.paymentservice.entity.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentStatusCacheTest {
+
+    private final PaymentStatusCache cache = new PaymentStatusCache(100, 60, 100, new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGet_LoadsOnMissOnly() {
+        // When
+        cache.get("PAY-1", () -> load(Payment.PaymentStatus.COMPLETED));
+        PaymentStatusDTO cached = cache.get("PAY-1", () -> load(Payment.PaymentStatus.COMPLETED));
+
+        // Then
+        assertEquals(Payment.PaymentStatus.COMPLETED, cached.getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testUpdate_LateInFlightWriteKeepsFinalStatus() {
+        // Given
+        cache.update(status(Payment.PaymentStatus.COMPLETED));
+
+        // When - a PROCESSING write that lost the race lands afterwards
+        cache.update(status(Payment.PaymentStatus.PROCESSING));
+
+        // Then
+        assertEquals(Payment.PaymentStatus.COMPLETED, cached("PAY-1").getStatus());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testUpdate_FinalReplacesInFlight() {
+        // Given
+        cache.update(status(Payment.PaymentStatus.PROCESSING));
+
+        // When
+        cache.update(status(Payment.PaymentStatus.FAILED));
+
+        // Then
+        assertEquals(Payment.PaymentStatus.FAILED, cached("PAY-1").getStatus());
+    }
+
+    @Test
+    void testUpdate_InFlightStatusExpiresQuickly() throws InterruptedException {
+        // Given - in-flight entries live 100ms, final ones an hour
+        cache.update(status("PAY-1", Payment.PaymentStatus.PROCESSING));
+        cache.update(status("PAY-2", Payment.PaymentStatus.COMPLETED));
+
+        // When
+        Thread.sleep(300);
+
+        // Then
+        assertEquals(Payment.PaymentStatus.FAILED, cached("PAY-1").getStatus());
+        assertEquals(Payment.PaymentStatus.COMPLETED, cached("PAY-2").getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testUpdate_DeferredUntilCommit() {
+        // Given
+        cache.update(status(Payment.PaymentStatus.PROCESSING));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When - the old status is dropped at once, the new one waits for commit
+        cache.update(status(Payment.PaymentStatus.COMPLETED));
+        assertEquals(Payment.PaymentStatus.FAILED, cached("PAY-1").getStatus());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertEquals(Payment.PaymentStatus.COMPLETED, cached("PAY-1").getStatus());
+    }
+
+    @Test
+    void testUpdate_RolledBackStatusNeverCached() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When - the transaction rolls back, so afterCommit never runs
+        cache.update(status(Payment.PaymentStatus.COMPLETED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Then
+        assertEquals(Payment.PaymentStatus.FAILED, cached("PAY-1").getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidateInFlight_KeepsFinalStatuses() {
+        // Given
+        cache.update(status("PAY-1", Payment.PaymentStatus.PENDING));
+        cache.update(status("PAY-2", Payment.PaymentStatus.COMPLETED));
+
+        // When
+        cache.invalidateInFlight();
+
+        // Then
+        assertEquals(Payment.PaymentStatus.FAILED, cached("PAY-1").getStatus());
+        assertEquals(Payment.PaymentStatus.COMPLETED, cached("PAY-2").getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Cached status, or FAILED from the loader on a miss
+     */
+    private PaymentStatusDTO cached(String referenceId) {
+        return cache.get(referenceId, () -> load(Payment.PaymentStatus.FAILED));
+    }
+
+    private Optional<PaymentStatusDTO> load(Payment.PaymentStatus status) {
+        loads.incrementAndGet();
+        return Optional.of(status(status));
+    }
+
+    private static PaymentStatusDTO status(Payment.PaymentStatus status) {
+        return status("PAY-1", status);
+    }
+
+    private static PaymentStatusDTO status(String referenceId, Payment.PaymentStatus status) {
+        return new PaymentStatusDTO(UUID.randomUUID(), referenceId, status, null,
+                status.isFinal() ? LocalDateTime.now() : null);
+    }
+}
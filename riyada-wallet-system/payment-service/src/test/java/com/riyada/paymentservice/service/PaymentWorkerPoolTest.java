@@ -0,0 +1,135 @@
+package com.riyada.paymentservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentWorkerPoolTest {
+
+    private PaymentWorkerPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private PaymentWorkerPool start(int lanes, int queueCapacity) {
+        pool = new PaymentWorkerPool();
+        ReflectionTestUtils.setField(pool, "laneCount", lanes);
+        ReflectionTestUtils.setField(pool, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(pool, "shutdownTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(pool, "meterRegistry", new SimpleMeterRegistry());
+        pool.init();
+        return pool;
+    }
+
+    @Test
+    void testSubmit_OneSendersTasksRunInSubmissionOrder() throws Exception {
+        // Given
+        start(4, 1000);
+        UUID sender = UUID.randomUUID();
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(200);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            int sequence = i;
+            pool.submit(sender, () -> {
+                executed.add(sequence);
+                done.countDown();
+            });
+        }
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    void testSubmit_OtherSendersAreNotHeldBackByABlockedLane() throws Exception {
+        // Given
+        start(4, 10);
+        UUID blockedSender = UUID.randomUUID();
+        UUID otherSender = senderOnOtherLane(blockedSender);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        // When
+        pool.submit(blockedSender, () -> await(release));
+        pool.submit(otherSender, otherRan::countDown);
+
+        // Then
+        assertTrue(otherRan.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testSubmit_FullLaneRejects() throws Exception {
+        // Given
+        start(1, 2);
+        UUID sender = UUID.randomUUID();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit(sender, () -> {
+            running.countDown();
+            await(release);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        pool.submit(sender, () -> { });
+        pool.submit(sender, () -> { });
+
+        // When / Then
+        assertEquals(2, pool.queuedTasks());
+        assertThrows(RejectedExecutionException.class, () -> pool.submit(sender, () -> { }));
+        release.countDown();
+    }
+
+    @Test
+    void testShutdown_DrainsQueuedTasks() throws Exception {
+        // Given
+        start(2, 100);
+        UUID sender = UUID.randomUUID();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            pool.submit(sender, done::countDown);
+        }
+
+        // When
+        pool.shutdown();
+
+        // Then
+        assertEquals(0, done.getCount());
+        pool = null;
+    }
+
+    private UUID senderOnOtherLane(UUID sender) {
+        UUID other = UUID.randomUUID();
+        while (pool.laneOf(other) == pool.laneOf(sender)) {
+            other = UUID.randomUUID();
+        }
+        return other;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.client.WalletServiceClient;
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.ReconciliationMismatchDTO;
+import com.riyada.paymentservice.dto.ReconciliationMismatchDTO.MismatchType;
+import com.riyada.paymentservice.dto.ReconciliationReportDTO;
+import com.riyada.paymentservice.entity.Payment;
+import com.riyada.paymentservice.event.PaymentEventPublisher;
+import com.riyada.paymentservice.repository.PaymentRepository;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Feeds ReconciliationService a scripted payments cursor and wallet-service
+ * export for a single shard
+ */
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Mock
+    private PaymentKpis paymentKpis;
+
+    @Mock
+    private WalletServiceClient walletServiceClient;
+
+    @Mock
+    private JwtConfig jwtConfig;
+
+    @Mock
+    private PaymentStatusCache paymentStatusCache;
+
+    @InjectMocks
+    private ReconciliationService reconciliationService;
+
+    private final UUID sender = UUID.randomUUID();
+    private final UUID recipient = UUID.randomUUID();
+    private final LocalDateTime now = LocalDateTime.now();
+    private final List<Object[]> payments = new ArrayList<>();
+    private final StringBuilder export = new StringBuilder();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciliationService, "shards", 1);
+        ReflectionTestUtils.setField(reconciliationService, "fetchSize", 100);
+        ReflectionTestUtils.setField(reconciliationService, "graceMinutes", 30L);
+        ReflectionTestUtils.setField(reconciliationService, "maxReported", 1000);
+        ReflectionTestUtils.setField(reconciliationService, "maxRepairs", 1000);
+        ReflectionTestUtils.setField(reconciliationService, "timeoutMinutes", 1L);
+        when(jwtConfig.generateServiceToken(anyString(), anyLong())).thenReturn("service-token");
+    }
+
+    @Test
+    void testReconcile_CompletedWithDebitAndCreditMatches() {
+        // Given
+        payment("PAY-A", Payment.PaymentStatus.COMPLETED, now.minusHours(2));
+        entry("PAY-A", sender, "DEBIT");
+        entry("PAY-A", recipient, "CREDIT");
+
+        // When
+        ReconciliationReportDTO report = reconcile(false);
+
+        // Then
+        assertEquals(1, report.getPaymentsChecked());
+        assertEquals(1, report.getMatched());
+        assertEquals(0, report.getMismatchCount());
+    }
+
+    @Test
+    void testReconcile_FailedWithReversedDebitMatches() {
+        // Given
+        payment("PAY-A", Payment.PaymentStatus.FAILED, now.minusHours(2));
+        entry("PAY-A", sender, "DEBIT");
+        entry("PAY-A", sender, "CREDIT");
+
+        // When
+        ReconciliationReportDTO report = reconcile(false);
+
+        // Then
+        assertEquals(1, report.getMatched());
+        assertEquals(0, report.getMismatchCount());
+    }
+
+    @Test
+    void testReconcile_StuckPaymentsReported() {
+        // Given - two payments left PROCESSING past the grace period
+        payment("PAY-A", Payment.PaymentStatus.PROCESSING, now.minusHours(2));
+        entry("PAY-A", sender, "DEBIT");
+        entry("PAY-A", recipient, "CREDIT");
+        payment("PAY-B", Payment.PaymentStatus.PROCESSING, now.minusHours(2));
+
+        // When
+        ReconciliationReportDTO report = reconcile(false);
+
+        // Then
+        assertEquals(List.of(MismatchType.STUCK_SETTLED, MismatchType.STUCK_UNSETTLED), types(report));
+        assertEquals(0, report.getRepaired());
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void testReconcile_RecentPaymentInFlightSkipped() {
+        // Given
+        payment("PAY-A", Payment.PaymentStatus.PROCESSING, now.minusMinutes(1));
+        entry("PAY-A", sender, "DEBIT");
+
+        // When
+        ReconciliationReportDTO report = reconcile(false);
+
+        // Then
+        assertEquals(1, report.getInFlight());
+        assertEquals(0, report.getMatched());
+        assertEquals(0, report.getMismatchCount());
+    }
+
+    @Test
+    void testReconcile_FailedPaymentWithOnlyADebitReported() {
+        // Given - the sync path stored FAILED after the credit call failed
+        payment("PAY-A", Payment.PaymentStatus.FAILED, now.minusHours(2));
+        entry("PAY-A", sender, "DEBIT");
+
+        // When
+        ReconciliationReportDTO report = reconcile(false);
+
+        // Then
+        assertEquals(List.of(MismatchType.DEBIT_NOT_CREDITED), types(report));
+        ReconciliationMismatchDTO mismatch = report.getMismatches().get(0);
+        assertEquals(1, mismatch.getDebits());
+        assertEquals(0, mismatch.getCredits());
+        assertEquals(1L, report.getMismatchesByType().get("DEBIT_NOT_CREDITED"));
+    }
+
+    @Test
+    void testReconcile_EntriesWithoutPaymentReportedAsOrphans() {
+        // Given - a payment rolled back after its debit
+        payment("PAY-A", Payment.PaymentStatus.COMPLETED, now.minusHours(2));
+        entry("PAY-A", sender, "DEBIT");
+        entry("PAY-A", recipient, "CREDIT");
+        entry("PAY-B", sender, "DEBIT");
+
+        // When
+        ReconciliationReportDTO report = reconcile(false);
+
+        // Then
+        assertEquals(1, report.getMatched());
+        assertEquals(List.of(MismatchType.ORPHAN_ENTRY), types(report));
+        ReconciliationMismatchDTO orphan = report.getMismatches().get(0);
+        assertEquals("PAY-B", orphan.getReferenceId());
+        assertNull(orphan.getPaymentId());
+        assertEquals(1, orphan.getDebits());
+    }
+
+    @Test
+    void testReconcile_RepairReversesDebitNotCredited() {
+        // Given
+        UUID paymentId = payment("PAY-A", Payment.PaymentStatus.FAILED, now.minusHours(2));
+        entry("PAY-A", sender, "DEBIT");
+        Payment stored = new Payment();
+        stored.setFromUserId(sender);
+        when(paymentRepository.reconcileStatus(eq(paymentId), eq(Payment.PaymentStatus.FAILED),
+                eq(Payment.PaymentStatus.FAILED), anyString(), any())).thenReturn(1);
+        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(stored));
+        when(walletServiceClient.creditWallet(eq(sender.toString()), eq(AMOUNT), anyString(), eq("PAY-A"),
+                eq("Bearer service-token"))).thenReturn(Map.of("success", true));
+
+        // When
+        ReconciliationReportDTO report = reconcile(true);
+
+        // Then
+        assertEquals(1, report.getRepaired());
+        assertEquals("DEBIT_REVERSED", report.getMismatches().get(0).getRepair());
+        verify(paymentStatusCache).invalidate("PAY-A");
+    }
+
+    private ReconciliationReportDTO reconcile(boolean repair) {
+        givenCursorAndExport();
+        return reconciliationService.reconcile(now.minusDays(1), now.plusHours(1), repair);
+    }
+
+    private UUID payment(String referenceId, Payment.PaymentStatus status, LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        payments.add(new Object[] { referenceId, id, sender, recipient, AMOUNT, status.name(),
+                Timestamp.valueOf(createdAt) });
+        return id;
+    }
+
+    private void entry(String referenceId, UUID userId, String type) {
+        export.append(referenceId).append('\t').append(userId).append('\t').append(type).append('\t')
+                .append(AMOUNT).append('\t').append(now.minusHours(1)).append('\n');
+    }
+
+    private static List<MismatchType> types(ReconciliationReportDTO report) {
+        return report.getMismatches().stream().map(ReconciliationMismatchDTO::getType).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCursorAndExport() {
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    List<Object> rows = new ArrayList<>();
+                    for (Object[] columns : payments) {
+                        rows.add(mapper.mapRow(resultSet(columns), rows.size()));
+                    }
+                    return Stream.of(rows.toArray());
+                });
+        when(walletServiceClient.streamReferencedTransactions(anyString(), anyString(), anyInt(), anyInt(),
+                eq("Bearer service-token")))
+                .thenReturn(Response.builder()
+                        .status(200)
+                        .headers(Map.of())
+                        .body(export.toString(), StandardCharsets.UTF_8)
+                        .request(Request.create(Request.HttpMethod.GET, "http://wallet-service", Map.of(),
+                                null, StandardCharsets.UTF_8, null))
+                        .build());
+    }
+
+    private static ResultSet resultSet(Object[] columns) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn((String) columns[0]);
+        when(rs.getObject(2, UUID.class)).thenReturn((UUID) columns[1]);
+        when(rs.getObject(3, UUID.class)).thenReturn((UUID) columns[2]);
+        when(rs.getObject(4, UUID.class)).thenReturn((UUID) columns[3]);
+        when(rs.getBigDecimal(5)).thenReturn((BigDecimal) columns[4]);
+        when(rs.getString(6)).thenReturn((String) columns[5]);
+        when(rs.getTimestamp(7)).thenReturn((Timestamp) columns[6]);
+        return rs;
+    }
+}
@@ -0,0 +1,284 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.config.JwtConfig;
+import com.riyada.paymentservice.dto.PaymentRequestDTO;
+import com.riyada.paymentservice.dto.PaymentResponseDTO;
+import com.riyada.paymentservice.entity.ScheduledPayment;
+import com.riyada.paymentservice.repository.ScheduledPaymentRepository;
+import com.riyada.paymentservice.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ScheduledPaymentSchedulerTest {
+
+    @Mock
+    private ScheduledPaymentRepository scheduledPaymentRepository;
+
+    @Mock
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private JwtConfig jwtConfig;
+
+    @InjectMocks
+    private ScheduledPaymentScheduler scheduler;
+
+    private final UUID scheduleId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(scheduler, "tokenValidityMinutes", 30L);
+        when(jwtConfig.generateServiceToken(anyString(), anyLong())).thenReturn("service-token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private void startWheel() {
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "tickMillis", 1L);
+        ReflectionTestUtils.setField(scheduler, "wheelSize", 8);
+        ReflectionTestUtils.setField(scheduler, "loadWindowSeconds", 120L);
+        ReflectionTestUtils.setField(scheduler, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(scheduler, "loadPageSize", 100);
+        ReflectionTestUtils.setField(scheduler, "maxLoaded", 1000);
+        ReflectionTestUtils.setField(scheduler, "runnerThreads", 1);
+        ReflectionTestUtils.setField(scheduler, "runnerQueueCapacity", 10);
+        scheduler.init();
+    }
+
+    private ScheduledPayment schedule(ScheduledPayment.Frequency frequency, LocalDateTime startAt,
+            LocalDateTime nextRunAt) {
+        ScheduledPayment schedule = new ScheduledPayment();
+        schedule.setId(scheduleId);
+        schedule.setFromUserId(UUID.randomUUID());
+        schedule.setToEmail("recipient@example.com");
+        schedule.setAmount(new BigDecimal("25.00"));
+        schedule.setFrequency(frequency);
+        schedule.setStartAt(startAt);
+        schedule.setNextRunAt(nextRunAt);
+        schedule.setStatus(ScheduledPayment.ScheduleStatus.ACTIVE);
+        when(scheduledPaymentRepository.findById(scheduleId)).thenReturn(Optional.of(schedule));
+        return schedule;
+    }
+
+    private void acceptAs(String referenceId) {
+        PaymentResponseDTO payment = new PaymentResponseDTO();
+        payment.setReferenceId(referenceId);
+        when(paymentService.acceptPayment(any(PaymentRequestDTO.class), any(UUID.class), eq("service-token")))
+                .thenReturn(payment);
+    }
+
+    @Test
+    void testRunDue_ClaimsMovesOnAndAcceptsPayment() {
+        // Given - a daily schedule due in the future relative to its start
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        schedule(ScheduledPayment.Frequency.DAILY, dueAt, dueAt);
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(1);
+        acceptAs("PAY1");
+
+        // When
+        scheduler.runDue(scheduleId, dueAt);
+
+        // Then
+        verify(scheduledPaymentRepository).claimRun(eq(scheduleId), eq(dueAt), eq(dueAt.plusDays(1)),
+                eq(ScheduledPayment.ScheduleStatus.ACTIVE), any());
+        verify(scheduledPaymentRepository).recordRun(scheduleId, "PAY1", null);
+    }
+
+    @Test
+    void testRunDue_MissedOccurrencesPaidOnceThenNextFutureRun() {
+        // Given - due three days ago; no instance was leading since
+        LocalDateTime startAt = LocalDateTime.now().minusDays(10);
+        LocalDateTime dueAt = startAt.plusDays(7);
+        schedule(ScheduledPayment.Frequency.DAILY, startAt, dueAt);
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(1);
+        acceptAs("PAY1");
+
+        // When
+        scheduler.runDue(scheduleId, dueAt);
+
+        // Then - one payment, and the next run is the first occurrence after now
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(scheduledPaymentRepository).claimRun(eq(scheduleId), eq(dueAt), next.capture(),
+                eq(ScheduledPayment.ScheduleStatus.ACTIVE), any());
+        assertTrue(next.getValue().isAfter(LocalDateTime.now()));
+        assertEquals(startAt.plusDays(11), next.getValue());
+        verify(paymentService).acceptPayment(any(PaymentRequestDTO.class), any(UUID.class), eq("service-token"));
+    }
+
+    @Test
+    void testRunDue_MaxRunsReachedCompletes() {
+        // Given - two of three runs done
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        ScheduledPayment schedule = schedule(ScheduledPayment.Frequency.WEEKLY, dueAt, dueAt);
+        schedule.setRunCount(2);
+        schedule.setMaxRuns(3);
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(1);
+        acceptAs("PAY3");
+
+        // When
+        scheduler.runDue(scheduleId, dueAt);
+
+        // Then
+        verify(scheduledPaymentRepository).claimRun(eq(scheduleId), eq(dueAt), isNull(),
+                eq(ScheduledPayment.ScheduleStatus.COMPLETED), any());
+        verify(scheduledPaymentRepository).recordRun(scheduleId, "PAY3", null);
+    }
+
+    @Test
+    void testRunDue_NextRunPastEndCompletes() {
+        // Given - the following occurrence would fall after the end date
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        ScheduledPayment schedule = schedule(ScheduledPayment.Frequency.MONTHLY, dueAt, dueAt);
+        schedule.setEndAt(dueAt.plusDays(10));
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(1);
+        acceptAs("PAY1");
+
+        // When
+        scheduler.runDue(scheduleId, dueAt);
+
+        // Then
+        verify(scheduledPaymentRepository).claimRun(eq(scheduleId), eq(dueAt), isNull(),
+                eq(ScheduledPayment.ScheduleStatus.COMPLETED), any());
+    }
+
+    @Test
+    void testRunDue_OneOffCompletes() {
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        schedule(ScheduledPayment.Frequency.ONCE, dueAt, dueAt);
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(1);
+        acceptAs("PAY1");
+
+        scheduler.runDue(scheduleId, dueAt);
+
+        verify(scheduledPaymentRepository).claimRun(eq(scheduleId), eq(dueAt), isNull(),
+                eq(ScheduledPayment.ScheduleStatus.COMPLETED), any());
+    }
+
+    @Test
+    void testRunDue_LostClaimDoesNotPay() {
+        // Given - another instance claimed this run first
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        schedule(ScheduledPayment.Frequency.DAILY, dueAt, dueAt);
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(0);
+
+        // When
+        scheduler.runDue(scheduleId, dueAt);
+
+        // Then
+        verify(paymentService, never()).acceptPayment(any(), any(), any());
+        verify(scheduledPaymentRepository, never()).recordRun(any(), any(), any());
+    }
+
+    @Test
+    void testRunDue_StaleDueTimeIsSkipped() {
+        // Given - the schedule already moved on to a later run
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        schedule(ScheduledPayment.Frequency.DAILY, dueAt, dueAt.plusDays(1));
+
+        // When
+        scheduler.runDue(scheduleId, dueAt);
+
+        // Then
+        verify(scheduledPaymentRepository, never()).claimRun(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testRunDue_CancelledScheduleIsSkipped() {
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        ScheduledPayment schedule = schedule(ScheduledPayment.Frequency.DAILY, dueAt, dueAt);
+        schedule.setStatus(ScheduledPayment.ScheduleStatus.CANCELLED);
+
+        scheduler.runDue(scheduleId, dueAt);
+
+        verify(scheduledPaymentRepository, never()).claimRun(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testRunDue_PaymentFailureRecorded() {
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        schedule(ScheduledPayment.Frequency.DAILY, dueAt, dueAt);
+        when(scheduledPaymentRepository.claimRun(eq(scheduleId), eq(dueAt), any(), any(), any())).thenReturn(1);
+        when(paymentService.acceptPayment(any(PaymentRequestDTO.class), any(UUID.class), anyString()))
+                .thenThrow(new RuntimeException("Insufficient balance"));
+
+        scheduler.runDue(scheduleId, dueAt);
+
+        verify(scheduledPaymentRepository).recordRun(scheduleId, null, "Insufficient balance");
+    }
+
+    @Test
+    void testRefresh_LeaseLostStepsDownAndClearsWheel() {
+        // Given - a running scheduler that holds the lease
+        startWheel();
+
+        when(schedulerLeaseRepository.existsById(any())).thenReturn(true);
+        when(schedulerLeaseRepository.tryAcquire(any(), any(), any(), any())).thenReturn(1, 0);
+        List<Object[]> due = List.<Object[]>of(new Object[] { scheduleId, LocalDateTime.now().plusSeconds(60) });
+        when(scheduledPaymentRepository.findDue(any(), any(), any(), any())).thenReturn(due);
+
+        scheduler.refresh();
+        assertTrue(scheduler.isLeader());
+        assertEquals(1, scheduler.loadedCount());
+
+        // When - another instance has taken the lease
+        scheduler.refresh();
+
+        // Then
+        assertFalse(scheduler.isLeader());
+        assertEquals(0, scheduler.loadedCount());
+    }
+
+    @Test
+    void testRefresh_FailureStepsDown() {
+        startWheel();
+
+        when(schedulerLeaseRepository.existsById(any())).thenReturn(true);
+        when(schedulerLeaseRepository.tryAcquire(any(), any(), any(), any()))
+                .thenReturn(1)
+                .thenThrow(new RuntimeException("database unavailable"));
+        when(scheduledPaymentRepository.findDue(any(), any(), any(), any())).thenReturn(List.of());
+
+        scheduler.refresh();
+        assertTrue(scheduler.isLeader());
+
+        scheduler.refresh();
+
+        assertFalse(scheduler.isLeader());
+    }
+}
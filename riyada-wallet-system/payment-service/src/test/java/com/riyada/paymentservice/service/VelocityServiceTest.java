@@ -0,0 +1,107 @@
+package com.riyada.paymentservice.service;
+
+import com.riyada.paymentservice.config.VelocityProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One rule of 20 transfers or 5000, over a single slot wide enough that a
+ * test never crosses into the next one
+ */
+class VelocityServiceTest {
+
+    private VelocityService velocityService;
+
+    private final UUID sender = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        VelocityProperties.Rule rule = new VelocityProperties.Rule();
+        rule.setName("test");
+        rule.setWindow(Duration.ofDays(3650));
+        rule.setSlots(1);
+        rule.setMaxCount(20);
+        rule.setMaxAmount(new BigDecimal("5000"));
+
+        VelocityProperties properties = new VelocityProperties();
+        properties.setRebuildOnStartup(false);
+        properties.setRules(List.of(rule));
+
+        velocityService = new VelocityService();
+        ReflectionTestUtils.setField(velocityService, "properties", properties);
+        velocityService.init();
+    }
+
+    @Test
+    void testReserve_RejectsTransferOverCount() {
+        for (int i = 0; i < 20; i++) {
+            velocityService.reserve(sender, new BigDecimal("1.00"));
+        }
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> velocityService.reserve(sender, new BigDecimal("1.00")));
+        assertTrue(e.getMessage().contains("no more than 20 transfers"));
+    }
+
+    @Test
+    void testReserveBatch_CountsEveryLeg() {
+        velocityService.reserve(sender, new BigDecimal("100.00"), 15);
+
+        // Five legs' worth of count is left
+        velocityService.reserve(sender, new BigDecimal("10.00"), 5);
+        assertThrows(RuntimeException.class, () -> velocityService.reserve(sender, new BigDecimal("1.00")));
+    }
+
+    @Test
+    void testReserveBatch_OverLimitCountsNothing() {
+        assertThrows(RuntimeException.class,
+                () -> velocityService.reserve(sender, new BigDecimal("100.00"), 21));
+        assertThrows(RuntimeException.class,
+                () -> velocityService.reserve(sender, new BigDecimal("5000.01"), 2));
+
+        // A rejected batch left the window empty
+        velocityService.reserve(sender, new BigDecimal("5000.00"), 20);
+    }
+
+    @Test
+    void testReleaseLeg_GivesBackOneTransferOfABatch() {
+        long reservedAt = velocityService.reserve(sender, new BigDecimal("200.00"), 20);
+        assertThrows(RuntimeException.class, () -> velocityService.reserve(sender, new BigDecimal("1.00")));
+
+        // Two legs of 10.00 failed
+        velocityService.release(sender, new BigDecimal("10.00"), reservedAt);
+        velocityService.release(sender, new BigDecimal("10.00"), reservedAt);
+
+        velocityService.reserve(sender, new BigDecimal("1.00"));
+        velocityService.reserve(sender, new BigDecimal("1.00"));
+        assertThrows(RuntimeException.class, () -> velocityService.reserve(sender, new BigDecimal("1.00")));
+    }
+
+    @Test
+    void testReleaseBatch_GivesBackTheWholeReservation() {
+        long reservedAt = velocityService.reserve(sender, new BigDecimal("5000.00"), 20);
+
+        velocityService.release(sender, new BigDecimal("5000.00"), 20, reservedAt);
+
+        velocityService.reserve(sender, new BigDecimal("5000.00"), 20);
+    }
+
+    @Test
+    void testRelease_MoreThanReservedIsIgnored() {
+        long reservedAt = velocityService.reserve(sender, new BigDecimal("10.00"), 2);
+
+        velocityService.release(sender, new BigDecimal("10.00"), 3, reservedAt);
+
+        // The two legs are still counted
+        velocityService.reserve(sender, new BigDecimal("1.00"), 18);
+        assertThrows(RuntimeException.class, () -> velocityService.reserve(sender, new BigDecimal("1.00")));
+    }
+}
@@ -0,0 +1,170 @@
+package com.riyada.paymentservice.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a real wheel with a 1 ms tick and a small ring, so delays longer
+ * than the ring span several rounds
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK_MS = 1;
+    private static final int WHEEL_SIZE = 8;
+
+    private HashedTimingWheel<String> wheel;
+
+    private final Map<String, Long> firedAt = new ConcurrentHashMap<>();
+    private final List<String> fireOrder = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.close();
+        }
+    }
+
+    private HashedTimingWheel<String> start(CountDownLatch latch) {
+        wheel = new HashedTimingWheel<>("test-wheel", TICK_MS, WHEEL_SIZE, task -> {
+            firedAt.put(task, System.nanoTime());
+            fireOrder.add(task);
+            latch.countDown();
+        });
+        return wheel;
+    }
+
+    @Test
+    void testConstructor_RoundsWheelSizeUpToPowerOfTwo() {
+        wheel = new HashedTimingWheel<>("test-wheel", TICK_MS, 5, task -> {
+        });
+
+        assertEquals(8, ((List<?>[]) ReflectionTestUtils.getField(wheel, "buckets")).length);
+    }
+
+    @Test
+    void testConstructor_RejectsNonPositiveTickOrSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>("w", 0, 8, task -> {
+        }));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>("w", 1, 0, task -> {
+        }));
+    }
+
+    @Test
+    void testSchedule_FiresAfterDelayWithinOneRound() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        start(latch);
+
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("a", 5);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAt.get("a") - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void testSchedule_WaitsOutRemainingRounds() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        start(latch);
+
+        // 60 ticks on an 8-bucket ring: the bucket comes round 7 times first
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("a", 60);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAt.get("a") - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(60));
+    }
+
+    @Test
+    void testSchedule_FiresInDeadlineOrderAcrossRounds() throws Exception {
+        CountDownLatch latch = new CountDownLatch(3);
+        start(latch);
+
+        wheel.schedule("late", 90);
+        wheel.schedule("early", 10);
+        wheel.schedule("middle", 50);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("early", "middle", "late"), fireOrder);
+    }
+
+    @Test
+    void testSchedule_OverdueFiresOnNextTick() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        start(latch);
+
+        wheel.schedule("overdue", -5_000);
+        wheel.schedule("now", 0);
+
+        assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        assertTrue(fireOrder.containsAll(List.of("overdue", "now")));
+    }
+
+    @Test
+    void testCancel_BeforeHandOverNeverFires() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        start(latch);
+
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", 20);
+        timeout.cancel();
+        wheel.schedule("marker", 40);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(timeout.isCancelled());
+        assertEquals(List.of("marker"), fireOrder);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void testCancel_WhileInBucketIsDroppedOnVisit() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        start(latch);
+
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", 30);
+        // Let the wheel move it from the hand-over queue into its bucket
+        Thread.sleep(10);
+        timeout.cancel();
+        wheel.schedule("marker", 50);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("marker"), fireOrder);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void testHandlerFailure_DoesNotStopTheWheel() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        wheel = new HashedTimingWheel<>("test-wheel", TICK_MS, WHEEL_SIZE, task -> {
+            if (task.equals("boom")) {
+                throw new IllegalStateException("handler failed");
+            }
+            latch.countDown();
+        });
+
+        wheel.schedule("boom", 1);
+        wheel.schedule("after", 10);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClose_PendingTimeoutsNeverFire() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        start(latch);
+
+        wheel.schedule("a", 50);
+        wheel.close();
+
+        assertFalse(latch.await(150, TimeUnit.MILLISECONDS));
+    }
+}
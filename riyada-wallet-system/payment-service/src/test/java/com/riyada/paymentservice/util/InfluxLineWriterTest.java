@@ -0,0 +1,164 @@
+package com.riyada.paymentservice.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the writer against an in-process stand-in for the InfluxDB write
+ * API that records each request and answers with queued status codes
+ * (204 once the queue is empty)
+ */
+class InfluxLineWriterTest {
+
+    private HttpServer server;
+    private String url;
+
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+
+    private record Request(String query, String authorization, String contentEncoding, String body) {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v2/write", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testFlush_WritesGzippedLinesWithTokenAndPrecision() {
+        InfluxLineWriter writer = writer(500, 1000);
+        writer.enqueue(List.of("payments count=1i,amount=10.00 1000", "payments count=2i,amount=5.50 2000"));
+
+        assertEquals(2, writer.flush());
+
+        Request request = requests.poll();
+        assertNotNull(request);
+        assertEquals("org=riyada&bucket=kpis&precision=ms", request.query());
+        assertEquals("Token secret", request.authorization());
+        assertEquals("gzip", request.contentEncoding());
+        assertEquals("payments count=1i,amount=10.00 1000\npayments count=2i,amount=5.50 2000\n", request.body());
+        assertEquals(0, writer.buffered());
+    }
+
+    @Test
+    void testFlush_SplitsIntoBatches() {
+        InfluxLineWriter writer = writer(2, 1000);
+        writer.enqueue(lines(5));
+
+        assertEquals(5, writer.flush());
+
+        assertEquals(List.of("m v=1i 1\nm v=2i 2\n", "m v=3i 3\nm v=4i 4\n", "m v=5i 5\n"),
+                requests.stream().map(Request::body).toList());
+    }
+
+    @Test
+    void testFlush_RetriesBatchAfter503() {
+        InfluxLineWriter writer = writer(500, 1000);
+        writer.enqueue(lines(3));
+        statuses.add(503);
+
+        // The failed batch stays buffered
+        assertEquals(0, writer.flush());
+        assertEquals(3, writer.buffered());
+        assertEquals(0, writer.dropped());
+
+        // and goes out unchanged on the next flush
+        assertEquals(3, writer.flush());
+        assertEquals(0, writer.buffered());
+        List<String> bodies = requests.stream().map(Request::body).toList();
+        assertEquals(2, bodies.size());
+        assertEquals(bodies.get(0), bodies.get(1));
+    }
+
+    @Test
+    void testFlush_RetriesBatchAfter429() {
+        InfluxLineWriter writer = writer(500, 1000);
+        writer.enqueue(lines(3));
+        statuses.add(429);
+
+        assertEquals(0, writer.flush());
+        assertEquals(3, writer.buffered());
+        assertEquals(3, writer.flush());
+    }
+
+    @Test
+    void testFlush_DropsBatchRejectedWith400AndGoesOn() {
+        InfluxLineWriter writer = writer(2, 1000);
+        writer.enqueue(lines(4));
+        statuses.add(400);
+
+        // The malformed first batch is dropped; the second is written
+        assertEquals(2, writer.flush());
+        assertEquals(0, writer.buffered());
+        assertEquals(2, writer.dropped());
+    }
+
+    @Test
+    void testEnqueue_DropsOldestPastCapacity() {
+        InfluxLineWriter writer = writer(500, 3);
+
+        writer.enqueue(lines(5));
+
+        assertEquals(3, writer.buffered());
+        assertEquals(2, writer.dropped());
+        assertEquals(3, writer.flush());
+        assertEquals("m v=3i 3\nm v=4i 4\nm v=5i 5\n", requests.poll().body());
+    }
+
+    @Test
+    void testFlush_KeepsLinesWhenServerIsDown() {
+        InfluxLineWriter writer = writer(500, 1000);
+        writer.enqueue(lines(3));
+        server.stop(0);
+
+        assertEquals(0, writer.flush());
+        assertEquals(3, writer.buffered());
+        assertEquals(0, writer.dropped());
+    }
+
+    private InfluxLineWriter writer(int batchLines, int maxBufferedLines) {
+        return new InfluxLineWriter(url, "riyada", "kpis", "secret", batchLines, maxBufferedLines,
+                Duration.ofSeconds(2));
+    }
+
+    private static List<String> lines(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> "m v=" + i + "i " + i).toList();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = new GZIPInputStream(exchange.getRequestBody())) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        requests.add(new Request(exchange.getRequestURI().getRawQuery(),
+                exchange.getRequestHeaders().getFirst("Authorization"),
+                exchange.getRequestHeaders().getFirst("Content-Encoding"), body));
+        Integer status = statuses.poll();
+        exchange.sendResponseHeaders(status != null ? status : 204, -1);
+        exchange.close();
+    }
+}
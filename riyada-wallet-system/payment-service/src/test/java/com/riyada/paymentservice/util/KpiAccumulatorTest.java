@@ -0,0 +1,106 @@
+package com.riyada.paymentservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KpiAccumulatorTest {
+
+    @Test
+    void testDrain_OneLinePerSeriesWithEvents() {
+        KpiAccumulator accumulator = new KpiAccumulator();
+        KpiAccumulator.Series completed = accumulator.series("payments", "status", "completed", "currency", "USD");
+        accumulator.series("payments", "status", "failed", "currency", "USD");
+
+        completed.record(new BigDecimal("10.00"));
+        completed.record(new BigDecimal("2.50"));
+
+        assertEquals(List.of("payments,status=completed,currency=USD count=2i,amount=12.50 1700000000000"),
+                accumulator.drain(1700000000000L));
+    }
+
+    @Test
+    void testDrain_ResetsSeries() {
+        KpiAccumulator accumulator = new KpiAccumulator();
+        KpiAccumulator.Series series = accumulator.series("payments");
+        series.record(new BigDecimal("1.00"));
+
+        assertEquals(1, accumulator.drain(1).size());
+        assertTrue(accumulator.drain(2).isEmpty());
+
+        series.record(new BigDecimal("3.00"));
+        assertEquals(List.of("payments count=1i,amount=3.00 3"), accumulator.drain(3));
+    }
+
+    @Test
+    void testRecord_RoundsToCents() {
+        KpiAccumulator accumulator = new KpiAccumulator();
+        KpiAccumulator.Series series = accumulator.series("payments");
+
+        series.record(new BigDecimal("0.005"));
+        series.record(new BigDecimal("0.004"));
+
+        assertEquals(List.of("payments count=2i,amount=0.01 1"), accumulator.drain(1));
+    }
+
+    @Test
+    void testSeries_EscapesMeasurementAndTags() {
+        KpiAccumulator accumulator = new KpiAccumulator();
+        // Measurements escape commas and spaces; tag keys and values also escape equals signs
+        accumulator.series("payment volume,eu", "pay method", "card=visa,debit").record(BigDecimal.ONE);
+
+        assertEquals(List.of("payment\\ volume\\,eu,pay\\ method=card\\=visa\\,debit count=1i,amount=1.00 1"),
+                accumulator.drain(1));
+    }
+
+    @Test
+    void testSeries_RejectsUnpairedTags() {
+        KpiAccumulator accumulator = new KpiAccumulator();
+
+        assertThrows(IllegalArgumentException.class, () -> accumulator.series("payments", "status"));
+    }
+
+    @Test
+    void testDrain_LosesNoEventRacingIt() throws Exception {
+        KpiAccumulator accumulator = new KpiAccumulator();
+        KpiAccumulator.Series series = accumulator.series("payments");
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    series.record(new BigDecimal("0.01"));
+                }
+                done.countDown();
+            });
+        }
+
+        List<String> lines = new ArrayList<>();
+        while (done.getCount() > 0) {
+            lines.addAll(accumulator.drain(1));
+        }
+        lines.addAll(accumulator.drain(1));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        long count = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        for (String line : lines) {
+            String fields = line.split(" ")[1];
+            count += Long.parseLong(fields.substring("count=".length(), fields.indexOf('i')));
+            amount = amount.add(new BigDecimal(fields.substring(fields.indexOf("amount=") + "amount=".length())));
+        }
+        assertEquals((long) threads * perThread, count);
+        assertEquals(0, new BigDecimal("2000.00").compareTo(amount));
+    }
+}
@@ -0,0 +1,133 @@
+package com.riyada.paymentservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapEmailMapTest {
+
+    @Test
+    void testPutAndGet() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        UUID userId = UUID.randomUUID();
+
+        map.put("alice@example.com", userId, true);
+
+        OffHeapEmailMap.Entry entry = map.get("alice@example.com");
+        assertNotNull(entry);
+        assertEquals(userId, entry.getUserId());
+        assertTrue(entry.isActive());
+        assertEquals(1, map.size());
+        assertNull(map.get("bob@example.com"));
+    }
+
+    @Test
+    void testGet_NormalizesCaseAndWhitespace() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        UUID userId = UUID.randomUUID();
+
+        map.put(" Alice@Example.COM ", userId, true);
+
+        assertEquals(userId, map.get("alice@example.com").getUserId());
+    }
+
+    @Test
+    void testPut_OverwritesExistingEmail() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        UUID newId = UUID.randomUUID();
+
+        map.put("alice@example.com", UUID.randomUUID(), true);
+        map.put("alice@example.com", newId, false);
+
+        OffHeapEmailMap.Entry entry = map.get("alice@example.com");
+        assertEquals(newId, entry.getUserId());
+        assertFalse(entry.isActive());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testRemove() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        map.put("alice@example.com", UUID.randomUUID(), true);
+        map.put("bob@example.com", UUID.randomUUID(), true);
+
+        assertTrue(map.remove("alice@example.com"));
+        assertFalse(map.remove("alice@example.com"));
+        assertFalse(map.remove("carol@example.com"));
+
+        assertNull(map.get("alice@example.com"));
+        assertNotNull(map.get("bob@example.com"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testRehash_KeepsAllEntriesWhenGrowing() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        int initialCapacity = capacity(map);
+        List<UUID> ids = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            UUID userId = UUID.randomUUID();
+            ids.add(userId);
+            map.put("user" + i + "@example.com", userId, i % 2 == 0);
+        }
+
+        assertTrue(capacity(map) > initialCapacity);
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            OffHeapEmailMap.Entry entry = map.get("user" + i + "@example.com");
+            assertEquals(ids.get(i), entry.getUserId());
+            assertEquals(i % 2 == 0, entry.isActive());
+        }
+    }
+
+    @Test
+    void testPut_ReusesTombstoneOfRemovedEmail() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        UUID userId = UUID.randomUUID();
+
+        map.put("alice@example.com", UUID.randomUUID(), true);
+        map.remove("alice@example.com");
+        assertEquals(1, tombstones(map));
+
+        map.put("alice@example.com", userId, true);
+
+        assertEquals(0, tombstones(map));
+        assertEquals(1, map.size());
+        assertEquals(userId, map.get("alice@example.com").getUserId());
+    }
+
+    @Test
+    void testChurn_PurgesTombstonesWithoutGrowing() {
+        OffHeapEmailMap map = new OffHeapEmailMap(16);
+        int initialCapacity = capacity(map);
+        long initialBytes = map.offHeapBytes();
+        UUID survivor = UUID.randomUUID();
+        map.put("survivor@example.com", survivor, true);
+
+        // Distinct emails, so every insert lands on a fresh slot or a tombstone
+        for (int i = 0; i < 10_000; i++) {
+            String email = "churn" + i + "@example.com";
+            map.put(email, UUID.randomUUID(), true);
+            assertTrue(map.remove(email));
+        }
+
+        assertEquals(initialCapacity, capacity(map));
+        assertEquals(initialBytes, map.offHeapBytes());
+        assertEquals(1, map.size());
+        assertEquals(survivor, map.get("survivor@example.com").getUserId());
+    }
+
+    private static int capacity(OffHeapEmailMap map) {
+        return (int) ReflectionTestUtils.getField(map, "capacity");
+    }
+
+    private static int tombstones(OffHeapEmailMap map) {
+        return (int) ReflectionTestUtils.getField(map, "tombstones");
+    }
+}
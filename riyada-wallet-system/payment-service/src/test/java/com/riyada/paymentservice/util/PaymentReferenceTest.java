@@ -0,0 +1,98 @@
+package com.riyada.paymentservice.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentReferenceTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final long TAIL_MASK = (1L << 30) - 1;
+
+    @AfterEach
+    void tearDown() {
+        // Back to the real clock after a test pinned a future millisecond
+        ReflectionTestUtils.setField(PaymentReference.class, "lastMillis", 0L);
+    }
+
+    @Test
+    void testNext_Format() {
+        // When
+        String reference = PaymentReference.next();
+
+        // Then
+        assertTrue(reference.matches("PAY[0-9A-HJKMNP-TV-Z]{16}"), reference);
+        assertTrue(PaymentReference.nextBatch().startsWith("BAT"));
+    }
+
+    @Test
+    void testNext_IsStrictlyIncreasing() {
+        // Given
+        String previous = PaymentReference.next();
+
+        // When & Then - many references per millisecond still sort in order
+        for (int i = 0; i < 50_000; i++) {
+            String next = PaymentReference.next();
+            assertTrue(next.compareTo(previous) > 0, "Expected " + next + " after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNext_IncrementsTailWithinAMillisecond() {
+        // Given - pinned to a millisecond the clock has not reached yet
+        long millis = System.currentTimeMillis() + 5000;
+        ReflectionTestUtils.setField(PaymentReference.class, "lastMillis", millis);
+        ReflectionTestUtils.setField(PaymentReference.class, "tail", 41L);
+
+        // When
+        String first = PaymentReference.next();
+        String second = PaymentReference.next();
+
+        // Then
+        assertEquals(millis, decode(first, 3, 10));
+        assertEquals(millis, decode(second, 3, 10));
+        assertEquals(42, decode(first, 13, 6));
+        assertEquals(43, decode(second, 13, 6));
+    }
+
+    @Test
+    void testNext_TailRolloverBorrowsTheNextMillisecond() {
+        // Given - the largest tail of a millisecond is used up
+        long millis = System.currentTimeMillis() + 5000;
+        ReflectionTestUtils.setField(PaymentReference.class, "lastMillis", millis);
+        ReflectionTestUtils.setField(PaymentReference.class, "tail", TAIL_MASK - 1);
+        String before = PaymentReference.next();
+
+        // When
+        String rolled = PaymentReference.next();
+
+        // Then - a fresh random tail, with room left to increment
+        assertEquals(TAIL_MASK, decode(before, 13, 6));
+        assertEquals(millis + 1, decode(rolled, 3, 10));
+        assertTrue(decode(rolled, 13, 6) <= TAIL_MASK >>> 1);
+        assertTrue(rolled.compareTo(before) > 0);
+    }
+
+    @Test
+    void testNext_SharesOrderingWithBatchReferences() {
+        // Given
+        String payment = PaymentReference.next();
+
+        // When
+        String batch = PaymentReference.nextBatch();
+
+        // Then - one clock and tail, so the time parts keep increasing
+        assertTrue(batch.substring(3).compareTo(payment.substring(3)) > 0);
+    }
+
+    private static long decode(String reference, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 5) | ALPHABET.indexOf(reference.charAt(i));
+        }
+        return value;
+    }
+}
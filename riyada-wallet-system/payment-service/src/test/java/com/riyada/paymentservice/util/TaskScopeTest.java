@@ -0,0 +1,169 @@
+package com.riyada.paymentservice.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskScopeTest {
+
+    private ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testJoin_AllSubtasksSucceed() throws Exception {
+        // Given
+        TaskScope.Subtask<String> first;
+        TaskScope.Subtask<Integer> second;
+
+        // When
+        try (TaskScope scope = new TaskScope(executor, 1000)) {
+            first = scope.fork(() -> "recipient");
+            second = scope.fork(() -> 42);
+            scope.join();
+        }
+
+        // Then
+        assertEquals("recipient", first.get());
+        assertEquals(42, second.get());
+    }
+
+    @Test
+    void testJoin_DeadlineCancelsSlowSubtask() throws Exception {
+        // Given
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // When
+        RuntimeException e;
+        try (TaskScope scope = new TaskScope(executor, 100)) {
+            scope.fork(() -> sleepUntilInterrupted(interrupted));
+            e = assertThrows(RuntimeException.class, scope::join);
+        }
+
+        // Then
+        assertEquals("Timed out after 100 ms", e.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testJoin_FirstFailureCancelsSiblings() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When
+        RuntimeException e;
+        try (TaskScope scope = new TaskScope(executor, 5000)) {
+            scope.fork(() -> {
+                started.countDown();
+                return sleepUntilInterrupted(interrupted);
+            });
+            scope.fork(() -> {
+                started.await();
+                throw new RuntimeException("Recipient not found");
+            });
+            e = assertThrows(RuntimeException.class, scope::join);
+        }
+
+        // Then
+        assertEquals("Recipient not found", e.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testJoin_WrapsCheckedFailure() throws Exception {
+        // When
+        RuntimeException e;
+        try (TaskScope scope = new TaskScope(executor, 1000)) {
+            scope.fork(() -> {
+                throw new IOException("Connection reset");
+            });
+            e = assertThrows(RuntimeException.class, scope::join);
+        }
+
+        // Then
+        assertEquals("Connection reset", e.getMessage());
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void testFork_SaturatedExecutorRejectsAndCancelsForked() throws Exception {
+        // Given - one thread, no queue, rejecting like the pre-check pool
+        executor.shutdownNow();
+        executor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread[] ranOn = new Thread[1];
+
+        // When
+        RejectedExecutionException e;
+        try (TaskScope scope = new TaskScope(executor, 5000)) {
+            scope.fork(() -> {
+                started.countDown();
+                return sleepUntilInterrupted(interrupted);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            e = assertThrows(RejectedExecutionException.class, () -> scope.fork(() -> {
+                ranOn[0] = Thread.currentThread();
+                return null;
+            }));
+        }
+
+        // Then - the second subtask never ran, not even on the caller
+        assertEquals("Too many requests in progress, please retry", e.getMessage());
+        assertNull(ranOn[0]);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClose_CancelsSubtasksWithoutJoin() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When
+        try (TaskScope scope = new TaskScope(executor, 5000)) {
+            scope.fork(() -> {
+                started.countDown();
+                return sleepUntilInterrupted(interrupted);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+
+        // Then
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFork_AfterJoinNotAllowed() throws Exception {
+        try (TaskScope scope = new TaskScope(executor, 1000)) {
+            scope.join();
+            assertThrows(IllegalStateException.class, () -> scope.fork(() -> null));
+        }
+    }
+
+    private static Object sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.riyada.paymentservice.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @AfterEach
+    void tearDown() {
+        // Back to the real clock after a test pinned a future millisecond
+        ReflectionTestUtils.setField(UuidV7.class, "lastMillis", 0L);
+    }
+
+    @Test
+    void testNext_SetsVersionAndVariant() {
+        // When
+        UUID uuid = UuidV7.next();
+
+        // Then
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testNext_IsStrictlyIncreasing() {
+        // Given
+        UUID previous = UuidV7.next();
+
+        // When & Then - many IDs per millisecond still come out in order
+        for (int i = 0; i < 50_000; i++) {
+            UUID next = UuidV7.next();
+            assertTrue(next.compareTo(previous) > 0, "Expected " + next + " after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNext_CountsUpWithinAMillisecond() {
+        // Given - pinned to a millisecond the clock has not reached yet
+        long millis = System.currentTimeMillis() + 5000;
+        ReflectionTestUtils.setField(UuidV7.class, "lastMillis", millis);
+        ReflectionTestUtils.setField(UuidV7.class, "sequence", 7);
+
+        // When
+        UUID first = UuidV7.next();
+        UUID second = UuidV7.next();
+
+        // Then
+        assertEquals(millis, UuidV7.timestampMillis(first));
+        assertEquals(millis, UuidV7.timestampMillis(second));
+        assertEquals(8, sequence(first));
+        assertEquals(9, sequence(second));
+    }
+
+    @Test
+    void testNext_CounterRolloverBorrowsTheNextMillisecond() {
+        // Given - the last counter value of a millisecond is used up
+        long millis = System.currentTimeMillis() + 5000;
+        ReflectionTestUtils.setField(UuidV7.class, "lastMillis", millis);
+        ReflectionTestUtils.setField(UuidV7.class, "sequence", 0xFFE);
+        UUID before = UuidV7.next();
+
+        // When
+        UUID rolled = UuidV7.next();
+
+        // Then
+        assertEquals(0xFFF, sequence(before));
+        assertEquals(millis + 1, UuidV7.timestampMillis(rolled));
+        assertEquals(0, sequence(rolled));
+        assertTrue(rolled.compareTo(before) > 0);
+    }
+
+    @Test
+    void testTimestampMillis_ReturnsCreationTime() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        long timestamp = UuidV7.timestampMillis(UuidV7.next());
+
+        // Then - may run ahead only if the per-millisecond counter spilled over
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    void testTimestampMillis_RejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestampMillis(UUID.randomUUID()));
+    }
+
+    private static int sequence(UUID uuid) {
+        return (int) (uuid.getMostSignificantBits() & 0xFFF);
+    }
+}
@@ -3,11 +3,13 @@ package com.riyada.userservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.TimeZone;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
 public class UserServiceApplication {
 
     public static void main(String[] args) {
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -22,6 +23,9 @@ public class JwtConfig {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.service-subjects:payment-service}")
+    private List<String> serviceSubjects;
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -55,6 +59,15 @@ public class JwtConfig {
         return getClaimFromToken(token, claims -> claims.get("userId", String.class));
     }
 
+    /**
+     * Service tokens carry a known service name as subject and no userId,
+     * so an end-user token can never pass as one
+     */
+    public Boolean isServiceToken(String token) {
+        final Claims claims = getAllClaimsFromToken(token);
+        return claims.get("userId") == null && serviceSubjects.contains(claims.getSubject());
+    }
+
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
     }
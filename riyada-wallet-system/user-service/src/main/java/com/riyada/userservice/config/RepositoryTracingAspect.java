@@ -0,0 +1,51 @@
+package com.riyada.userservice.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Child span around each Spring Data repository call made while a trace is
+ * active, named after the repository interface and method (e.g.
+ * UserRepository.save). Calls made outside any trace are not wrapped.
+ */
+@Aspect
+@Component
+public class RepositoryTracingAspect {
+
+    @Autowired
+    private Tracer tracer;
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+
+        Span span = tracer.nextSpan()
+                .name(repositoryName(joinPoint) + "." + joinPoint.getSignature().getName())
+                .tag("component", "repository")
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // Repositories are proxies; name the application interface, not the proxy class
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        return interfaces.length > 0
+                ? interfaces[0].getSimpleName()
+                : joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
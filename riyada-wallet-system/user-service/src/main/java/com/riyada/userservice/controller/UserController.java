@@ -1,9 +1,13 @@
 package com.riyada.userservice.controller;
 
 import com.riyada.userservice.dto.LoginResponseDTO;
+import com.riyada.userservice.dto.UserBatchRequestDTO;
+import com.riyada.userservice.dto.UserDirectoryEntryDTO;
 import com.riyada.userservice.dto.UserLoginDTO;
 import com.riyada.userservice.dto.UserRegistrationDTO;
 import com.riyada.userservice.dto.UserResponseDTO;
+import com.riyada.userservice.dto.UserSearchResultDTO;
+import com.riyada.userservice.dto.UserSummaryDTO;
 import com.riyada.userservice.dto.UserUpdateDTO;
 import com.riyada.userservice.entity.User;
 import com.riyada.userservice.service.UserService;
@@ -15,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -192,6 +197,98 @@ public class UserController {
         }
     }
 
+    /**
+     * Get compact profiles for many users at once (history enrichment)
+     * POST /api/users/profiles/batch
+     */
+    @PostMapping("/profiles/batch")
+    public ResponseEntity<?> getUserProfilesBatch(@Valid @RequestBody UserBatchRequestDTO batchRequestDTO) {
+        try {
+            List<UserSummaryDTO> users = userService.getUserSummaries(batchRequestDTO.getUserIds());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "User profiles retrieved successfully");
+            response.put("users", users);
+            response.put("count", users.size());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INVALID_BATCH_REQUEST");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving user profiles");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Search recipients by name or email (type-ahead)
+     * GET /api/users/search?q={query}&limit={limit}
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            List<UserSearchResultDTO> users = userService.searchRecipients(query, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Users retrieved successfully");
+            response.put("users", users);
+            response.put("count", users.size());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while searching users");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Bulk email-to-id snapshot for service replicas, keyset-paged by ID
+     * GET /api/users/directory?after={userId}&limit={limit}
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<?> getUserDirectory(@RequestParam(value = "after", required = false) UUID after,
+            @RequestParam(value = "limit", defaultValue = "5000") int limit) {
+        try {
+            List<UserDirectoryEntryDTO> users = userService.getDirectoryPage(after, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "User directory page retrieved successfully");
+            response.put("users", users);
+            response.put("count", users.size());
+            response.put("nextCursor", users.isEmpty() ? null : users.get(users.size() - 1).getId());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred while retrieving user directory");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Update user profile
      * PUT /api/users/profile/{userId}
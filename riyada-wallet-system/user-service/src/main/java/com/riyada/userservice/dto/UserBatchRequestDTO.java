@@ -0,0 +1,44 @@
+package com.riyada.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for batch profile lookup request
+ */
+public class UserBatchRequestDTO {
+
+    public static final int MAX_IDS = 5000;
+
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " user IDs per request")
+    private List<UUID> userIds;
+
+    // Default constructor
+    public UserBatchRequestDTO() {
+    }
+
+    // Constructor with parameters
+    public UserBatchRequestDTO(List<UUID> userIds) {
+        this.userIds = userIds;
+    }
+
+    // Getters and setters
+    public List<UUID> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<UUID> userIds) {
+        this.userIds = userIds;
+    }
+
+    @Override
+    public String toString() {
+        return "UserBatchRequestDTO{" +
+                "userIds=" + (userIds != null ? userIds.size() : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.riyada.userservice.dto;
+
+import java.util.UUID;
+
+/**
+ * Compact email-to-id projection used to bootstrap user directory replicas
+ */
+public class UserDirectoryEntryDTO {
+
+    private UUID id;
+    private String email;
+    private Boolean isActive;
+
+    // Constructors
+    public UserDirectoryEntryDTO() {
+    }
+
+    public UserDirectoryEntryDTO(UUID id, String email, Boolean isActive) {
+        this.id = id;
+        this.email = email;
+        this.isActive = isActive;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDirectoryEntryDTO{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", isActive=" + isActive +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.riyada.userservice.dto;
+
+import java.util.UUID;
+
+/**
+ * Compact user projection returned by the batch profile lookup
+ */
+public class UserSummaryDTO {
+
+    private UUID id;
+    private String email;
+    private String firstName;
+    private String lastName;
+
+    // Constructors
+    public UserSummaryDTO() {
+    }
+
+    public UserSummaryDTO(UUID id, String email, String firstName, String lastName) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummaryDTO{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", firstName='" + firstName + '\'' +
+                ", lastName='" + lastName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.riyada.userservice.event;
+
+import com.riyada.userservice.entity.OutboxEvent;
+import com.riyada.userservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the outbox and relays unpublished events to Kafka.
+ *
+ * Delivery is at-least-once: an event is marked published only after the
+ * broker acknowledges it, so a crash between send and commit re-sends it.
+ * Consumers must be idempotent.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${events.publishing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${events.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    /**
+     * Relay one batch of pending events
+     */
+    @Scheduled(fixedDelayString = "${events.outbox.poll-interval-ms:500}")
+    @Transactional
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+
+        List<OutboxEvent> pending = outboxEventRepository.lockUnpublished(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Send the whole batch before waiting so the producer can pipeline it
+        List<CompletableFuture<?>> sends = new ArrayList<>(pending.size());
+        for (OutboxEvent event : pending) {
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> failedKeys = new HashSet<>();
+        int published = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            OutboxEvent event = pending.get(i);
+            if (failedKeys.contains(event.getMessageKey())) {
+                // An earlier event for this user failed: keep this one pending too
+                // so the retry re-sends them in order
+                continue;
+            }
+            try {
+                sends.get(i).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                event.setPublishedAt(now);
+                published++;
+            } catch (Exception e) {
+                failedKeys.add(event.getMessageKey());
+                event.setAttempts(event.getAttempts() + 1);
+                logger.warn("Failed to relay {} {} (attempt {}): {}", event.getEventType(), event.getId(),
+                        event.getAttempts(), e.getMessage());
+            }
+        }
+
+        logger.debug("Relayed {}/{} outbox events", published, pending.size());
+    }
+
+    /**
+     * Purge relayed events past the retention window
+     */
+    @Scheduled(fixedDelayString = "${events.outbox.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgePublished() {
+        if (!enabled) {
+            return;
+        }
+
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("Purged {} relayed outbox events", deleted);
+        }
+    }
+}
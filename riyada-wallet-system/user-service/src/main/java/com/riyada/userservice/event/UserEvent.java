@@ -0,0 +1,196 @@
+package com.riyada.userservice.event;
+
+import com.riyada.userservice.entity.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Envelope for user-created / user-updated events (see docs/kafka-events.md)
+ */
+public class UserEvent {
+
+    public static final String TOPIC_USER_CREATED = "user-created";
+    public static final String TOPIC_USER_UPDATED = "user-updated";
+
+    public static final String TYPE_USER_CREATED = "UserCreated";
+    public static final String TYPE_USER_UPDATED = "UserUpdated";
+
+    private static final String SOURCE = "user-service";
+
+    private String eventId;
+    private String eventType;
+    private String timestamp;
+    private String source;
+    private UserEventData data;
+
+    // Constructors
+    public UserEvent() {
+    }
+
+    public UserEvent(String eventType, UserEventData data) {
+        this.eventId = UUID.randomUUID().toString();
+        this.eventType = eventType;
+        this.timestamp = Instant.now().toString();
+        this.source = SOURCE;
+        this.data = data;
+    }
+
+    /**
+     * Build a UserCreated event from a freshly saved user
+     */
+    public static UserEvent created(User user) {
+        return new UserEvent(TYPE_USER_CREATED, UserEventData.from(user, null));
+    }
+
+    /**
+     * Build a UserUpdated event; previousEmail lets replicas drop stale keys
+     */
+    public static UserEvent updated(User user, String previousEmail) {
+        return new UserEvent(TYPE_USER_UPDATED, UserEventData.from(user, previousEmail));
+    }
+
+    /**
+     * Topic this event is published to
+     */
+    public String topic() {
+        return TYPE_USER_CREATED.equals(eventType) ? TOPIC_USER_CREATED : TOPIC_USER_UPDATED;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public UserEventData getData() {
+        return data;
+    }
+
+    public void setData(UserEventData data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return "UserEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", timestamp='" + timestamp + '\'' +
+                ", source='" + source + '\'' +
+                ", data=" + data +
+                '}';
+    }
+
+    /**
+     * Event payload
+     */
+    public static class UserEventData {
+
+        private UUID userId;
+        private String email;
+        private String previousEmail;
+        private String firstName;
+        private String lastName;
+        private Boolean isActive;
+
+        public UserEventData() {
+        }
+
+        public static UserEventData from(User user, String previousEmail) {
+            UserEventData data = new UserEventData();
+            data.setUserId(user.getId());
+            data.setEmail(user.getEmail());
+            data.setPreviousEmail(previousEmail);
+            data.setFirstName(user.getFirstName());
+            data.setLastName(user.getLastName());
+            data.setIsActive(user.getIsActive());
+            return data;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public void setUserId(UUID userId) {
+            this.userId = userId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public String getPreviousEmail() {
+            return previousEmail;
+        }
+
+        public void setPreviousEmail(String previousEmail) {
+            this.previousEmail = previousEmail;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+        }
+
+        public Boolean getIsActive() {
+            return isActive;
+        }
+
+        public void setIsActive(Boolean isActive) {
+            this.isActive = isActive;
+        }
+
+        @Override
+        public String toString() {
+            return "UserEventData{" +
+                    "userId=" + userId +
+                    ", email='" + email + '\'' +
+                    ", previousEmail='" + previousEmail + '\'' +
+                    ", isActive=" + isActive +
+                    '}';
+        }
+    }
+}
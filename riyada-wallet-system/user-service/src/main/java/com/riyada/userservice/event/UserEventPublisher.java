@@ -0,0 +1,39 @@
+package com.riyada.userservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.userservice.entity.OutboxEvent;
+import com.riyada.userservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records user events in the outbox as part of the caller's transaction;
+ * {@link OutboxRelay} delivers them to Kafka after commit. Events are keyed
+ * by user ID so that all events for a user land on the same partition in order.
+ */
+@Component
+public class UserEventPublisher {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Append an event to the outbox
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(UserEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            outboxEventRepository.save(new OutboxEvent(event.topic(),
+                    event.getData().getUserId().toString(), event.getEventType(), payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + event.getEventType(), e);
+        }
+    }
+}
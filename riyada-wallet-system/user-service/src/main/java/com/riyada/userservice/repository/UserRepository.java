@@ -1,11 +1,16 @@
 package com.riyada.userservice.repository;
 
+import com.riyada.userservice.dto.UserDirectoryEntryDTO;
+import com.riyada.userservice.dto.UserSummaryDTO;
 import com.riyada.userservice.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -38,6 +43,11 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     long countByIsActiveTrue();
 
+    /**
+     * Page through active users (used to build the search index)
+     */
+    Page<User> findByIsActiveTrue(Pageable pageable);
+
     /**
      * Find users by first name (case insensitive)
      */
@@ -49,4 +59,26 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     @Query("SELECT u FROM User u WHERE LOWER(u.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))")
     java.util.List<User> findByLastNameContainingIgnoreCase(@Param("lastName") String lastName);
+
+    /**
+     * First page of the email-to-id directory, ordered by ID
+     */
+    @Query("SELECT new com.riyada.userservice.dto.UserDirectoryEntryDTO(u.id, u.email, u.isActive) " +
+            "FROM User u ORDER BY u.id")
+    java.util.List<UserDirectoryEntryDTO> findDirectoryPage(Pageable pageable);
+
+    /**
+     * Next page of the email-to-id directory (keyset on ID)
+     */
+    @Query("SELECT new com.riyada.userservice.dto.UserDirectoryEntryDTO(u.id, u.email, u.isActive) " +
+            "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    java.util.List<UserDirectoryEntryDTO> findDirectoryPageAfter(@Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * Compact profiles for a set of user IDs in one query
+     */
+    @Query("SELECT new com.riyada.userservice.dto.UserSummaryDTO(u.id, u.email, u.firstName, u.lastName) " +
+            "FROM User u WHERE u.id IN :ids")
+    java.util.List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
 }
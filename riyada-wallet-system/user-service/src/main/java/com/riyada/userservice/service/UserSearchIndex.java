@@ -0,0 +1,301 @@
+package com.riyada.userservice.service;
+
+import com.riyada.userservice.dto.UserSearchResultDTO;
+import com.riyada.userservice.entity.User;
+import com.riyada.userservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory n-gram index over active users for recipient autocomplete.
+ *
+ * Email and full name are broken into trigrams for substring matching, and
+ * every word gets one- and two-character prefix keys so short type-ahead
+ * queries resolve without a table scan. Writes are serialized, reads are
+ * lock-free against the concurrent posting sets.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int GRAM_SIZE = 3;
+    private static final String PREFIX_MARKER = "^";
+    private static final int BOOTSTRAP_PAGE_SIZE = 1000;
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+    private final Map<UUID, IndexedUser> users = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Load all active users into the index once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long start = System.currentTimeMillis();
+        int pageNumber = 0;
+        Page<User> page;
+        do {
+            page = userRepository.findByIsActiveTrue(PageRequest.of(pageNumber++, BOOTSTRAP_PAGE_SIZE, Sort.by("id")));
+            page.forEach(this::index);
+        } while (page.hasNext());
+
+        logger.info("User search index built with {} users in {} ms", users.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or refresh a user in the index; inactive users are removed
+     */
+    public synchronized void index(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            remove(user.getId());
+            return;
+        }
+
+        IndexedUser indexed = new IndexedUser(user.getId(), user.getEmail(), user.getFirstName(),
+                user.getLastName());
+        IndexedUser previous = users.put(user.getId(), indexed);
+
+        Set<String> newKeys = indexed.keys();
+        if (previous != null) {
+            for (String key : previous.keys()) {
+                if (!newKeys.contains(key)) {
+                    removePosting(key, user.getId());
+                }
+            }
+        }
+        for (String key : newKeys) {
+            postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+    }
+
+    /**
+     * Remove a user from the index
+     */
+    public synchronized void remove(UUID userId) {
+        IndexedUser previous = users.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String key : previous.keys()) {
+            removePosting(key, userId);
+        }
+    }
+
+    /**
+     * Search by name or email prefix/substring, best matches first
+     */
+    public List<UserSearchResultDTO> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Set<UUID> candidates = normalized.length() < GRAM_SIZE
+                ? postings.getOrDefault(PREFIX_MARKER + normalized, Set.of())
+                : intersect(grams(normalized));
+
+        Comparator<Hit> ranking = Comparator.comparingInt((Hit h) -> h.score)
+                .thenComparingInt(h -> h.user.fullNameKey.length())
+                .thenComparing(h -> h.user.emailKey);
+
+        // Bounded max-heap: keep only the best `limit` hits
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (UUID id : candidates) {
+            IndexedUser user = users.get(id);
+            if (user == null) {
+                continue;
+            }
+            int score = user.score(normalized);
+            if (score < 0) {
+                continue;
+            }
+            best.offer(new Hit(user, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        List<UserSearchResultDTO> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            results.add(hit.user.toResult());
+        }
+        return results;
+    }
+
+    /**
+     * Number of indexed users
+     */
+    public int size() {
+        return users.size();
+    }
+
+    private Set<UUID> intersect(Set<String> grams) {
+        List<Set<UUID>> sets = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<UUID> posting = postings.get(gram);
+            if (posting == null || posting.isEmpty()) {
+                return Set.of();
+            }
+            sets.add(posting);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+
+        Set<UUID> result = new HashSet<>();
+        for (UUID id : sets.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < sets.size() && inAll; i++) {
+                inAll = sets.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void removePosting(String key, UUID userId) {
+        Set<UUID> posting = postings.get(key);
+        if (posting != null) {
+            posting.remove(userId);
+            if (posting.isEmpty()) {
+                postings.remove(key, posting);
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    static boolean isSeparator(char c) {
+        return Character.isWhitespace(c) || c == '@' || c == '.' || c == '_' || c == '-' || c == '+';
+    }
+
+    private static final class Hit {
+        private final IndexedUser user;
+        private final int score;
+
+        private Hit(IndexedUser user, int score) {
+            this.user = user;
+            this.score = score;
+        }
+    }
+
+    private static final class IndexedUser {
+        private final UUID id;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+        private final String emailKey;
+        private final String fullNameKey;
+
+        private IndexedUser(UUID id, String email, String firstName, String lastName) {
+            this.id = id;
+            this.email = email;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.emailKey = normalize(email);
+            this.fullNameKey = normalize((firstName != null ? firstName : "") + " "
+                    + (lastName != null ? lastName : ""));
+        }
+
+        private Set<String> keys() {
+            Set<String> keys = new HashSet<>();
+            keys.addAll(grams(emailKey));
+            keys.addAll(grams(fullNameKey));
+            addWordPrefixes(emailKey, keys);
+            addWordPrefixes(fullNameKey, keys);
+            return keys;
+        }
+
+        private static void addWordPrefixes(String term, Set<String> keys) {
+            for (int i = 0; i < term.length(); i++) {
+                if (isSeparator(term.charAt(i)) || (i > 0 && !isSeparator(term.charAt(i - 1)))) {
+                    continue;
+                }
+                keys.add(PREFIX_MARKER + term.charAt(i));
+                if (i + 1 < term.length() && !isSeparator(term.charAt(i + 1))) {
+                    keys.add(PREFIX_MARKER + term.substring(i, i + 2));
+                }
+            }
+        }
+
+        /**
+         * Lower is better; -1 means the candidate does not actually match
+         */
+        private int score(String query) {
+            if (emailKey.equals(query)) {
+                return 0;
+            }
+            if (emailKey.startsWith(query)) {
+                return 1;
+            }
+            if (fullNameKey.startsWith(query)) {
+                return 2;
+            }
+            if (startsAtWordBoundary(fullNameKey, query)) {
+                return 3;
+            }
+            if (startsAtWordBoundary(emailKey, query)) {
+                return 4;
+            }
+            if (fullNameKey.contains(query) || emailKey.contains(query)) {
+                return 5;
+            }
+            return -1;
+        }
+
+        private static boolean startsAtWordBoundary(String term, String query) {
+            int from = term.indexOf(query);
+            while (from >= 0) {
+                if (from == 0 || isSeparator(term.charAt(from - 1))) {
+                    return true;
+                }
+                from = term.indexOf(query, from + 1);
+            }
+            return false;
+        }
+
+        private UserSearchResultDTO toResult() {
+            return new UserSearchResultDTO(id, email, firstName, lastName);
+        }
+    }
+}
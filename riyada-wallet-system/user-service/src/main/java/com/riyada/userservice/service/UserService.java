@@ -1,22 +1,38 @@
 package com.riyada.userservice.service;
 
 import com.riyada.userservice.config.JwtConfig;
+import com.riyada.userservice.dto.UserDirectoryEntryDTO;
 import com.riyada.userservice.dto.LoginResponseDTO;
 import com.riyada.userservice.dto.UserLoginDTO;
+import com.riyada.userservice.dto.UserBatchRequestDTO;
+import com.riyada.userservice.dto.UserSearchResultDTO;
+import com.riyada.userservice.dto.UserSummaryDTO;
 import com.riyada.userservice.entity.User;
+import com.riyada.userservice.event.UserEvent;
+import com.riyada.userservice.event.UserEventPublisher;
 import com.riyada.userservice.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 @Transactional
+@Timed(value = "user.service", histogram = true)
 public class UserService {
 
     @Autowired
@@ -28,23 +44,38 @@ public class UserService {
     @Autowired
     private JwtConfig jwtConfig;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserEventPublisher userEventPublisher;
+
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 10000;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     /**
      * Create a new user
      */
     public User createUser(User user) {
-        // Check if user already exists
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("User with email " + user.getEmail() + " already exists");
-        }
-
         // Encode password
         user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
         user.setIsActive(true);
 
-        return userRepository.save(user);
+        // The unique constraint on email is the duplicate check; flush so a
+        // violation surfaces here rather than at commit
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User with email " + user.getEmail() + " already exists");
+        }
+
+        userEventPublisher.publish(UserEvent.created(savedUser));
+        afterCommit(() -> userSearchIndex.index(savedUser));
+        return savedUser;
     }
 
     /**
@@ -129,6 +160,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
+        String previousEmail = user.getEmail();
+
         // Update fields
         user.setFirstName(userDetails.getFirstName());
         user.setLastName(userDetails.getLastName());
@@ -142,7 +175,11 @@ public class UserService {
             user.setEmail(userDetails.getEmail());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userEventPublisher.publish(UserEvent.updated(savedUser,
+                previousEmail.equals(savedUser.getEmail()) ? null : previousEmail));
+        afterCommit(() -> userSearchIndex.index(savedUser));
+        return savedUser;
     }
 
     /**
@@ -164,7 +201,10 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
         user.setIsActive(false);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userEventPublisher.publish(UserEvent.updated(savedUser, null));
+        afterCommit(() -> userSearchIndex.remove(id));
+        return savedUser;
     }
 
     /**
@@ -175,17 +215,24 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
         user.setIsActive(true);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userEventPublisher.publish(UserEvent.updated(savedUser, null));
+        afterCommit(() -> userSearchIndex.index(savedUser));
+        return savedUser;
     }
 
     /**
      * Delete user permanently
      */
     public void deleteUser(UUID id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        userRepository.delete(user);
+
+        // Replicas treat a deleted user like a deactivated one
+        user.setIsActive(false);
+        userEventPublisher.publish(UserEvent.updated(user, null));
+        afterCommit(() -> userSearchIndex.remove(id));
     }
 
     /**
@@ -227,4 +274,61 @@ public class UserService {
     public List<User> searchUsersByLastName(String lastName) {
         return userRepository.findByLastNameContainingIgnoreCase(lastName);
     }
+
+    /**
+     * Search active users by name or email for recipient autocomplete
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserSearchResultDTO> searchRecipients(String query, Integer limit) {
+        int effectiveLimit = limit == null ? UserSearchIndex.DEFAULT_LIMIT
+                : Math.max(1, Math.min(limit, UserSearchIndex.MAX_LIMIT));
+        return userSearchIndex.search(query, effectiveLimit);
+    }
+
+    /**
+     * Page through the email-to-id directory for replica bootstrap
+     */
+    @Transactional(readOnly = true)
+    public List<UserDirectoryEntryDTO> getDirectoryPage(UUID afterId, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE)));
+        return afterId == null
+                ? userRepository.findDirectoryPage(page)
+                : userRepository.findDirectoryPageAfter(afterId, page);
+    }
+
+    /**
+     * Look up compact profiles for many users at once; unknown IDs are omitted
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> getUserSummaries(Collection<UUID> userIds) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (distinctIds.size() > UserBatchRequestDTO.MAX_IDS) {
+            throw new RuntimeException("At most " + UserBatchRequestDTO.MAX_IDS + " user IDs per request");
+        }
+
+        // Chunked so very large batches don't exceed driver bind-parameter limits
+        List<UserSummaryDTO> summaries = new ArrayList<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size()));
+            summaries.addAll(userRepository.findSummariesByIdIn(chunk));
+        }
+        return summaries;
+    }
+
+    /**
+     * Run an index update once the surrounding transaction commits, so rolled
+     * back writes never become searchable
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
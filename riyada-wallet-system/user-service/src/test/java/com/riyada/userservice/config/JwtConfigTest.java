@@ -0,0 +1,63 @@
+package com.riyada.userservice.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtConfigTest {
+
+    private static final String SECRET = "test-jwt-secret-key-for-testing-only-32-bytes";
+
+    private JwtConfig jwtConfig;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtConfig, "expiration", 60000L);
+        ReflectionTestUtils.setField(jwtConfig, "serviceSubjects", List.of("payment-service"));
+    }
+
+    @Test
+    void testIsServiceToken_ServiceSubjectWithoutUserId() {
+        assertTrue(jwtConfig.isServiceToken(serviceToken("payment-service")));
+    }
+
+    @Test
+    void testIsServiceToken_UnknownServiceSubject() {
+        assertFalse(jwtConfig.isServiceToken(serviceToken("reporting-service")));
+    }
+
+    @Test
+    void testIsServiceToken_UserToken() {
+        String token = jwtConfig.generateToken("user@example.com", UUID.randomUUID().toString());
+
+        assertFalse(jwtConfig.isServiceToken(token));
+    }
+
+    @Test
+    void testIsServiceToken_UserTokenWithServiceSubject() {
+        // A user token always carries userId, whatever its subject
+        String token = jwtConfig.generateToken("payment-service", UUID.randomUUID().toString());
+
+        assertFalse(jwtConfig.isServiceToken(token));
+    }
+
+    private static String serviceToken(String serviceName) {
+        return Jwts.builder()
+                .setSubject(serviceName)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
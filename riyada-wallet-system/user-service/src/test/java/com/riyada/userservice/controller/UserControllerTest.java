@@ -1,7 +1,9 @@
 package com.riyada.userservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.userservice.dto.UserBatchRequestDTO;
 import com.riyada.userservice.dto.UserRegistrationDTO;
+import com.riyada.userservice.dto.UserSummaryDTO;
 import com.riyada.userservice.dto.UserUpdateDTO;
 import com.riyada.userservice.entity.User;
 import com.riyada.userservice.service.UserService;
@@ -16,6 +18,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -268,4 +272,43 @@ class UserControllerTest {
                                 .andExpect(jsonPath("$.message").value("User not found with id: " + userId))
                                 .andExpect(jsonPath("$.error").value("USER_NOT_FOUND"));
         }
+
+        @Test
+        void testGetUserProfilesBatch_Success() throws Exception {
+                // Given
+                UUID firstId = UUID.randomUUID();
+                UUID secondId = UUID.randomUUID();
+                UserBatchRequestDTO batchRequestDTO = new UserBatchRequestDTO(List.of(firstId, secondId));
+
+                when(userService.getUserSummaries(any())).thenReturn(List.of(
+                                new UserSummaryDTO(firstId, "john@example.com", "John", "Doe"),
+                                new UserSummaryDTO(secondId, "jane@example.com", "Jane", "Smith")));
+
+                // When & Then
+                mockMvc.perform(post("/api/users/profiles/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batchRequestDTO)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.success").value(true))
+                                .andExpect(jsonPath("$.count").value(2))
+                                .andExpect(jsonPath("$.users[0].firstName").value("John"))
+                                .andExpect(jsonPath("$.users[1].email").value("jane@example.com"));
+        }
+
+        @Test
+        void testGetUserProfilesBatch_TooManyIds() throws Exception {
+                // Given
+                List<UUID> userIds = new ArrayList<>();
+                for (int i = 0; i <= UserBatchRequestDTO.MAX_IDS; i++) {
+                        userIds.add(UUID.randomUUID());
+                }
+
+                // When & Then
+                mockMvc.perform(post("/api/users/profiles/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new UserBatchRequestDTO(userIds))))
+                                .andExpect(status().isBadRequest());
+        }
 }
@@ -0,0 +1,63 @@
+package com.riyada.userservice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.userservice.dto.UserRegistrationDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes /actuator/prometheus after one registration, as Prometheus would
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testPrometheusScrape_ServiceRepositoryAndPoolMeters() throws Exception {
+        // Given
+        UserRegistrationDTO registrationDTO = new UserRegistrationDTO(
+                "metrics@example.com",
+                "password123",
+                "Metrics",
+                "User",
+                null);
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationDTO)))
+                .andExpect(status().isCreated());
+
+        // When - the endpoint needs no token
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then - service operations, with histogram buckets
+        assertTrue(scrape.contains("user_service_seconds_count{"), scrape);
+        assertTrue(scrape.contains("method=\"createUser\""), scrape);
+        assertTrue(scrape.contains("user_service_seconds_bucket{"), scrape);
+        // Then - repository calls and the Hikari pool
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), scrape);
+        assertTrue(scrape.contains("hikaricp_connections_active{"), scrape);
+        // Then - every meter carries the application tag
+        assertTrue(scrape.contains("application=\"user-service\""), scrape);
+    }
+}
@@ -0,0 +1,137 @@
+package com.riyada.userservice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.userservice.dto.UserRegistrationDTO;
+import com.riyada.userservice.repository.OutboxEventRepository;
+import com.riyada.userservice.repository.UserRepository;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Spans are exported to an in-memory exporter instead of OTLP
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@ActiveProfiles("test")
+class TracingIntegrationTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        spanExporter.reset();
+    }
+
+    @Test
+    void testIncomingTraceContext_ContinuedByRequestAndRepositorySpans() throws Exception {
+        // Given - a caller (e.g. payment-service) already in a trace
+        UserRegistrationDTO registrationDTO = new UserRegistrationDTO(
+                "traced@example.com",
+                "password123",
+                "Traced",
+                "User",
+                null);
+
+        // When
+        mockMvc.perform(post("/api/users/register")
+                .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationDTO)))
+                .andExpect(status().isCreated());
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        // Then - the request span joins the caller's trace
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData serverSpan = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No server span in " + spans));
+        assertEquals(TRACE_ID, serverSpan.getTraceId());
+        assertEquals(PARENT_SPAN_ID, serverSpan.getParentSpanId());
+
+        // Then - repository calls are spans in the same trace, under the request span
+        SpanData saveSpan = spans.stream()
+                .filter(span -> span.getName().equals("UserRepository.saveAndFlush"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No repository span in " + spans));
+        assertEquals(TRACE_ID, saveSpan.getTraceId());
+        assertTrue(isDescendant(saveSpan, serverSpan, spans));
+    }
+
+    @Test
+    void testRepositoryCallOutsideTrace_NotTraced() {
+        // When
+        userRepository.findAll();
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(spanExporter.getFinishedSpanItems().isEmpty());
+    }
+
+    private static boolean isDescendant(SpanData span, SpanData ancestor, List<SpanData> spans) {
+        String parentId = span.getParentSpanId();
+        while (parentId != null) {
+            if (parentId.equals(ancestor.getSpanId())) {
+                return true;
+            }
+            String current = parentId;
+            parentId = spans.stream()
+                    .filter(candidate -> candidate.getSpanId().equals(current))
+                    .map(SpanData::getParentSpanId)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return false;
+    }
+}
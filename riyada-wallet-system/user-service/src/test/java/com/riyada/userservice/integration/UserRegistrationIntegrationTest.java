@@ -2,7 +2,9 @@ package com.riyada.userservice.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.riyada.userservice.dto.UserRegistrationDTO;
+import com.riyada.userservice.entity.OutboxEvent;
 import com.riyada.userservice.entity.User;
+import com.riyada.userservice.repository.OutboxEventRepository;
 import com.riyada.userservice.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +37,9 @@ class UserRegistrationIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -42,6 +49,7 @@ class UserRegistrationIntegrationTest {
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         userRepository.deleteAll(); // Clean up before each test
+        outboxEventRepository.deleteAll();
     }
 
     @Test
@@ -79,6 +87,13 @@ class UserRegistrationIntegrationTest {
         assertTrue(savedUser.getIsActive());
         assertNotNull(savedUser.getPasswordHash());
         assertNotEquals("password123", savedUser.getPasswordHash()); // Password should be hashed
+
+        // Then - Verify user-created was written to the outbox in the same transaction
+        List<OutboxEvent> outbox = outboxEventRepository.findAll();
+        assertEquals(1, outbox.size());
+        assertEquals("user-created", outbox.get(0).getTopic());
+        assertEquals(savedUser.getId().toString(), outbox.get(0).getMessageKey());
+        assertNull(outbox.get(0).getPublishedAt());
     }
 
     @Test
@@ -0,0 +1,119 @@
+package com.riyada.userservice.service;
+
+import com.riyada.userservice.dto.UserSearchResultDTO;
+import com.riyada.userservice.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+    }
+
+    private User user(String email, String firstName, String lastName) {
+        User user = new User(email, "hash", firstName, lastName);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    @Test
+    void testSearch_ShortPrefixMatchesWordStarts() {
+        // Given
+        index.index(user("john.doe@example.com", "John", "Doe"));
+        index.index(user("jane.smith@example.com", "Jane", "Smith"));
+        index.index(user("bob@example.com", "Bob", "Johnson"));
+
+        // When
+        List<UserSearchResultDTO> results = index.search("jo", 10);
+
+        // Then - "John" and "Johnson" start with "jo", "Jane" does not
+        assertEquals(2, results.size());
+        assertEquals("john.doe@example.com", results.get(0).getEmail());
+        assertEquals("bob@example.com", results.get(1).getEmail());
+    }
+
+    @Test
+    void testSearch_SubstringMatchesNameAndEmail() {
+        // Given
+        index.index(user("alice@riyada.com", "Alice", "Martin"));
+        index.index(user("carol@example.com", "Carol", "Artinez"));
+        index.index(user("dave@example.com", "Dave", "Brown"));
+
+        // When
+        List<UserSearchResultDTO> results = index.search("artin", 10);
+
+        // Then - word start ranks above mid-word substring
+        assertEquals(2, results.size());
+        assertEquals("carol@example.com", results.get(0).getEmail());
+        assertEquals("alice@riyada.com", results.get(1).getEmail());
+    }
+
+    @Test
+    void testSearch_ExactEmailRanksFirst() {
+        // Given
+        index.index(user("sam.lee@example.com", "Sam", "Lee"));
+        index.index(user("sam@example.com", "Samuel", "Lee"));
+
+        // When
+        List<UserSearchResultDTO> results = index.search("SAM@example.com", 10);
+
+        // Then
+        assertEquals(1, results.size());
+        assertEquals("sam@example.com", results.get(0).getEmail());
+    }
+
+    @Test
+    void testSearch_RespectsLimit() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            index.index(user("user" + i + "@example.com", "User", "Number" + i));
+        }
+
+        // When & Then
+        assertEquals(5, index.search("user", 5).size());
+    }
+
+    @Test
+    void testIndex_UpdateReplacesOldKeys() {
+        // Given
+        User user = user("old@example.com", "Oldname", "Person");
+        index.index(user);
+
+        // When
+        user.setEmail("new@example.com");
+        user.setFirstName("Newname");
+        index.index(user);
+
+        // Then
+        assertTrue(index.search("oldname", 10).isEmpty());
+        assertEquals(1, index.search("newname", 10).size());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testIndex_InactiveAndRemovedUsersAreNotSearchable() {
+        // Given
+        User inactive = user("gone@example.com", "Gone", "User");
+        index.index(inactive);
+        User removed = user("removed@example.com", "Removed", "User");
+        index.index(removed);
+
+        // When
+        inactive.setIsActive(false);
+        index.index(inactive);
+        index.remove(removed.getId());
+
+        // Then
+        assertTrue(index.search("user", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
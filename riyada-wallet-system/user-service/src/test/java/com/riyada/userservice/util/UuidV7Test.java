@@ -0,0 +1,51 @@
+package com.riyada.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void testNext_SetsVersionAndVariant() {
+        // When
+        UUID uuid = UuidV7.next();
+
+        // Then
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testNext_IsStrictlyIncreasing() {
+        // Given
+        UUID previous = UuidV7.next();
+
+        // When & Then - many IDs per millisecond still come out in order
+        for (int i = 0; i < 50_000; i++) {
+            UUID next = UuidV7.next();
+            assertTrue(next.compareTo(previous) > 0, "Expected " + next + " after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testTimestampMillis_ReturnsCreationTime() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        long timestamp = UuidV7.timestampMillis(UuidV7.next());
+
+        // Then - may run ahead only if the per-millisecond counter spilled over
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    void testTimestampMillis_RejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestampMillis(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.riyada.walletservice.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Retries a GET once when the connection fails, e.g. a pooled keep-alive
+ * connection the server already closed. OkHttp's own retryOnConnectionFailure
+ * is off because it would also replay POSTs (credits, debits) that may have
+ * reached the server. Timeouts are not retried.
+ */
+public class IdempotentRetryInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!"GET".equals(chain.request().method())) {
+            return chain.proceed(chain.request());
+        }
+        try {
+            return chain.proceed(chain.request());
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            return chain.proceed(chain.request());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.riyada.walletservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+import java.io.IOException;
+
+/**
+ * Outermost Feign client decorator that times each call as the caller sees
+ * it (feign.calls), tagged by client, interface method and outcome. Unlike
+ * the per-attempt feign.client.requests timer, this includes retries and
+ * any wait for a connection.
+ */
+public class MeteredClient implements Client {
+
+    private final Client delegate;
+    private final MeterRegistry meterRegistry;
+
+    public MeteredClient(Client delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "UNKNOWN";
+        String exception = "none";
+        try {
+            Response response = delegate.execute(request, options);
+            outcome = Outcome.forStatus(response.status()).name();
+            return response;
+        } catch (IOException | RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("feign.calls")
+                    .description("Feign calls including retries")
+                    .tag("client", clientName(request))
+                    .tag("method", methodName(request))
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String clientName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.feignTarget() != null ? template.feignTarget().name() : "unknown";
+    }
+
+    // Interface and method without parameter types, e.g. UserServiceClient#getUserProfile
+    static String methodName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null) {
+            return "unknown";
+        }
+        String configKey = template.methodMetadata().configKey();
+        int paren = configKey.indexOf('(');
+        return paren < 0 ? configKey : configKey.substring(0, paren);
+    }
+}
@@ -0,0 +1,65 @@
+package com.riyada.walletservice.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps in-flight requests per target host. OkHttp's dispatcher limits only
+ * apply to async calls, and Feign calls are synchronous, so the cap is
+ * enforced here. A caller waits up to the acquire timeout for a slot.
+ */
+public class PerHostConcurrencyInterceptor implements Interceptor {
+
+    private final int maxRequestsPerHost;
+    private final long acquireTimeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public PerHostConcurrencyInterceptor(int maxRequestsPerHost, long acquireTimeoutMs, MeterRegistry meterRegistry) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String host = chain.request().url().host() + ":" + chain.request().url().port();
+        Semaphore semaphore = permits.computeIfAbsent(host, this::newSemaphore);
+
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection slot to " + host);
+        }
+
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private Semaphore newSemaphore(String host) {
+        Semaphore semaphore = new Semaphore(maxRequestsPerHost);
+        if (meterRegistry != null) {
+            Gauge.builder("feign.client.requests.in.flight", semaphore,
+                    s -> maxRequestsPerHost - s.availablePermits())
+                    .tag("host", host)
+                    .description("In-flight Feign requests per target host")
+                    .register(meterRegistry);
+        }
+        return semaphore;
+    }
+}
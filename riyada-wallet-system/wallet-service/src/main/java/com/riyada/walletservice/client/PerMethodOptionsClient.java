@@ -0,0 +1,63 @@
+package com.riyada.walletservice.client;
+
+import com.riyada.walletservice.config.FeignHttpClientProperties;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign client decorator that applies per-method connect/read timeouts and
+ * tags each request with its URI template for latency metrics
+ */
+public class PerMethodOptionsClient implements Client {
+
+    private final Client delegate;
+    private final FeignHttpClientProperties properties;
+
+    public PerMethodOptionsClient(Client delegate, FeignHttpClientProperties properties) {
+        this.delegate = delegate;
+        this.properties = properties;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null) {
+            return delegate.execute(request, options);
+        }
+
+        // Timeouts come from feign-http.*, overriding Feign's own defaults
+        String configKey = template.methodMetadata().configKey();
+        FeignHttpClientProperties.Timeouts timeouts = properties.getMethods()
+                .get(configKey.substring(0, configKey.indexOf('(')));
+        int connectTimeoutMs = properties.getConnectTimeoutMs();
+        int readTimeoutMs = properties.getReadTimeoutMs();
+        if (timeouts != null) {
+            if (timeouts.getConnectTimeoutMs() != null) {
+                connectTimeoutMs = timeouts.getConnectTimeoutMs();
+            }
+            if (timeouts.getReadTimeoutMs() != null) {
+                readTimeoutMs = timeouts.getReadTimeoutMs();
+            }
+        }
+        Request.Options methodOptions = new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS,
+                readTimeoutMs, TimeUnit.MILLISECONDS, options.isFollowRedirects());
+
+        // Metrics are tagged by route template, not by concrete URL (IDs in paths)
+        Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+        headers.put(OkHttpMetricsEventListener.URI_PATTERN, List.of(template.methodMetadata().template().path()));
+        Request tagged = Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                request.charset(), template);
+
+        return delegate.execute(tagged, methodOptions);
+    }
+}
@@ -3,8 +3,11 @@ package com.riyada.walletservice.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "user-service", url = "${user-service.url}")
@@ -17,4 +20,8 @@ public interface UserServiceClient {
     @GetMapping("${user-service.endpoints.profile}/email/{email}")
     Map<String, Object> getUserProfileByEmail(@PathVariable("email") String email,
             @RequestHeader("Authorization") String authorization);
+
+    @PostMapping("${user-service.endpoints.profiles-batch}")
+    Map<String, Object> getUserProfiles(@RequestBody Map<String, List<String>> request,
+            @RequestHeader("Authorization") String authorization);
 }
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -13,10 +14,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Granted to service tokens (see JwtConfig.isServiceToken)
+     */
+    public static final String SERVICE_ROLE = "SERVICE";
+
     private final JwtConfig jwtConfig;
 
     public JwtAuthenticationFilter(JwtConfig jwtConfig) {
@@ -49,8 +56,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             if (jwtConfig.validateToken(jwtToken, username)) {
+                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+                if (jwtConfig.isServiceToken(jwtToken)) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + SERVICE_ROLE));
+                }
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        username, null, new ArrayList<>());
+                        username, null, authorities);
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
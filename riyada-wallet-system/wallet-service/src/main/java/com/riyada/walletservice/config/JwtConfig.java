@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -21,6 +22,9 @@ public class JwtConfig {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.service-subjects:payment-service}")
+    private List<String> serviceSubjects;
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -61,6 +65,15 @@ public class JwtConfig {
         return (tokenUsername.equals(username) && !isTokenExpired(token));
     }
 
+    /**
+     * Service tokens carry a known service name as subject and no userId,
+     * so an end-user token can never pass as one
+     */
+    public Boolean isServiceToken(String token) {
+        final Claims claims = getAllClaimsFromToken(token);
+        return claims.get("userId") == null && serviceSubjects.contains(claims.getSubject());
+    }
+
     public Boolean validateToken(String token) {
         try {
             return !isTokenExpired(token);
@@ -0,0 +1,49 @@
+package com.riyada.walletservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Registers one RateLimitInterceptor per configured policy
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        for (Map.Entry<String, RateLimitProperties.Policy> entry : properties.getPolicies().entrySet()) {
+            RateLimitProperties.Policy policy = entry.getValue();
+            if (policy.getPaths().isEmpty()) {
+                continue;
+            }
+            registry.addInterceptor(new RateLimitInterceptor(entry.getKey(), policy, properties, jwtConfig,
+                    objectMapper, meterRegistry))
+                    .addPathPatterns(policy.getPaths());
+        }
+    }
+}
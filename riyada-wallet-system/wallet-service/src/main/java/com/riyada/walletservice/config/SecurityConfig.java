@@ -1,5 +1,6 @@
 package com.riyada.walletservice.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,6 +29,14 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Streamed responses finish on an async dispatch; the request was authorized already
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Every user's referenced transactions, for reconciliation only
+                        .requestMatchers("/api/wallets/transactions/by-reference")
+                        .hasRole(JwtAuthenticationFilter.SERVICE_ROLE)
+                        // Batch entries carry their own references; only payment-service may post them
+                        .requestMatchers("/api/wallets/user/*/debit-batch", "/api/wallets/user/*/credit-batch")
+                        .hasRole(JwtAuthenticationFilter.SERVICE_ROLE)
                         .requestMatchers("/api/wallets/health", "/actuator/**").permitAll()
                         .requestMatchers("/api/wallets/create").permitAll() // Allow wallet creation without auth
                         .anyRequest().authenticated());
@@ -0,0 +1,43 @@
+package com.riyada.walletservice.config;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Traces start only at incoming requests. Scheduled work (outbox relay,
+ * cleanups) would otherwise open a new trace on every poll; its spans are
+ * still created but not recorded or exported. A sampled caller's trace is
+ * always continued.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public Sampler requestRootedSampler(@Value("${management.tracing.sampling.probability:0.1}") double probability) {
+        Sampler ratio = Sampler.traceIdRatioBased(probability);
+        return Sampler.parentBased(new Sampler() {
+            @Override
+            public SamplingResult shouldSample(Context parentContext, String traceId, String name,
+                    SpanKind spanKind, Attributes attributes, List<LinkData> parentLinks) {
+                if (spanKind != SpanKind.SERVER) {
+                    return SamplingResult.drop();
+                }
+                return ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+            }
+
+            @Override
+            public String getDescription() {
+                return "RequestRooted{" + ratio.getDescription() + "}";
+            }
+        });
+    }
+}
@@ -1,17 +1,27 @@
 package com.riyada.walletservice.controller;
 
 import com.riyada.walletservice.dto.TransferRequestDTO;
+import com.riyada.walletservice.dto.WalletBatchRequestDTO;
 import com.riyada.walletservice.dto.WalletCreateDTO;
 import com.riyada.walletservice.dto.WalletResponseDTO;
 import com.riyada.walletservice.dto.WalletTransactionResponseDTO;
+import com.riyada.walletservice.service.TransactionExportService;
 import com.riyada.walletservice.service.WalletService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +35,9 @@ public class WalletController {
     @Autowired
     private WalletService walletService;
 
+    @Autowired
+    private TransactionExportService transactionExportService;
+
     /**
      * Health check endpoint
      * GET /api/wallets/health
@@ -182,7 +195,8 @@ public class WalletController {
     @PostMapping("/user/{userId}/credit")
     public ResponseEntity<?> creditWallet(@PathVariable UUID userId,
             @RequestParam BigDecimal amount,
-            @RequestParam(required = false) String description) {
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String referenceId) {
         try {
             if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -193,7 +207,7 @@ public class WalletController {
             }
 
             WalletResponseDTO wallet = walletService.creditWallet(userId, amount,
-                    description != null ? description : "Wallet credit");
+                    description != null ? description : "Wallet credit", referenceId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -227,7 +241,8 @@ public class WalletController {
     @PostMapping("/user/{userId}/debit")
     public ResponseEntity<?> debitWallet(@PathVariable UUID userId,
             @RequestParam BigDecimal amount,
-            @RequestParam(required = false) String description) {
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String referenceId) {
         try {
             if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -238,7 +253,7 @@ public class WalletController {
             }
 
             WalletResponseDTO wallet = walletService.debitWallet(userId, amount,
-                    description != null ? description : "Wallet debit");
+                    description != null ? description : "Wallet debit", referenceId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -265,6 +280,78 @@ public class WalletController {
         }
     }
 
+    /**
+     * Credit several entries to a wallet at once (batch payments; service tokens only)
+     * POST /api/wallets/user/{userId}/credit-batch
+     */
+    @PostMapping("/user/{userId}/credit-batch")
+    public ResponseEntity<?> creditWalletBatch(@PathVariable UUID userId,
+            @Valid @RequestBody WalletBatchRequestDTO batchRequest) {
+        try {
+            WalletResponseDTO wallet = walletService.creditWalletBatch(userId, batchRequest.getEntries());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Batch credited successfully");
+            response.put("wallet", wallet);
+            response.put("entries", batchRequest.getEntries().size());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "CREDIT_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred during batch credit");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Debit several entries from a wallet at once (batch payments; service tokens only)
+     * POST /api/wallets/user/{userId}/debit-batch
+     */
+    @PostMapping("/user/{userId}/debit-batch")
+    public ResponseEntity<?> debitWalletBatch(@PathVariable UUID userId,
+            @Valid @RequestBody WalletBatchRequestDTO batchRequest) {
+        try {
+            WalletResponseDTO wallet = walletService.debitWalletBatch(userId, batchRequest.getEntries());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Batch debited successfully");
+            response.put("wallet", wallet);
+            response.put("entries", batchRequest.getEntries().size());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "DEBIT_FAILED");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "An unexpected error occurred during batch debit");
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Transfer amount between wallets
      * POST /api/wallets/transfer
@@ -286,13 +373,15 @@ public class WalletController {
     }
 
     /**
-     * Get wallet transactions
-     * GET /api/wallets/user/{userId}/transactions
+     * Get wallet transactions, optionally only those for a payment reference
+     * GET /api/wallets/user/{userId}/transactions?referenceId={referenceId}
      */
     @GetMapping("/user/{userId}/transactions")
-    public ResponseEntity<?> getWalletTransactions(@PathVariable UUID userId) {
+    public ResponseEntity<?> getWalletTransactions(@PathVariable UUID userId,
+            @RequestParam(required = false) String referenceId) {
         try {
-            List<WalletTransactionResponseDTO> transactions = walletService.getWalletTransactions(userId);
+            List<WalletTransactionResponseDTO> transactions = walletService.getWalletTransactions(userId,
+                    referenceId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -345,4 +434,29 @@ public class WalletController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * Stream payment-referenced transactions for reconciliation, as
+     * tab-separated lines sorted by reference ID (see TransactionExportService)
+     * GET /api/wallets/transactions/by-reference?from=&to=&shard=0&shards=1
+     */
+    @GetMapping("/transactions/by-reference")
+    public ResponseEntity<StreamingResponseBody> streamReferencedTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int shard,
+            @RequestParam(defaultValue = "1") int shards) {
+        if (!from.isBefore(to) || shards < 1 || shard < 0 || shard >= shards) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            transactionExportService.exportReferencedTransactions(from, to, shard, shards, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/tab-separated-values;charset=UTF-8"))
+                .body(body);
+    }
 }
@@ -0,0 +1,64 @@
+package com.riyada.walletservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public class WalletBatchEntryDTO {
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    @Size(max = 64, message = "Reference ID must not exceed 64 characters")
+    private String referenceId;
+
+    // Constructors
+    public WalletBatchEntryDTO() {
+    }
+
+    public WalletBatchEntryDTO(BigDecimal amount, String description, String referenceId) {
+        this.amount = amount;
+        this.description = description;
+        this.referenceId = referenceId;
+    }
+
+    // Getters and Setters
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    @Override
+    public String toString() {
+        return "WalletBatchEntryDTO{" +
+                "amount=" + amount +
+                ", description='" + description + '\'' +
+                ", referenceId='" + referenceId + '\'' +
+                '}';
+    }
+}
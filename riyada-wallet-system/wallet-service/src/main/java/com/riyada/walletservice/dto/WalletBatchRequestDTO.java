@@ -0,0 +1,39 @@
+package com.riyada.walletservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class WalletBatchRequestDTO {
+
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = 1000, message = "A batch must not exceed 1000 entries")
+    @Valid
+    private List<WalletBatchEntryDTO> entries;
+
+    // Constructors
+    public WalletBatchRequestDTO() {
+    }
+
+    public WalletBatchRequestDTO(List<WalletBatchEntryDTO> entries) {
+        this.entries = entries;
+    }
+
+    // Getters and Setters
+    public List<WalletBatchEntryDTO> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<WalletBatchEntryDTO> entries) {
+        this.entries = entries;
+    }
+
+    @Override
+    public String toString() {
+        return "WalletBatchRequestDTO{" +
+                "entries=" + (entries != null ? entries.size() : 0) +
+                '}';
+    }
+}
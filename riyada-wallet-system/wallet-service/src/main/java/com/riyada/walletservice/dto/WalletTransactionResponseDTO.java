@@ -14,6 +14,7 @@ public class WalletTransactionResponseDTO {
     private BigDecimal balanceBefore;
     private BigDecimal balanceAfter;
     private String description;
+    private String referenceId;
     private LocalDateTime createdAt;
 
     // Constructors
@@ -90,6 +91,14 @@ public class WalletTransactionResponseDTO {
         this.description = description;
     }
 
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -108,6 +117,7 @@ public class WalletTransactionResponseDTO {
                 ", balanceBefore=" + balanceBefore +
                 ", balanceAfter=" + balanceAfter +
                 ", description='" + description + '\'' +
+                ", referenceId='" + referenceId + '\'' +
                 ", createdAt=" + createdAt +
                 '}';
     }
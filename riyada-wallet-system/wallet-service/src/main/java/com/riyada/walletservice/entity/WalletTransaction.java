@@ -11,11 +11,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "wallet_transactions")
+@Table(name = "wallet_transactions", indexes = {
+        @Index(name = "idx_wallet_transactions_reference_id", columnList = "reference_id"),
+        @Index(name = "idx_wallet_transactions_created_at", columnList = "created_at")
+})
 public class WalletTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "wallet_id", nullable = false)
@@ -44,6 +47,10 @@ public class WalletTransaction {
     @Size(max = 1000, message = "Description must not exceed 1000 characters")
     private String description;
 
+    // Reference of the payment that caused this movement, if any
+    @Column(name = "reference_id", length = 64)
+    private String referenceId;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -62,6 +69,12 @@ public class WalletTransaction {
         this.description = description;
     }
 
+    public WalletTransaction(UUID walletId, TransactionType transactionType, BigDecimal amount,
+            BigDecimal balanceBefore, BigDecimal balanceAfter, String description, String referenceId) {
+        this(walletId, transactionType, amount, balanceBefore, balanceAfter, description);
+        this.referenceId = referenceId;
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -119,6 +132,14 @@ public class WalletTransaction {
         this.description = description;
     }
 
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -137,6 +158,7 @@ public class WalletTransaction {
                 ", balanceBefore=" + balanceBefore +
                 ", balanceAfter=" + balanceAfter +
                 ", description='" + description + '\'' +
+                ", referenceId='" + referenceId + '\'' +
                 ", createdAt=" + createdAt +
                 '}';
     }
@@ -0,0 +1,56 @@
+package com.riyada.walletservice.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.walletservice.service.WalletService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Pre-provisions wallets from user-created events so the first balance
+ * lookup finds a wallet instead of creating one inline.
+ *
+ * Records arrive in batches (up to max-poll-records) and are provisioned
+ * with one existence query and one batched insert. A failed batch is
+ * redelivered; provisioning skips users that already have a wallet, so
+ * redelivery is harmless.
+ */
+@Component
+public class UserCreatedListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCreatedListener.class);
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "user-created", groupId = "${wallet.provisioning.consumer-group:wallet-service}",
+            batch = "true", autoStartup = "${wallet.provisioning.enabled:true}")
+    public void onUserCreated(List<String> payloads) {
+        Set<UUID> userIds = new LinkedHashSet<>();
+        for (String payload : payloads) {
+            try {
+                JsonNode data = objectMapper.readTree(payload).path("data");
+                userIds.add(UUID.fromString(data.path("userId").asText()));
+            } catch (Exception e) {
+                logger.error("Skipping malformed user-created event: {}", e.getMessage());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        int created = walletService.provisionWallets(userIds);
+        logger.info("Provisioned {} wallets from {} user-created events", created, payloads.size());
+    }
+}
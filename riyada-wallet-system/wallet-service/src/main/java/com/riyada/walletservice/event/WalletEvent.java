@@ -0,0 +1,242 @@
+package com.riyada.walletservice.event;
+
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Envelope for balance-updated events (see docs/kafka-events.md)
+ */
+public class WalletEvent {
+
+    public static final String TOPIC_BALANCE_UPDATED = "balance-updated";
+
+    public static final String TYPE_BALANCE_UPDATED = "BalanceUpdated";
+
+    private static final String SOURCE = "wallet-service";
+
+    private String eventId;
+    private String eventType;
+    private String timestamp;
+    private String source;
+    private WalletEventData data;
+
+    // Constructors
+    public WalletEvent() {
+    }
+
+    public WalletEvent(String eventType, WalletEventData data) {
+        this.eventId = UUID.randomUUID().toString();
+        this.eventType = eventType;
+        this.timestamp = Instant.now().toString();
+        this.source = SOURCE;
+        this.data = data;
+    }
+
+    /**
+     * Build a BalanceUpdated event for one wallet transaction
+     */
+    public static WalletEvent balanceUpdated(Wallet wallet, WalletTransaction transaction) {
+        return new WalletEvent(TYPE_BALANCE_UPDATED, WalletEventData.from(wallet, transaction));
+    }
+
+    /**
+     * Topic this event is published to
+     */
+    public String topic() {
+        return TOPIC_BALANCE_UPDATED;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public WalletEventData getData() {
+        return data;
+    }
+
+    public void setData(WalletEventData data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return "WalletEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", timestamp='" + timestamp + '\'' +
+                ", source='" + source + '\'' +
+                ", data=" + data +
+                '}';
+    }
+
+    /**
+     * Event payload
+     */
+    public static class WalletEventData {
+
+        private UUID transactionId;
+        private UUID walletId;
+        private UUID userId;
+        private String transactionType;
+        private BigDecimal amount;
+        private BigDecimal balanceBefore;
+        private BigDecimal balanceAfter;
+        private String currency;
+        private String description;
+        private String referenceId;
+        private LocalDateTime createdAt;
+
+        public WalletEventData() {
+        }
+
+        public static WalletEventData from(Wallet wallet, WalletTransaction transaction) {
+            WalletEventData data = new WalletEventData();
+            data.setTransactionId(transaction.getId());
+            data.setWalletId(wallet.getId());
+            data.setUserId(wallet.getUserId());
+            data.setTransactionType(transaction.getTransactionType().name());
+            data.setAmount(transaction.getAmount());
+            data.setBalanceBefore(transaction.getBalanceBefore());
+            data.setBalanceAfter(transaction.getBalanceAfter());
+            data.setCurrency(wallet.getCurrency());
+            data.setDescription(transaction.getDescription());
+            data.setReferenceId(transaction.getReferenceId());
+            // The creation timestamp is only assigned when the insert is flushed
+            data.setCreatedAt(transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now());
+            return data;
+        }
+
+        public UUID getTransactionId() {
+            return transactionId;
+        }
+
+        public void setTransactionId(UUID transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        public UUID getWalletId() {
+            return walletId;
+        }
+
+        public void setWalletId(UUID walletId) {
+            this.walletId = walletId;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public void setUserId(UUID userId) {
+            this.userId = userId;
+        }
+
+        public String getTransactionType() {
+            return transactionType;
+        }
+
+        public void setTransactionType(String transactionType) {
+            this.transactionType = transactionType;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public BigDecimal getBalanceBefore() {
+            return balanceBefore;
+        }
+
+        public void setBalanceBefore(BigDecimal balanceBefore) {
+            this.balanceBefore = balanceBefore;
+        }
+
+        public BigDecimal getBalanceAfter() {
+            return balanceAfter;
+        }
+
+        public void setBalanceAfter(BigDecimal balanceAfter) {
+            this.balanceAfter = balanceAfter;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getReferenceId() {
+            return referenceId;
+        }
+
+        public void setReferenceId(String referenceId) {
+            this.referenceId = referenceId;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        @Override
+        public String toString() {
+            return "WalletEventData{" +
+                    "transactionId=" + transactionId +
+                    ", userId=" + userId +
+                    ", transactionType='" + transactionType + '\'' +
+                    ", amount=" + amount +
+                    ", referenceId='" + referenceId + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.riyada.walletservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riyada.walletservice.entity.OutboxEvent;
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records wallet events in the outbox as part of the caller's transaction;
+ * {@link OutboxRelay} delivers them to Kafka after commit. Events are keyed
+ * by user ID so that a wallet's movements land on the same partition in order.
+ */
+@Component
+public class WalletEventPublisher {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Append a BalanceUpdated event for each transaction on the wallet
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void balanceUpdated(Wallet wallet, List<WalletTransaction> transactions) {
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (WalletTransaction transaction : transactions) {
+            WalletEvent event = WalletEvent.balanceUpdated(wallet, transaction);
+            try {
+                String payload = objectMapper.writeValueAsString(event);
+                events.add(new OutboxEvent(event.topic(), wallet.getUserId().toString(),
+                        event.getEventType(), payload));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize " + event.getEventType(), e);
+            }
+        }
+        outboxEventRepository.saveAll(events);
+    }
+}
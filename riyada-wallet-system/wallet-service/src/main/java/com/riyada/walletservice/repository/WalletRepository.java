@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,6 +41,12 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     @Query("SELECT COUNT(w) > 0 FROM Wallet w WHERE w.userId = :userId AND w.isActive = true")
     boolean existsActiveWalletByUserId(@Param("userId") UUID userId);
 
+    /**
+     * Which of the given users already have an active wallet
+     */
+    @Query("SELECT w.userId FROM Wallet w WHERE w.userId IN :userIds AND w.isActive = true")
+    List<UUID> findUserIdsWithActiveWallet(@Param("userIds") Collection<UUID> userIds);
+
     /**
      * Find all active wallets
      */
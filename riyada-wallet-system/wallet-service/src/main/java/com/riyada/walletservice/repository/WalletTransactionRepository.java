@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +26,27 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
      */
     Page<WalletTransaction> findByWalletIdOrderByCreatedAtDesc(UUID walletId, Pageable pageable);
 
+    /**
+     * Find a wallet's transactions for a payment reference
+     */
+    List<WalletTransaction> findByWalletIdAndReferenceIdOrderByCreatedAtDesc(UUID walletId, String referenceId);
+
+    /**
+     * Check if a wallet already has a transaction of this type for a payment reference
+     */
+    boolean existsByWalletIdAndReferenceIdAndTransactionType(UUID walletId, String referenceId,
+            WalletTransaction.TransactionType transactionType);
+
+    /**
+     * Those of the given references a wallet already has a transaction of this type for
+     */
+    @Query("SELECT wt.referenceId FROM WalletTransaction wt WHERE wt.walletId = :walletId " +
+            "AND wt.transactionType = :transactionType AND wt.referenceId IN :referenceIds")
+    List<String> findAppliedReferenceIds(
+            @Param("walletId") UUID walletId,
+            @Param("transactionType") WalletTransaction.TransactionType transactionType,
+            @Param("referenceIds") Collection<String> referenceIds);
+
     /**
      * Find transactions by wallet ID and transaction type
      */
@@ -0,0 +1,81 @@
+package com.riyada.walletservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+/**
+ * Streams payment-referenced wallet transactions for reconciliation.
+ *
+ * Rows are read through a server-side cursor (fetch size, inside a read-only
+ * transaction) and written straight to the response, so a full day of
+ * transactions never sits in memory. Output is one tab-separated line per
+ * transaction, ordered by reference ID in byte order:
+ *
+ * referenceId, userId, transactionType, amount, createdAt
+ *
+ * A shard is the set of references whose last character, as ASCII, is
+ * congruent to the shard number modulo the shard count. Payment-service uses
+ * the same rule, so each shard can be merged independently.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final String REFERENCED_TRANSACTIONS_SQL =
+            "SELECT wt.reference_id, w.user_id, wt.transaction_type, wt.amount, wt.created_at " +
+            "FROM wallet_transactions wt JOIN wallets w ON w.id = wt.wallet_id " +
+            "WHERE wt.reference_id IS NOT NULL AND wt.created_at >= ? AND wt.created_at < ? " +
+            "AND MOD(ASCII(RIGHT(wt.reference_id, 1)), ?) = ? " +
+            "ORDER BY wt.reference_id COLLATE \"C\", wt.created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionExportService(DataSource dataSource,
+            @Value("${wallet.export.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Write one shard of referenced transactions created in [from, to)
+     *
+     * @return number of transactions written
+     */
+    @Transactional(readOnly = true)
+    public long exportReferencedTransactions(LocalDateTime from, LocalDateTime to, int shard, int shards,
+            Writer writer) {
+        long[] count = { 0 };
+        jdbcTemplate.query(REFERENCED_TRANSACTIONS_SQL, rs -> {
+            try {
+                writer.write(rs.getString(1));
+                writer.write('\t');
+                writer.write(rs.getString(2));
+                writer.write('\t');
+                writer.write(rs.getString(3));
+                writer.write('\t');
+                writer.write(rs.getBigDecimal(4).toPlainString());
+                writer.write('\t');
+                writer.write(rs.getTimestamp(5).toLocalDateTime().toString());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }, from, to, shards, shard);
+
+        logger.info("Exported {} referenced transactions for shard {}/{} in [{}, {})",
+                count[0], shard, shards, from, to);
+        return count[0];
+    }
+}
@@ -0,0 +1,270 @@
+package com.riyada.walletservice.service;
+
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.repository.WalletTransactionRepository;
+import com.riyada.walletservice.util.MappedJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional local write-ahead journal of wallet mutations, kept in
+ * memory-mapped segment files (see {@link MappedJournal}).
+ *
+ * The transactions made in one database transaction are written as a
+ * single MUTATIONS record just before it commits, and the commit waits for
+ * that record to reach disk, so nothing is acknowledged that the journal
+ * does not hold. Once the database transaction completes, a COMMITTED or
+ * ROLLED_BACK record for it follows without waiting. If the journal cannot
+ * be synced the mutation fails and rolls back.
+ *
+ * On startup the newest segments are replayed. A MUTATIONS record with no
+ * outcome means the service stopped between the journal write and the
+ * outcome; whether it committed is read back from wallet_transactions and
+ * the outcome is appended.
+ *
+ * Segments are retired on a schedule: everything older than the newest
+ * retain-segments is deleted, unless it holds a record still waiting for
+ * its outcome.
+ */
+@Service
+public class WalletJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletJournal.class);
+
+    private static final byte MUTATIONS = 1;
+    private static final byte COMMITTED = 2;
+    private static final byte ROLLED_BACK = 3;
+
+    // Outcomes are appended right after their mutations, so a crash can only
+    // leave one unresolved in the last two segments
+    private static final int RECOVERY_SEGMENTS = 2;
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Value("${wallet.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wallet.journal.directory:./data/wallet-journal}")
+    private String directory;
+
+    @Value("${wallet.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${wallet.journal.fsync:true}")
+    private boolean fsync;
+
+    @Value("${wallet.journal.sync-timeout-ms:5000}")
+    private long syncTimeoutMs;
+
+    @Value("${wallet.journal.retain-segments:4}")
+    private int retainSegments;
+
+    private MappedJournal journal;
+
+    // Records between their journal write and their outcome, to the lowest
+    // sequence each can have
+    private final Map<PendingRecord, Long> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new MappedJournal(Path.of(directory), segmentSizeMb * 1024 * 1024, fsync);
+        recover();
+    }
+
+    /**
+     * Journal the transactions as part of the caller's database transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Wallet wallet, List<WalletTransaction> transactions) {
+        if (!enabled) {
+            return;
+        }
+        PendingRecord pending = (PendingRecord) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRecord();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        for (WalletTransaction transaction : transactions) {
+            pending.entries.add(new Entry(wallet, transaction));
+        }
+    }
+
+    /**
+     * Delete segments past the retained ones whose records all have their
+     * outcomes
+     */
+    @Scheduled(fixedDelayString = "${wallet.journal.retention-interval-ms:60000}")
+    public void retireSegments() {
+        if (journal == null) {
+            return;
+        }
+        // Read before the in-flight floors, so a record written in between is covered
+        long before = journal.lastSequence() + 1;
+        for (long floor : inFlight.values()) {
+            before = Math.min(before, floor);
+        }
+        int deleted = journal.retire(before, Math.max(RECOVERY_SEGMENTS, retainSegments));
+        if (deleted > 0) {
+            logger.info("Retired {} wallet journal segments", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Resolve MUTATIONS records left without an outcome by a crash
+     */
+    private void recover() {
+        // Sequence of each unresolved MUTATIONS record to its first transaction ID
+        Map<Long, UUID> unresolved = new LinkedHashMap<>();
+        int[] records = {0};
+        journal.replay(journal.recentSegmentsStart(RECOVERY_SEGMENTS), (sequence, payload) -> {
+            records[0]++;
+            byte type = payload.get();
+            payload.getLong();
+            if (type == MUTATIONS) {
+                payload.getInt();
+                unresolved.put(sequence, new UUID(payload.getLong(), payload.getLong()));
+            } else {
+                unresolved.remove(payload.getLong());
+            }
+        });
+
+        long last = 0;
+        for (Map.Entry<Long, UUID> entry : unresolved.entrySet()) {
+            boolean committed = walletTransactionRepository.existsById(entry.getValue());
+            last = journal.append(outcome(committed ? COMMITTED : ROLLED_BACK, entry.getKey()));
+        }
+        if (last > 0) {
+            journal.awaitDurable(last, syncTimeoutMs);
+        }
+        logger.info("Wallet journal at {} opened: last sequence {}, replayed {} records, resolved {}",
+                directory, journal.lastSequence(), records[0], unresolved.size());
+    }
+
+    private static byte[] mutations(List<Entry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MUTATIONS);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                writeUuid(out, entry.transactionId);
+                writeUuid(out, entry.walletId);
+                writeUuid(out, entry.userId);
+                out.writeUTF(entry.type);
+                out.writeUTF(entry.amount);
+                out.writeUTF(entry.balanceAfter);
+                out.writeBoolean(entry.referenceId != null);
+                if (entry.referenceId != null) {
+                    out.writeUTF(entry.referenceId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] outcome(byte type, long mutationsSequence) {
+        return ByteBuffer.allocate(1 + 2 * Long.BYTES)
+                .put(type)
+                .putLong(System.currentTimeMillis())
+                .putLong(mutationsSequence)
+                .array();
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    /**
+     * A journaled wallet transaction, captured when it is recorded
+     */
+    private static final class Entry {
+        private final UUID transactionId;
+        private final UUID walletId;
+        private final UUID userId;
+        private final String type;
+        private final String amount;
+        private final String balanceAfter;
+        private final String referenceId;
+
+        private Entry(Wallet wallet, WalletTransaction transaction) {
+            this.transactionId = transaction.getId();
+            this.walletId = wallet.getId();
+            this.userId = wallet.getUserId();
+            this.type = transaction.getTransactionType().name();
+            this.amount = transaction.getAmount().toPlainString();
+            this.balanceAfter = transaction.getBalanceAfter().toPlainString();
+            this.referenceId = transaction.getReferenceId();
+        }
+    }
+
+    /**
+     * The entries of one database transaction, written before it commits
+     */
+    private final class PendingRecord implements TransactionSynchronization {
+        private final List<Entry> entries = new ArrayList<>();
+        private long sequence;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // No lower than the sequence the append below will get
+            inFlight.put(this, journal.lastSequence() + 1);
+            sequence = journal.append(mutations(entries));
+            journal.awaitDurable(sequence, syncTimeoutMs);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(WalletJournal.this);
+            if (sequence == 0) {
+                inFlight.remove(this);
+                return;
+            }
+            try {
+                journal.append(outcome(status == STATUS_COMMITTED ? COMMITTED : ROLLED_BACK, sequence));
+            } catch (RuntimeException e) {
+                logger.error("Could not journal the outcome of record {}: {}", sequence, e.getMessage());
+            } finally {
+                inFlight.remove(this);
+            }
+        }
+    }
+}
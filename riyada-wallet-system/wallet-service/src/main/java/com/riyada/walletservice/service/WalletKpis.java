@@ -0,0 +1,123 @@
+package com.riyada.walletservice.service;
+
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.util.InfluxLineWriter;
+import com.riyada.walletservice.util.KpiAccumulator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Business KPIs for wallet-service, recorded in memory and written to
+ * InfluxDB every flush interval as the wallet_movements measurement
+ * (tags: type credit or debit, service, instance; fields: count, amount).
+ * Movements are counted once their transaction commits.
+ */
+@Component
+public class WalletKpis {
+
+    private static final String SERVICE = "wallet-service";
+
+    @Value("${kpi.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kpi.influx.url:http://localhost:8086}")
+    private String url;
+
+    @Value("${kpi.influx.org:riyada}")
+    private String org;
+
+    @Value("${kpi.influx.bucket:riyada_metrics}")
+    private String bucket;
+
+    @Value("${kpi.influx.token:}")
+    private String token;
+
+    @Value("${kpi.influx.batch-lines:5000}")
+    private int batchLines;
+
+    @Value("${kpi.influx.max-buffered-lines:100000}")
+    private int maxBufferedLines;
+
+    @Value("${kpi.influx.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private final KpiAccumulator accumulator = new KpiAccumulator();
+
+    private KpiAccumulator.Series credits;
+    private KpiAccumulator.Series debits;
+    private InfluxLineWriter writer;
+
+    @PostConstruct
+    public void init() {
+        String instance = instanceName();
+        credits = accumulator.series("wallet_movements", "type", "credit", "service", SERVICE, "instance", instance);
+        debits = accumulator.series("wallet_movements", "type", "debit", "service", SERVICE, "instance", instance);
+        if (enabled) {
+            writer = new InfluxLineWriter(url, org, bucket, token, batchLines, maxBufferedLines,
+                    Duration.ofMillis(timeoutMillis));
+        }
+    }
+
+    /**
+     * Count the wallet transactions once the surrounding transaction commits
+     */
+    public void recordMovements(List<WalletTransaction> transactions) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactions.forEach(this::record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactions.forEach(WalletKpis.this::record);
+            }
+        });
+    }
+
+    /**
+     * Drain the accumulators and write what is buffered
+     */
+    @Scheduled(fixedDelayString = "${kpi.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        writer.enqueue(accumulator.drain(System.currentTimeMillis()));
+        writer.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(WalletTransaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        if (transaction.getTransactionType() == WalletTransaction.TransactionType.DEBIT) {
+            debits.record(amount);
+        } else {
+            credits.record(amount);
+        }
+    }
+
+    private static String instanceName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return SERVICE;
+        }
+    }
+}
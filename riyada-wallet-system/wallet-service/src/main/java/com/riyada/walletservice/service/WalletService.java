@@ -1,29 +1,46 @@
 package com.riyada.walletservice.service;
 
 import com.riyada.walletservice.client.UserServiceClient;
+import com.riyada.walletservice.dto.WalletBatchEntryDTO;
 import com.riyada.walletservice.dto.WalletCreateDTO;
 import com.riyada.walletservice.dto.WalletResponseDTO;
 import com.riyada.walletservice.dto.WalletTransactionResponseDTO;
 import com.riyada.walletservice.entity.Wallet;
 import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.event.WalletEventPublisher;
 import com.riyada.walletservice.repository.WalletRepository;
 import com.riyada.walletservice.repository.WalletTransactionRepository;
 import com.riyada.walletservice.util.WalletMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "wallet.service", histogram = true)
 public class WalletService {
 
     private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
@@ -37,6 +54,21 @@ public class WalletService {
     @Autowired
     private UserServiceClient userServiceClient;
 
+    @Autowired
+    private WalletEventPublisher walletEventPublisher;
+
+    @Autowired
+    private WalletJournal walletJournal;
+
+    @Autowired
+    private WalletKpis walletKpis;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     /**
      * Create a new wallet for a user
      */
@@ -49,9 +81,14 @@ public class WalletService {
             throw new RuntimeException("User already has an active wallet");
         }
 
-        // Create new wallet
+        // Create new wallet; flush so a concurrent create trips the unique
+        // active-wallet index here rather than at commit
         Wallet wallet = WalletMapper.toWallet(createDTO);
-        wallet = walletRepository.save(wallet);
+        try {
+            wallet = walletRepository.saveAndFlush(wallet);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User already has an active wallet");
+        }
 
         // Create initial transaction record - SKIP for wallet creation to avoid
         // validation errors
@@ -69,11 +106,58 @@ public class WalletService {
     }
 
     /**
-     * Create wallet for user with specific currency
+     * Create wallet for user with specific currency, or return the one that
+     * already exists. The insert runs in its own transaction, so losing the
+     * race against pre-provisioning (unique active wallet per user) doesn't
+     * abort the caller's transaction.
      */
     public WalletResponseDTO createWalletForUser(UUID userId, String currency) {
-        WalletCreateDTO createDTO = new WalletCreateDTO(userId, currency);
-        return createWallet(createDTO);
+        try {
+            Wallet wallet = newTransaction().execute(status -> walletRepository.findActiveWalletByUserId(userId)
+                    .orElseGet(() -> walletRepository.saveAndFlush(new Wallet(userId, currency))));
+            return WalletMapper.toWalletResponseDTO(wallet);
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Wallet for user {} was provisioned concurrently", userId);
+            return walletRepository.findActiveWalletByUserId(userId)
+                    .map(WalletMapper::toWalletResponseDTO)
+                    .orElseThrow(() -> new RuntimeException("Wallet not found for user: " + userId));
+        }
+    }
+
+    /**
+     * Create wallets for any of the given users that don't have one yet
+     * (pre-provisioning from user-created events). Returns the number created.
+     * A user whose wallet was created lazily in the meantime counts as
+     * already provisioned.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int provisionWallets(Collection<UUID> userIds) {
+        Set<UUID> missing = new LinkedHashSet<>(userIds);
+        missing.removeAll(walletRepository.findUserIdsWithActiveWallet(userIds));
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            List<Wallet> wallets = new ArrayList<>(missing.size());
+            for (UUID userId : missing) {
+                wallets.add(new Wallet(userId));
+            }
+            newTransaction().executeWithoutResult(status -> walletRepository.saveAllAndFlush(wallets));
+            return wallets.size();
+        } catch (DataIntegrityViolationException e) {
+            // The batch rolled back; insert one by one and skip the duplicates
+            int created = 0;
+            for (UUID userId : missing) {
+                try {
+                    newTransaction().executeWithoutResult(status -> walletRepository.saveAndFlush(new Wallet(userId)));
+                    created++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    logger.debug("Wallet for user {} already provisioned", userId);
+                }
+            }
+            return created;
+        }
     }
 
     /**
@@ -110,6 +194,15 @@ public class WalletService {
      * Credit amount to wallet - auto-creates wallet if not found
      */
     public WalletResponseDTO creditWallet(UUID userId, BigDecimal amount, String description) {
+        return creditWallet(userId, amount, description, null);
+    }
+
+    /**
+     * Credit amount to wallet, tagging the transaction with a payment
+     * reference. A retry for a reference the wallet was already credited for
+     * is not applied again.
+     */
+    public WalletResponseDTO creditWallet(UUID userId, BigDecimal amount, String description, String referenceId) {
         logger.info("Crediting wallet for user {} with amount: {}", userId, amount);
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             logger.error("Invalid credit amount {} for user {}", amount, userId);
@@ -123,14 +216,21 @@ public class WalletService {
             walletOpt = walletRepository.findActiveWalletByUserId(userId);
         }
 
-        Wallet wallet = walletOpt.get();
-        BigDecimal balanceBefore = wallet.getBalance();
-        wallet.credit(amount);
-        wallet = walletRepository.save(wallet);
+        Wallet target = walletOpt.get();
+        if (alreadyApplied(target, WalletTransaction.TransactionType.CREDIT, referenceId)) {
+            return WalletMapper.toWalletResponseDTO(target);
+        }
+
+        Wallet wallet = balanceMutation("credit", userId, () -> {
+            BigDecimal balanceBefore = target.getBalance();
+            target.credit(amount);
+            Wallet saved = walletRepository.save(target);
 
-        // Create transaction record
-        createTransactionRecord(wallet.getId(), WalletTransaction.TransactionType.CREDIT,
-                amount, balanceBefore, wallet.getBalance(), description);
+            // Create transaction record
+            createTransactionRecord(saved, WalletTransaction.TransactionType.CREDIT,
+                    amount, balanceBefore, saved.getBalance(), description, referenceId);
+            return saved;
+        });
 
         logger.info("Successfully credited {} to wallet for user {} - New balance: {}",
                 amount, userId, wallet.getBalance());
@@ -141,6 +241,15 @@ public class WalletService {
      * Debit amount from wallet
      */
     public WalletResponseDTO debitWallet(UUID userId, BigDecimal amount, String description) {
+        return debitWallet(userId, amount, description, null);
+    }
+
+    /**
+     * Debit amount from wallet, tagging the transaction with a payment
+     * reference. A retry for a reference the wallet was already debited for
+     * is not applied again.
+     */
+    public WalletResponseDTO debitWallet(UUID userId, BigDecimal amount, String description, String referenceId) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Debit amount must be greater than zero");
         }
@@ -151,20 +260,155 @@ public class WalletService {
         }
 
         Wallet wallet = walletOpt.get();
+        if (alreadyApplied(wallet, WalletTransaction.TransactionType.DEBIT, referenceId)) {
+            return WalletMapper.toWalletResponseDTO(wallet);
+        }
 
         // Check sufficient balance
         if (!wallet.hasSufficientBalance(amount)) {
             throw new RuntimeException("Insufficient balance. Available: " + wallet.getBalance());
         }
 
-        BigDecimal balanceBefore = wallet.getBalance();
-        wallet.debit(amount);
-        wallet = walletRepository.save(wallet);
+        Wallet debited = balanceMutation("debit", userId, () -> {
+            BigDecimal balanceBefore = wallet.getBalance();
+            wallet.debit(amount);
+            Wallet saved = walletRepository.save(wallet);
 
-        // Create transaction record
-        createTransactionRecord(wallet.getId(), WalletTransaction.TransactionType.DEBIT,
-                amount, balanceBefore, wallet.getBalance(), description);
+            // Create transaction record
+            createTransactionRecord(saved, WalletTransaction.TransactionType.DEBIT,
+                    amount, balanceBefore, saved.getBalance(), description, referenceId);
+            return saved;
+        });
 
+        return WalletMapper.toWalletResponseDTO(debited);
+    }
+
+    /**
+     * Debit several entries from one wallet in a single transaction. The
+     * balance is checked once against the total, and each entry gets its own
+     * transaction record. Either every entry is applied or none is; entries
+     * whose reference was already debited (a retried batch) are skipped.
+     */
+    public WalletResponseDTO debitWalletBatch(UUID userId, List<WalletBatchEntryDTO> entries) {
+        batchTotal(entries);
+
+        Optional<Wallet> walletOpt = walletRepository.findActiveWalletByUserId(userId);
+        if (walletOpt.isEmpty()) {
+            throw new RuntimeException("Wallet not found for user: " + userId);
+        }
+
+        Wallet wallet = walletOpt.get();
+        entries = notYetApplied(wallet, WalletTransaction.TransactionType.DEBIT, entries);
+        BigDecimal total = batchTotal(entries);
+        if (!wallet.hasSufficientBalance(total)) {
+            throw new RuntimeException("Insufficient balance. Available: " + wallet.getBalance());
+        }
+
+        logger.info("Debiting {} entries totalling {} from wallet for user {}", entries.size(), total, userId);
+        return applyBatch(wallet, WalletTransaction.TransactionType.DEBIT, entries);
+    }
+
+    /**
+     * Credit several entries to one wallet in a single transaction, one
+     * transaction record per entry; entries whose reference was already
+     * credited are skipped
+     */
+    public WalletResponseDTO creditWalletBatch(UUID userId, List<WalletBatchEntryDTO> entries) {
+        batchTotal(entries);
+
+        Optional<Wallet> walletOpt = walletRepository.findActiveWalletByUserId(userId);
+        if (walletOpt.isEmpty()) {
+            logger.info("Wallet not found for user {} - creating new wallet", userId);
+            createWalletForUser(userId);
+            walletOpt = walletRepository.findActiveWalletByUserId(userId);
+        }
+
+        Wallet wallet = walletOpt.get();
+        entries = notYetApplied(wallet, WalletTransaction.TransactionType.CREDIT, entries);
+        logger.info("Crediting {} entries totalling {} to wallet for user {}", entries.size(), batchTotal(entries),
+                userId);
+        return applyBatch(wallet, WalletTransaction.TransactionType.CREDIT, entries);
+    }
+
+    /**
+     * True if the wallet already has a transaction of this type for the
+     * reference, i.e. the request is a retry of one that was applied
+     */
+    private boolean alreadyApplied(Wallet wallet, WalletTransaction.TransactionType type, String referenceId) {
+        if (referenceId == null
+                || !walletTransactionRepository.existsByWalletIdAndReferenceIdAndTransactionType(
+                        wallet.getId(), referenceId, type)) {
+            return false;
+        }
+        logger.info("{} for reference {} already applied to wallet for user {}", type, referenceId,
+                wallet.getUserId());
+        return true;
+    }
+
+    /**
+     * The batch entries that don't reference a transaction of this type the
+     * wallet already has
+     */
+    private List<WalletBatchEntryDTO> notYetApplied(Wallet wallet, WalletTransaction.TransactionType type,
+            List<WalletBatchEntryDTO> entries) {
+        Set<String> referenceIds = entries.stream()
+                .map(WalletBatchEntryDTO::getReferenceId)
+                .filter(referenceId -> referenceId != null)
+                .collect(Collectors.toSet());
+        if (referenceIds.isEmpty()) {
+            return entries;
+        }
+        Set<String> applied = new HashSet<>(
+                walletTransactionRepository.findAppliedReferenceIds(wallet.getId(), type, referenceIds));
+        if (applied.isEmpty()) {
+            return entries;
+        }
+        logger.info("Skipping {} batch entries already applied to wallet for user {}", applied.size(),
+                wallet.getUserId());
+        return entries.stream()
+                .filter(entry -> entry.getReferenceId() == null || !applied.contains(entry.getReferenceId()))
+                .toList();
+    }
+
+    private BigDecimal batchTotal(List<WalletBatchEntryDTO> entries) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (WalletBatchEntryDTO entry : entries) {
+            if (entry.getAmount() == null || entry.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new RuntimeException("Batch amounts must be greater than zero");
+            }
+            total = total.add(entry.getAmount());
+        }
+        return total;
+    }
+
+    private WalletResponseDTO applyBatch(Wallet wallet, WalletTransaction.TransactionType type,
+            List<WalletBatchEntryDTO> entries) {
+        if (entries.isEmpty()) {
+            return WalletMapper.toWalletResponseDTO(wallet);
+        }
+        return balanceMutation(type == WalletTransaction.TransactionType.DEBIT ? "debit-batch" : "credit-batch",
+                wallet.getUserId(), () -> applyBatchEntries(wallet, type, entries));
+    }
+
+    private WalletResponseDTO applyBatchEntries(Wallet wallet, WalletTransaction.TransactionType type,
+            List<WalletBatchEntryDTO> entries) {
+        List<WalletTransaction> transactions = new ArrayList<>(entries.size());
+        for (WalletBatchEntryDTO entry : entries) {
+            BigDecimal balanceBefore = wallet.getBalance();
+            if (type == WalletTransaction.TransactionType.DEBIT) {
+                wallet.debit(entry.getAmount());
+            } else {
+                wallet.credit(entry.getAmount());
+            }
+            transactions.add(new WalletTransaction(wallet.getId(), type, entry.getAmount(),
+                    balanceBefore, wallet.getBalance(), entry.getDescription(), entry.getReferenceId()));
+        }
+
+        wallet = walletRepository.save(wallet);
+        walletTransactionRepository.saveAll(transactions);
+        walletEventPublisher.balanceUpdated(wallet, transactions);
+        walletJournal.record(wallet, transactions);
+        walletKpis.recordMovements(transactions);
         return WalletMapper.toWalletResponseDTO(wallet);
     }
 
@@ -200,23 +444,26 @@ public class WalletService {
         }
 
         // Perform transfer atomically
-        BigDecimal fromBalanceBefore = fromWallet.getBalance();
-        BigDecimal toBalanceBefore = toWallet.getBalance();
+        balanceMutation("transfer", fromUserId, () -> {
+            BigDecimal fromBalanceBefore = fromWallet.getBalance();
+            BigDecimal toBalanceBefore = toWallet.getBalance();
 
-        fromWallet.debit(amount);
-        toWallet.credit(amount);
+            fromWallet.debit(amount);
+            toWallet.credit(amount);
 
-        walletRepository.save(fromWallet);
-        walletRepository.save(toWallet);
+            walletRepository.save(fromWallet);
+            walletRepository.save(toWallet);
 
-        // Create transaction records
-        createTransactionRecord(fromWallet.getId(), WalletTransaction.TransactionType.DEBIT,
-                amount, fromBalanceBefore, fromWallet.getBalance(),
-                description != null ? description : "Transfer to user: " + toUserId);
+            // Create transaction records
+            createTransactionRecord(fromWallet, WalletTransaction.TransactionType.DEBIT,
+                    amount, fromBalanceBefore, fromWallet.getBalance(),
+                    description != null ? description : "Transfer to user: " + toUserId);
 
-        createTransactionRecord(toWallet.getId(), WalletTransaction.TransactionType.CREDIT,
-                amount, toBalanceBefore, toWallet.getBalance(),
-                description != null ? description : "Transfer from user: " + fromUserId);
+            createTransactionRecord(toWallet, WalletTransaction.TransactionType.CREDIT,
+                    amount, toBalanceBefore, toWallet.getBalance(),
+                    description != null ? description : "Transfer from user: " + fromUserId);
+            return null;
+        });
 
         return Map.of(
                 "success", true,
@@ -231,13 +478,23 @@ public class WalletService {
      */
     @Transactional(readOnly = true)
     public List<WalletTransactionResponseDTO> getWalletTransactions(UUID userId) {
+        return getWalletTransactions(userId, null);
+    }
+
+    /**
+     * Get wallet transactions, only those for a payment reference if one is given
+     */
+    @Transactional(readOnly = true)
+    public List<WalletTransactionResponseDTO> getWalletTransactions(UUID userId, String referenceId) {
         Optional<Wallet> wallet = walletRepository.findActiveWalletByUserId(userId);
         if (wallet.isEmpty()) {
             throw new RuntimeException("Wallet not found for user: " + userId);
         }
 
-        List<WalletTransaction> transactions = walletTransactionRepository
-                .findByWalletIdOrderByCreatedAtDesc(wallet.get().getId());
+        List<WalletTransaction> transactions = referenceId == null
+                ? walletTransactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.get().getId())
+                : walletTransactionRepository.findByWalletIdAndReferenceIdOrderByCreatedAtDesc(
+                        wallet.get().getId(), referenceId);
 
         return transactions.stream()
                 .map(WalletMapper::toWalletTransactionResponseDTO)
@@ -268,14 +525,50 @@ public class WalletService {
         return WalletMapper.toWalletResponseDTO(wallet);
     }
 
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    /**
+     * Run a balance change (save, transaction records, event and journal
+     * entries) in its own wallet.balance-mutation span. The UPDATE itself is
+     * flushed at commit, inside the request span.
+     */
+    private <T> T balanceMutation(String operation, UUID userId, Supplier<T> mutation) {
+        Span span = tracer.nextSpan()
+                .name("wallet.balance-mutation")
+                .tag("operation", operation)
+                .tag("user.id", String.valueOf(userId))
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return mutation.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
     /**
-     * Create transaction record
+     * Create transaction record, its balance-updated event and journal entry
      */
-    private void createTransactionRecord(UUID walletId, WalletTransaction.TransactionType type,
+    private void createTransactionRecord(Wallet wallet, WalletTransaction.TransactionType type,
             BigDecimal amount, BigDecimal balanceBefore, BigDecimal balanceAfter,
             String description) {
+        createTransactionRecord(wallet, type, amount, balanceBefore, balanceAfter, description, null);
+    }
+
+    private void createTransactionRecord(Wallet wallet, WalletTransaction.TransactionType type,
+            BigDecimal amount, BigDecimal balanceBefore, BigDecimal balanceAfter,
+            String description, String referenceId) {
         WalletTransaction transaction = new WalletTransaction(
-                walletId, type, amount, balanceBefore, balanceAfter, description);
-        walletTransactionRepository.save(transaction);
+                wallet.getId(), type, amount, balanceBefore, balanceAfter, description, referenceId);
+        transaction = walletTransactionRepository.save(transaction);
+        walletEventPublisher.balanceUpdated(wallet, List.of(transaction));
+        walletJournal.record(wallet, List.of(transaction));
+        walletKpis.recordMovements(List.of(transaction));
     }
 }
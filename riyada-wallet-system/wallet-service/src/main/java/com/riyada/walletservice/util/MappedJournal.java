@@ -0,0 +1,407 @@
+package com.riyada.walletservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of byte records in fixed-size, memory-mapped segment
+ * files. A record is [length][crc32c][sequence][payload]; the checksum
+ * covers the sequence and payload, and sequences run 1, 2, 3, ... across
+ * segments. Each segment is named after the first sequence it holds, and a
+ * zero length marks where its records end.
+ *
+ * Appending copies the record into the mapping, which survives a process
+ * crash as soon as the copy is done. Surviving a power loss needs the pages
+ * forced to disk: a sync thread forces everything appended so far in one
+ * call and wakes the waiters it covered, so appends arriving while a force
+ * runs share the next one (group fsync).
+ *
+ * On open, only the last segment is scanned, to find where writing stops.
+ * A record that fails its checksum there was torn by a crash; it and
+ * everything after it is zeroed. Replay checks every record it reads and
+ * stops a segment at the first bad one.
+ *
+ * Old segments are deleted by {@link #retire}, once the owner no longer
+ * needs their records; the newest segments are always kept.
+ */
+public final class MappedJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedJournal.class);
+
+    private static final String SUFFIX = ".journal";
+
+    // length + crc32c + sequence
+    private static final int HEADER_BYTES = 16;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final Object lock = new Object();
+    private final List<Segment> segments = new ArrayList<>();
+    // Segments with appends not yet forced, oldest first
+    private final Set<Segment> unsynced = new LinkedHashSet<>();
+    private final Thread syncer;
+
+    private Segment current;
+    private long lastSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean running = true;
+
+    /**
+     * One segment file and its mapping
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long baseSequence;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private int syncedPosition;
+
+        private Segment(Path path, long baseSequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.baseSequence = baseSequence;
+            this.buffer = buffer;
+        }
+    }
+
+    public MappedJournal(Path directory, int segmentBytes, boolean fsync) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed the record header");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            segments.add(map(file, Long.parseLong(name.substring(0, name.length() - SUFFIX.length()))));
+        }
+        if (segments.isEmpty()) {
+            segments.add(map(segmentPath(1), 1));
+        }
+        current = segments.get(segments.size() - 1);
+        recoverTail(current);
+        durableSequence = lastSequence;
+
+        this.syncer = new Thread(this::runSync, "journal-sync-" + directory.getFileName());
+        this.syncer.setDaemon(true);
+        this.syncer.start();
+    }
+
+    /**
+     * Append a record and return its sequence. The record is in the page
+     * cache on return; call {@link #awaitDurable} to wait until it is on disk.
+     */
+    public long append(byte[] payload) {
+        if (payload.length > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Journal record of " + payload.length
+                    + " bytes does not fit a segment");
+        }
+        synchronized (lock) {
+            if (!running) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (current.writePosition + HEADER_BYTES + payload.length > segmentBytes) {
+                roll();
+            }
+            long sequence = lastSequence + 1;
+            int position = current.writePosition;
+            MappedByteBuffer buffer = current.buffer;
+
+            CRC32C crc = new CRC32C();
+            crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+            crc.update(payload);
+
+            // Length goes in last, so a reader never sees a record before its bytes
+            buffer.putLong(position + 8, sequence);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, payload.length);
+
+            current.writePosition = position + HEADER_BYTES + payload.length;
+            lastSequence = sequence;
+            unsynced.add(current);
+            lock.notifyAll();
+            return sequence;
+        }
+    }
+
+    /**
+     * Block until the record with this sequence, and all before it, has
+     * been forced to disk. Returns at once when fsync is off.
+     */
+    public void awaitDurable(long sequence, long timeoutMillis) {
+        if (!fsync) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (lock) {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal sync failed", failure);
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out waiting for journal sync");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for journal sync", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sequence of the last record appended
+     */
+    public long lastSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * First sequence held by the given number of newest segments
+     */
+    public long recentSegmentsStart(int count) {
+        synchronized (lock) {
+            return segments.get(Math.max(0, segments.size() - count)).baseSequence;
+        }
+    }
+
+    /**
+     * Delete segments whose records all precede the given sequence, keeping
+     * at least the given number of newest segments. Returns how many were
+     * deleted. A replay already running keeps reading its mappings.
+     */
+    public int retire(long beforeSequence, int keep) {
+        List<Segment> retired = new ArrayList<>();
+        synchronized (lock) {
+            // A segment's records end where the next one's begin
+            while (segments.size() > Math.max(1, keep) && segments.get(1).baseSequence <= beforeSequence) {
+                retired.add(segments.remove(0));
+            }
+        }
+        int deleted = 0;
+        for (Segment segment : retired) {
+            try {
+                Files.deleteIfExists(segment.path);
+                deleted++;
+            } catch (IOException e) {
+                logger.warn("Could not delete journal segment {}: {}", segment.path.getFileName(), e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Number of segments held
+     */
+    public int segmentCount() {
+        synchronized (lock) {
+            return segments.size();
+        }
+    }
+
+    /**
+     * Pass each record from the given sequence on, in order, to the handler.
+     * The payload buffer is only valid during the call.
+     */
+    public void replay(long fromSequence, BiConsumer<Long, ByteBuffer> handler) {
+        List<Segment> snapshot;
+        int currentEnd;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(segments);
+            currentEnd = current.writePosition;
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (i + 1 < snapshot.size() && snapshot.get(i + 1).baseSequence <= fromSequence) {
+                continue;
+            }
+            Segment segment = snapshot.get(i);
+            int limit = i == snapshot.size() - 1 ? currentEnd : segmentBytes;
+            int end = scan(segment, limit, (sequence, payload) -> {
+                if (sequence >= fromSequence) {
+                    handler.accept(sequence, payload);
+                }
+            });
+            if (end + HEADER_BYTES <= limit && segment.buffer.getInt(end) != 0) {
+                logger.error("Journal segment {} is corrupt at {}; skipping its remaining records",
+                        segment.path.getFileName(), end);
+            }
+        }
+    }
+
+    /**
+     * Stop the sync thread and force whatever is left
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            syncer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            for (Segment segment : unsynced) {
+                segment.buffer.force();
+            }
+            unsynced.clear();
+        }
+    }
+
+    private void runSync() {
+        while (true) {
+            long target;
+            List<Segment> dirty;
+            List<int[]> ranges = new ArrayList<>();
+            synchronized (lock) {
+                while (running && unsynced.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                target = lastSequence;
+                dirty = new ArrayList<>(unsynced);
+                unsynced.clear();
+                for (Segment segment : dirty) {
+                    ranges.add(new int[] {segment.syncedPosition, segment.writePosition});
+                }
+            }
+
+            try {
+                for (int i = 0; i < dirty.size(); i++) {
+                    int[] range = ranges.get(i);
+                    if (fsync) {
+                        dirty.get(i).buffer.force(range[0], range[1] - range[0]);
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                logger.error("Journal sync failed in {}: {}", directory, e.getMessage());
+                synchronized (lock) {
+                    failure = e.getCause();
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                for (int i = 0; i < dirty.size(); i++) {
+                    dirty.get(i).syncedPosition = ranges.get(i)[1];
+                }
+                durableSequence = target;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void roll() {
+        try {
+            current = map(segmentPath(lastSequence + 1), lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment", e);
+        }
+        segments.add(current);
+    }
+
+    private Path segmentPath(long baseSequence) {
+        return directory.resolve(String.format("%020d%s", baseSequence, SUFFIX));
+    }
+
+    private Segment map(Path path, long baseSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(path, baseSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+    }
+
+    /**
+     * Find the end of the last segment and zero any torn record
+     */
+    private void recoverTail(Segment segment) {
+        long[] last = {segment.baseSequence - 1};
+        int position = scan(segment, segmentBytes, (sequence, payload) -> last[0] = sequence);
+        MappedByteBuffer buffer = segment.buffer;
+        if (position + HEADER_BYTES <= segmentBytes && buffer.getInt(position) != 0) {
+            logger.warn("Truncating torn journal record at {}:{}", segment.path.getFileName(), position);
+            for (int i = position; i < segmentBytes; i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+            buffer.force();
+        }
+        segment.writePosition = position;
+        segment.syncedPosition = position;
+        lastSequence = last[0];
+    }
+
+    /**
+     * Hand the segment's valid records below the limit to the handler and
+     * return where they end: at a zero length, the limit, or the first
+     * record that is out of bounds, out of sequence or fails its checksum
+     */
+    private int scan(Segment segment, int limit, BiConsumer<Long, ByteBuffer> handler) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        long expected = segment.baseSequence;
+        int position = 0;
+        while (position + HEADER_BYTES <= limit) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > limit
+                    || buffer.getLong(position + 8) != expected
+                    || !checksumMatches(buffer, position, length)) {
+                break;
+            }
+            handler.accept(expected, buffer.slice(position + HEADER_BYTES, length).asReadOnlyBuffer());
+            position += HEADER_BYTES + length;
+            expected++;
+        }
+        return position;
+    }
+
+    private static boolean checksumMatches(ByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + 8, Long.BYTES + length));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+}
@@ -0,0 +1,148 @@
+package com.riyada.walletservice.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by an arbitrary key (e.g. user ID). Each bucket holds
+ * up to capacity tokens and refills at a steady rate; a request takes one
+ * token or is rejected.
+ *
+ * A bucket is stored as a single timestamp, the time at which it would be
+ * full again (the GCRA form of a token bucket), so taking a token is one
+ * compare-and-set with no lock. Buckets live in a fixed number of stripes;
+ * idle buckets are evicted one stripe at a time by whichever caller finds a
+ * sweep due, so no background thread is needed. Only buckets that have
+ * refilled are evicted, and a new bucket starts full, so eviction at most
+ * forgets the one request racing with it.
+ */
+public final class TokenBucketRateLimiter<K> {
+
+    private final long capacity;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long idleNanos;
+    private final long sweepIntervalNanos;
+    private final Map<K, AtomicLong>[] stripes;
+    private final int mask;
+
+    private final AtomicLong nextSweepNanos;
+    private final AtomicInteger sweepCursor = new AtomicInteger();
+
+    /**
+     * Outcome of one acquire
+     */
+    public static final class Decision {
+        private final boolean allowed;
+        private final long remaining;
+        private final long retryAfterNanos;
+
+        private Decision(boolean allowed, long remaining, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * Tokens left after this request
+         */
+        public long getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * Time until the next token is available; zero when allowed
+         */
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(long capacity, double refillPerSecond, long idleMillis, int stripeCount) {
+        if (capacity <= 0 || refillPerSecond <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("Capacity, refill rate and stripe count must be positive");
+        }
+        // Power of two, so the stripe index is a mask
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.toleranceNanos = capacity * intervalNanos;
+        this.idleNanos = Math.max(0, idleMillis) * 1_000_000L;
+        this.sweepIntervalNanos = Math.max(1_000_000L, idleNanos / size);
+        this.stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + sweepIntervalNanos);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Take one token from the key's bucket
+     */
+    public Decision tryAcquire(K key) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        AtomicLong fullAt = stripeOf(key).computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long debt = next - now;
+            if (debt > toleranceNanos) {
+                return new Decision(false, 0, debt - toleranceNanos);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new Decision(true, (toleranceNanos - debt) / intervalNanos, 0);
+            }
+        }
+    }
+
+    /**
+     * Buckets currently held
+     */
+    public int size() {
+        int size = 0;
+        for (Map<K, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Map<K, AtomicLong> stripeOf(K key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + sweepIntervalNanos)) {
+            return;
+        }
+        Map<K, AtomicLong> stripe = stripes[sweepCursor.getAndIncrement() & mask];
+        Iterator<Map.Entry<K, AtomicLong>> iterator = stripe.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, AtomicLong> entry = iterator.next();
+            // Full and untouched for the idle period
+            if (now - entry.getValue().get() >= idleNanos) {
+                stripe.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.riyada.walletservice.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7).
+ *
+ * The top 48 bits are the Unix time in milliseconds, followed by a 12-bit
+ * counter that keeps IDs from this JVM strictly increasing within the same
+ * millisecond, then 62 random bits. New rows therefore land at the right
+ * edge of primary key indexes instead of at random pages.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long millis;
+        int seq;
+        synchronized (UuidV7.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                sequence = 0;
+            } else if (++sequence > MAX_SEQUENCE) {
+                // Counter exhausted (or the clock went back): borrow the next millisecond
+                lastMillis++;
+                sequence = 0;
+            }
+            millis = lastMillis;
+            seq = sequence;
+        }
+
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Creation time embedded in a version 7 UUID
+     */
+    public static long timestampMillis(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -45,6 +45,7 @@ public class WalletMapper {
         responseDTO.setBalanceBefore(transaction.getBalanceBefore());
         responseDTO.setBalanceAfter(transaction.getBalanceAfter());
         responseDTO.setDescription(transaction.getDescription());
+        responseDTO.setReferenceId(transaction.getReferenceId());
         responseDTO.setCreatedAt(transaction.getCreatedAt());
         return responseDTO;
     }
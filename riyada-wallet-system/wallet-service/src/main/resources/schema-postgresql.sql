@@ -0,0 +1,9 @@
+-- Applied after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- At most one active wallet per user; wallet pre-provisioning and lazy creation
+-- rely on this to detect that the other one got there first.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_wallets_active_user_id ON wallets (user_id) WHERE is_active;
+-- At most one transaction of each type per wallet and payment reference. A
+-- retried credit or debit is answered from the first one; a retry racing the
+-- original fails here instead of moving the money twice.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_wallet_transactions_reference
+    ON wallet_transactions (wallet_id, reference_id, transaction_type) WHERE reference_id IS NOT NULL;
@@ -0,0 +1,93 @@
+package com.riyada.walletservice.client;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentRetryInterceptorTest {
+
+    private final IdempotentRetryInterceptor interceptor = new IdempotentRetryInterceptor();
+
+    @Mock
+    private Interceptor.Chain chain;
+
+    @Test
+    void testIntercept_GetRetriedOnceAfterConnectionFailure() throws IOException {
+        // Given - a pooled connection the server already closed
+        Request request = new Request.Builder().url("http://user-service/api/users/profile/42").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request))
+                .thenThrow(new IOException("unexpected end of stream"))
+                .thenReturn(ok(request));
+
+        // When
+        Response response = interceptor.intercept(chain);
+
+        // Then
+        assertEquals(200, response.code());
+        verify(chain, times(2)).proceed(request);
+    }
+
+    @Test
+    void testIntercept_GetNotRetriedTwice() throws IOException {
+        // Given
+        Request request = new Request.Builder().url("http://user-service/api/users/profile/42").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenThrow(new IOException("Connection reset"));
+
+        // When
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+
+        // Then
+        verify(chain, times(2)).proceed(request);
+    }
+
+    @Test
+    void testIntercept_TimeoutNotRetried() throws IOException {
+        // Given
+        Request request = new Request.Builder().url("http://user-service/api/users/profile/42").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenThrow(new SocketTimeoutException("timeout"));
+
+        // When
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(chain));
+
+        // Then
+        verify(chain, times(1)).proceed(any());
+    }
+
+    @Test
+    void testIntercept_PostNeverReplayed() throws IOException {
+        // Given - the request may have reached the server
+        Request request = new Request.Builder().url("http://user-service/api/users/profiles/batch")
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenThrow(new IOException("unexpected end of stream"));
+
+        // When
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+
+        // Then
+        verify(chain, times(1)).proceed(any());
+    }
+
+    private static Response ok(Request request) {
+        return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(200).message("OK").build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.riyada.walletservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the configured mutation policy (60 burst, 20/s) against a batch of
+ * 200 credits, as payment-service sends for a payroll of 200 recipients
+ */
+class RateLimitInterceptorTest {
+
+    private static final String SECRET = "test-jwt-secret-key-for-testing-only-32-bytes";
+    private static final int BATCH_SIZE = 200;
+
+    private JwtConfig jwtConfig;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtConfig, "expiration", 60000L);
+        ReflectionTestUtils.setField(jwtConfig, "serviceSubjects", List.of("payment-service"));
+
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPaths(List.of("/api/wallets/user/*/credit"));
+        policy.setCapacity(60);
+        policy.setRefillPerSecond(20);
+        interceptor = new RateLimitInterceptor("mutation", policy, new RateLimitProperties(), jwtConfig,
+                new ObjectMapper(), null);
+    }
+
+    @Test
+    void testPreHandle_BatchLargerThanBucketUnderServiceTokenIsNotLimited() throws Exception {
+        String token = serviceToken("payment-service");
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertTrue(interceptor.preHandle(credit(UUID.randomUUID(), token), response, null),
+                    "credit " + i + " was rate limited");
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    @Test
+    void testPreHandle_BatchLargerThanBucketUnderUserTokenIsLimited() throws Exception {
+        String token = userToken(UUID.randomUUID());
+
+        int rejected = 0;
+        MockHttpServletResponse last = null;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            if (!interceptor.preHandle(credit(UUID.randomUUID(), token), response, null)) {
+                rejected++;
+                last = response;
+            }
+        }
+
+        assertTrue(rejected > 0);
+        assertEquals(429, last.getStatus());
+        assertNotNull(last.getHeader("Retry-After"));
+    }
+
+    @Test
+    void testPreHandle_OtherMethodsAreNotLimited() throws Exception {
+        String token = userToken(UUID.randomUUID());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            MockHttpServletRequest request = credit(UUID.randomUUID(), token);
+            request.setMethod("GET");
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        }
+    }
+
+    private static MockHttpServletRequest credit(UUID userId, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/api/wallets/user/" + userId + "/credit");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static String userToken(UUID userId) {
+        return Jwts.builder()
+                .setSubject("sender@example.com")
+                .claim("userId", userId.toString())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String serviceToken(String serviceName) {
+        return Jwts.builder()
+                .setSubject(serviceName)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,104 @@
+package com.riyada.walletservice.controller;
+
+import com.riyada.walletservice.config.JwtConfig;
+import com.riyada.walletservice.config.SecurityConfig;
+import com.riyada.walletservice.dto.WalletResponseDTO;
+import com.riyada.walletservice.service.TransactionExportService;
+import com.riyada.walletservice.service.WalletService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the batch endpoints through the real security chain with a stubbed
+ * JwtConfig: "user-token" is an end-user token, "service-token" a
+ * payment-service token
+ */
+@WebMvcTest(value = WalletController.class, properties = "rate-limit.enabled=false")
+@Import(SecurityConfig.class)
+class WalletControllerSecurityTest {
+
+    private static final String BATCH = "{\"entries\": [{\"amount\": 10.00, \"description\": \"Leg\", "
+            + "\"referenceId\": \"PAY-1\"}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private WalletService walletService;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private JwtConfig jwtConfig;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtConfig.getUsernameFromToken(any())).thenReturn("alice@example.com");
+        when(jwtConfig.validateToken(any(), any())).thenReturn(true);
+        when(jwtConfig.isServiceToken("user-token")).thenReturn(false);
+        when(jwtConfig.isServiceToken("service-token")).thenReturn(true);
+    }
+
+    @Test
+    void testDebitBatch_UserTokenForbidden() throws Exception {
+        // When & Then - a user cannot post entries with arbitrary references
+        mockMvc.perform(post("/api/wallets/user/" + UUID.randomUUID() + "/debit-batch")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BATCH))
+                .andExpect(status().isForbidden());
+        verify(walletService, never()).debitWalletBatch(any(), anyList());
+    }
+
+    @Test
+    void testCreditBatch_UserTokenForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/wallets/user/" + UUID.randomUUID() + "/credit-batch")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BATCH))
+                .andExpect(status().isForbidden());
+        verify(walletService, never()).creditWalletBatch(any(), anyList());
+    }
+
+    @Test
+    void testCreditBatch_ServiceTokenAllowed() throws Exception {
+        // Given
+        when(walletService.creditWalletBatch(any(), anyList())).thenReturn(new WalletResponseDTO());
+
+        // When & Then
+        mockMvc.perform(post("/api/wallets/user/" + UUID.randomUUID() + "/credit-batch")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer service-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BATCH))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCredit_UserTokenStillAllowed() throws Exception {
+        // Given
+        when(walletService.creditWallet(any(), any(), any(), any())).thenReturn(new WalletResponseDTO());
+
+        // When & Then
+        mockMvc.perform(post("/api/wallets/user/" + UUID.randomUUID() + "/credit")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer user-token")
+                .param("amount", "10.00"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,180 @@
+package com.riyada.walletservice.service;
+
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.repository.WalletTransactionRepository;
+import com.riyada.walletservice.util.MappedJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the journal's transaction synchronization by hand: a "crash" is a
+ * MUTATIONS record written before commit with no afterCompletion
+ */
+@ExtendWith(MockitoExtension.class)
+class WalletJournalTest {
+
+    private static final byte MUTATIONS = 1;
+    private static final byte COMMITTED = 2;
+    private static final byte ROLLED_BACK = 3;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private WalletTransactionRepository walletTransactionRepository;
+
+    private final List<WalletJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(WalletJournal::shutdown);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecover_CommittedMutationWithoutOutcome() throws Exception {
+        UUID transactionId = UUID.randomUUID();
+        WalletJournal journal = open();
+        long sequence = journalWithoutOutcome(journal, transactionId);
+        journal.shutdown();
+        when(walletTransactionRepository.existsById(transactionId)).thenReturn(true);
+
+        open();
+
+        verify(walletTransactionRepository).existsById(transactionId);
+        assertEquals(List.of((long) COMMITTED, sequence), lastOutcome());
+    }
+
+    @Test
+    void testRecover_RolledBackMutationWithoutOutcome() throws Exception {
+        UUID transactionId = UUID.randomUUID();
+        WalletJournal journal = open();
+        long sequence = journalWithoutOutcome(journal, transactionId);
+        journal.shutdown();
+        when(walletTransactionRepository.existsById(transactionId)).thenReturn(false);
+
+        open();
+
+        assertEquals(List.of((long) ROLLED_BACK, sequence), lastOutcome());
+    }
+
+    @Test
+    void testRecover_MutationWithOutcomeIsLeftAlone() throws Exception {
+        WalletJournal journal = open();
+        TransactionSynchronization pending = journalMutation(journal, UUID.randomUUID());
+        pending.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        journal.shutdown();
+
+        open();
+
+        verify(walletTransactionRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testRetireSegments_KeepsSegmentWithRecordAwaitingOutcome() throws Exception {
+        WalletJournal journal = open();
+        // Swap in 512-byte segments, a few records each, so a handful of commits roll several
+        ((MappedJournal) ReflectionTestUtils.getField(journal, "journal")).close();
+        MappedJournal mapped = new MappedJournal(directory.resolve("small"), 512, false);
+        ReflectionTestUtils.setField(journal, "journal", mapped);
+
+        // A commit is in flight while others fill several segments
+        TransactionSynchronization inFlight = journalMutation(journal, UUID.randomUUID());
+        for (int i = 0; i < 20; i++) {
+            journalMutation(journal, UUID.randomUUID()).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        int segments = mapped.segmentCount();
+        assertTrue(segments > 2);
+
+        journal.retireSegments();
+        assertEquals(segments, mapped.segmentCount());
+
+        inFlight.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        journal.retireSegments();
+        assertEquals(2, mapped.segmentCount());
+    }
+
+    private WalletJournal open() throws Exception {
+        WalletJournal journal = new WalletJournal();
+        ReflectionTestUtils.setField(journal, "walletTransactionRepository", walletTransactionRepository);
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        ReflectionTestUtils.setField(journal, "syncTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(journal, "retainSegments", 2);
+        journal.init();
+        opened.add(journal);
+        return journal;
+    }
+
+    private long journalWithoutOutcome(WalletJournal journal, UUID transactionId) {
+        journalMutation(journal, transactionId);
+        MappedJournal mapped = (MappedJournal) ReflectionTestUtils.getField(journal, "journal");
+        return mapped.lastSequence();
+    }
+
+    /**
+     * Record one transaction and write its MUTATIONS record, as a commit
+     * would; the caller decides whether it completes
+     */
+    private TransactionSynchronization journalMutation(WalletJournal journal, UUID transactionId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Wallet wallet = new Wallet(UUID.randomUUID());
+            wallet.setId(UUID.randomUUID());
+            WalletTransaction transaction = new WalletTransaction(wallet.getId(),
+                    WalletTransaction.TransactionType.CREDIT, new BigDecimal("10.00"), BigDecimal.ZERO,
+                    new BigDecimal("10.00"), "test", "PAY-1");
+            transaction.setId(transactionId);
+            journal.record(wallet, List.of(transaction));
+
+            TransactionSynchronization pending = TransactionSynchronizationManager.getSynchronizations().get(0);
+            pending.beforeCommit(false);
+            TransactionSynchronizationManager.unbindResourceIfPossible(journal);
+            return pending;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Type and mutations sequence of the journal's last record, read back
+     * from disk
+     */
+    private List<Long> lastOutcome() throws Exception {
+        List<Long> last = new ArrayList<>();
+        try (MappedJournal mapped = new MappedJournal(directory, 1024 * 1024, false)) {
+            mapped.replay(1, (sequence, payload) -> {
+                last.clear();
+                byte type = payload.get();
+                payload.getLong();
+                last.add((long) type);
+                if (type != MUTATIONS) {
+                    last.add(payload.getLong());
+                }
+            });
+        }
+        return last;
+    }
+}
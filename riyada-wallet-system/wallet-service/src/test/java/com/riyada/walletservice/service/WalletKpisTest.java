@@ -0,0 +1,247 @@
+package com.riyada.walletservice.service;
+
+import com.riyada.walletservice.client.UserServiceClient;
+import com.riyada.walletservice.dto.WalletBatchEntryDTO;
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.event.WalletEventPublisher;
+import com.riyada.walletservice.repository.WalletRepository;
+import com.riyada.walletservice.repository.WalletTransactionRepository;
+import com.riyada.walletservice.util.KpiAccumulator;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks what reaches the wallet_movements series by draining the
+ * accumulator directly; transaction outcomes are driven by hand
+ */
+@ExtendWith(MockitoExtension.class)
+class WalletKpisTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private WalletEventPublisher walletEventPublisher;
+
+    @Mock
+    private WalletJournal walletJournal;
+
+    @InjectMocks
+    private WalletService walletService;
+
+    private WalletKpis walletKpis;
+
+    @BeforeEach
+    void setUp() {
+        walletKpis = new WalletKpis();
+        ReflectionTestUtils.setField(walletKpis, "enabled", true);
+        ReflectionTestUtils.setField(walletKpis, "url", "http://localhost:8086");
+        ReflectionTestUtils.setField(walletKpis, "org", "riyada");
+        ReflectionTestUtils.setField(walletKpis, "bucket", "riyada_metrics");
+        ReflectionTestUtils.setField(walletKpis, "token", "");
+        ReflectionTestUtils.setField(walletKpis, "batchLines", 5000);
+        ReflectionTestUtils.setField(walletKpis, "maxBufferedLines", 100000);
+        ReflectionTestUtils.setField(walletKpis, "timeoutMillis", 5000L);
+        walletKpis.init();
+        ReflectionTestUtils.setField(walletService, "walletKpis", walletKpis);
+        ReflectionTestUtils.setField(walletService, "tracer", Tracer.NOOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecordMovements_CountsByType() {
+        // Given
+        UUID walletId = UUID.randomUUID();
+
+        // When
+        walletKpis.recordMovements(List.of(
+                movement(walletId, WalletTransaction.TransactionType.CREDIT, "10.00"),
+                movement(walletId, WalletTransaction.TransactionType.CREDIT, "5.00"),
+                movement(walletId, WalletTransaction.TransactionType.DEBIT, "2.50")));
+
+        // Then
+        List<String> lines = drain();
+        assertEquals(2, lines.size());
+        assertSeries(lines.get(0), "credit", "count=2i,amount=15.00");
+        assertSeries(lines.get(1), "debit", "count=1i,amount=2.50");
+    }
+
+    @Test
+    void testRecordMovements_DeferredUntilCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        walletKpis.recordMovements(List.of(
+                movement(UUID.randomUUID(), WalletTransaction.TransactionType.CREDIT, "10.00")));
+
+        // Then
+        assertTrue(drain().isEmpty());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        List<String> lines = drain();
+        assertEquals(1, lines.size());
+        assertSeries(lines.get(0), "credit", "count=1i,amount=10.00");
+    }
+
+    @Test
+    void testRecordMovements_RolledBackNotCounted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        walletKpis.recordMovements(List.of(
+                movement(UUID.randomUUID(), WalletTransaction.TransactionType.DEBIT, "10.00")));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    void testRecordMovements_Disabled() {
+        // Given
+        ReflectionTestUtils.setField(walletKpis, "enabled", false);
+
+        // When
+        walletKpis.recordMovements(List.of(
+                movement(UUID.randomUUID(), WalletTransaction.TransactionType.CREDIT, "10.00")));
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    void testCreditWallet_RecordsCredit() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet(userId, "0.00")));
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletTransactionRepository.save(any(WalletTransaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        walletService.creditWallet(userId, new BigDecimal("7.25"), "Top up", "PAY-1");
+
+        // Then
+        List<String> lines = drain();
+        assertEquals(1, lines.size());
+        assertSeries(lines.get(0), "credit", "count=1i,amount=7.25");
+    }
+
+    @Test
+    void testDebitWalletBatch_RecordsEachEntry() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet(userId, "100.00")));
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        walletService.debitWalletBatch(userId, List.of(
+                new WalletBatchEntryDTO(new BigDecimal("10.00"), "Leg 1", "PAY-1"),
+                new WalletBatchEntryDTO(new BigDecimal("20.00"), "Leg 2", "PAY-2")));
+
+        // Then
+        List<String> lines = drain();
+        assertEquals(1, lines.size());
+        assertSeries(lines.get(0), "debit", "count=2i,amount=30.00");
+    }
+
+    @Test
+    void testTransferAmount_RecordsBothSides() {
+        // Given
+        UUID fromUserId = UUID.randomUUID();
+        UUID toUserId = UUID.randomUUID();
+        when(walletRepository.findActiveWalletByUserId(fromUserId))
+                .thenReturn(Optional.of(wallet(fromUserId, "50.00")));
+        when(walletRepository.findActiveWalletByUserId(toUserId)).thenReturn(Optional.of(wallet(toUserId, "0.00")));
+        when(walletTransactionRepository.save(any(WalletTransaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        walletService.transferAmount(fromUserId, toUserId, new BigDecimal("12.00"), null);
+
+        // Then
+        List<String> lines = drain();
+        assertEquals(2, lines.size());
+        assertSeries(lines.get(0), "credit", "count=1i,amount=12.00");
+        assertSeries(lines.get(1), "debit", "count=1i,amount=12.00");
+    }
+
+    @Test
+    void testDebitWalletBatch_InsufficientBalanceNotCounted() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet(userId, "5.00")));
+
+        // When
+        assertThrows(RuntimeException.class, () -> walletService.debitWalletBatch(userId,
+                List.of(new WalletBatchEntryDTO(new BigDecimal("10.00"), "Leg 1", "PAY-1"))));
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    private List<String> drain() {
+        KpiAccumulator accumulator = (KpiAccumulator) ReflectionTestUtils.getField(walletKpis, "accumulator");
+        return accumulator.drain(1L);
+    }
+
+    private static void assertSeries(String line, String type, String fields) {
+        assertTrue(line.startsWith("wallet_movements,type=" + type + ",service=wallet-service,instance="), line);
+        assertTrue(line.endsWith(" " + fields + " 1"), line);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static Wallet wallet(UUID userId, String balance) {
+        Wallet wallet = new Wallet(userId);
+        wallet.setId(UUID.randomUUID());
+        wallet.setBalance(new BigDecimal(balance));
+        return wallet;
+    }
+
+    private static WalletTransaction movement(UUID walletId, WalletTransaction.TransactionType type, String amount) {
+        return new WalletTransaction(walletId, type, new BigDecimal(amount), BigDecimal.ZERO, BigDecimal.ZERO,
+                "Movement");
+    }
+}
@@ -0,0 +1,184 @@
+package com.riyada.walletservice.service;
+
+import com.riyada.walletservice.client.UserServiceClient;
+import com.riyada.walletservice.dto.WalletBatchEntryDTO;
+import com.riyada.walletservice.dto.WalletResponseDTO;
+import com.riyada.walletservice.entity.Wallet;
+import com.riyada.walletservice.entity.WalletTransaction;
+import com.riyada.walletservice.event.WalletEventPublisher;
+import com.riyada.walletservice.repository.WalletRepository;
+import com.riyada.walletservice.repository.WalletTransactionRepository;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletServiceTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private WalletEventPublisher walletEventPublisher;
+
+    @Mock
+    private WalletJournal walletJournal;
+
+    @Mock
+    private WalletKpis walletKpis;
+
+    @InjectMocks
+    private WalletService walletService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(walletService, "tracer", Tracer.NOOP);
+    }
+
+    @Test
+    void testCreditWallet_RetryForAppliedReferenceNotAppliedAgain() {
+        // Given - the first credit for PAY-1 committed, but its response was lost
+        UUID userId = UUID.randomUUID();
+        Wallet wallet = wallet(userId, "40.00");
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet));
+        when(walletTransactionRepository.existsByWalletIdAndReferenceIdAndTransactionType(wallet.getId(), "PAY-1",
+                WalletTransaction.TransactionType.CREDIT)).thenReturn(true);
+
+        // When
+        WalletResponseDTO response = walletService.creditWallet(userId, new BigDecimal("25.00"), "Retry", "PAY-1");
+
+        // Then
+        assertEquals(0, new BigDecimal("40.00").compareTo(response.getBalance()));
+        verify(walletRepository, never()).save(any());
+        verify(walletTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreditWallet_ReversalOfSameReferenceIsApplied() {
+        // Given - the sender's wallet only has the DEBIT for PAY-1
+        UUID userId = UUID.randomUUID();
+        Wallet wallet = wallet(userId, "15.00");
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletTransactionRepository.save(any(WalletTransaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        WalletResponseDTO response = walletService.creditWallet(userId, new BigDecimal("25.00"), "Reversal",
+                "PAY-1");
+
+        // Then
+        assertEquals(0, new BigDecimal("40.00").compareTo(response.getBalance()));
+        verify(walletTransactionRepository).existsByWalletIdAndReferenceIdAndTransactionType(wallet.getId(),
+                "PAY-1", WalletTransaction.TransactionType.CREDIT);
+    }
+
+    @Test
+    void testDebitWallet_RetryForAppliedReferenceSkipsBalanceCheck() {
+        // Given - the balance no longer covers a second debit
+        UUID userId = UUID.randomUUID();
+        Wallet wallet = wallet(userId, "5.00");
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet));
+        when(walletTransactionRepository.existsByWalletIdAndReferenceIdAndTransactionType(wallet.getId(), "PAY-1",
+                WalletTransaction.TransactionType.DEBIT)).thenReturn(true);
+
+        // When
+        WalletResponseDTO response = walletService.debitWallet(userId, new BigDecimal("25.00"), "Retry", "PAY-1");
+
+        // Then
+        assertEquals(0, new BigDecimal("5.00").compareTo(response.getBalance()));
+        verify(walletRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreditWallet_WithoutReferenceAlwaysApplied() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet(userId, "0.00")));
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletTransactionRepository.save(any(WalletTransaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        walletService.creditWallet(userId, new BigDecimal("10.00"), "Top up");
+
+        // Then
+        verify(walletTransactionRepository, never()).existsByWalletIdAndReferenceIdAndTransactionType(any(), any(),
+                any());
+        verify(walletTransactionRepository).save(any(WalletTransaction.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDebitWalletBatch_SkipsAppliedEntries() {
+        // Given - PAY-1 was debited by an earlier attempt of this batch
+        UUID userId = UUID.randomUUID();
+        Wallet wallet = wallet(userId, "25.00");
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet));
+        when(walletTransactionRepository.findAppliedReferenceIds(wallet.getId(),
+                WalletTransaction.TransactionType.DEBIT, Set.of("PAY-1", "PAY-2"))).thenReturn(List.of("PAY-1"));
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When - only PAY-2 has to fit in the balance
+        WalletResponseDTO response = walletService.debitWalletBatch(userId, List.of(
+                new WalletBatchEntryDTO(new BigDecimal("30.00"), "Leg 1", "PAY-1"),
+                new WalletBatchEntryDTO(new BigDecimal("20.00"), "Leg 2", "PAY-2")));
+
+        // Then
+        assertEquals(0, new BigDecimal("5.00").compareTo(response.getBalance()));
+        ArgumentCaptor<List<WalletTransaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(walletTransactionRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("PAY-2", saved.getValue().get(0).getReferenceId());
+    }
+
+    @Test
+    void testCreditWalletBatch_AllAppliedIsANoOp() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        Wallet wallet = wallet(userId, "10.00");
+        when(walletRepository.findActiveWalletByUserId(userId)).thenReturn(Optional.of(wallet));
+        when(walletTransactionRepository.findAppliedReferenceIds(eq(wallet.getId()),
+                eq(WalletTransaction.TransactionType.CREDIT), any())).thenReturn(List.of("PAY-1"));
+
+        // When
+        WalletResponseDTO response = walletService.creditWalletBatch(userId,
+                List.of(new WalletBatchEntryDTO(new BigDecimal("30.00"), "Reversal", "PAY-1")));
+
+        // Then
+        assertEquals(0, new BigDecimal("10.00").compareTo(response.getBalance()));
+        verify(walletRepository, never()).save(any());
+        verify(walletTransactionRepository, never()).saveAll(anyList());
+    }
+
+    private static Wallet wallet(UUID userId, String balance) {
+        Wallet wallet = new Wallet(userId);
+        wallet.setId(UUID.randomUUID());
+        wallet.setBalance(new BigDecimal(balance));
+        return wallet;
+    }
+}
@@ -0,0 +1,185 @@
+package com.riyada.walletservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Segments of 256 bytes hold ten 24-byte records, so record n is in the
+ * segment starting at sequence 10 * ((n - 1) / 10) + 1
+ */
+class MappedJournalTest {
+
+    private static final int SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppend_AssignsConsecutiveSequences() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            assertEquals(1, journal.append(record(1)));
+            assertEquals(2, journal.append(record(2)));
+            assertEquals(2, journal.lastSequence());
+        }
+    }
+
+    @Test
+    void testReplay_AcrossSegmentRoll() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(record(i));
+            }
+            assertEquals(2, journal.segmentCount());
+
+            assertEquals(sequence(1, 20), replay(journal, 1));
+            assertEquals(sequence(9, 20), replay(journal, 9));
+            // Starting past the first segment skips it
+            assertEquals(sequence(15, 20), replay(journal, 15));
+        }
+    }
+
+    @Test
+    void testReopen_ContinuesAfterLastSegment() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, true)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.awaitDurable(journal.append(record(i)), 5000);
+            }
+        }
+
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            assertEquals(20, journal.lastSequence());
+            assertEquals(21, journal.append(record(21)));
+            assertEquals(sequence(1, 21), replay(journal, 1));
+        }
+    }
+
+    @Test
+    void testRecoverTail_TruncatesTornRecord() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(record(i));
+            }
+        }
+        // Flip a payload byte of the third record, as a crash mid-write would leave it
+        Path segment = segments().get(0);
+        int thirdPayload = 2 * 24 + 16;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), thirdPayload);
+        }
+
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            assertEquals(2, journal.lastSequence());
+            // The torn record's sequence is reused and nothing of it is left
+            assertEquals(3, journal.append(record(30)));
+            List<Integer> payloads = new ArrayList<>();
+            journal.replay(1, (sequence, payload) -> payloads.add(payload.getInt()));
+            assertEquals(List.of(1, 2, 30), payloads);
+        }
+    }
+
+    @Test
+    void testReplay_StopsSegmentAtCorruptRecord() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(record(i));
+            }
+            // Corrupt record 2 of the first, already closed, segment
+            try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 24 + 16);
+            }
+
+            List<Long> expected = new ArrayList<>(List.of(1L));
+            expected.addAll(sequence(11, 20));
+            assertEquals(expected, replay(journal, 1));
+        }
+    }
+
+    @Test
+    void testRetire_KeepsNewestSegments() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            for (int i = 1; i <= 50; i++) {
+                journal.append(record(i));
+            }
+            assertEquals(5, journal.segmentCount());
+
+            assertEquals(3, journal.retire(journal.lastSequence() + 1, 2));
+
+            assertEquals(2, journal.segmentCount());
+            assertEquals(2, segments().size());
+            assertEquals(sequence(31, 50), replay(journal, 1));
+            assertEquals(51, journal.append(record(51)));
+        }
+    }
+
+    @Test
+    void testRetire_KeepsSegmentsAtOrAfterSequence() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            for (int i = 1; i <= 50; i++) {
+                journal.append(record(i));
+            }
+
+            // Record 18, in the second segment, still needs its outcome
+            assertEquals(1, journal.retire(18, 1));
+
+            assertEquals(4, journal.segmentCount());
+            assertEquals(sequence(11, 50), replay(journal, 1));
+        }
+    }
+
+    @Test
+    void testRetire_SurvivesReopen() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            for (int i = 1; i <= 50; i++) {
+                journal.append(record(i));
+            }
+            journal.retire(journal.lastSequence() + 1, 2);
+        }
+
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_BYTES, false)) {
+            assertEquals(50, journal.lastSequence());
+            assertEquals(31, journal.recentSegmentsStart(2));
+            assertEquals(sequence(31, 50), replay(journal, 1));
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.sorted().toList();
+        }
+    }
+
+    private static List<Long> replay(MappedJournal journal, long from) {
+        List<Long> sequences = new ArrayList<>();
+        journal.replay(from, (sequence, payload) -> {
+            assertEquals(sequence.intValue(), payload.getInt());
+            sequences.add(sequence);
+        });
+        return sequences;
+    }
+
+    private static List<Long> sequence(long from, long to) {
+        List<Long> sequences = new ArrayList<>();
+        for (long i = from; i <= to; i++) {
+            sequences.add(i);
+        }
+        return sequences;
+    }
+
+    // 8-byte payload: the record number and padding, for 24 bytes with the header
+    private static byte[] record(int number) {
+        return ByteBuffer.allocate(8).putInt(number).put("pad!".getBytes(StandardCharsets.US_ASCII)).array();
+    }
+}